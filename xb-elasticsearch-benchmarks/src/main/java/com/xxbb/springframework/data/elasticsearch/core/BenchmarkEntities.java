@@ -0,0 +1,145 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.DateFormat;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the documents in src/main/resources/fixtures are written by these entities, keep both in sync
+public final class BenchmarkEntities {
+
+    private BenchmarkEntities() {}
+
+    public enum Category {
+        BOOKS, MUSIC, VIDEO
+    }
+
+    @Document(indexName = "benchmark-flat", createIndex = false)
+    public static class Flat {
+        @Id
+        String id;
+        String name;
+        String description;
+        int count;
+        long views;
+        double rating;
+        boolean active;
+        Category category;
+
+        public static Flat create(int i) {
+            Flat flat = new Flat();
+            flat.id = String.valueOf(i);
+            flat.name = "name-" + i;
+            flat.description = "flat document number " + i + " used to measure plain property conversion";
+            flat.count = i;
+            flat.views = i * 1000L;
+            flat.rating = i % 5 + 0.5;
+            flat.active = i % 2 == 0;
+            flat.category = Category.values()[i % Category.values().length];
+            return flat;
+        }
+    }
+
+    @Document(indexName = "benchmark-nested", createIndex = false)
+    public static class Nested {
+        @Id
+        String id;
+        String title;
+        Author author;
+
+        public static Nested create(int i) {
+            Address address = new Address();
+            address.street = i + " Main Street";
+            address.city = "Springfield";
+            address.zip = String.format("%05d", i);
+
+            Author author = new Author();
+            author.name = "author-" + i;
+            author.email = "author-" + i + "@example.com";
+            author.address = address;
+
+            Nested nested = new Nested();
+            nested.id = String.valueOf(i);
+            nested.title = "nested document number " + i;
+            nested.author = author;
+            return nested;
+        }
+    }
+
+    public static class Author {
+        String name;
+        String email;
+        Address address;
+    }
+
+    public static class Address {
+        String street;
+        String city;
+        String zip;
+    }
+
+    @Document(indexName = "benchmark-collections", createIndex = false)
+    public static class Collections {
+        @Id
+        String id;
+        List<String> tags;
+        List<Comment> comments;
+        Map<String, Integer> counters;
+
+        public static Collections create(int i) {
+            Collections collections = new Collections();
+            collections.id = String.valueOf(i);
+            collections.tags = Arrays.asList("tag-" + i, "tag-" + (i + 1), "tag-" + (i + 2));
+            collections.comments = Arrays.asList(Comment.create(i, 0), Comment.create(i, 1), Comment.create(i, 2));
+            collections.counters = new LinkedHashMap<>();
+            collections.counters.put("likes", i);
+            collections.counters.put("shares", i * 2);
+            return collections;
+        }
+    }
+
+    public static class Comment {
+        String author;
+        String text;
+        int likes;
+
+        static Comment create(int i, int n) {
+            Comment comment = new Comment();
+            comment.author = "commenter-" + n;
+            comment.text = "comment " + n + " on document " + i;
+            comment.likes = i + n;
+            return comment;
+        }
+    }
+
+    @Document(indexName = "benchmark-dates", createIndex = false)
+    public static class Dates {
+        @Id
+        String id;
+        @Field(type = FieldType.Date, format = DateFormat.custom, pattern = "uuuu-MM-dd")
+        LocalDate day;
+        @Field(type = FieldType.Date, format = DateFormat.custom, pattern = "uuuu-MM-dd'T'HH:mm:ss")
+        LocalDateTime created;
+        @Field(type = FieldType.Date, format = DateFormat.custom, pattern = "uuuu-MM-dd")
+        List<LocalDate> history;
+
+        public static Dates create(int i) {
+            LocalDate day = LocalDate.of(2020, 1, 1).plusDays(i);
+
+            Dates dates = new Dates();
+            dates.id = String.valueOf(i);
+            dates.day = day;
+            dates.created = day.atTime(12, 30, i % 60);
+            dates.history = Arrays.asList(day.minusDays(2), day.minusDays(1));
+            return dates;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+// canned responses are parsed once with the client's own parsers, so the benchmarks never touch the network
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    static MappingElasticsearchConverter converter(boolean conversionPlansEnabled) {
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setInitialEntitySet(new HashSet<>(Arrays.asList(BenchmarkEntities.Flat.class, BenchmarkEntities.Nested.class,
+                BenchmarkEntities.Collections.class, BenchmarkEntities.Dates.class)));
+        mappingContext.afterPropertiesSet();
+
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.setConversionPlansEnabled(conversionPlansEnabled);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    static SearchResponse searchResponse(String name) {
+        try (XContentParser parser = parser(name)) {
+            return SearchResponse.fromXContent(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static GetResponse getResponse(String name) {
+        try (XContentParser parser = parser(name)) {
+            return GetResponse.fromXContent(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static XContentParser parser(String name) throws IOException {
+        String json = StreamUtils.copyToString(new ClassPathResource("fixtures/" + name).getInputStream(), StandardCharsets.UTF_8);
+        return XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, json);
+    }
+}
@@ -0,0 +1,56 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkRequestBenchmark {
+
+    @Param({"1000", "10000"})
+    int items;
+
+    @Param({"true", "false"})
+    boolean conversionPlans;
+
+    private final IndexCoordinates index = IndexCoordinates.of("benchmark-nested");
+
+    private RequestFactory requestFactory;
+    private List<IndexQuery> indexQueries;
+    private List<DeleteQuery> deleteQueries;
+
+    @Setup
+    public void setUp() {
+        requestFactory = new RequestFactory(BenchmarkFixtures.converter(conversionPlans));
+        indexQueries = new ArrayList<>(items);
+        deleteQueries = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            BenchmarkEntities.Nested entity = BenchmarkEntities.Nested.create(i);
+            indexQueries.add(new IndexQueryBuilder().withId(entity.id).withObject(entity).build());
+            deleteQueries.add(DeleteQuery.of(entity.id));
+        }
+    }
+
+    @Benchmark
+    public BulkRequest bulkIndex() {
+        return requestFactory.bulkRequest(indexQueries, BulkOptions.defaultOptions(), index);
+    }
+
+    @Benchmark
+    public BulkRequest bulkDelete() {
+        return requestFactory.bulkRequest(deleteQueries, BulkOptions.defaultOptions(), index);
+    }
+}
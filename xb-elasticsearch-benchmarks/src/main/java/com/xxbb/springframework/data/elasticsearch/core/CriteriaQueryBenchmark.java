@@ -0,0 +1,56 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.Criteria;
+import com.xxbb.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaQueryBenchmark {
+
+    private final CriteriaQueryProcessor processor = new CriteriaQueryProcessor();
+    private final IndexCoordinates index = IndexCoordinates.of("benchmark-flat");
+
+    private RequestFactory requestFactory;
+    private Criteria simple;
+    private Criteria compound;
+    private CriteriaQuery query;
+
+    @Setup
+    public void setUp() {
+        requestFactory = new RequestFactory(BenchmarkFixtures.converter(true));
+
+        simple = Criteria.where("name").is("name-1");
+        compound = Criteria.where("name").is("name-1")
+                .and("description").contains("document")
+                .and("count").between(10, 100)
+                .and("category").in("BOOKS", "MUSIC")
+                .or(Criteria.where("active").is(true).and("rating").between(2.5, null));
+        query = new CriteriaQuery(compound, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public QueryBuilder simpleQuery() {
+        return processor.createQuery(simple);
+    }
+
+    @Benchmark
+    public QueryBuilder compoundQuery() {
+        return processor.createQuery(compound);
+    }
+
+    @Benchmark
+    public SearchRequest searchRequest() {
+        return requestFactory.searchRequest(query, BenchmarkEntities.Flat.class, index);
+    }
+}
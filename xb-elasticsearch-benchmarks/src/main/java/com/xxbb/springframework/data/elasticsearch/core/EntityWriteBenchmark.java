@@ -0,0 +1,59 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityWriteBenchmark {
+
+    @Param({"true", "false"})
+    boolean conversionPlans;
+
+    private MappingElasticsearchConverter converter;
+    private BenchmarkEntities.Flat flat;
+    private BenchmarkEntities.Nested nested;
+    private BenchmarkEntities.Collections collections;
+    private BenchmarkEntities.Dates dates;
+
+    @Setup
+    public void setUp() {
+        converter = BenchmarkFixtures.converter(conversionPlans);
+        flat = BenchmarkEntities.Flat.create(1);
+        nested = BenchmarkEntities.Nested.create(1);
+        collections = BenchmarkEntities.Collections.create(1);
+        dates = BenchmarkEntities.Dates.create(1);
+    }
+
+    @Benchmark
+    public BytesReference writeFlat() {
+        return converter.mapObjectToBytes(flat);
+    }
+
+    @Benchmark
+    public String writeFlatThroughMap() {
+        return converter.mapObject(flat).toJson();
+    }
+
+    @Benchmark
+    public BytesReference writeNested() {
+        return converter.mapObjectToBytes(nested);
+    }
+
+    @Benchmark
+    public BytesReference writeCollections() {
+        return converter.mapObjectToBytes(collections);
+    }
+
+    @Benchmark
+    public BytesReference writeDates() {
+        return converter.mapObjectToBytes(dates);
+    }
+}
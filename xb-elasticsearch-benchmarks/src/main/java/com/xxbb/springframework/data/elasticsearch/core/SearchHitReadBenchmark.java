@@ -0,0 +1,77 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.document.DocumentAdapters;
+import com.xxbb.springframework.data.elasticsearch.core.document.SearchDocument;
+import com.xxbb.springframework.data.elasticsearch.core.document.SearchDocumentResponse;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// every fixture holds 100 hits, one invocation maps a whole response the way ReadSearchDocumentResponseCallback does
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchHitReadBenchmark {
+
+    @Param({"true", "false"})
+    boolean conversionPlans;
+
+    private MappingElasticsearchConverter converter;
+    private SearchResponse flat;
+    private SearchResponse nested;
+    private SearchResponse collections;
+    private SearchResponse dates;
+    private GetResponse get;
+
+    @Setup
+    public void setUp() {
+        converter = BenchmarkFixtures.converter(conversionPlans);
+        flat = BenchmarkFixtures.searchResponse("search-flat.json");
+        nested = BenchmarkFixtures.searchResponse("search-nested.json");
+        collections = BenchmarkFixtures.searchResponse("search-collections.json");
+        dates = BenchmarkFixtures.searchResponse("search-dates.json");
+        get = BenchmarkFixtures.getResponse("get-nested.json");
+    }
+
+    @Benchmark
+    public SearchHits<BenchmarkEntities.Flat> readFlat() {
+        return read(flat, BenchmarkEntities.Flat.class);
+    }
+
+    @Benchmark
+    public SearchHits<BenchmarkEntities.Nested> readNested() {
+        return read(nested, BenchmarkEntities.Nested.class);
+    }
+
+    @Benchmark
+    public SearchHits<BenchmarkEntities.Collections> readCollections() {
+        return read(collections, BenchmarkEntities.Collections.class);
+    }
+
+    @Benchmark
+    public SearchHits<BenchmarkEntities.Dates> readDates() {
+        return read(dates, BenchmarkEntities.Dates.class);
+    }
+
+    @Benchmark
+    public BenchmarkEntities.Nested readGet() {
+        return converter.read(BenchmarkEntities.Nested.class, DocumentAdapters.from(get));
+    }
+
+    private <T> SearchHits<T> read(SearchResponse response, Class<T> type) {
+        SearchDocumentResponse documentResponse = SearchDocumentResponse.from(response);
+        List<T> entities = new ArrayList<>(documentResponse.getSearchDocuments().size());
+        for (SearchDocument document : documentResponse.getSearchDocuments()) {
+            entities.add(converter.read(type, document));
+        }
+        return SearchHitMapping.mappingFor(type, converter).mapHits(documentResponse, entities);
+    }
+}
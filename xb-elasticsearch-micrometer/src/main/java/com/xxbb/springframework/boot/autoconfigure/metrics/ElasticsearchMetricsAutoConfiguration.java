@@ -0,0 +1,43 @@
+package com.xxbb.springframework.boot.autoconfigure.metrics;
+
+import com.xxbb.springframework.boot.autoconfigure.data.ElasticsearchDataAutoConfiguration;
+import com.xxbb.springframework.boot.autoconfigure.data.ElasticsearchDataProperties;
+import com.xxbb.springframework.data.elasticsearch.client.HttpConnectionPool;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchMetricsRecorder;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.micrometer.HttpConnectionPoolMetrics;
+import com.xxbb.springframework.data.elasticsearch.micrometer.MicrometerElasticsearchMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ MeterRegistry.class, ElasticsearchRestTemplate.class })
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "spring.data.elasticsearch.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = { "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration" })
+@AutoConfigureBefore(ElasticsearchDataAutoConfiguration.class)
+@EnableConfigurationProperties(ElasticsearchDataProperties.class)
+public class ElasticsearchMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(ElasticsearchMetricsRecorder.class)
+    MicrometerElasticsearchMetricsRecorder elasticsearchMetricsRecorder(MeterRegistry registry, ElasticsearchDataProperties properties) {
+        return new MicrometerElasticsearchMetricsRecorder(registry, properties.getMetrics().isIndexTag());
+    }
+
+    @Bean
+    MeterBinder elasticsearchConnectionPoolMetrics(ObjectProvider<HttpConnectionPool> connectionPools) {
+        return registry -> connectionPools.orderedStream().forEach(pool -> new HttpConnectionPoolMetrics(pool).bindTo(registry));
+    }
+}
@@ -0,0 +1,71 @@
+package com.xxbb.springframework.data.elasticsearch.micrometer;
+
+import com.xxbb.springframework.data.elasticsearch.client.HttpCompression;
+import com.xxbb.springframework.data.elasticsearch.client.HttpConnectionPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.Assert;
+
+public class HttpConnectionPoolMetrics implements MeterBinder {
+    private final HttpConnectionPool connectionPool;
+    private final Tags tags;
+
+    public HttpConnectionPoolMetrics(HttpConnectionPool connectionPool) {
+        this(connectionPool, Tags.empty());
+    }
+
+    public HttpConnectionPoolMetrics(HttpConnectionPool connectionPool, Tags tags) {
+        Assert.notNull(connectionPool, "connectionPool must not be null");
+        Assert.notNull(tags, "tags must not be null");
+        this.connectionPool = connectionPool;
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("elasticsearch.client.pool.leased", connectionPool, HttpConnectionPool::getLeased)
+                .description("Connections currently executing a request")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("elasticsearch.client.pool.pending", connectionPool, HttpConnectionPool::getPending)
+                .description("Requests waiting for a connection")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("elasticsearch.client.pool.available", connectionPool, HttpConnectionPool::getAvailable)
+                .description("Idle connections ready to be reused")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("elasticsearch.client.pool.max", connectionPool, HttpConnectionPool::getMax)
+                .description("Maximum number of connections of the pool")
+                .tags(tags)
+                .register(registry);
+
+        connectionPool.getCompression().ifPresent(compression -> {
+            FunctionCounter.builder("elasticsearch.client.compression.saved", compression,
+                    c -> c.getRequestBytes() - c.getCompressedRequestBytes())
+                    .description("Bytes gzip kept off the wire")
+                    .baseUnit("bytes")
+                    .tags(tags).tag("direction", "request")
+                    .register(registry);
+            FunctionCounter.builder("elasticsearch.client.compression.saved", compression,
+                    c -> c.getResponseBytes() - c.getCompressedResponseBytes())
+                    .description("Bytes gzip kept off the wire")
+                    .baseUnit("bytes")
+                    .tags(tags).tag("direction", "response")
+                    .register(registry);
+            FunctionCounter.builder("elasticsearch.client.compression.compressed", compression, HttpCompression::getCompressedRequestBytes)
+                    .description("Bytes sent or received in compressed form")
+                    .baseUnit("bytes")
+                    .tags(tags).tag("direction", "request")
+                    .register(registry);
+            FunctionCounter.builder("elasticsearch.client.compression.compressed", compression, HttpCompression::getCompressedResponseBytes)
+                    .description("Bytes sent or received in compressed form")
+                    .baseUnit("bytes")
+                    .tags(tags).tag("direction", "response")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.xxbb.springframework.data.elasticsearch.micrometer;
+
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchMetricsRecorder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class MicrometerElasticsearchMetricsRecorder implements ElasticsearchMetricsRecorder {
+    private static final String NONE = "none";
+    private static final String REQUESTS = "elasticsearch.client.requests";
+    private static final String TOOK = "elasticsearch.client.took";
+    private static final String HITS = "elasticsearch.client.hits";
+    private static final String BULK_ITEMS = "elasticsearch.client.bulk.items";
+    private static final String BULK_PAYLOAD = "elasticsearch.client.bulk.payload";
+    private static final String CONVERSION = "elasticsearch.client.conversion";
+
+    private final MeterRegistry registry;
+    private final boolean indexTag;
+    // the builders look the meter up in the registry on every call, with a lock and a new id each time. Every request
+    // records up to five meters, so they are looked up once per tag combination
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public MicrometerElasticsearchMetricsRecorder(MeterRegistry registry) {
+        this(registry, true);
+    }
+
+    // time based index names can explode the tag cardinality, without the index tag every index reports as "none"
+    public MicrometerElasticsearchMetricsRecorder(MeterRegistry registry, boolean indexTag) {
+        Assert.notNull(registry, "registry must not be null");
+        this.registry = registry;
+        this.indexTag = indexTag;
+    }
+
+    @Override
+    public void recordRequest(String operation, @Nullable String index, long durationNanos, @Nullable Throwable error) {
+        String exception = error == null ? NONE : error.getClass().getSimpleName();
+        timers.computeIfAbsent(new MeterKey(REQUESTS, operation, indexTagValue(index), exception), key -> Timer.builder(REQUESTS)
+                .description("Client side latency of the requests sent to elasticsearch")
+                .tags(tags(key))
+                .tag("outcome", error == null ? "SUCCESS" : "ERROR")
+                .tag("exception", exception)
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordTook(String operation, @Nullable String index, long tookMillis) {
+        timers.computeIfAbsent(new MeterKey(TOOK, operation, indexTagValue(index), null), key -> Timer.builder(TOOK)
+                .description("Time elasticsearch reported in the took field of the response")
+                .tags(tags(key))
+                .register(registry))
+                .record(tookMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordHits(String operation, @Nullable String index, int hits) {
+        summaries.computeIfAbsent(new MeterKey(HITS, operation, indexTagValue(index), null), key -> DistributionSummary.builder(HITS)
+                .description("Number of hits returned per search response")
+                .tags(tags(key))
+                .register(registry))
+                .record(hits);
+    }
+
+    @Override
+    public void recordBulk(@Nullable String index, int items, long payloadBytes) {
+        summaries.computeIfAbsent(new MeterKey(BULK_ITEMS, BULK, indexTagValue(index), null), key -> DistributionSummary.builder(BULK_ITEMS)
+                .description("Number of actions per bulk request")
+                .tags(tags(key))
+                .register(registry))
+                .record(items);
+        summaries.computeIfAbsent(new MeterKey(BULK_PAYLOAD, BULK, indexTagValue(index), null), key -> DistributionSummary.builder(BULK_PAYLOAD)
+                .description("Estimated size of the bulk request body")
+                .baseUnit("bytes")
+                .tags(tags(key))
+                .register(registry))
+                .record(payloadBytes);
+    }
+
+    @Override
+    public void recordConversion(@Nullable String index, int documents, long durationNanos) {
+        timers.computeIfAbsent(new MeterKey(CONVERSION, null, indexTagValue(index), null), key -> Timer.builder(CONVERSION)
+                .description("Time spent converting search hits into entities")
+                .tags(Tags.of("index", key.index))
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Tags tags(MeterKey key) {
+        return Tags.of("operation", key.operation, "index", key.index);
+    }
+
+    private String indexTagValue(@Nullable String index) {
+        return indexTag && index != null ? index : NONE;
+    }
+
+    private static final class MeterKey {
+        private final String name;
+        @Nullable private final String operation;
+        private final String index;
+        @Nullable private final String exception;
+
+        private MeterKey(String name, @Nullable String operation, String index, @Nullable String exception) {
+            this.name = name;
+            this.operation = operation;
+            this.index = index;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MeterKey)) {
+                return false;
+            }
+            MeterKey that = (MeterKey) o;
+            return name.equals(that.name) && Objects.equals(operation, that.operation) && index.equals(that.index)
+                    && Objects.equals(exception, that.exception);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, operation, index, exception);
+        }
+    }
+}
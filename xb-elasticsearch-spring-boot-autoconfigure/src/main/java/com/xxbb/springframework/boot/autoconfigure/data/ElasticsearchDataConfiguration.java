@@ -1,14 +1,22 @@
 package com.xxbb.springframework.boot.autoconfigure.data;
 
+import com.xxbb.springframework.data.elasticsearch.core.AsyncElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.core.AsyncElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.core.BulkIngester;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchMetricsRecorder;
 import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.core.SlowOperationLog;
 import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import com.xxbb.springframework.data.elasticsearch.repository.support.IndexBootstrap;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,8 +24,10 @@ abstract class ElasticsearchDataConfiguration {
     static class BaseConfiguration {
         @Bean
         @ConditionalOnMissingBean
-        ElasticsearchConverter elasticsearchConverter(SimpleElasticsearchMappingContext mappingContext) {
-            return new MappingElasticsearchConverter(mappingContext);
+        ElasticsearchConverter elasticsearchConverter(SimpleElasticsearchMappingContext mappingContext, ElasticsearchDataProperties properties) {
+            MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+            converter.setConversionPlansEnabled(properties.getConverter().isConversionPlansEnabled());
+            return converter;
         }
 
         @Bean
@@ -25,6 +35,14 @@ abstract class ElasticsearchDataConfiguration {
         SimpleElasticsearchMappingContext mappingContext() {
             return new SimpleElasticsearchMappingContext();
         }
+
+        @Bean
+        @ConditionalOnMissingBean
+        IndexBootstrap indexBootstrap(ElasticsearchDataProperties properties) {
+            ElasticsearchDataProperties.IndexBootstrap indexBootstrap = properties.getIndexBootstrap();
+            return IndexBootstrap.builder().withMode(indexBootstrap.getMode()).withConcurrency(indexBootstrap.getConcurrency())
+                    .withTimeout(indexBootstrap.getTimeout()).withMappingsReconciled(indexBootstrap.isReconcileMappings()).build();
+        }
     }
 
     @Configuration(proxyBeanMethods = false)
@@ -33,8 +51,45 @@ abstract class ElasticsearchDataConfiguration {
         @Bean
         @ConditionalOnMissingBean(value = ElasticsearchOperations.class, name = "elasticsearchTemplate")
         @ConditionalOnBean(RestHighLevelClient.class)
-        ElasticsearchRestTemplate elasticsearchTemplate(RestHighLevelClient client, ElasticsearchConverter converter) {
-            return new ElasticsearchRestTemplate(client, converter);
+        ElasticsearchRestTemplate elasticsearchTemplate(RestHighLevelClient client, ElasticsearchConverter converter,
+                                                        ObjectProvider<ElasticsearchMetricsRecorder> metricsRecorder,
+                                                        ElasticsearchDataProperties properties) {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client, converter);
+            metricsRecorder.ifUnique(template::setMetricsRecorder);
+            template.setGeneratedMappingsEnabled(properties.getMapping().isUseGenerated());
+
+            ElasticsearchDataProperties.SlowLog slowLog = properties.getSlowLog();
+            if (slowLog.isEnabled()) {
+                template.setSlowOperationLog(SlowOperationLog.builder()
+                        .withSearchThreshold(slowLog.getSearchThreshold())
+                        .withBulkThreshold(slowLog.getBulkThreshold())
+                        .withInterval(slowLog.getInterval())
+                        .build());
+            }
+            return template;
+        }
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnMissingBean(value = AsyncElasticsearchOperations.class, name = "asyncElasticsearchTemplate")
+        @ConditionalOnBean(ElasticsearchRestTemplate.class)
+        AsyncElasticsearchRestTemplate asyncElasticsearchTemplate(ElasticsearchRestTemplate elasticsearchTemplate) {
+            return new AsyncElasticsearchRestTemplate(elasticsearchTemplate);
+        }
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(ElasticsearchRestTemplate.class)
+        @ConditionalOnProperty(prefix = "spring.data.elasticsearch.bulk", name = "enabled", havingValue = "true")
+        BulkIngester bulkIngester(ElasticsearchRestTemplate elasticsearchTemplate, ElasticsearchDataProperties properties,
+                                  ObjectProvider<BulkIngester.Listener> listener) {
+            ElasticsearchDataProperties.Bulk bulk = properties.getBulk();
+            BulkIngester.BulkIngesterBuilder builder = BulkIngester.builder(elasticsearchTemplate)
+                    .withBulkActions(bulk.getActions())
+                    .withBulkSizeInBytes(bulk.getSizeInBytes())
+                    .withConcurrentRequests(bulk.getConcurrentRequests())
+                    .withFlushInterval(bulk.getFlushInterval());
+            listener.ifUnique(builder::withListener);
+            return builder.build();
         }
     }
 }
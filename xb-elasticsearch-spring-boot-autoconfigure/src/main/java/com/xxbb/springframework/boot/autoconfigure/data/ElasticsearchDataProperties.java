@@ -0,0 +1,231 @@
+package com.xxbb.springframework.boot.autoconfigure.data;
+
+import com.xxbb.springframework.data.elasticsearch.repository.support.IndexBootstrap.Mode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spring.data.elasticsearch")
+public class ElasticsearchDataProperties {
+    private final Bulk bulk = new Bulk();
+    private final Converter converter = new Converter();
+    private final Metrics metrics = new Metrics();
+    private final SlowLog slowLog = new SlowLog();
+    private final IndexBootstrap indexBootstrap = new IndexBootstrap();
+    private final Mapping mapping = new Mapping();
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Converter getConverter() {
+        return converter;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public SlowLog getSlowLog() {
+        return slowLog;
+    }
+
+    public IndexBootstrap getIndexBootstrap() {
+        return indexBootstrap;
+    }
+
+    public Mapping getMapping() {
+        return mapping;
+    }
+
+    public static class Mapping {
+        // reads the mappings MappingGenerator wrote to META-INF/xb-elasticsearch/mappings at build time instead of
+        // building them from the entities
+        private boolean useGenerated = false;
+
+        public boolean isUseGenerated() {
+            return useGenerated;
+        }
+
+        public void setUseGenerated(boolean useGenerated) {
+            this.useGenerated = useGenerated;
+        }
+    }
+
+    public static class IndexBootstrap {
+        // eager creates the indices before the context is started, background right after that, skip leaves them alone
+        private Mode mode = Mode.EAGER;
+
+        private int concurrency = 8;
+
+        private Duration timeout = Duration.ofMinutes(1);
+
+        // puts fields missing in the mapping of existing indices and reports fields that conflict with the entity
+        private boolean reconcileMappings = false;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public boolean isReconcileMappings() {
+            return reconcileMappings;
+        }
+
+        public void setReconcileMappings(boolean reconcileMappings) {
+            this.reconcileMappings = reconcileMappings;
+        }
+    }
+
+    public static class SlowLog {
+        // logs slow operations at WARN on SlowOperationLog, with the repository method and a fingerprint of the query
+        private boolean enabled = false;
+
+        // searches, counts and multi searches taking longer on the client are logged
+        private Duration searchThreshold = Duration.ofSeconds(1);
+
+        private Duration bulkThreshold = Duration.ofSeconds(5);
+
+        // the same query shape is logged at most once per interval, the next line counts the suppressed ones
+        private Duration interval = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSearchThreshold() {
+            return searchThreshold;
+        }
+
+        public void setSearchThreshold(Duration searchThreshold) {
+            this.searchThreshold = searchThreshold;
+        }
+
+        public Duration getBulkThreshold() {
+            return bulkThreshold;
+        }
+
+        public void setBulkThreshold(Duration bulkThreshold) {
+            this.bulkThreshold = bulkThreshold;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    public static class Metrics {
+        // records the requests of the template with the ElasticsearchMetricsRecorder bean, see xb-elasticsearch-micrometer
+        private boolean enabled = true;
+
+        // time based index names can explode the tag cardinality, without the tag every index reports as "none"
+        private boolean indexTag = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isIndexTag() {
+            return indexTag;
+        }
+
+        public void setIndexTag(boolean indexTag) {
+            this.indexTag = indexTag;
+        }
+    }
+
+    public static class Converter {
+        private boolean conversionPlansEnabled = true;
+
+        public boolean isConversionPlansEnabled() {
+            return conversionPlansEnabled;
+        }
+
+        public void setConversionPlansEnabled(boolean conversionPlansEnabled) {
+            this.conversionPlansEnabled = conversionPlansEnabled;
+        }
+    }
+
+    public static class Bulk {
+        private boolean enabled = false;
+
+        private int actions = 1000;
+
+        private long sizeInBytes = 5 * 1024 * 1024;
+
+        private int concurrentRequests = 1;
+
+        private Duration flushInterval;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getActions() {
+            return actions;
+        }
+
+        public void setActions(int actions) {
+            this.actions = actions;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        public void setSizeInBytes(long sizeInBytes) {
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        public int getConcurrentRequests() {
+            return concurrentRequests;
+        }
+
+        public void setConcurrentRequests(int concurrentRequests) {
+            this.concurrentRequests = concurrentRequests;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.context.annotation.Import;
 @EnableConfigurationProperties(ElasticsearchRestClientProperites.class)
 @Import({ ElasticsearchRestClientConfigurations.RestClientBuilderConfiguration.class,
         ElasticsearchRestClientConfigurations.RestClientFallbackConfiguration.class,
-        ElasticsearchRestClientConfigurations.RestHighLevelClientConfiguration.class})
+        ElasticsearchRestClientConfigurations.RestHighLevelClientConfiguration.class,
+        ElasticsearchRestClientConfigurations.NodeSnifferConfiguration.class})
 public class ElasticsearchRestClientAutoConfiguration {
 }
@@ -1,5 +1,9 @@
 package com.xxbb.springframework.boot.autoconfigure.elasticsearch;
 
+import com.xxbb.springframework.data.elasticsearch.client.HttpCompression;
+import com.xxbb.springframework.data.elasticsearch.client.HttpConnectionPool;
+import com.xxbb.springframework.data.elasticsearch.client.NodeSniffer;
+import com.xxbb.springframework.data.elasticsearch.client.PreferredNodeSelector;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
@@ -11,11 +15,14 @@ import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
 import java.net.URI;
@@ -27,20 +34,46 @@ class ElasticsearchRestClientConfigurations {
     @ConditionalOnMissingBean(RestClientBuilder.class)
     static class RestClientBuilderConfiguration {
         @Bean
-        RestClientBuilderCustomizer defaultRestClientBuilderCustomizer(ElasticsearchRestClientProperites properites) {
-            return new DefaultRestClientBuilderCustomizer(properites);
+        RestClientBuilderCustomizer defaultRestClientBuilderCustomizer(ElasticsearchRestClientProperites properites, HttpConnectionPool connectionPool,
+                                                                       ObjectProvider<NodeSniffer> nodeSniffer) {
+            return new DefaultRestClientBuilderCustomizer(properites, connectionPool, nodeSniffer.getIfUnique());
         }
 
+        // declare an own pool to use a custom SSL context, SSL settings on the HttpAsyncClientBuilder are ignored once a pool is set.
+        // Every client built from the builder gets a connection manager of its own from it
         @Bean
-        RestClientBuilder elasticsearchRestClientBuilder(ElasticsearchRestClientProperites properites, ObjectProvider<RestClientBuilderCustomizer> builderCustomizers) {
+        @ConditionalOnMissingBean
+        HttpConnectionPool elasticsearchConnectionPool(ElasticsearchRestClientProperites properites) {
+            ElasticsearchRestClientProperites.Pool pool = properites.getPool();
+            ElasticsearchRestClientProperites.Compression compression = properites.getCompression();
+            return HttpConnectionPool.builder()
+                    .withMaxConnections(pool.getMaxConnections())
+                    .withMaxConnectionsPerRoute(pool.getMaxConnectionsPerRoute())
+                    .withIoThreadCount(pool.getIoThreadCount())
+                    .withKeepAlive(pool.getKeepAlive())
+                    .withConnectionTimeToLive(pool.getTimeToLive())
+                    .withTcpKeepAlive(pool.isTcpKeepAlive())
+                    .withTcpNoDelay(pool.isTcpNoDelay())
+                    .withCompression(compression.isEnabled() ? HttpCompression.builder()
+                            .withRequestThreshold(compression.getRequestThreshold().toBytes())
+                            .withRequestOperations(compression.getRequestOperations())
+                            .withResponseOperations(compression.getResponseOperations())
+                            .build() : null)
+                    .build();
+        }
+
+        @Bean
+        RestClientBuilder elasticsearchRestClientBuilder(ElasticsearchRestClientProperites properites, HttpConnectionPool connectionPool,
+                                                         ObjectProvider<RestClientBuilderCustomizer> builderCustomizers) {
             HttpHost[] hosts = properites.getUris().stream().map(this::createHttpHost).toArray(HttpHost[]::new);
             RestClientBuilder builder = RestClient.builder(hosts);
+            // the client is built from the builder the pool returns, with compression it compresses request bodies
             builder.setHttpClientConfigCallback((httpClientBuilder) -> {
                 builderCustomizers.orderedStream().forEach((customizer) -> customizer.customize(httpClientBuilder));
-                return httpClientBuilder;
+                return connectionPool.configure(httpClientBuilder);
             });
             builder.setRequestConfigCallback((requestConfigBuilder) -> {
-                builderCustomizers.orderedStream().forEach((customizer) -> customizer.customize(builder));
+                builderCustomizers.orderedStream().forEach((customizer) -> customizer.customize(requestConfigBuilder));
                 return requestConfigBuilder;
             });
             builderCustomizers.orderedStream().forEach((customzier) -> customzier.customize(builder));
@@ -87,6 +120,28 @@ class ElasticsearchRestClientConfigurations {
         }
     }
 
+    // the sniffer is created before the client so the builder can report failed requests to it, it starts once the
+    // client exists
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "spring.elasticsearch.rest.sniffer", name = "enabled", havingValue = "true")
+    static class NodeSnifferConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        NodeSniffer elasticsearchNodeSniffer(ElasticsearchRestClientProperites properites) {
+            ElasticsearchRestClientProperites.Sniffer sniffer = properites.getSniffer();
+            return NodeSniffer.builder()
+                    .withInterval(sniffer.getInterval())
+                    .withDelayAfterFailure(sniffer.getDelayAfterFailure())
+                    .withDedicatedMastersExcluded(sniffer.isExcludeDedicatedMasters())
+                    .build();
+        }
+
+        @Bean
+        SmartInitializingSingleton elasticsearchNodeSnifferStarter(NodeSniffer nodeSniffer, ObjectProvider<RestClient> client) {
+            return () -> client.ifUnique(nodeSniffer::start);
+        }
+    }
+
     @Configuration(proxyBeanMethods = false)
     static class RestClientFallbackConfiguration {
         @Bean
@@ -99,14 +154,32 @@ class ElasticsearchRestClientConfigurations {
     static class DefaultRestClientBuilderCustomizer implements RestClientBuilderCustomizer {
         private static final PropertyMapper map = PropertyMapper.get();
         private final ElasticsearchRestClientProperites properites;
+        private final HttpConnectionPool connectionPool;
+        @Nullable private final NodeSniffer nodeSniffer;
 
-        DefaultRestClientBuilderCustomizer(ElasticsearchRestClientProperites properites) {
+        DefaultRestClientBuilderCustomizer(ElasticsearchRestClientProperites properites, HttpConnectionPool connectionPool,
+                                           @Nullable NodeSniffer nodeSniffer) {
             this.properites = properites;
+            this.connectionPool = connectionPool;
+            this.nodeSniffer = nodeSniffer;
         }
 
         @Override
         public void customize(RestClientBuilder builder) {
+            if (nodeSniffer != null) {
+                builder.setFailureListener(nodeSniffer.failureListener());
+            }
 
+            ElasticsearchRestClientProperites.NodeSelector nodeSelector = properites.getNodeSelector();
+            if (StringUtils.hasText(nodeSelector.getZone()) || nodeSelector.isLeastLoaded()) {
+                PreferredNodeSelector.PreferredNodeSelectorBuilder selector = PreferredNodeSelector.builder()
+                        .withLeastLoaded(nodeSelector.isLeastLoaded())
+                        .withLoadSampleInterval(nodeSelector.getLoadSampleInterval());
+                if (StringUtils.hasText(nodeSelector.getZone())) {
+                    selector.withZone(nodeSelector.getZoneAttribute(), nodeSelector.getZone());
+                }
+                builder.setNodeSelector(selector.build().withConnectionPool(connectionPool));
+            }
         }
 
         @Override
@@ -1,11 +1,17 @@
 package com.xxbb.springframework.boot.autoconfigure.elasticsearch;
 
+import com.xxbb.springframework.data.elasticsearch.client.HttpCompression;
+import com.xxbb.springframework.data.elasticsearch.client.HttpConnectionPool;
+import com.xxbb.springframework.data.elasticsearch.client.PreferredNodeSelector;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @ConfigurationProperties(prefix = "spring.elasticsearch.rest")
 public class ElasticsearchRestClientProperites {
@@ -19,6 +25,14 @@ public class ElasticsearchRestClientProperites {
 
     private Duration readTimeout = Duration.ofSeconds(30);
 
+    private final Pool pool = new Pool();
+
+    private final Compression compression = new Compression();
+
+    private final Sniffer sniffer = new Sniffer();
+
+    private final NodeSelector nodeSelector = new NodeSelector();
+
     public List<String> getUris() {
         return uris;
     }
@@ -58,4 +72,229 @@ public class ElasticsearchRestClientProperites {
     public void setReadTimeout(Duration readTimeout) {
         this.readTimeout = readTimeout;
     }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public Sniffer getSniffer() {
+        return sniffer;
+    }
+
+    public NodeSelector getNodeSelector() {
+        return nodeSelector;
+    }
+
+    public static class Sniffer {
+        // replaces the uris with the http nodes of the cluster read from _nodes/http
+        private boolean enabled = false;
+
+        private Duration interval = Duration.ofMinutes(5);
+
+        // the nodes are sniffed right after a request to a node failed and once more after this delay
+        private Duration delayAfterFailure = Duration.ofMinutes(1);
+
+        private boolean excludeDedicatedMasters = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getDelayAfterFailure() {
+            return delayAfterFailure;
+        }
+
+        public void setDelayAfterFailure(Duration delayAfterFailure) {
+            this.delayAfterFailure = delayAfterFailure;
+        }
+
+        public boolean isExcludeDedicatedMasters() {
+            return excludeDedicatedMasters;
+        }
+
+        public void setExcludeDedicatedMasters(boolean excludeDedicatedMasters) {
+            this.excludeDedicatedMasters = excludeDedicatedMasters;
+        }
+    }
+
+    public static class NodeSelector {
+        // the node attribute holding the zone, only sniffed nodes have attributes
+        private String zoneAttribute = "zone";
+
+        // requests go to nodes in this zone while any of them is alive
+        private String zone;
+
+        // requests go to the nodes with the fewest busy connections in the pool
+        private boolean leastLoaded = false;
+
+        private Duration loadSampleInterval = PreferredNodeSelector.DEFAULT_LOAD_SAMPLE_INTERVAL;
+
+        public String getZoneAttribute() {
+            return zoneAttribute;
+        }
+
+        public void setZoneAttribute(String zoneAttribute) {
+            this.zoneAttribute = zoneAttribute;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public void setZone(String zone) {
+            this.zone = zone;
+        }
+
+        public boolean isLeastLoaded() {
+            return leastLoaded;
+        }
+
+        public void setLeastLoaded(boolean leastLoaded) {
+            this.leastLoaded = leastLoaded;
+        }
+
+        public Duration getLoadSampleInterval() {
+            return loadSampleInterval;
+        }
+
+        public void setLoadSampleInterval(Duration loadSampleInterval) {
+            this.loadSampleInterval = loadSampleInterval;
+        }
+    }
+
+    public static class Compression {
+        // gzips request bodies of the request operations and asks for gzipped responses of the response operations
+        private boolean enabled = false;
+
+        // smaller request bodies are sent as they are
+        private DataSize requestThreshold = DataSize.ofKilobytes(8);
+
+        private Set<HttpCompression.Operation> requestOperations = EnumSet.of(HttpCompression.Operation.BULK,
+                HttpCompression.Operation.MULTI_SEARCH);
+
+        private Set<HttpCompression.Operation> responseOperations = EnumSet.of(HttpCompression.Operation.SEARCH,
+                HttpCompression.Operation.MULTI_SEARCH, HttpCompression.Operation.SCROLL, HttpCompression.Operation.MULTI_GET);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getRequestThreshold() {
+            return requestThreshold;
+        }
+
+        public void setRequestThreshold(DataSize requestThreshold) {
+            this.requestThreshold = requestThreshold;
+        }
+
+        public Set<HttpCompression.Operation> getRequestOperations() {
+            return requestOperations;
+        }
+
+        public void setRequestOperations(Set<HttpCompression.Operation> requestOperations) {
+            this.requestOperations = requestOperations;
+        }
+
+        public Set<HttpCompression.Operation> getResponseOperations() {
+            return responseOperations;
+        }
+
+        public void setResponseOperations(Set<HttpCompression.Operation> responseOperations) {
+            this.responseOperations = responseOperations;
+        }
+    }
+
+    public static class Pool {
+        private int maxConnections = HttpConnectionPool.DEFAULT_MAX_CONNECTIONS;
+
+        private int maxConnectionsPerRoute = HttpConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+        private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+        // caps how long an idle connection is kept, the keep-alive the server sends is used when it is shorter
+        private Duration keepAlive;
+
+        // connections older than this are closed instead of being reused
+        private Duration timeToLive;
+
+        private boolean tcpKeepAlive = false;
+
+        private boolean tcpNoDelay = true;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public int getIoThreadCount() {
+            return ioThreadCount;
+        }
+
+        public void setIoThreadCount(int ioThreadCount) {
+            this.ioThreadCount = ioThreadCount;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public boolean isTcpKeepAlive() {
+            return tcpKeepAlive;
+        }
+
+        public void setTcpKeepAlive(boolean tcpKeepAlive) {
+            this.tcpKeepAlive = tcpKeepAlive;
+        }
+
+        public boolean isTcpNoDelay() {
+            return tcpNoDelay;
+        }
+
+        public void setTcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+        }
+    }
 }
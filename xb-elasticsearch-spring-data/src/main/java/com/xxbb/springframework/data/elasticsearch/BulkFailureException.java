@@ -2,16 +2,29 @@ package com.xxbb.springframework.data.elasticsearch;
 
 import org.springframework.dao.DataRetrievalFailureException;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 public class BulkFailureException extends DataRetrievalFailureException {
     private final Map<String, String> failedDocuments;
+    private final Set<String> rejectedDocuments;
+
     public BulkFailureException(String msg, Map<String, String> failedDocuments) {
+        this(msg, failedDocuments, Collections.emptySet());
+    }
+
+    public BulkFailureException(String msg, Map<String, String> failedDocuments, Set<String> rejectedDocuments) {
         super(msg);
         this.failedDocuments = failedDocuments;
+        this.rejectedDocuments = rejectedDocuments;
     }
 
     public Map<String, String> getFailedDocuments() {
         return failedDocuments;
     }
+
+    public Set<String> getRejectedDocuments() {
+        return rejectedDocuments;
+    }
 }
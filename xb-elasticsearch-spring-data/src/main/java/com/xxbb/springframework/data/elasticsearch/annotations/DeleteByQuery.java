@@ -0,0 +1,12 @@
+package com.xxbb.springframework.data.elasticsearch.annotations;
+
+import java.lang.annotation.*;
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DeleteByQuery {
+    boolean refresh() default false;
+
+    boolean waitForCompletion() default true;
+}
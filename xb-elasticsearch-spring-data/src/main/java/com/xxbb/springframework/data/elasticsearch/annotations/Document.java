@@ -26,4 +26,10 @@ public @interface Document {
     boolean createIndex() default true;
 
     VersionType versionType() default VersionType.EXTERNAL;
+
+    RefreshPolicy refreshPolicy() default RefreshPolicy.NOT_SET;
+
+    String writeTimeout() default "";
+
+    String waitForActiveShards() default "";
 }
@@ -0,0 +1,8 @@
+package com.xxbb.springframework.data.elasticsearch.annotations;
+
+public enum PartitionInterval {
+    HOUR, //
+    DAY, //
+    MONTH, //
+    YEAR
+}
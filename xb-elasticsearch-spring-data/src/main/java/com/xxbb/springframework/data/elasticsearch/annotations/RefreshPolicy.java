@@ -0,0 +1,5 @@
+package com.xxbb.springframework.data.elasticsearch.annotations;
+
+public enum RefreshPolicy {
+    NOT_SET, NONE, IMMEDIATE, WAIT_UNTIL
+}
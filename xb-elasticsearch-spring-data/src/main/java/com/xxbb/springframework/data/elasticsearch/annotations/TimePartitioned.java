@@ -0,0 +1,22 @@
+package com.xxbb.springframework.data.elasticsearch.annotations;
+
+import org.springframework.data.annotation.Persistent;
+
+import java.lang.annotation.*;
+
+// writes the documents of the entity into one index per interval, named indexName-<date> after the value of the
+// date property, e.g. logs-2020.01.15 for DAY. Reads go to indexName-* unless the query restricts the property.
+// Partitions are created from the index template of the entity on their first write. Get, exists, update and delete by
+// id need the partition of the document, see TimePartitioning#getPartition
+@Persistent
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface TimePartitioned {
+
+    String property();
+
+    PartitionInterval interval() default PartitionInterval.DAY;
+
+    String zone() default "UTC";
+}
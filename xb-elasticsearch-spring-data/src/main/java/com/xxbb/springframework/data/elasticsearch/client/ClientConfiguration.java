@@ -1,5 +1,6 @@
 package com.xxbb.springframework.data.elasticsearch.client;
 
+import org.elasticsearch.client.NodeSelector;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 
@@ -49,6 +50,32 @@ public interface ClientConfiguration {
 
     Supplier<HttpHeaders> getHeadersSupplier();
 
+    int getMaxConnections();
+
+    int getMaxConnectionsPerRoute();
+
+    int getIoThreadCount();
+
+    // how long an idle connection is kept when the server does not send a Keep-Alive header
+    Optional<Duration> getKeepAlive();
+
+    // connections older than this are closed instead of being reused, lets the pool follow DNS and load balancer changes
+    Optional<Duration> getConnectionTimeToLive();
+
+    boolean isTcpKeepAlive();
+
+    boolean isTcpNoDelay();
+
+    Optional<HttpCompression> getCompression();
+
+    // what the TRACE log of ClientLogger shows of request bodies
+    HttpBodyLogging getBodyLogging();
+
+    // creates the sniffer of each client built from the configuration, a sniffer belongs to one client
+    Optional<Supplier<NodeSniffer>> getNodeSnifferFactory();
+
+    Optional<NodeSelector> getNodeSelector();
+
     interface ClientConfigurationBuilderWithRequiredEndpoint {
         default MaybeSecureClientConfigurationBuilder connectedTo(String hostAndPort) {
             return connectedTo(new String[] {hostAndPort});
@@ -98,6 +125,30 @@ public interface ClientConfiguration {
 
         TerminalClientConfigurationBuilder withHeaders(Supplier<HttpHeaders> headers);
 
+        TerminalClientConfigurationBuilder withMaxConnections(int maxConnections);
+
+        TerminalClientConfigurationBuilder withMaxConnectionsPerRoute(int maxConnectionsPerRoute);
+
+        TerminalClientConfigurationBuilder withIoThreadCount(int ioThreadCount);
+
+        TerminalClientConfigurationBuilder withKeepAlive(Duration keepAlive);
+
+        TerminalClientConfigurationBuilder withConnectionTimeToLive(Duration timeToLive);
+
+        TerminalClientConfigurationBuilder withTcpKeepAlive(boolean tcpKeepAlive);
+
+        TerminalClientConfigurationBuilder withTcpNoDelay(boolean tcpNoDelay);
+
+        TerminalClientConfigurationBuilder withCompression(HttpCompression compression);
+
+        TerminalClientConfigurationBuilder withBodyLogging(HttpBodyLogging bodyLogging);
+
+        // replaces the endpoints with the nodes of the cluster once the client is created, e.g.
+        // withNodeSniffer(() -> NodeSniffer.builder().build())
+        TerminalClientConfigurationBuilder withNodeSniffer(Supplier<NodeSniffer> nodeSnifferFactory);
+
+        TerminalClientConfigurationBuilder withNodeSelector(NodeSelector nodeSelector);
+
         ClientConfiguration build();
     }
 }
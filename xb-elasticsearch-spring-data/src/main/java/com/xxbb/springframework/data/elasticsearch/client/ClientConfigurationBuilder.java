@@ -1,5 +1,6 @@
 package com.xxbb.springframework.data.elasticsearch.client;
 
+import org.elasticsearch.client.NodeSelector;
 import com.xxbb.springframework.data.elasticsearch.client.ClientConfiguration.TerminalClientConfigurationBuilder;
 import com.xxbb.springframework.data.elasticsearch.client.ClientConfiguration.MaybeSecureClientConfigurationBuilder;
 import com.xxbb.springframework.data.elasticsearch.client.ClientConfiguration.ClientConfigurationBuilderWithRequiredEndpoint;
@@ -32,6 +33,17 @@ public class ClientConfigurationBuilder implements MaybeSecureClientConfiguratio
     private @Nullable String pathPrefix;
     private @Nullable String proxy;
     private Supplier<HttpHeaders> headersSupplier = () -> HttpHeaders.EMPTY;
+    private int maxConnections = HttpConnectionPool.DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerRoute = HttpConnectionPool.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+    private @Nullable Duration keepAlive;
+    private @Nullable Duration connectionTimeToLive;
+    private boolean tcpKeepAlive = false;
+    private boolean tcpNoDelay = true;
+    private @Nullable HttpCompression compression;
+    private HttpBodyLogging bodyLogging = HttpBodyLogging.builder().build();
+    private @Nullable Supplier<NodeSniffer> nodeSnifferFactory;
+    private @Nullable NodeSelector nodeSelector;
 
 
     @Override
@@ -126,6 +138,81 @@ public class ClientConfigurationBuilder implements MaybeSecureClientConfiguratio
     }
 
 
+    @Override
+    public TerminalClientConfigurationBuilder withMaxConnections(int maxConnections) {
+        Assert.isTrue(maxConnections > 0, "maxConnections must be positive");
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        Assert.isTrue(maxConnectionsPerRoute > 0, "maxConnectionsPerRoute must be positive");
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withIoThreadCount(int ioThreadCount) {
+        Assert.isTrue(ioThreadCount > 0, "ioThreadCount must be positive");
+        this.ioThreadCount = ioThreadCount;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withKeepAlive(Duration keepAlive) {
+        Assert.notNull(keepAlive, "keepAlive must not be null");
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withConnectionTimeToLive(Duration timeToLive) {
+        Assert.notNull(timeToLive, "timeToLive must not be null");
+        this.connectionTimeToLive = timeToLive;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withTcpKeepAlive(boolean tcpKeepAlive) {
+        this.tcpKeepAlive = tcpKeepAlive;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withCompression(HttpCompression compression) {
+        Assert.notNull(compression, "compression must not be null");
+        this.compression = compression;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withBodyLogging(HttpBodyLogging bodyLogging) {
+        Assert.notNull(bodyLogging, "bodyLogging must not be null");
+        this.bodyLogging = bodyLogging;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withNodeSniffer(Supplier<NodeSniffer> nodeSnifferFactory) {
+        Assert.notNull(nodeSnifferFactory, "nodeSnifferFactory must not be null");
+        this.nodeSnifferFactory = nodeSnifferFactory;
+        return this;
+    }
+
+    @Override
+    public TerminalClientConfigurationBuilder withNodeSelector(NodeSelector nodeSelector) {
+        Assert.notNull(nodeSelector, "nodeSelector must not be null");
+        this.nodeSelector = nodeSelector;
+        return this;
+    }
+
     @Override
     public ClientConfiguration build() {
         if (username != null && password != null) {
@@ -134,7 +221,9 @@ public class ClientConfigurationBuilder implements MaybeSecureClientConfiguratio
             }
             headers.setBasicAuth(username, password);
         }
-        return new DefaultClientConfiguration(hosts, headers, useSsl, sslContext, soTimeout, connectTimeout, pathPrefix, hostnameVerifier, proxy, headersSupplier);
+        return new DefaultClientConfiguration(hosts, headers, useSsl, sslContext, soTimeout, connectTimeout, pathPrefix, hostnameVerifier, proxy, headersSupplier,
+                maxConnections, maxConnectionsPerRoute, ioThreadCount, keepAlive, connectionTimeToLive, tcpKeepAlive, tcpNoDelay, compression,
+                bodyLogging, nodeSnifferFactory, nodeSelector);
     }
 
     private static InetSocketAddress parse(String hostAndPort) {
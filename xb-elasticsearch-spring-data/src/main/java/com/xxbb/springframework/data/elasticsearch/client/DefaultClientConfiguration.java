@@ -1,5 +1,6 @@
 package com.xxbb.springframework.data.elasticsearch.client;
 
+import org.elasticsearch.client.NodeSelector;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 
@@ -25,11 +26,26 @@ public class DefaultClientConfiguration implements ClientConfiguration{
     private final @Nullable HostnameVerifier hostnameVerifier;
     private final @Nullable String proxy;
     private final Supplier<HttpHeaders> headersSupplier;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final int ioThreadCount;
+    private final @Nullable Duration keepAlive;
+    private final @Nullable Duration connectionTimeToLive;
+    private final boolean tcpKeepAlive;
+    private final boolean tcpNoDelay;
+    private final @Nullable HttpCompression compression;
+    private final HttpBodyLogging bodyLogging;
+    private final @Nullable Supplier<NodeSniffer> nodeSnifferFactory;
+    private final @Nullable NodeSelector nodeSelector;
 
     public DefaultClientConfiguration(List<InetSocketAddress> hosts, HttpHeaders headers, boolean useSsl,
                                       @Nullable SSLContext sslContext, Duration soTimeout, Duration connectTimeout,
                                       @Nullable String pathPrefix, @Nullable HostnameVerifier hostnameVerifier,
-                                      @Nullable String proxy, Supplier<HttpHeaders> headersSupplier) {
+                                      @Nullable String proxy, Supplier<HttpHeaders> headersSupplier, int maxConnections,
+                                      int maxConnectionsPerRoute, int ioThreadCount, @Nullable Duration keepAlive,
+                                      @Nullable Duration connectionTimeToLive, boolean tcpKeepAlive, boolean tcpNoDelay,
+                                      @Nullable HttpCompression compression, HttpBodyLogging bodyLogging,
+                                      @Nullable Supplier<NodeSniffer> nodeSnifferFactory, @Nullable NodeSelector nodeSelector) {
         this.hosts = Collections.unmodifiableList(new ArrayList<>(hosts));
         this.headers = new HttpHeaders(headers);
         this.useSsl = useSsl;
@@ -40,6 +56,17 @@ public class DefaultClientConfiguration implements ClientConfiguration{
         this.hostnameVerifier = hostnameVerifier;
         this.proxy = proxy;
         this.headersSupplier = headersSupplier;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.ioThreadCount = ioThreadCount;
+        this.keepAlive = keepAlive;
+        this.connectionTimeToLive = connectionTimeToLive;
+        this.tcpKeepAlive = tcpKeepAlive;
+        this.tcpNoDelay = tcpNoDelay;
+        this.compression = compression;
+        this.bodyLogging = bodyLogging;
+        this.nodeSnifferFactory = nodeSnifferFactory;
+        this.nodeSelector = nodeSelector;
     }
 
     @Override
@@ -92,4 +119,59 @@ public class DefaultClientConfiguration implements ClientConfiguration{
     public Supplier<HttpHeaders> getHeadersSupplier() {
         return headersSupplier;
     }
+
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    @Override
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    @Override
+    public Optional<Duration> getKeepAlive() {
+        return Optional.ofNullable(keepAlive);
+    }
+
+    @Override
+    public Optional<Duration> getConnectionTimeToLive() {
+        return Optional.ofNullable(connectionTimeToLive);
+    }
+
+    @Override
+    public boolean isTcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    @Override
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    @Override
+    public Optional<HttpCompression> getCompression() {
+        return Optional.ofNullable(compression);
+    }
+
+    @Override
+    public HttpBodyLogging getBodyLogging() {
+        return bodyLogging;
+    }
+
+    @Override
+    public Optional<Supplier<NodeSniffer>> getNodeSnifferFactory() {
+        return Optional.ofNullable(nodeSnifferFactory);
+    }
+
+    @Override
+    public Optional<NodeSelector> getNodeSelector() {
+        return Optional.ofNullable(nodeSelector);
+    }
 }
@@ -0,0 +1,139 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// what the TRACE log of the rest client shows of a request body. Only a prefix of at most maxLoggedBytes is read
+// from the entity, the body is never copied or replaced, so logging a large bulk costs no more than logging a small one.
+// Requests that are not sampled or whose operation is filtered out are logged without their body
+public final class HttpBodyLogging {
+    public static final int DEFAULT_MAX_LOGGED_BYTES = 1024;
+
+    private final int maxLoggedBytes;
+    private final double sampleRate;
+    private final Set<HttpCompression.Operation> operations;
+
+    private HttpBodyLogging(int maxLoggedBytes, double sampleRate, Set<HttpCompression.Operation> operations) {
+        this.maxLoggedBytes = maxLoggedBytes;
+        this.sampleRate = sampleRate;
+        this.operations = operations;
+    }
+
+    public static HttpBodyLoggingBuilder builder() {
+        return new HttpBodyLoggingBuilder();
+    }
+
+    public int getMaxLoggedBytes() {
+        return maxLoggedBytes;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // empty when bodies of all requests are logged
+    public Set<HttpCompression.Operation> getOperations() {
+        return operations;
+    }
+
+    boolean shouldLogBody(String uri) {
+        if (maxLoggedBytes == 0) {
+            return false;
+        }
+        if (!operations.isEmpty()) {
+            HttpCompression.Operation operation = HttpCompression.Operation.of(uri);
+            if (operation == null || !operations.contains(operation)) {
+                return false;
+            }
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    String body(HttpEntity entity) throws IOException {
+        long length = entity.getContentLength();
+        if (entity.getContentEncoding() != null) {
+            // compressed by HttpCompression, the body is not readable text anymore
+            return "<" + entity.getContentEncoding().getValue() + " encoded, " + length + " bytes>";
+        }
+        if (!entity.isRepeatable()) {
+            // reading it would consume what the http client is about to send
+            return "<not repeatable, " + length + " bytes>";
+        }
+
+        byte[] prefix = new byte[(int) (length >= 0 ? Math.min(length, maxLoggedBytes) : maxLoggedBytes)];
+        int read = 0;
+        try (InputStream content = entity.getContent()) {
+            int count;
+            while (read < prefix.length && (count = content.read(prefix, read, prefix.length - read)) != -1) {
+                read += count;
+            }
+        }
+
+        String body = new String(prefix, 0, read, charset(entity));
+        if (length > read) {
+            return body + "... <" + length + " bytes>";
+        }
+        return length < 0 && read == maxLoggedBytes ? body + "... <truncated>" : body;
+    }
+
+    private static Charset charset(HttpEntity entity) {
+        try {
+            ContentType contentType = ContentType.get(entity);
+            if (contentType != null && contentType.getCharset() != null) {
+                return contentType.getCharset();
+            }
+        } catch (RuntimeException ignored) {}
+        return StandardCharsets.UTF_8;
+    }
+
+    public static class HttpBodyLoggingBuilder {
+        private int maxLoggedBytes = DEFAULT_MAX_LOGGED_BYTES;
+        private double sampleRate = 1;
+        private Set<HttpCompression.Operation> operations = EnumSet.noneOf(HttpCompression.Operation.class);
+
+        HttpBodyLoggingBuilder() {}
+
+        // zero logs no bodies at all
+        public HttpBodyLoggingBuilder withMaxLoggedBytes(int maxLoggedBytes) {
+            Assert.isTrue(maxLoggedBytes >= 0, "maxLoggedBytes must not be negative");
+            this.maxLoggedBytes = maxLoggedBytes;
+            return this;
+        }
+
+        // share of the requests whose body is logged, between 0 and 1
+        public HttpBodyLoggingBuilder withSampleRate(double sampleRate) {
+            Assert.isTrue(sampleRate >= 0 && sampleRate <= 1, "sampleRate must be between 0 and 1");
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        // limits body logging to these operations, none logs the bodies of all requests
+        public HttpBodyLoggingBuilder withOperations(HttpCompression.Operation... operations) {
+            Assert.notNull(operations, "operations must not be null");
+            return withOperations(Arrays.asList(operations));
+        }
+
+        public HttpBodyLoggingBuilder withOperations(Iterable<HttpCompression.Operation> operations) {
+            Assert.notNull(operations, "operations must not be null");
+            Set<HttpCompression.Operation> set = EnumSet.noneOf(HttpCompression.Operation.class);
+            operations.forEach(set::add);
+            this.operations = set;
+            return this;
+        }
+
+        public HttpBodyLogging build() {
+            return new HttpBodyLogging(maxLoggedBytes, sampleRate, Collections.unmodifiableSet(EnumSet.copyOf(operations)));
+        }
+    }
+}
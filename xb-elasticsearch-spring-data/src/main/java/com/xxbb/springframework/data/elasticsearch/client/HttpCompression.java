@@ -0,0 +1,385 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseFactory;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// opt-in gzip for the rest client. Request bodies of the configured operations are compressed once they reach the
+// threshold, and the configured operations ask for gzip responses which are inflated before the rest client parses them.
+// Responses are hooked in through the response factory of the HttpConnectionPool, the 7.0 rest client has no other place
+// that sees the buffered entity before it is handed out. Request bodies are compressed by the http client the pool
+// configures, see HttpConnectionPool#configure
+public final class HttpCompression {
+    private static final String GZIP = "gzip";
+
+    public enum Operation {
+        BULK, MULTI_SEARCH, SEARCH, SCROLL, MULTI_GET;
+
+        @Nullable
+        static Operation of(String uri) {
+            int query = uri.indexOf('?');
+            String path = query >= 0 ? uri.substring(0, query) : uri;
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+
+            if (path.endsWith("/_search/scroll")) {
+                return SCROLL;
+            }
+            switch (path.substring(path.lastIndexOf('/') + 1)) {
+                case "_bulk":
+                    return BULK;
+                case "_msearch":
+                    return MULTI_SEARCH;
+                case "_search":
+                    return SEARCH;
+                case "_mget":
+                    return MULTI_GET;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private final Set<Operation> requestOperations;
+    private final Set<Operation> responseOperations;
+    private final long requestThreshold;
+
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder compressedRequestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder compressedResponseBytes = new LongAdder();
+
+    private HttpCompression(Set<Operation> requestOperations, Set<Operation> responseOperations, long requestThreshold) {
+        this.requestOperations = requestOperations;
+        this.responseOperations = responseOperations;
+        this.requestThreshold = requestThreshold;
+    }
+
+    public static HttpCompressionBuilder builder() {
+        return new HttpCompressionBuilder();
+    }
+
+    public Set<Operation> getRequestOperations() {
+        return requestOperations;
+    }
+
+    public Set<Operation> getResponseOperations() {
+        return responseOperations;
+    }
+
+    public long getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    // size of the request bodies before they were compressed
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getCompressedRequestBytes() {
+        return compressedRequestBytes.sum();
+    }
+
+    // size of the compressed responses after they were inflated, counted while the response is read
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    public long getCompressedResponseBytes() {
+        return compressedResponseBytes.sum();
+    }
+
+    // asks for gzip responses of the configured operations
+    HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> {
+            Operation operation = Operation.of(request.getRequestLine().getUri());
+            if (operation != null && responseOperations.contains(operation) && !request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+                request.addHeader(HttpHeaders.ACCEPT_ENCODING, GZIP);
+            }
+        };
+    }
+
+    // the builder of an http client which gzips the bodies of requests of the configured operations once they reach the
+    // threshold. The rest client turns each request into an async producer before any interceptor runs, so the body is
+    // swapped on the producer handed to the client. RequestContent of the http client sends the content encoding of the
+    // entity along
+    HttpAsyncClientBuilder compressRequests(HttpAsyncClientBuilder clientBuilder) {
+        if (requestOperations.isEmpty()) {
+            return clientBuilder;
+        }
+        return new HttpAsyncClientBuilder() {
+            @Override
+            public CloseableHttpAsyncClient build() {
+                return new CompressingHttpAsyncClient(clientBuilder.build());
+            }
+        };
+    }
+
+    // the rest client sends the same request again on the next node when one fails, its body is compressed by then
+    private HttpAsyncRequestProducer compress(HttpAsyncRequestProducer producer) {
+        HttpRequest request;
+        try {
+            request = producer.generateRequest();
+        } catch (IOException | HttpException e) {
+            return producer;
+        }
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return producer;
+        }
+
+        HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = entityRequest.getEntity();
+        Operation operation = Operation.of(request.getRequestLine().getUri());
+        if (operation == null || !requestOperations.contains(operation) || entity == null || entity.getContentEncoding() != null
+                || entity.getContentLength() < requestThreshold) {
+            return producer;
+        }
+
+        try {
+            entityRequest.setEntity(compress(entity));
+            producer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress the request body", e);
+        }
+        return HttpAsyncMethods.create(producer.getTarget(), request);
+    }
+
+    private HttpEntity compress(HttpEntity entity) throws IOException {
+        long length = entity.getContentLength();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, Math.max(32, length / 4)));
+        try (OutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+            entity.writeTo(gzip);
+        }
+
+        NByteArrayEntity compressed = new NByteArrayEntity(buffer.toByteArray(), ContentType.get(entity));
+        compressed.setContentEncoding(GZIP);
+        requestBytes.add(length);
+        compressedRequestBytes.add(compressed.getContentLength());
+        return compressed;
+    }
+
+    HttpResponseFactory responseFactory() {
+        return new HttpResponseFactory() {
+            @Override
+            public org.apache.http.HttpResponse newHttpResponse(ProtocolVersion version, int status, HttpContext context) {
+                return new DecompressingHttpResponse(new BasicStatusLine(version, status, null));
+            }
+
+            @Override
+            public org.apache.http.HttpResponse newHttpResponse(StatusLine statusLine, HttpContext context) {
+                return new DecompressingHttpResponse(statusLine);
+            }
+        };
+    }
+
+    // the response consumer replaces the placeholder entity of the parser with a ContentBufferEntity that is filled
+    // while the body arrives, only that one is wrapped
+    private class DecompressingHttpResponse extends BasicHttpResponse {
+
+        DecompressingHttpResponse(StatusLine statusLine) {
+            super(statusLine);
+        }
+
+        @Override
+        public void setEntity(@Nullable HttpEntity entity) {
+            if (entity instanceof ContentBufferEntity && isGzip(entity.getContentEncoding())) {
+                removeHeaders(HttpHeaders.CONTENT_ENCODING);
+                removeHeaders(HttpHeaders.CONTENT_LENGTH);
+                entity = new GzipDecompressingEntity(entity);
+            }
+            super.setEntity(entity);
+        }
+
+        private boolean isGzip(@Nullable Header contentEncoding) {
+            return contentEncoding != null && GZIP.equalsIgnoreCase(contentEncoding.getValue());
+        }
+    }
+
+    private class GzipDecompressingEntity extends HttpEntityWrapper {
+        @Nullable private InputStream content;
+
+        GzipDecompressingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            if (content == null) {
+                content = new CountingInputStream(new GZIPInputStream(new CountingInputStream(wrappedEntity.getContent(),
+                        compressedResponseBytes)), responseBytes);
+            }
+            return content;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            InputStream in = getContent();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                outStream.write(buffer, 0, read);
+            }
+        }
+
+        @Override
+        @Nullable
+        public Header getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+    }
+
+    private class CompressingHttpAsyncClient extends CloseableHttpAsyncClient {
+        private final CloseableHttpAsyncClient client;
+
+        CompressingHttpAsyncClient(CloseableHttpAsyncClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return client.isRunning();
+        }
+
+        @Override
+        public void start() {
+            client.start();
+        }
+
+        @Override
+        public void close() throws IOException {
+            client.close();
+        }
+
+        @Override
+        public <T> Future<T> execute(HttpAsyncRequestProducer requestProducer, HttpAsyncResponseConsumer<T> responseConsumer,
+                                     HttpContext context, FutureCallback<T> callback) {
+            return client.execute(compress(requestProducer), responseConsumer, context, callback);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+
+        CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                counter.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counter.add(skipped);
+            return skipped;
+        }
+    }
+
+    public static class HttpCompressionBuilder {
+        private Set<Operation> requestOperations = EnumSet.of(Operation.BULK, Operation.MULTI_SEARCH);
+        private Set<Operation> responseOperations = EnumSet.of(Operation.SEARCH, Operation.MULTI_SEARCH, Operation.SCROLL,
+                Operation.MULTI_GET);
+        private long requestThreshold = 8 * 1024;
+
+        HttpCompressionBuilder() {}
+
+        public HttpCompressionBuilder withRequestOperations(Operation... operations) {
+            Assert.notNull(operations, "operations must not be null");
+            return withRequestOperations(Arrays.asList(operations));
+        }
+
+        public HttpCompressionBuilder withRequestOperations(Iterable<Operation> operations) {
+            Assert.notNull(operations, "operations must not be null");
+            this.requestOperations = toSet(operations);
+            return this;
+        }
+
+        public HttpCompressionBuilder withResponseOperations(Operation... operations) {
+            Assert.notNull(operations, "operations must not be null");
+            return withResponseOperations(Arrays.asList(operations));
+        }
+
+        public HttpCompressionBuilder withResponseOperations(Iterable<Operation> operations) {
+            Assert.notNull(operations, "operations must not be null");
+            this.responseOperations = toSet(operations);
+            return this;
+        }
+
+        // request bodies below this size are sent as they are, compressing them costs more than it saves
+        public HttpCompressionBuilder withRequestThreshold(long requestThreshold) {
+            Assert.isTrue(requestThreshold >= 0, "requestThreshold must not be negative");
+            this.requestThreshold = requestThreshold;
+            return this;
+        }
+
+        public HttpCompression build() {
+            return new HttpCompression(Collections.unmodifiableSet(EnumSet.copyOf(requestOperations)),
+                    Collections.unmodifiableSet(EnumSet.copyOf(responseOperations)), requestThreshold);
+        }
+
+        private static Set<Operation> toSet(Iterable<Operation> operations) {
+            Set<Operation> set = EnumSet.noneOf(Operation.class);
+            operations.forEach(set::add);
+            return set;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.codecs.DefaultHttpResponseParserFactory;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.nio.reactor.IOReactorStatus;
+import org.apache.http.pool.PoolStats;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+// the connection managers of the http clients behind rest clients. Apache HttpAsyncClient only exposes pool sizes and
+// statistics on a connection manager created by the caller, so this one replaces the manager HttpAsyncClientBuilder
+// would create and owns everything configured on it, including the SSL setup. Every client configured with it gets a
+// manager and I/O reactor of its own, closing one client shuts down only its own manager. The statistics are those of
+// all clients still open, the limits apply to each client
+public final class HttpConnectionPool {
+    // the limits RestClientBuilder uses when nothing is configured
+    public static final int DEFAULT_MAX_CONNECTIONS = 30;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final IOReactorConfig ioReactorConfig;
+    private final Registry<SchemeIOSessionStrategy> sessionStrategies;
+    @Nullable private final Duration connectionTimeToLive;
+    @Nullable private final Duration keepAlive;
+    @Nullable private final HttpCompression compression;
+    private final List<ClientConnections> clients = new CopyOnWriteArrayList<>();
+
+    private HttpConnectionPool(int maxConnections, int maxConnectionsPerRoute, IOReactorConfig ioReactorConfig,
+                               Registry<SchemeIOSessionStrategy> sessionStrategies, @Nullable Duration connectionTimeToLive,
+                               @Nullable Duration keepAlive, @Nullable HttpCompression compression) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.ioReactorConfig = ioReactorConfig;
+        this.sessionStrategies = sessionStrategies;
+        this.connectionTimeToLive = connectionTimeToLive;
+        this.keepAlive = keepAlive;
+        this.compression = compression;
+    }
+
+    public static HttpConnectionPoolBuilder builder() {
+        return new HttpConnectionPoolBuilder();
+    }
+
+    public static HttpConnectionPool create(ClientConfiguration clientConfiguration) {
+        Assert.notNull(clientConfiguration, "ClientConfiguration must not be null");
+
+        HttpConnectionPoolBuilder builder = builder()
+                .withMaxConnections(clientConfiguration.getMaxConnections())
+                .withMaxConnectionsPerRoute(clientConfiguration.getMaxConnectionsPerRoute())
+                .withIoThreadCount(clientConfiguration.getIoThreadCount())
+                .withTcpKeepAlive(clientConfiguration.isTcpKeepAlive())
+                .withTcpNoDelay(clientConfiguration.isTcpNoDelay());
+        clientConfiguration.getKeepAlive().ifPresent(builder::withKeepAlive);
+        clientConfiguration.getConnectionTimeToLive().ifPresent(builder::withConnectionTimeToLive);
+        clientConfiguration.getSslContext().ifPresent(builder::withSslContext);
+        clientConfiguration.getHostnameVerifier().ifPresent(builder::withHostnameVerifier);
+        clientConfiguration.getCompression().ifPresent(builder::withCompression);
+        return builder.build();
+    }
+
+    // installs a new connection manager on the client builder, the client shuts it down when it is closed. With
+    // compression the returned builder is the one to build the client from, it compresses request bodies
+    public HttpAsyncClientBuilder configure(HttpAsyncClientBuilder clientBuilder) {
+        clientBuilder.setConnectionManager(createConnectionManager());
+        if (keepAlive != null) {
+            long keepAliveMillis = keepAlive.toMillis();
+            clientBuilder.setKeepAliveStrategy((response, context) -> {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return duration < 0 ? keepAliveMillis : Math.min(duration, keepAliveMillis);
+            });
+        }
+        if (compression != null) {
+            clientBuilder.addInterceptorFirst(compression.requestInterceptor());
+            return compression.compressRequests(clientBuilder);
+        }
+        return clientBuilder;
+    }
+
+    private PoolingNHttpClientConnectionManager createConnectionManager() {
+        PoolingNHttpClientConnectionManager connectionManager;
+        DefaultConnectingIOReactor ioReactor;
+        try {
+            ManagedNHttpClientConnectionFactory connectionFactory = compression != null
+                    ? new ManagedNHttpClientConnectionFactory(null, new DefaultHttpResponseParserFactory(null, compression.responseFactory()), null)
+                    : null;
+            ioReactor = new DefaultConnectingIOReactor(ioReactorConfig);
+            connectionManager = new PoolingNHttpClientConnectionManager(ioReactor, connectionFactory, sessionStrategies, null, null,
+                    connectionTimeToLive != null ? connectionTimeToLive.toMillis() : -1, TimeUnit.MILLISECONDS);
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Could not create the I/O reactor of the connection pool", e);
+        }
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        // managers of closed clients are dropped with the next one
+        clients.removeIf(ClientConnections::isShutDown);
+        clients.add(new ClientConnections(connectionManager, ioReactor));
+        return connectionManager;
+    }
+
+    public Optional<HttpCompression> getCompression() {
+        return Optional.ofNullable(compression);
+    }
+
+    // connections currently executing a request
+    public int getLeased() {
+        return sum(PoolStats::getLeased);
+    }
+
+    // requests waiting for a connection
+    public int getPending() {
+        return sum(PoolStats::getPending);
+    }
+
+    // idle connections ready to be reused
+    public int getAvailable() {
+        return sum(PoolStats::getAvailable);
+    }
+
+    // leased connections plus requests waiting for one, per node
+    public Map<HttpHost, Integer> getLoadByHost() {
+        Map<HttpHost, Integer> loads = new HashMap<>();
+        for (ClientConnections client : clients) {
+            for (HttpRoute route : client.connectionManager.getRoutes()) {
+                PoolStats stats = client.connectionManager.getStats(route);
+                loads.merge(route.getTargetHost(), stats.getLeased() + stats.getPending(), Integer::sum);
+            }
+        }
+        return loads;
+    }
+
+    public int getMax() {
+        return maxConnections;
+    }
+
+    public int getMaxPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    private int sum(ToIntFunction<PoolStats> statistic) {
+        int sum = 0;
+        for (ClientConnections client : clients) {
+            sum += statistic.applyAsInt(client.connectionManager.getTotalStats());
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpConnectionPool{leased=" + getLeased() + ", pending=" + getPending() + ", available=" + getAvailable()
+                + ", max=" + maxConnections + '}';
+    }
+
+    private static final class ClientConnections {
+        private final PoolingNHttpClientConnectionManager connectionManager;
+        private final DefaultConnectingIOReactor ioReactor;
+
+        private ClientConnections(PoolingNHttpClientConnectionManager connectionManager, DefaultConnectingIOReactor ioReactor) {
+            this.connectionManager = connectionManager;
+            this.ioReactor = ioReactor;
+        }
+
+        private boolean isShutDown() {
+            return ioReactor.getStatus() == IOReactorStatus.SHUT_DOWN;
+        }
+    }
+
+    public static class HttpConnectionPoolBuilder {
+        private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+        @Nullable private Duration keepAlive;
+        @Nullable private Duration connectionTimeToLive;
+        private boolean tcpKeepAlive = false;
+        private boolean tcpNoDelay = true;
+        @Nullable private SSLContext sslContext;
+        @Nullable private HostnameVerifier hostnameVerifier;
+        @Nullable private HttpCompression compression;
+
+        HttpConnectionPoolBuilder() {}
+
+        public HttpConnectionPoolBuilder withMaxConnections(int maxConnections) {
+            Assert.isTrue(maxConnections > 0, "maxConnections must be positive");
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            Assert.isTrue(maxConnectionsPerRoute > 0, "maxConnectionsPerRoute must be positive");
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withIoThreadCount(int ioThreadCount) {
+            Assert.isTrue(ioThreadCount > 0, "ioThreadCount must be positive");
+            this.ioThreadCount = ioThreadCount;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withKeepAlive(@Nullable Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withConnectionTimeToLive(@Nullable Duration connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withTcpKeepAlive(boolean tcpKeepAlive) {
+            this.tcpKeepAlive = tcpKeepAlive;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withTcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withSslContext(@Nullable SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withHostnameVerifier(@Nullable HostnameVerifier hostnameVerifier) {
+            this.hostnameVerifier = hostnameVerifier;
+            return this;
+        }
+
+        public HttpConnectionPoolBuilder withCompression(@Nullable HttpCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        public HttpConnectionPool build() {
+            IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                    .setIoThreadCount(ioThreadCount)
+                    .setSoKeepAlive(tcpKeepAlive)
+                    .setTcpNoDelay(tcpNoDelay)
+                    .build();
+
+            Registry<SchemeIOSessionStrategy> sessionStrategies = RegistryBuilder.<SchemeIOSessionStrategy> create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", new SSLIOSessionStrategy(sslContext(), null, null,
+                            hostnameVerifier != null ? hostnameVerifier : new DefaultHostnameVerifier()))
+                    .build();
+
+            return new HttpConnectionPool(maxConnections, maxConnectionsPerRoute, ioReactorConfig, sessionStrategies,
+                    connectionTimeToLive, keepAlive, compression);
+        }
+
+        // RestClientBuilder falls back to the JVM default context as well
+        private SSLContext sslContext() {
+            if (sslContext != null) {
+                return sslContext;
+            }
+            try {
+                return SSLContext.getDefault();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Could not get the default SSL context", e);
+            }
+        }
+    }
+}
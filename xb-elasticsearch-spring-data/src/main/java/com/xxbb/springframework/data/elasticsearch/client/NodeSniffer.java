@@ -0,0 +1,260 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// keeps the nodes of a rest client in sync with the cluster. The http nodes are read from _nodes/http every interval and
+// shortly after a request to a node failed, so nodes that join are used without a redeploy and nodes that left stop
+// costing timeouts. A sniffer belongs to one client: the failure listener goes on the builder, start once it is built
+public final class NodeSniffer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(NodeSniffer.class);
+
+    private final Duration interval;
+    private final Duration delayAfterFailure;
+    private final Duration timeout;
+    private final boolean excludeDedicatedMasters;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "elasticsearch-node-sniffer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    @Nullable private volatile RestClient client;
+    @Nullable private ScheduledFuture<?> next;
+
+    private NodeSniffer(Duration interval, Duration delayAfterFailure, Duration timeout, boolean excludeDedicatedMasters) {
+        this.interval = interval;
+        this.delayAfterFailure = delayAfterFailure;
+        this.timeout = timeout;
+        this.excludeDedicatedMasters = excludeDedicatedMasters;
+    }
+
+    public static NodeSnifferBuilder builder() {
+        return new NodeSnifferBuilder();
+    }
+
+    public RestClient.FailureListener failureListener() {
+        return new RestClient.FailureListener() {
+            @Override
+            public void onFailure(Node node) {
+                sniffOnFailure(node);
+            }
+        };
+    }
+
+    // sniffs right away and then every interval
+    public synchronized void start(RestClient client) {
+        Assert.notNull(client, "client must not be null");
+        Assert.state(this.client == null, "NodeSniffer is already started");
+        this.client = client;
+        running.set(true);
+        schedule(0, false);
+    }
+
+    // sniffs right away and once more after delayAfterFailure, the cluster may still be moving shards and nodes around
+    public void sniffOnFailure(Node failedNode) {
+        if (client != null && running.get()) {
+            logger.debug("Sniffing nodes after a request to {} failed", failedNode.getHost());
+            schedule(0, true);
+        }
+    }
+
+    private synchronized void schedule(long delayMillis, boolean afterFailure) {
+        if (!running.get()) {
+            return;
+        }
+        if (next != null && !next.isDone()) {
+            if (delayMillis == 0 && next.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                // a sniff is already due, failures of many requests at once end up in one sniff
+                return;
+            }
+            next.cancel(false);
+        }
+        next = scheduler.schedule(() -> sniffAndReschedule(afterFailure), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void sniffAndReschedule(boolean afterFailure) {
+        long delay = afterFailure ? delayAfterFailure.toMillis() : interval.toMillis();
+        try {
+            sniff();
+        } catch (Exception e) {
+            logger.warn("Could not sniff nodes: {}", e.getMessage());
+            delay = delayAfterFailure.toMillis();
+        }
+        schedule(delay, false);
+    }
+
+    // replaces the nodes of the client with the sniffed ones, an empty result leaves them as they are
+    public List<Node> sniff() throws IOException {
+        RestClient client = this.client;
+        Assert.state(client != null, "NodeSniffer is not started");
+
+        List<Node> nodes = client.getNodes();
+        String scheme = nodes.isEmpty() ? "http" : nodes.get(0).getHost().getSchemeName();
+        Request request = new Request("GET", "/_nodes/http");
+        request.addParameter("timeout", timeout.toMillis() + "ms");
+        Response response = client.performRequest(request);
+
+        List<Node> sniffed;
+        try (InputStream content = response.getEntity().getContent()) {
+            sniffed = readNodes(content, scheme, excludeDedicatedMasters);
+        }
+        if (sniffed.isEmpty()) {
+            logger.warn("Sniffing returned no nodes, keeping {}", nodes);
+        } else {
+            logger.debug("Sniffed nodes {}", sniffed);
+            client.setNodes(sniffed);
+        }
+        return sniffed;
+    }
+
+    @Override
+    public void close() {
+        running.set(false);
+        scheduler.shutdownNow();
+    }
+
+    static List<Node> readNodes(InputStream content, String scheme, boolean excludeDedicatedMasters) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, content)) {
+            Map<String, Object> body = parser.map();
+            Object nodeMap = body.get("nodes");
+            if (!(nodeMap instanceof Map)) {
+                return nodes;
+            }
+
+            for (Object value : ((Map<?, ?>) nodeMap).values()) {
+                Node node = readNode((Map<?, ?>) value, scheme);
+                if (node == null) {
+                    continue;
+                }
+                Node.Roles roles = node.getRoles();
+                if (excludeDedicatedMasters && roles.isMasterEligible() && !roles.isData() && !roles.isIngest()) {
+                    continue;
+                }
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    @Nullable
+    private static Node readNode(Map<?, ?> node, String scheme) {
+        Object http = node.get("http");
+        if (!(http instanceof Map)) {
+            // http is disabled on this node
+            return null;
+        }
+
+        Object publishAddress = ((Map<?, ?>) http).get("publish_address");
+        if (publishAddress == null) {
+            return null;
+        }
+        HttpHost host = toHost(publishAddress.toString(), scheme);
+
+        Set<HttpHost> boundHosts = new HashSet<>();
+        Object boundAddresses = ((Map<?, ?>) http).get("bound_address");
+        if (boundAddresses instanceof List) {
+            for (Object boundAddress : (List<?>) boundAddresses) {
+                boundHosts.add(toHost(boundAddress.toString(), scheme));
+            }
+        }
+
+        Object roles = node.get("roles");
+        List<?> roleList = roles instanceof List ? (List<?>) roles : Collections.emptyList();
+
+        Map<String, List<String>> attributes = new HashMap<>();
+        Object attributeMap = node.get("attributes");
+        if (attributeMap instanceof Map) {
+            ((Map<?, ?>) attributeMap).forEach((key, value) ->
+                    attributes.put(key.toString(), Collections.singletonList(String.valueOf(value))));
+        }
+
+        return new Node(host, boundHosts, stringOrNull(node.get("name")), stringOrNull(node.get("version")),
+                new Node.Roles(roleList.contains("master"), roleList.contains("data"), roleList.contains("ingest")), attributes);
+    }
+
+    // 7.x publishes hostname/ip:port when the node has a hostname, the hostname is kept for TLS hostname verification
+    private static HttpHost toHost(String address, String scheme) {
+        int slash = address.indexOf('/');
+        URI uri = URI.create(scheme + "://" + (slash >= 0 ? address.substring(slash + 1) : address));
+        String hostName = slash > 0 ? address.substring(0, slash) : uri.getHost();
+        return new HttpHost(hostName, uri.getPort(), scheme);
+    }
+
+    @Nullable
+    private static String stringOrNull(@Nullable Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    public static class NodeSnifferBuilder {
+        private Duration interval = Duration.ofMinutes(5);
+        private Duration delayAfterFailure = Duration.ofMinutes(1);
+        private Duration timeout = Duration.ofSeconds(1);
+        private boolean excludeDedicatedMasters = true;
+
+        NodeSnifferBuilder() {}
+
+        public NodeSnifferBuilder withInterval(Duration interval) {
+            Assert.isTrue(interval != null && !interval.isNegative() && !interval.isZero(), "interval must be positive");
+            this.interval = interval;
+            return this;
+        }
+
+        // the next sniff after a sniff or a request failed, usually shorter than the interval
+        public NodeSnifferBuilder withDelayAfterFailure(Duration delayAfterFailure) {
+            Assert.isTrue(delayAfterFailure != null && !delayAfterFailure.isNegative() && !delayAfterFailure.isZero(),
+                    "delayAfterFailure must be positive");
+            this.delayAfterFailure = delayAfterFailure;
+            return this;
+        }
+
+        // how long the cluster waits for the nodes to report their http addresses
+        public NodeSnifferBuilder withTimeout(Duration timeout) {
+            Assert.isTrue(timeout != null && !timeout.isNegative(), "timeout must not be negative");
+            this.timeout = timeout;
+            return this;
+        }
+
+        // dedicated master nodes should not serve requests, they are left out by default
+        public NodeSnifferBuilder withDedicatedMastersExcluded(boolean excludeDedicatedMasters) {
+            this.excludeDedicatedMasters = excludeDedicatedMasters;
+            return this;
+        }
+
+        public NodeSniffer build() {
+            return new NodeSniffer(interval, delayAfterFailure, timeout, excludeDedicatedMasters);
+        }
+    }
+}
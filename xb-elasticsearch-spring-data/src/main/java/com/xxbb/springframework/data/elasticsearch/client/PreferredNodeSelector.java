@@ -0,0 +1,152 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.NodeSelector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// narrows the nodes the rest client picks from. Nodes in the preferred zone win when any of them is alive, among those
+// the nodes with the fewest busy connections win, sampled from the pool at most once per sample interval instead of on
+// every request. The rest client round-robins over what is left and still skips dead
+// nodes on its own. Attributes are only known for sniffed nodes, configured endpoints have none
+public final class PreferredNodeSelector implements NodeSelector {
+    public static final Duration DEFAULT_LOAD_SAMPLE_INTERVAL = Duration.ofMillis(100);
+
+    @Nullable private final String zoneAttribute;
+    @Nullable private final String zone;
+    private final boolean leastLoaded;
+    private final Duration loadSampleInterval;
+    @Nullable private final HttpConnectionPool connectionPool;
+    @Nullable private volatile LoadSample loadSample;
+
+    private PreferredNodeSelector(@Nullable String zoneAttribute, @Nullable String zone, boolean leastLoaded,
+                                  Duration loadSampleInterval, @Nullable HttpConnectionPool connectionPool) {
+        this.zoneAttribute = zoneAttribute;
+        this.zone = zone;
+        this.leastLoaded = leastLoaded;
+        this.loadSampleInterval = loadSampleInterval;
+        this.connectionPool = connectionPool;
+    }
+
+    public static PreferredNodeSelectorBuilder builder() {
+        return new PreferredNodeSelectorBuilder();
+    }
+
+    // the load of a node is read from the pool the client sends its requests through
+    public PreferredNodeSelector withConnectionPool(HttpConnectionPool connectionPool) {
+        Assert.notNull(connectionPool, "connectionPool must not be null");
+        return new PreferredNodeSelector(zoneAttribute, zone, leastLoaded, loadSampleInterval, connectionPool);
+    }
+
+    @Override
+    public void select(Iterable<Node> nodes) {
+        if (zone != null && anyMatches(nodes, this::inZone)) {
+            removeIf(nodes, node -> !inZone(node));
+        }
+
+        if (leastLoaded && connectionPool != null) {
+            Map<HttpHost, Integer> loads = getLoads(connectionPool);
+            int min = Integer.MAX_VALUE;
+            for (Node node : nodes) {
+                min = Math.min(min, loads.getOrDefault(node.getHost(), 0));
+            }
+            int leastLoad = min;
+            removeIf(nodes, node -> loads.getOrDefault(node.getHost(), 0) > leastLoad);
+        }
+    }
+
+    // two requests racing past the interval both sample, the later sample wins
+    private Map<HttpHost, Integer> getLoads(HttpConnectionPool connectionPool) {
+        long now = System.nanoTime();
+        LoadSample sample = loadSample;
+        if (sample == null || now - sample.sampledAt >= loadSampleInterval.toNanos()) {
+            sample = new LoadSample(now, connectionPool.getLoadByHost());
+            loadSample = sample;
+        }
+        return sample.loads;
+    }
+
+    private boolean inZone(Node node) {
+        Map<String, List<String>> attributes = node.getAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        List<String> values = attributes.get(zoneAttribute);
+        return values != null && values.contains(zone);
+    }
+
+    private static boolean anyMatches(Iterable<Node> nodes, Predicate<Node> predicate) {
+        for (Node node : nodes) {
+            if (predicate.test(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void removeIf(Iterable<Node> nodes, Predicate<Node> predicate) {
+        Iterator<Node> iterator = nodes.iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PreferredNodeSelector{zone=" + (zone != null ? zoneAttribute + ':' + zone : "any") + ", leastLoaded=" + leastLoaded + '}';
+    }
+
+    private static final class LoadSample {
+        private final long sampledAt;
+        private final Map<HttpHost, Integer> loads;
+
+        private LoadSample(long sampledAt, Map<HttpHost, Integer> loads) {
+            this.sampledAt = sampledAt;
+            this.loads = loads;
+        }
+    }
+
+    public static class PreferredNodeSelectorBuilder {
+        @Nullable private String zoneAttribute;
+        @Nullable private String zone;
+        private boolean leastLoaded = false;
+        private Duration loadSampleInterval = DEFAULT_LOAD_SAMPLE_INTERVAL;
+
+        PreferredNodeSelectorBuilder() {}
+
+        // the node attribute holding the zone, e.g. node.attr.zone: eu-west-1a in elasticsearch.yml
+        public PreferredNodeSelectorBuilder withZone(String zoneAttribute, String zone) {
+            Assert.hasText(zoneAttribute, "zoneAttribute must not be empty");
+            Assert.hasText(zone, "zone must not be empty");
+            this.zoneAttribute = zoneAttribute;
+            this.zone = zone;
+            return this;
+        }
+
+        public PreferredNodeSelectorBuilder withLeastLoaded(boolean leastLoaded) {
+            this.leastLoaded = leastLoaded;
+            return this;
+        }
+
+        // how long a sample of the connection pool is used to pick the least loaded nodes
+        public PreferredNodeSelectorBuilder withLoadSampleInterval(Duration loadSampleInterval) {
+            Assert.notNull(loadSampleInterval, "loadSampleInterval must not be null");
+            Assert.isTrue(!loadSampleInterval.isNegative(), "loadSampleInterval must not be negative");
+            this.loadSampleInterval = loadSampleInterval;
+            return this;
+        }
+
+        public PreferredNodeSelector build() {
+            return new PreferredNodeSelector(zoneAttribute, zone, leastLoaded, loadSampleInterval, null);
+        }
+    }
+}
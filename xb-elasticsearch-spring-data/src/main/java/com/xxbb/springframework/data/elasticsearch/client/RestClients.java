@@ -4,7 +4,7 @@ package com.xxbb.springframework.data.elasticsearch.client;
 import org.apache.http.*;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.config.RequestConfig.Builder;
-import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.protocol.HttpContext;
 import org.elasticsearch.client.RestClient;
@@ -14,13 +14,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.Assert;
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -44,14 +44,15 @@ public final class RestClients {
             builder.setDefaultHeaders(toHeadArray(headers));
         }
 
+        // carries the SSL context and hostname verifier as well, they are ignored on the client builder once a pool is set
+        HttpConnectionPool connectionPool = HttpConnectionPool.create(clientConfiguration);
         builder.setHttpClientConfigCallback(clientBuilder -> {
-            clientConfiguration.getSslContext().ifPresent(clientBuilder::setSSLContext);
-            clientConfiguration.getHostnameVerifier().ifPresent(clientBuilder::setSSLHostnameVerifier);
+            HttpAsyncClientBuilder configured = connectionPool.configure(clientBuilder);
 
             // set interceptor
             clientBuilder.addInterceptorLast(new CustomHeaderInjector(clientConfiguration.getHeadersSupplier()));
             if (ClientLogger.isEnable()) {
-                HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
+                HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor(clientConfiguration.getBodyLogging());
                 clientBuilder.addInterceptorLast((HttpRequestInterceptor) interceptor);
                 clientBuilder.addInterceptorLast((HttpResponseInterceptor) interceptor);
             }
@@ -71,10 +72,34 @@ public final class RestClients {
 
             clientBuilder.setDefaultRequestConfig(requestConfigBuilder.build());
             clientConfiguration.getProxy().map(HttpHost::create).ifPresent(clientBuilder::setProxy);
-            return clientBuilder;
+            return configured;
         });
+        clientConfiguration.getNodeSelector()
+                .map(nodeSelector -> nodeSelector instanceof PreferredNodeSelector
+                        ? ((PreferredNodeSelector) nodeSelector).withConnectionPool(connectionPool) : nodeSelector)
+                .ifPresent(builder::setNodeSelector);
+        Optional<NodeSniffer> nodeSniffer = clientConfiguration.getNodeSnifferFactory().map(Supplier::get);
+        nodeSniffer.map(NodeSniffer::failureListener).ifPresent(builder::setFailureListener);
+
         RestHighLevelClient client = new RestHighLevelClient(builder);
-        return () -> client;
+        nodeSniffer.ifPresent(sniffer -> sniffer.start(client.getLowLevelClient()));
+        return new ElasticsearchRestClient() {
+            @Override
+            public RestHighLevelClient rest() {
+                return client;
+            }
+
+            @Override
+            public Optional<HttpConnectionPool> connectionPool() {
+                return Optional.of(connectionPool);
+            }
+
+            @Override
+            public void close() throws IOException {
+                nodeSniffer.ifPresent(NodeSniffer::close);
+                client.close();
+            }
+        };
     }
 
     private static Header[] toHeadArray(HttpHeaders headers) {
@@ -82,7 +107,7 @@ public final class RestClients {
     }
 
     private static List<String> formattedHosts(List<InetSocketAddress> hosts, boolean useSsl) {
-        return hosts.stream().map(it -> (useSsl ? "https" : "http" + "://" + it.getHostName() + ":" + it.getPort())).collect(Collectors.toList());
+        return hosts.stream().map(it -> (useSsl ? "https" : "http") + "://" + it.getHostName() + ":" + it.getPort()).collect(Collectors.toList());
     }
 
     public interface ElasticsearchRestClient extends Closeable {
@@ -92,6 +117,10 @@ public final class RestClients {
             return rest().getLowLevelClient();
         }
 
+        default Optional<HttpConnectionPool> connectionPool() {
+            return Optional.empty();
+        }
+
         @Override
         default void close() throws IOException {
             rest().close();
@@ -99,6 +128,11 @@ public final class RestClients {
     }
 
     private static class HttpLoggingInterceptor implements HttpResponseInterceptor, HttpRequestInterceptor {
+        private final HttpBodyLogging bodyLogging;
+
+        HttpLoggingInterceptor(HttpBodyLogging bodyLogging) {
+            this.bodyLogging = bodyLogging;
+        }
 
         @Override
         public void process(HttpRequest httpRequest, HttpContext httpContext) throws IOException {
@@ -107,19 +141,14 @@ public final class RestClients {
                 logId = ClientLogger.newLogId();
                 httpContext.setAttribute(RestClients.LOG_ID_ATTRIBUTE, logId);
             }
-            if (httpRequest instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) httpRequest).getEntity() != null) {
-                HttpEntityEnclosingRequest entityEnclosingRequest = (HttpEntityEnclosingRequest) httpRequest;
-                HttpEntity entity = ((HttpEntityEnclosingRequest) httpRequest).getEntity();
-                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-                entity.writeTo(buffer);
-
-                if (!entity.isRepeatable()) {
-                    entityEnclosingRequest.setEntity(new ByteArrayEntity(buffer.toByteArray()));
-                }
-
-                ClientLogger.logRequest(logId, httpRequest.getRequestLine().getMethod(), httpRequest.getRequestLine().getUri(), "", () -> new String(buffer.toByteArray()));
+            String method = httpRequest.getRequestLine().getMethod();
+            String uri = httpRequest.getRequestLine().getUri();
+            HttpEntity entity = httpRequest instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) httpRequest).getEntity() : null;
+            if (entity != null && bodyLogging.shouldLogBody(uri)) {
+                String body = bodyLogging.body(entity);
+                ClientLogger.logRequest(logId, method, uri, "", () -> body);
             } else {
-                ClientLogger.logRequest(logId, httpRequest.getRequestLine().getMethod(), httpRequest.getRequestLine().getUri(), "");
+                ClientLogger.logRequest(logId, method, uri, "");
             }
         }
 
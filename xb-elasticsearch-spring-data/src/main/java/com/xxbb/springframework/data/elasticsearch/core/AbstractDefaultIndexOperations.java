@@ -1,16 +1,23 @@
 package com.xxbb.springframework.data.elasticsearch.core;
 
+import com.xxbb.springframework.data.elasticsearch.UncategorizedElasticsearchException;
 import com.xxbb.springframework.data.elasticsearch.annotations.Mapping;
 import com.xxbb.springframework.data.elasticsearch.annotations.Setting;
 import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
 import com.xxbb.springframework.data.elasticsearch.core.index.MappingBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.index.MappingDiff;
+import com.xxbb.springframework.data.elasticsearch.core.index.MappingGenerator;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.TimePartitioning;
+import com.xxbb.springframework.data.elasticsearch.core.query.ReindexOptions;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
 import org.elasticsearch.common.collect.MapBuilder;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.reindex.ReindexRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -18,11 +25,19 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 abstract class AbstractDefaultIndexOperations implements IndexOperations {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDefaultIndexOperations.class);
+    private static final String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+    private static final String REFRESH_INTERVAL = "index.refresh_interval";
+    private static final String BLOCKS_WRITE = "index.blocks.write";
 
     protected final ElasticsearchConverter elasticsearchConverter;
     protected final RequestFactory requestFactory;
@@ -67,6 +82,10 @@ abstract class AbstractDefaultIndexOperations implements IndexOperations {
     @Override
     public Document createSettings(Class<?> clazz) {
         Assert.notNull(clazz, "class must not be null");
+        return getRequiredPersistentEntity(clazz).computeSettingsIfAbsent(() -> buildSettings(clazz));
+    }
+
+    protected Document buildSettings(Class<?> clazz) {
         Document settings = null;
 
         if (clazz.isAnnotationPresent(Setting.class)) {
@@ -107,16 +126,268 @@ abstract class AbstractDefaultIndexOperations implements IndexOperations {
     }
 
     protected abstract void doRefresh(IndexCoordinates indexCoordinates);
-//    protected abstract boolean doRemoveAlias()
+
+    // region aliases
+    @Override
+    public boolean addAlias(String alias) {
+        Assert.hasText(alias, "alias must not be empty");
+        return doUpdateAliases(Collections.singletonList(AliasActions.add().index(getIndexCoordinates().getIndexName()).alias(alias)));
+    }
+
+    @Override
+    public boolean removeAlias(String alias) {
+        Assert.hasText(alias, "alias must not be empty");
+        return doUpdateAliases(Collections.singletonList(AliasActions.remove().index(getIndexCoordinates().getIndexName()).alias(alias)));
+    }
+
+    @Override
+    public boolean swapAlias(String alias) {
+        Assert.hasText(alias, "alias must not be empty");
+        String indexName = getIndexCoordinates().getIndexName();
+        List<AliasActions> actions = new ArrayList<>();
+        for (String aliasedIndex : doGetAliasedIndices(alias)) {
+            if (!aliasedIndex.equals(indexName)) {
+                actions.add(AliasActions.remove().index(aliasedIndex).alias(alias));
+            }
+        }
+        actions.add(AliasActions.add().index(indexName).alias(alias));
+        return doUpdateAliases(actions);
+    }
+
+    @Override
+    public Set<String> getAliasedIndices(String alias) {
+        Assert.hasText(alias, "alias must not be empty");
+        return doGetAliasedIndices(alias);
+    }
+
+    protected abstract boolean doUpdateAliases(List<AliasActions> actions);
+
+    protected abstract Set<String> doGetAliasedIndices(String alias);
+    // endregion
+
+    // region reindex
+    @Override
+    public ReindexResult reindexTo(IndexCoordinates newIndex) {
+        return reindexTo(newIndex, ReindexOptions.defaultOptions());
+    }
+
+    @Override
+    public ReindexResult reindexTo(IndexCoordinates newIndex, ReindexOptions options) {
+        Assert.notNull(newIndex, "newIndex must not be null");
+        Assert.notNull(options, "options must not be null");
+        String alias = getIndexCoordinates().getIndexName();
+        String target = newIndex.getIndexName();
+
+        Set<String> sourceIndices = doGetAliasedIndices(alias);
+        boolean sourceIsAlias = !sourceIndices.isEmpty();
+        if (!sourceIsAlias) {
+            if (!doExists(alias)) {
+                throw new InvalidDataAccessApiUsageException("Cannot reindex " + alias + ", there is no such index or alias");
+            }
+            if (!options.isDeleteSourceIndex()) {
+                throw new InvalidDataAccessApiUsageException(alias + " is an index and not an alias, reindexTo needs deleteSourceIndex "
+                        + "to replace it with an alias");
+            }
+            sourceIndices = Collections.singleton(alias);
+        }
+        String sourceIndex = sourceIndices.iterator().next();
+
+        // the new index takes the settings of the entity, or of the current index, once the documents are copied
+        Map<String, Object> sourceSettings = doGetSettings(sourceIndex, false);
+        Document settings = boundClass != null ? createSettings(boundClass) : Document.create();
+        Map<String, Object> restoredSettings = new LinkedHashMap<>();
+        restoredSettings.put(NUMBER_OF_REPLICAS, takeSetting(settings, NUMBER_OF_REPLICAS, sourceSettings));
+        restoredSettings.put(REFRESH_INTERVAL, takeSetting(settings, REFRESH_INTERVAL, sourceSettings));
+        settings.put(NUMBER_OF_REPLICAS, "0");
+        settings.put(REFRESH_INTERVAL, "-1");
+        Document mapping = boundClass != null ? createMapping(boundClass) : Document.from(doGetMapping(IndexCoordinates.of(sourceIndex)));
+
+        LOGGER.info("Reindexing {} ({}) into {}", alias, sourceIndices, target);
+        if (options.isBlockSourceWrites()) {
+            setWriteBlock(sourceIndices, true);
+        }
+        ReindexResult result;
+        try {
+            result = reindex(alias, newIndex, settings, mapping, options);
+            doUpdateSettings(target, restoredSettings);
+            doRefresh(newIndex);
+
+            List<AliasActions> actions = new ArrayList<>();
+            for (String index : sourceIndices) {
+                actions.add(sourceIsAlias ? AliasActions.remove().index(index).alias(alias) : AliasActions.removeIndex().index(index));
+            }
+            actions.add(AliasActions.add().index(target).alias(alias));
+            doUpdateAliases(actions);
+        } catch (RuntimeException e) {
+            if (options.isBlockSourceWrites()) {
+                try {
+                    setWriteBlock(sourceIndices, false);
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+
+        if (sourceIsAlias && options.isDeleteSourceIndex()) {
+            sourceIndices.forEach(this::doDelete);
+        } else if (sourceIsAlias && options.isBlockSourceWrites()) {
+            setWriteBlock(sourceIndices, false);
+        }
+        LOGGER.info("Reindexed {} into {}: {}", alias, target, result);
+        return result;
+    }
+
+    // creates the new index and copies the documents, the new index is deleted when that fails
+    private ReindexResult reindex(String alias, IndexCoordinates newIndex, Document settings, Document mapping, ReindexOptions options) {
+        String target = newIndex.getIndexName();
+        String taskId;
+        try {
+            doCreate(target, settings);
+            if (!mapping.isEmpty()) {
+                doPutMapping(newIndex, mapping);
+            }
+            ReindexRequest request = new ReindexRequest().setSourceIndices(alias).setDestIndex(target)
+                    .setRequestsPerSecond(options.getRequestsPerSecond()).setSlices(options.getSlices());
+            taskId = doSubmitReindex(request);
+        } catch (RuntimeException e) {
+            doDelete(target);
+            throw e;
+        }
+
+        // while the task runs the new index is left alone, deleting it would let the reindex create it again
+        return awaitReindex(taskId, target, options);
+    }
+
+    private void setWriteBlock(Set<String> indices, boolean block) {
+        // null resets the setting, a source that was not blocked before is not left with an explicit false
+        Map<String, Object> settings = Collections.singletonMap(BLOCKS_WRITE, block ? Boolean.TRUE : null);
+        indices.forEach(index -> doUpdateSettings(index, settings));
+    }
+
+    private ReindexResult awaitReindex(String taskId, String target, ReindexOptions options) {
+        long deadline = options.getTimeout() != null ? System.nanoTime() + options.getTimeout().toNanos() : 0;
+        boolean cancelled = false;
+        while (true) {
+            Map<String, Object> task = doGetTask(taskId);
+            boolean completed = Boolean.TRUE.equals(task.get("completed"));
+            Map<?, ?> response = asMap(task.get("response"));
+            Map<?, ?> status = completed && response != null ? response : asMap(asMap(task.get("task")), "status");
+            ReindexResult result = ReindexResult.ofTask(taskId, completed, status);
+            options.getProgressListener().accept(result);
+
+            if (completed) {
+                Object error = task.get("error");
+                Object failures = response != null ? response.get("failures") : null;
+                if (error == null && failures instanceof List && !((List<?>) failures).isEmpty()) {
+                    error = failures;
+                }
+                if (cancelled) {
+                    doDelete(target);
+                    throw new UncategorizedElasticsearchException("Reindex into " + target + " did not complete within "
+                            + options.getTimeout() + " and was cancelled", null);
+                }
+                if (error != null) {
+                    doDelete(target);
+                    throw new UncategorizedElasticsearchException("Reindex into " + target + " failed: " + error, null);
+                }
+                return result;
+            }
+
+            // the task is cancelled and awaited, the new index is deleted once it no longer writes to it
+            if (deadline != 0 && !cancelled && System.nanoTime() - deadline > 0) {
+                LOGGER.warn("Reindex task {} into {} did not complete within {}, cancelling it", taskId, target, options.getTimeout());
+                doCancelTask(taskId);
+                cancelled = true;
+            }
+
+            try {
+                Thread.sleep(options.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncategorizedElasticsearchException("Interrupted while waiting for reindex task " + taskId + " into " + target, e);
+            }
+        }
+    }
+
+    // removes the setting from the settings, which may be flat or nested, and returns its value
+    @Nullable
+    private static Object takeSetting(Document settings, String key, Map<String, Object> fallback) {
+        Object value = settings.remove(key);
+        Map<?, ?> index = asMap(settings.get("index"));
+        if (index != null) {
+            Object nested = index.remove(key.substring("index.".length()));
+            value = value != null ? value : nested;
+        }
+        return value != null ? value.toString() : fallback.get(key);
+    }
+
+    @Nullable
+    private static Map<?, ?> asMap(@Nullable Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : null;
+    }
+
+    @Nullable
+    private static Map<?, ?> asMap(@Nullable Map<?, ?> map, String key) {
+        return map != null ? asMap(map.get(key)) : null;
+    }
+
+    protected abstract void doUpdateSettings(String indexName, Map<String, Object> settings);
+
+    protected abstract String doSubmitReindex(ReindexRequest request);
+
+    protected abstract Map<String, Object> doGetTask(String taskId);
+
+    protected abstract void doCancelTask(String taskId);
+    // endregion
+
+    // region templates
+    @Override
+    public boolean putTemplate() {
+        Class<?> clazz = checkForBoundClass();
+        IndexCoordinates indexPattern = getIndexCoordinates();
+        return doPutTemplate(getTemplateName(), indexPattern.getIndexName(), createSettings(clazz), createMapping(clazz));
+    }
+
+    @Override
+    public boolean existsTemplate() {
+        return doExistsTemplate(getTemplateName());
+    }
+
+    @Override
+    public boolean deleteTemplate() {
+        String templateName = getTemplateName();
+        return doExistsTemplate(templateName) && doDeleteTemplate(templateName);
+    }
+
+    private String getTemplateName() {
+        TimePartitioning partitioning = getRequiredPersistentEntity(checkForBoundClass()).getTimePartitioning();
+        if (partitioning == null) {
+            throw new InvalidDataAccessApiUsageException(boundClass.getName() + " is not time partitioned");
+        }
+        return partitioning.getTemplateName(getIndexCoordinates());
+    }
+
+    protected abstract boolean doPutTemplate(String templateName, String indexPattern, Document settings, Document mapping);
+
+    protected abstract boolean doExistsTemplate(String templateName);
+
+    protected abstract boolean doDeleteTemplate(String templateName);
+    // endregion
 
     @Override
     public Document createMapping() {
         return createMapping(checkForBoundClass());
     }
 
+    protected boolean isGeneratedMappingEnabled() {
+        return false;
+    }
+
     @Override
     public Document createMapping(Class<?> clazz) {
-        return buildMapping(clazz);
+        Assert.notNull(clazz, "class must not be null");
+        return getRequiredPersistentEntity(clazz).computeMappingIfAbsent(() -> buildMapping(clazz));
     }
 
     @Override
@@ -126,6 +397,21 @@ abstract class AbstractDefaultIndexOperations implements IndexOperations {
 
     protected abstract boolean doPutMapping(IndexCoordinates index, Document mapping);
 
+    @Override
+    public MappingDiff reconcileMapping() {
+        return reconcileMapping(checkForBoundClass());
+    }
+
+    @Override
+    public MappingDiff reconcileMapping(Class<?> clazz) {
+        IndexCoordinates index = getIndexCoordinates();
+        MappingDiff diff = MappingDiff.compute(doGetMapping(index), createMapping(clazz));
+        if (diff.hasAdditions()) {
+            doPutMapping(index, diff.getAdditions());
+        }
+        return diff;
+    }
+
     @Override
     public Map<String, Object> getMapping() {
         return doGetMapping(getIndexCoordinates());
@@ -164,6 +450,13 @@ abstract class AbstractDefaultIndexOperations implements IndexOperations {
             }
         }
 
+        // generated at build time by MappingGenerator, skips the reflection of the MappingBuilder
+        String generated = isGeneratedMappingEnabled() ? MappingGenerator.readGeneratedMapping(clazz) : null;
+        if (generated != null) {
+            LOGGER.info("Using the mapping of {} generated at build time", clazz.getName());
+            return Document.parse(generated);
+        }
+
         try {
             String mapping = new MappingBuilder(elasticsearchConverter).buildPropertyMapping(clazz);
             return Document.parse(mapping);
@@ -1,6 +1,7 @@
 package com.xxbb.springframework.data.elasticsearch.core;
 
 import com.xxbb.springframework.data.elasticsearch.BulkFailureException;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
 import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
@@ -22,6 +23,11 @@ import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.MoreLikeThisQueryBuilder;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.search.suggest.SuggestBuilder;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
@@ -35,17 +41,32 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import java.awt.print.Pageable;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class AbstractElasticsearchTemplate implements ApplicationContextAware, ElasticsearchOperations {
+    static final Duration DEFAULT_SCROLL_TIME = Duration.ofMinutes(1);
+    static final int DEFAULT_SEARCH_AFTER_PAGE_SIZE = 500;
+    static final String DEFAULT_SEARCH_AFTER_TIEBREAKER = "_id";
+
     @Nullable
     protected ElasticsearchConverter elasticsearchConverter;
     @Nullable
     protected RequestFactory requestFactory;
     @Nullable
     private EntityCallbacks entityCallbacks;
+    protected ElasticsearchMetricsRecorder metricsRecorder = ElasticsearchMetricsRecorder.NONE;
+    @Nullable
+    protected SlowOperationLog slowOperationLog;
+    @Nullable
+    private String searchAfterTiebreaker;
+    private Executor scrollSliceExecutor = StreamQueries.DEFAULT_SLICE_EXECUTOR;
+    private boolean generatedMappingsEnabled = false;
+    private final AtomicBoolean versionsLogged = new AtomicBoolean();
 //    @Nullable
 //    private EntityOperations entityOperations;
 
@@ -55,7 +76,14 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
 
         this.elasticsearchConverter = elasticsearchConverter;
         requestFactory = new RequestFactory(elasticsearchConverter);
-        VersionInfo.logVersions(getClusterVersion());
+    }
+
+    // the version check is informational and made with the first request, a cluster that is not up yet must not hold up
+    // the construction
+    protected void logVersionsOnce() {
+        if (versionsLogged.compareAndSet(false, true)) {
+            VersionInfo.logVersions(getClusterVersion());
+        }
     }
 
     protected ElasticsearchConverter createElasticsearchConverter() {
@@ -79,6 +107,43 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
         Assert.notNull(entityCallbacks, "entityCallback must not be null");
         this.entityCallbacks = entityCallbacks;
     }
+
+    public void setMetricsRecorder(ElasticsearchMetricsRecorder metricsRecorder) {
+        Assert.notNull(metricsRecorder, "metricsRecorder must not be null");
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    public ElasticsearchMetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    public void setSlowOperationLog(@Nullable SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+    @Nullable
+    public SlowOperationLog getSlowOperationLog() {
+        return slowOperationLog;
+    }
+
+    public void setScrollSliceExecutor(Executor scrollSliceExecutor) {
+        Assert.notNull(scrollSliceExecutor, "scrollSliceExecutor must not be null");
+        this.scrollSliceExecutor = scrollSliceExecutor;
+    }
+
+    public void setSearchAfterTiebreaker(@Nullable String searchAfterTiebreaker) {
+        this.searchAfterTiebreaker = searchAfterTiebreaker;
+    }
+
+    // reads the mappings MappingGenerator wrote at build time instead of building them. Off by default, a generated
+    // mapping left on the classpath would otherwise silently win over a changed entity
+    public void setGeneratedMappingsEnabled(boolean generatedMappingsEnabled) {
+        this.generatedMappingsEnabled = generatedMappingsEnabled;
+    }
+
+    public boolean isGeneratedMappingsEnabled() {
+        return generatedMappingsEnabled;
+    }
     // endregion
 
     // region Document operations
@@ -113,13 +178,19 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
 
     @Override
     public <T> Iterable<T> save(Iterable<T> entities, IndexCoordinates index) {
+        return save(entities, BulkOptions.defaultOptions(), index);
+    }
+
+    @Override
+    public <T> Iterable<T> save(Iterable<T> entities, BulkOptions bulkOptions, IndexCoordinates index) {
         Assert.notNull(entities, "entities must not be null");
+        Assert.notNull(bulkOptions, "bulkOptions must not be null");
         Assert.notNull(index, "index must not be null");
 
         List<IndexQuery> indexQueries = Streamable.of(entities).stream().map(this::getIndexQuery).collect(Collectors.toList());
 
         if (!indexQueries.isEmpty()) {
-            List<IndexObjectInformation> ids = bulkIndex(indexQueries, index);
+            List<IndexObjectInformation> ids = bulkIndex(indexQueries, bulkOptions, index);
             Iterator<IndexObjectInformation> idIterator = ids.iterator();
             entities.forEach(entity -> {
                 updateIndexObject(entity, idIterator.next());
@@ -163,7 +234,7 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
     public String delete(String id, Class<?> entityType) {
         Assert.notNull(id, "id must not be null");
         Assert.notNull(entityType, "entity Type must not be null");
-        return delete(id, getIndexCoordinatesFor(entityType));
+        return doDelete(id, null, entityType, getIndexCoordinatesFor(entityType));
     }
 
     @Override
@@ -178,9 +249,12 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
 
     @Override
     public String delete(Object entity, IndexCoordinates index) {
-        return delete(getEntityId(entity), index);
+        return doDelete(getEntityId(entity), null, entity.getClass(), index);
     }
 
+    // the entity type, when known, provides the write defaults of the request
+    abstract protected String doDelete(String id, @Nullable String routing, @Nullable Class<?> clazz, IndexCoordinates index);
+
     @Override
     public List<IndexObjectInformation> bulkIndex(List<IndexQuery> queries, Class<?> clazz) {
         return bulkIndex(queries, getIndexCoordinatesFor(clazz));
@@ -211,17 +285,88 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
 
     @Override
     public <T> SearchHitsIterator<T> searchForStream(Query query, Class<T> clazz, IndexCoordinates index) {
-        long scrollTimeInMillis = TimeValue.timeValueMillis(1).millis();
+        long scrollTimeInMillis = query.hasScrollTime() ? query.getScrollTime().toMillis() : DEFAULT_SCROLL_TIME.toMillis();
 
         // noinspection ConstantConditions
         int maxCount = query.isLimiting() ? query.getMaxResults() : 0;
+        Integer slices = query.getScrollSlices();
+        // the pages after the first are read while the caller iterates, they keep its label for the slow log
+        String caller = SlowOperationLog.currentCaller();
+        if (slices != null && slices > 1) {
+            return StreamQueries.streamSlicedResults(
+                    maxCount,
+                    slices,
+                    scrollSliceExecutor,
+                    sliceId -> SlowOperationLog.withCaller(caller,
+                            () -> searchScrollStart(scrollTimeInMillis, query, clazz, index, new SliceBuilder(sliceId, slices))),
+                    scrollId -> SlowOperationLog.withCaller(caller, () -> searchScrollContinue(scrollId, scrollTimeInMillis, clazz, index)),
+                    this::searchScrollClear);
+        }
         return StreamQueries.streamResults(
                 maxCount,
                 searchScrollStart(scrollTimeInMillis, query, clazz, index),
-                scrollId -> searchScrollContinue(scrollId, scrollTimeInMillis, clazz, index),
+                scrollId -> SlowOperationLog.withCaller(caller, () -> searchScrollContinue(scrollId, scrollTimeInMillis, clazz, index)),
                 this::searchScrollClear);
     }
 
+    @Override
+    public <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz) {
+        return searchAfterStream(query, clazz, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz, IndexCoordinates index) {
+        return searchAfterStream(query, clazz, index, null);
+    }
+
+    @Override
+    public <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz, IndexCoordinates index, @Nullable String cursor) {
+        Assert.notNull(query, "query must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        // the query stays as it is, the page size, the tiebreaker and the sort values are set on the requests only
+        int pageSize = query.getPageable().isPaged() ? query.getPageable().getPageSize() : DEFAULT_SEARCH_AFTER_PAGE_SIZE;
+        String tiebreaker = getSearchAfterTiebreaker(clazz);
+        FieldSortBuilder tiebreakerSort = hasSort(query, tiebreaker) ? null : SortBuilders.fieldSort(tiebreaker).order(SortOrder.ASC);
+        List<Object> searchAfter = cursor != null ? SearchAfterCursor.decode(cursor) : query.getSearchAfter();
+
+        // noinspection ConstantConditions
+        int maxCount = query.isLimiting() ? query.getMaxResults() : 0;
+        int size = query.isLimiting() ? Math.min(maxCount, pageSize) : pageSize;
+        String caller = SlowOperationLog.currentCaller();
+        return StreamQueries.streamSearchAfterResults(
+                maxCount,
+                size,
+                searchAfter,
+                searchAfterPage(query, size, tiebreakerSort, searchAfter, clazz, index),
+                sortValues -> SlowOperationLog.withCaller(caller, () -> searchAfterPage(query, size, tiebreakerSort, sortValues, clazz, index)));
+    }
+
+    // the field search after sorts on last to page through equal sort values: the configured one, or the id property
+    // when the mapping has it, a keyword with doc values, and _id, which is sorted on with fielddata, otherwise
+    String getSearchAfterTiebreaker(Class<?> clazz) {
+        if (searchAfterTiebreaker != null) {
+            return searchAfterTiebreaker;
+        }
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchConverter.getMappingContext().getPersistentEntity(clazz);
+        ElasticsearchPersistentProperty idProperty = persistentEntity != null ? persistentEntity.getIdProperty() : null;
+        if (idProperty != null && idProperty.isAnnotationPresent(Field.class)) {
+            return idProperty.getFieldName();
+        }
+        return DEFAULT_SEARCH_AFTER_TIEBREAKER;
+    }
+
+    private boolean hasSort(Query query, String fieldName) {
+        if (query.getSort() != null && query.getSort().getOrderFor(fieldName) != null) {
+            return true;
+        }
+        if (query instanceof NativeSearchQuery && ((NativeSearchQuery) query).getElasticsearchSorts() != null) {
+            return ((NativeSearchQuery) query).getElasticsearchSorts().stream()
+                    .anyMatch(sort -> sort instanceof FieldSortBuilder && fieldName.equals(((FieldSortBuilder) sort).getFieldName()));
+        }
+        return false;
+    }
+
     @Override
     public <T> SearchHits<T> search(MoreLikeThisQuery query, Class<T> clazz) {
         return search(query, clazz, getIndexCoordinatesFor(clazz));
@@ -323,7 +468,15 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
         return suggest(suggestion, getIndexCoordinatesFor(clazz));
     }
 
-    abstract protected <T> SearchScrollHits<T> searchScrollStart(long scrollTimeInMillis, Query query, Class<T> clazz, IndexCoordinates index);
+    protected <T> SearchScrollHits<T> searchScrollStart(long scrollTimeInMillis, Query query, Class<T> clazz, IndexCoordinates index) {
+        return searchScrollStart(scrollTimeInMillis, query, clazz, index, null);
+    }
+
+    abstract protected <T> SearchScrollHits<T> searchScrollStart(long scrollTimeInMillis, Query query, Class<T> clazz, IndexCoordinates index, @Nullable SliceBuilder slice);
+
+    // a page of the query of size hits after sortValues, sorted on the tiebreaker last
+    abstract protected <T> SearchHits<T> searchAfterPage(Query query, int size, @Nullable FieldSortBuilder tiebreakerSort,
+                                                         @Nullable List<Object> sortValues, Class<T> clazz, IndexCoordinates index);
 
     abstract protected <T> SearchScrollHits<T> searchScrollContinue(@Nullable String scrollId, long scrollTimeInMillis, Class<T> clazz, IndexCoordinates index);
 
@@ -362,13 +515,17 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
     protected List<IndexObjectInformation> checkForBulkOperationFailure(BulkResponse bulkResponse) {
         if (bulkResponse.hasFailures()) {
             Map<String, String> failedDocuments = new HashMap<>();
+            Set<String> rejectedDocuments = new HashSet<>();
             for (BulkItemResponse item : bulkResponse.getItems()) {
                 if (item.isFailed()) {
                     failedDocuments.put(item.getId(), item.getFailureMessage());
+                    if (isRejected(item)) {
+                        rejectedDocuments.add(item.getId());
+                    }
                 }
-                throw new BulkFailureException(
-                        "Bulk operation has failures. Use ElasticsearchException.getFailureDocuments() for deetailed messages [" + failedDocuments + ']', failedDocuments);
             }
+            throw new BulkFailureException(
+                    "Bulk operation has failures. Use ElasticsearchException.getFailureDocuments() for deetailed messages [" + failedDocuments + ']', failedDocuments, rejectedDocuments);
         }
         return Stream.of(bulkResponse.getItems()).map(bulkItemResponse -> {
             DocWriteResponse response = bulkItemResponse.getResponse();
@@ -380,6 +537,10 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
         }).collect(Collectors.toList());
     }
 
+    protected static boolean isRejected(BulkItemResponse item) {
+        return item.isFailed() && item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS;
+    }
+
     protected void updateIndexObject(Object entity, IndexObjectInformation indexObjectInformation) {
         ElasticsearchPersistentEntity<?> persistentEntity = getRequiredPersistentEntity(entity.getClass());
         PersistentPropertyAccessor<Object> propertyAccessor = persistentEntity.getPropertyAccessor(entity);
@@ -443,6 +604,11 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
         return null;
     }
 
+    // the index query save sends for the entity, for the async template and the bulk ingester
+    final IndexQuery createIndexQuery(Object entity) {
+        return getIndexQuery(entity);
+    }
+
     private <T> IndexQuery getIndexQuery(T entity) {
         String id = getEntityId(entity);
         if (id != null) {
@@ -570,34 +736,44 @@ public abstract class AbstractElasticsearchTemplate implements ApplicationContex
     protected class ReadSearchDocumentResponseCallback<T> implements SearchDocumentResponseCallback<SearchHits<T>> {
         private final DocumentCallback<T> delegate;
         private final Class<T> type;
+        private final IndexCoordinates index;
 
         public ReadSearchDocumentResponseCallback(Class<T> type, IndexCoordinates index) {
             Assert.notNull(type, "type must not be null");
             this.delegate = new ReadDocumentCallback<>(elasticsearchConverter, type, index);
             this.type = type;
+            this.index = index;
         }
 
         @Override
         public SearchHits<T> doWith(SearchDocumentResponse response) {
+            long start = System.nanoTime();
             List<T> entities = response.getSearchDocuments().stream().map(delegate::doWith).collect(Collectors.toList());
-            return SearchHitMapping.mappingFor(type, elasticsearchConverter).mapHits(response, entities);
+            SearchHits<T> searchHits = SearchHitMapping.mappingFor(type, elasticsearchConverter).mapHits(response, entities);
+            metricsRecorder.recordConversion(index.getIndexName(), entities.size(), System.nanoTime() - start);
+            return searchHits;
         }
     }
 
     protected class ReadSearchScrollDocumentResponseCallback<T> implements SearchDocumentResponseCallback<SearchScrollHits<T>> {
         private final DocumentCallback<T> delegate;
         private final Class<T> type;
+        private final IndexCoordinates index;
 
         public ReadSearchScrollDocumentResponseCallback(Class<T> type, IndexCoordinates index) {
             Assert.notNull(type, "Type must not be null");
             this.delegate = new ReadDocumentCallback<>(elasticsearchConverter, type, index);
             this.type = type;
+            this.index = index;
         }
 
         @Override
         public SearchScrollHits<T> doWith(SearchDocumentResponse response) {
+            long start = System.nanoTime();
             List<T> entities = response.getSearchDocuments().stream().map(delegate::doWith).collect(Collectors.toList());
-            return SearchHitMapping.mappingFor(type, elasticsearchConverter).mapScrollHits(response, entities);
+            SearchScrollHits<T> searchHits = SearchHitMapping.mappingFor(type, elasticsearchConverter).mapScrollHits(response, entities);
+            metricsRecorder.recordConversion(index.getIndexName(), entities.size(), System.nanoTime() - start);
+            return searchHits;
         }
     }
     // endregion
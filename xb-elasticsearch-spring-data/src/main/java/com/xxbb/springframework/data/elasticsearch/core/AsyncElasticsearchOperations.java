@@ -0,0 +1,60 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncElasticsearchOperations {
+
+    <T> CompletableFuture<T> save(T entity);
+
+    <T> CompletableFuture<T> save(T entity, IndexCoordinates index);
+
+    CompletableFuture<String> index(IndexQuery query, IndexCoordinates index);
+
+    <T> CompletableFuture<T> get(String id, Class<T> clazz);
+
+    <T> CompletableFuture<T> get(String id, Class<T> clazz, IndexCoordinates index);
+
+    <T> CompletableFuture<List<T>> multiGet(Query query, Class<T> clazz);
+
+    <T> CompletableFuture<List<T>> multiGet(Query query, Class<T> clazz, IndexCoordinates index);
+
+    <T> CompletableFuture<SearchHits<T>> search(Query query, Class<T> clazz);
+
+    <T> CompletableFuture<SearchHits<T>> search(Query query, Class<T> clazz, IndexCoordinates index);
+
+    CompletableFuture<Long> count(Query query, Class<?> clazz);
+
+    CompletableFuture<Long> count(Query query, @Nullable Class<?> clazz, IndexCoordinates index);
+
+    default CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, Class<?> clazz) {
+        return bulkIndex(queries, BulkOptions.defaultOptions(), clazz);
+    }
+
+    default CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, IndexCoordinates index) {
+        return bulkIndex(queries, BulkOptions.defaultOptions(), index);
+    }
+
+    CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, BulkOptions bulkOptions, Class<?> clazz);
+
+    CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, BulkOptions bulkOptions, IndexCoordinates index);
+
+    CompletableFuture<String> delete(String id, Class<?> entityType);
+
+    default CompletableFuture<String> delete(String id, IndexCoordinates index) {
+        return delete(id, null, index);
+    }
+
+    CompletableFuture<String> delete(String id, @Nullable String routing, IndexCoordinates index);
+
+    ElasticsearchConverter getElasticsearchConverter();
+
+    IndexCoordinates getIndexCoordinatesFor(Class<?> clazz);
+}
@@ -0,0 +1,283 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.document.DocumentAdapters;
+import com.xxbb.springframework.data.elasticsearch.core.document.SearchDocumentResponse;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import com.xxbb.springframework.data.elasticsearch.support.SearchHitsUtil;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.xxbb.springframework.data.elasticsearch.core.ElasticsearchMetricsRecorder.*;
+
+public class AsyncElasticsearchRestTemplate implements AsyncElasticsearchOperations, Closeable {
+    private static final int MAPPING_QUEUE_CAPACITY = 1024;
+    // the name the http client gives the threads of its I/O reactor
+    private static final String IO_DISPATCHER_THREAD_PREFIX = "I/O dispatcher";
+
+    private final ElasticsearchRestTemplate template;
+    private final Executor mappingExecutor;
+    private final boolean ownsMappingExecutor;
+
+    public AsyncElasticsearchRestTemplate(ElasticsearchRestTemplate template) {
+        this(template, createMappingExecutor(), true);
+    }
+
+    // responses complete on the I/O reactor threads of the client, which must not block. Mapping them and the entity
+    // callbacks run on the mapping executor, which must not run them on the calling thread
+    public AsyncElasticsearchRestTemplate(ElasticsearchRestTemplate template, Executor mappingExecutor) {
+        this(template, mappingExecutor, false);
+    }
+
+    private AsyncElasticsearchRestTemplate(ElasticsearchRestTemplate template, Executor mappingExecutor, boolean ownsMappingExecutor) {
+        Assert.notNull(template, "template must not be null");
+        Assert.notNull(mappingExecutor, "mappingExecutor must not be null");
+        this.template = template;
+        this.mappingExecutor = mappingExecutor;
+        this.ownsMappingExecutor = ownsMappingExecutor;
+    }
+
+    // shuts down the default mapping executor, an executor passed in is left to its owner. Responses arriving
+    // afterwards complete their futures with a RejectedExecutionException
+    @Override
+    public void close() {
+        if (ownsMappingExecutor) {
+            ((ExecutorService) mappingExecutor).shutdown();
+        }
+    }
+
+    // region document operations
+    @Override
+    public <T> CompletableFuture<T> save(T entity) {
+        Assert.notNull(entity, "entity must not be null");
+        return save(entity, getIndexCoordinatesFor(entity.getClass()));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> save(T entity, IndexCoordinates index) {
+        Assert.notNull(entity, "entity must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        IndexQuery query = template.createIndexQuery(entity);
+        return index(query, index).thenApply(id -> {
+            @SuppressWarnings("unchecked")
+            T castResult = (T) query.getObject();
+            return castResult;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> index(IndexQuery query, IndexCoordinates index) {
+        template.maybeCallbackBeforeConvertWithQuery(query, index);
+        IndexRequest request = getRequestFactory().indexRequest(query, index);
+
+        return template.<IndexResponse> executeAsync(INDEX, index,
+                (client, listener) -> client.indexAsync(request, RequestOptions.DEFAULT, listener))
+                .thenApplyAsync(response -> {
+                    Object queryObject = query.getObject();
+                    if (queryObject != null) {
+                        template.updateIndexObject(queryObject, IndexObjectInformation.of(response.getId(), response.getSeqNo(), response.getPrimaryTerm(), response.getVersion()));
+                    }
+                    template.maybeCallbackAfterSaveWithQuery(query, index);
+                    return response.getId();
+                }, mappingExecutor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String id, Class<T> clazz) {
+        return get(id, clazz, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String id, Class<T> clazz, IndexCoordinates index) {
+        GetRequest request = getRequestFactory().getRequest(id, index);
+        AbstractElasticsearchTemplate.DocumentCallback<T> callback = template.new ReadDocumentCallback<>(getElasticsearchConverter(), clazz, index);
+
+        return template.<GetResponse> executeAsync(GET, index,
+                (client, listener) -> client.getAsync(request, RequestOptions.DEFAULT, listener))
+                .thenApplyAsync(response -> callback.doWith(DocumentAdapters.from(response)), mappingExecutor);
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> multiGet(Query query, Class<T> clazz) {
+        return multiGet(query, clazz, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> multiGet(Query query, Class<T> clazz, IndexCoordinates index) {
+        Assert.notNull(index, "index must not be null");
+        Assert.notNull(query.getIds(), "No id defined for query");
+
+        MultiGetRequest request = getRequestFactory().multiGetRequest(query, clazz, index);
+        AbstractElasticsearchTemplate.DocumentCallback<T> callback = template.new ReadDocumentCallback<>(getElasticsearchConverter(), clazz, index);
+
+        return template.<MultiGetResponse> executeAsync(MULTI_GET, index,
+                (client, listener) -> client.mgetAsync(request, RequestOptions.DEFAULT, listener))
+                .thenApplyAsync(response -> DocumentAdapters.from(response).stream().map(callback::doWith).collect(Collectors.toList()), mappingExecutor);
+    }
+
+    @Override
+    public CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, BulkOptions bulkOptions, Class<?> clazz) {
+        return bulkIndex(queries, bulkOptions, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public CompletableFuture<List<IndexObjectInformation>> bulkIndex(List<IndexQuery> queries, BulkOptions bulkOptions, IndexCoordinates index) {
+        Assert.notNull(queries, "List of IndexQuery must not be null");
+        Assert.notNull(bulkOptions, "BulkOptions must not be null");
+
+        template.maybeCallbackBeforeConvertWithQueries(queries, index);
+        BulkRequest bulkRequest = getRequestFactory().bulkRequest(queries, bulkOptions, index);
+        template.getMetricsRecorder().recordBulk(index.getIndexName(), bulkRequest.numberOfActions(), bulkRequest.estimatedSizeInBytes());
+
+        return template.<BulkResponse> executeAsync(BULK, index,
+                (client, listener) -> client.bulkAsync(bulkRequest, RequestOptions.DEFAULT, listener))
+                .thenApplyAsync(response -> {
+                    template.getMetricsRecorder().recordTook(BULK, index.getIndexName(), response.getTook().millis());
+                    List<IndexObjectInformation> indexObjectInformationList = template.checkForBulkOperationFailure(response);
+                    template.updateIndexedObjectsWithQueries(queries, indexObjectInformationList);
+                    template.maybeCallbackAfterSaveWithQueries(queries, index);
+                    return indexObjectInformationList;
+                }, mappingExecutor);
+    }
+
+    @Override
+    public CompletableFuture<String> delete(String id, Class<?> entityType) {
+        Assert.notNull(id, "id must not be null");
+        Assert.notNull(entityType, "entity Type must not be null");
+        return delete(id, getIndexCoordinatesFor(entityType));
+    }
+
+    @Override
+    public CompletableFuture<String> delete(String id, @Nullable String routing, IndexCoordinates index) {
+        Assert.notNull(id, "id must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        DeleteRequest request = getRequestFactory().deleteRequest(getElasticsearchConverter().convertId(id), routing, index);
+        return template.<DeleteResponse> executeAsync(DELETE, index,
+                (client, listener) -> client.deleteAsync(request, RequestOptions.DEFAULT, listener))
+                .thenApply(DeleteResponse::getId);
+    }
+    // endregion
+
+    // region search operations
+    @Override
+    public <T> CompletableFuture<SearchHits<T>> search(Query query, Class<T> clazz) {
+        return search(query, clazz, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public <T> CompletableFuture<SearchHits<T>> search(Query query, Class<T> clazz, IndexCoordinates index) {
+        SearchRequest request = getRequestFactory().searchRequest(query, clazz, index);
+        AbstractElasticsearchTemplate.SearchDocumentResponseCallback<SearchHits<T>> callback = template.new ReadSearchDocumentResponseCallback<>(clazz, index);
+
+        return template.<SearchResponse> executeAsync(SEARCH, index,
+                (client, listener) -> client.searchAsync(request, RequestOptions.DEFAULT, listener))
+                .thenApplyAsync(response -> {
+                    template.recordSearchResponse(SEARCH, index, response);
+                    return callback.doWith(SearchDocumentResponse.from(response));
+                }, mappingExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Long> count(Query query, Class<?> clazz) {
+        return count(query, clazz, getIndexCoordinatesFor(clazz));
+    }
+
+    @Override
+    public CompletableFuture<Long> count(Query query, @Nullable Class<?> clazz, IndexCoordinates index) {
+        Assert.notNull(query, "query must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        SearchRequest searchRequest = template.countRequest(query, clazz, index);
+        return template.<SearchResponse> executeAsync(COUNT, index,
+                (client, listener) -> client.searchAsync(searchRequest, RequestOptions.DEFAULT, listener))
+                .thenApply(response -> {
+                    template.getMetricsRecorder().recordTook(COUNT, index.getIndexName(), response.getTook().millis());
+                    return SearchHitsUtil.getTotalCount(response.getHits());
+                });
+    }
+    // endregion
+
+    // region helper methods
+    @Override
+    public ElasticsearchConverter getElasticsearchConverter() {
+        return template.getElasticsearchConverter();
+    }
+
+    @Override
+    public IndexCoordinates getIndexCoordinatesFor(Class<?> clazz) {
+        return template.getIndexCoordinatesFor(clazz);
+    }
+
+    private RequestFactory getRequestFactory() {
+        return template.getRequestFactory();
+    }
+
+    // a thread per processor, the threads end when idle. A full queue is worked off by the threads submitting to it
+    private static ExecutorService createMappingExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAPPING_QUEUE_CAPACITY), new MappingThreadFactory(), new CallerRunsUnlessReactorPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // an I/O reactor thread that mapped a response itself would stall every request on its connections, the future
+    // of that response fails with the rejection instead
+    private static class CallerRunsUnlessReactorPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Async template is closed");
+            }
+            if (Thread.currentThread().getName().startsWith(IO_DISPATCHER_THREAD_PREFIX)) {
+                throw new RejectedExecutionException("Mapping queue is full, " + MAPPING_QUEUE_CAPACITY + " responses are waiting");
+            }
+            task.run();
+        }
+    }
+
+    private static class MappingThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "elasticsearch-async-mapping-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,325 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class BulkIngester implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(BulkIngester.class);
+
+    private final ElasticsearchRestTemplate template;
+    private final Listener listener;
+    private final Executor callbackExecutor;
+    private final BulkProcessor bulkProcessor;
+    private final Map<DocWriteRequest<?>, PendingItem> pendingItems = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private BulkIngester(ElasticsearchRestTemplate template, Listener listener, Executor callbackExecutor, int bulkActions,
+                         ByteSizeValue bulkSize, int concurrentRequests, @Nullable Duration flushInterval) {
+        this.template = template;
+        this.listener = listener;
+        this.callbackExecutor = callbackExecutor;
+
+        BulkProcessor.Builder builder = BulkProcessor.builder(this::executeBulk, new BulkProcessorListener())
+                .setBulkActions(bulkActions)
+                .setBulkSize(bulkSize)
+                .setConcurrentRequests(concurrentRequests)
+                .setBackoffPolicy(BackoffPolicy.noBackoff());
+
+        if (flushInterval != null) {
+            builder.setFlushInterval(TimeValue.timeValueMillis(flushInterval.toMillis()));
+        }
+        this.bulkProcessor = builder.build();
+    }
+
+    public static BulkIngesterBuilder builder(ElasticsearchRestTemplate template) {
+        return new BulkIngesterBuilder(template);
+    }
+
+    // region add
+    public void index(Object entity) {
+        Assert.notNull(entity, "entity must not be null");
+        index(template.createIndexQuery(entity), template.getIndexCoordinatesFor(entity.getClass()), null);
+    }
+
+    public void index(IndexQuery query, IndexCoordinates index) {
+        index(query, index, null);
+    }
+
+    public void index(IndexQuery query, IndexCoordinates index, @Nullable Consumer<ItemResult> callback) {
+        Assert.notNull(query, "query must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        template.maybeCallbackBeforeConvertWithQuery(query, index);
+        add(template.getRequestFactory().indexItemRequest(query, index), query, index, callback);
+    }
+
+    public void update(UpdateQuery query, IndexCoordinates index) {
+        update(query, index, null);
+    }
+
+    public void update(UpdateQuery query, IndexCoordinates index, @Nullable Consumer<ItemResult> callback) {
+        Assert.notNull(query, "query must not be null");
+        Assert.notNull(index, "index must not be null");
+
+        add(template.getRequestFactory().updateItemRequest(query, index), query, index, callback);
+    }
+
+    private void add(DocWriteRequest<?> request, Object query, IndexCoordinates index, @Nullable Consumer<ItemResult> callback) {
+        pendingItems.put(request, new PendingItem(query, index, callback));
+        try {
+            bulkProcessor.add(request);
+        } catch (RuntimeException e) {
+            pendingItems.remove(request);
+            throw e;
+        }
+    }
+    // endregion
+
+    public void flush() {
+        bulkProcessor.flush();
+    }
+
+    public boolean awaitClose(long timeout, TimeUnit unit) throws InterruptedException {
+        return bulkProcessor.awaitClose(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        bulkProcessor.close();
+    }
+
+    // the response completes on an I/O reactor thread of the client, the listeners and callbacks, which may block, run
+    // on the callback executor
+    private void executeBulk(BulkRequest request, ActionListener<BulkResponse> bulkListener) {
+        ElasticsearchMetricsRecorder metricsRecorder = template.getMetricsRecorder();
+        metricsRecorder.recordBulk(null, request.numberOfActions(), request.estimatedSizeInBytes());
+
+        template.<BulkResponse> executeAsync(ElasticsearchMetricsRecorder.BULK, null,
+                (client, actionListener) -> client.bulkAsync(request, RequestOptions.DEFAULT, actionListener))
+                .whenCompleteAsync((response, throwable) -> {
+                    if (throwable != null) {
+                        bulkListener.onFailure(throwable instanceof Exception ? (Exception) throwable : new RuntimeException(throwable));
+                    } else {
+                        metricsRecorder.recordTook(ElasticsearchMetricsRecorder.BULK, null, response.getTook().millis());
+                        bulkListener.onResponse(response);
+                    }
+                }, callbackExecutor);
+    }
+
+    private void completeItem(PendingItem pendingItem, ItemResult result) {
+        if (!result.isFailed() && pendingItem.query instanceof IndexQuery) {
+            Object queryObject = ((IndexQuery) pendingItem.query).getObject();
+            if (queryObject != null) {
+                template.updateIndexObject(queryObject, result.getIndexObjectInformation());
+            }
+            template.maybeCallbackAfterSaveWithQuery(pendingItem.query, pendingItem.index);
+        }
+
+        try {
+            if (pendingItem.callback != null) {
+                pendingItem.callback.accept(result);
+            }
+            listener.onItem(result);
+        } catch (RuntimeException e) {
+            logger.warn("Bulk item callback failed: {}", e.getMessage());
+        }
+    }
+
+    private class BulkProcessorListener implements BulkProcessor.Listener {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            listener.beforeBulk(executionId, request.numberOfActions(), request.estimatedSizeInBytes());
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            List<DocWriteRequest<?>> requests = request.requests();
+            for (BulkItemResponse item : response.getItems()) {
+                PendingItem pendingItem = pendingItems.remove(requests.get(item.getItemId()));
+                if (pendingItem == null) {
+                    continue;
+                }
+
+                ItemResult result;
+                if (item.isFailed()) {
+                    result = new ItemResult(pendingItem.query, IndexObjectInformation.of(item.getId(), null, null, null),
+                            item.getFailure().getCause(), item.getFailureMessage());
+                } else {
+                    DocWriteResponse itemResponse = item.getResponse();
+                    result = new ItemResult(pendingItem.query, IndexObjectInformation.of(itemResponse.getId(),
+                            itemResponse.getSeqNo(), itemResponse.getPrimaryTerm(), itemResponse.getVersion()), null, null);
+                }
+                completeItem(pendingItem, result);
+            }
+            listener.afterBulk(executionId, response.getItems().length, response.hasFailures(), response.getTook().millis());
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            logger.warn("Bulk request {} with {} actions failed: {}", executionId, request.numberOfActions(), failure.getMessage());
+            for (DocWriteRequest<?> docWriteRequest : request.requests()) {
+                PendingItem pendingItem = pendingItems.remove(docWriteRequest);
+                if (pendingItem != null) {
+                    completeItem(pendingItem, new ItemResult(pendingItem.query, IndexObjectInformation.of(docWriteRequest.id(), null, null, null),
+                            failure, failure.getMessage()));
+                }
+            }
+        }
+    }
+
+    private static class PendingItem {
+        private final Object query;
+        private final IndexCoordinates index;
+        @Nullable private final Consumer<ItemResult> callback;
+
+        PendingItem(Object query, IndexCoordinates index, @Nullable Consumer<ItemResult> callback) {
+            this.query = query;
+            this.index = index;
+            this.callback = callback;
+        }
+    }
+
+    public static class ItemResult {
+        private final Object query;
+        private final IndexObjectInformation indexObjectInformation;
+        @Nullable private final Throwable failure;
+        @Nullable private final String failureMessage;
+
+        ItemResult(Object query, IndexObjectInformation indexObjectInformation, @Nullable Throwable failure, @Nullable String failureMessage) {
+            this.query = query;
+            this.indexObjectInformation = indexObjectInformation;
+            this.failure = failure;
+            this.failureMessage = failureMessage;
+        }
+
+        public Object getQuery() {
+            return query;
+        }
+
+        public IndexObjectInformation getIndexObjectInformation() {
+            return indexObjectInformation;
+        }
+
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        @Nullable
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        @Nullable
+        public String getFailureMessage() {
+            return failureMessage;
+        }
+    }
+
+    public interface Listener {
+        default void beforeBulk(long executionId, int numberOfActions, long estimatedSizeInBytes) {}
+
+        default void onItem(ItemResult result) {}
+
+        default void afterBulk(long executionId, int numberOfActions, boolean hasFailures, long tookInMillis) {}
+    }
+
+    // one thread per ingester keeps the callbacks in order, it ends when the ingester is idle
+    private static Executor createCallbackExecutor() {
+        return new ThreadPoolExecutor(0, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new CallbackThreadFactory());
+    }
+
+    private static class CallbackThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "elasticsearch-bulk-ingester-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class BulkIngesterBuilder {
+        private final ElasticsearchRestTemplate template;
+        private Listener listener = new Listener() {};
+        @Nullable private Executor callbackExecutor;
+        private int bulkActions = 1000;
+        private ByteSizeValue bulkSize = new ByteSizeValue(5, ByteSizeUnit.MB);
+        private int concurrentRequests = 1;
+        @Nullable private Duration flushInterval;
+
+        BulkIngesterBuilder(ElasticsearchRestTemplate template) {
+            Assert.notNull(template, "template must not be null");
+            this.template = template;
+        }
+
+        public BulkIngesterBuilder withListener(Listener listener) {
+            Assert.notNull(listener, "listener must not be null");
+            this.listener = listener;
+            return this;
+        }
+
+        public BulkIngesterBuilder withCallbackExecutor(Executor callbackExecutor) {
+            Assert.notNull(callbackExecutor, "callbackExecutor must not be null");
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        public BulkIngesterBuilder withBulkActions(int bulkActions) {
+            this.bulkActions = bulkActions;
+            return this;
+        }
+
+        public BulkIngesterBuilder withBulkSizeInBytes(long bulkSizeInBytes) {
+            this.bulkSize = new ByteSizeValue(bulkSizeInBytes);
+            return this;
+        }
+
+        public BulkIngesterBuilder withConcurrentRequests(int concurrentRequests) {
+            Assert.isTrue(concurrentRequests >= 0, "concurrentRequests must not be negative");
+            this.concurrentRequests = concurrentRequests;
+            return this;
+        }
+
+        public BulkIngesterBuilder withFlushInterval(@Nullable Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public BulkIngester build() {
+            return new BulkIngester(template, listener, callbackExecutor != null ? callbackExecutor : createCallbackExecutor(),
+                    bulkActions, bulkSize, concurrentRequests, flushInterval);
+        }
+    }
+}
@@ -7,22 +7,40 @@ import com.xxbb.springframework.data.elasticsearch.UncategorizedElasticsearchExc
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.apache.http.util.EntityUtils;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.action.admin.indices.template.delete.DeleteIndexTemplateRequest;
+import org.elasticsearch.client.GetAliasesResponse;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.IndexTemplatesExistRequest;
+import org.elasticsearch.client.indices.PutIndexTemplateRequest;
 import org.elasticsearch.client.indices.PutMappingRequest;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.reindex.ReindexRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static org.elasticsearch.client.Requests.*;
 
@@ -40,6 +58,11 @@ public class DefaultIndexOperations extends AbstractDefaultIndexOperations imple
         this.restTemplate = restTemplate;
     }
 
+    @Override
+    protected boolean isGeneratedMappingEnabled() {
+        return restTemplate.isGeneratedMappingsEnabled();
+    }
+
     @Override
     protected boolean doCreate(String indexName,@Nullable Document settings) {
         CreateIndexRequest request = requestFactory.createIndexRequest(indexName, settings);
@@ -94,6 +117,75 @@ public class DefaultIndexOperations extends AbstractDefaultIndexOperations imple
         return convertSettingsResponseToMap(response, indexName);
     }
 
+    @Override
+    protected boolean doUpdateAliases(List<AliasActions> actions) {
+        IndicesAliasesRequest request = new IndicesAliasesRequest();
+        actions.forEach(request::addAliasAction);
+        return restTemplate.execute(client -> client.indices().updateAliases(request, RequestOptions.DEFAULT).isAcknowledged());
+    }
+
+    @Override
+    protected Set<String> doGetAliasedIndices(String alias) {
+        GetAliasesRequest request = new GetAliasesRequest(alias);
+        // a missing alias is a 404 the client turns into an empty response
+        GetAliasesResponse response = restTemplate.execute(client -> client.indices().getAlias(request, RequestOptions.DEFAULT));
+        Set<String> indices = new TreeSet<>();
+        response.getAliases().forEach((index, aliases) -> {
+            if (!aliases.isEmpty()) {
+                indices.add(index);
+            }
+        });
+        return indices;
+    }
+
+    @Override
+    protected void doUpdateSettings(String indexName, Map<String, Object> settings) {
+        UpdateSettingsRequest request = new UpdateSettingsRequest(indexName).settings(settings);
+        restTemplate.execute(client -> client.indices().putSettings(request, RequestOptions.DEFAULT));
+    }
+
+    @Override
+    protected String doSubmitReindex(ReindexRequest request) {
+        return restTemplate.execute(client -> client.submitReindexTask(request, RequestOptions.DEFAULT).getTask());
+    }
+
+    // the 7.0 high level client parses the task status into an opaque object, the map is read directly instead
+    @Override
+    protected Map<String, Object> doGetTask(String taskId) {
+        return restTemplate.execute(client -> {
+            Response response = client.getLowLevelClient().performRequest(new Request("GET", "/_tasks/" + taskId));
+            try (InputStream content = response.getEntity().getContent();
+                 XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                         DeprecationHandler.THROW_UNSUPPORTED_OPERATION, content)) {
+                return parser.map();
+            }
+        });
+    }
+
+    @Override
+    protected void doCancelTask(String taskId) {
+        restTemplate.execute(client -> client.getLowLevelClient().performRequest(new Request("POST", "/_tasks/" + taskId + "/_cancel")));
+    }
+
+    @Override
+    protected boolean doPutTemplate(String templateName, String indexPattern, Document settings, Document mapping) {
+        PutIndexTemplateRequest request = new PutIndexTemplateRequest(templateName).patterns(Collections.singletonList(indexPattern))
+                .settings(settings).mapping(mapping);
+        return restTemplate.execute(client -> client.indices().putTemplate(request, RequestOptions.DEFAULT).isAcknowledged());
+    }
+
+    @Override
+    protected boolean doExistsTemplate(String templateName) {
+        IndexTemplatesExistRequest request = new IndexTemplatesExistRequest(templateName);
+        return restTemplate.execute(client -> client.indices().existsTemplate(request, RequestOptions.DEFAULT));
+    }
+
+    @Override
+    protected boolean doDeleteTemplate(String templateName) {
+        DeleteIndexTemplateRequest request = new DeleteIndexTemplateRequest(templateName);
+        return restTemplate.execute(client -> client.indices().deleteTemplate(request, RequestOptions.DEFAULT).isAcknowledged());
+    }
+
     private Map<String, Object> convertMappingResponse(String mappingResponse) {
         ObjectMapper mapper = new ObjectMapper();
         try {
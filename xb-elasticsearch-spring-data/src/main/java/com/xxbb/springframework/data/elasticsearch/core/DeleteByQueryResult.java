@@ -0,0 +1,34 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import org.springframework.lang.Nullable;
+
+public class DeleteByQueryResult {
+    private final long deleted;
+    @Nullable private final String taskId;
+
+    private DeleteByQueryResult(long deleted, @Nullable String taskId) {
+        this.deleted = deleted;
+        this.taskId = taskId;
+    }
+
+    public static DeleteByQueryResult of(long deleted) {
+        return new DeleteByQueryResult(deleted, null);
+    }
+
+    public static DeleteByQueryResult ofTask(String taskId) {
+        return new DeleteByQueryResult(-1, taskId);
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    @Nullable
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public boolean isSubmittedAsTask() {
+        return taskId != null;
+    }
+}
@@ -15,6 +15,8 @@ public interface DocumentOperations {
 
     <T> Iterable<T> save(Iterable<T> entities, IndexCoordinates index);
 
+    <T> Iterable<T> save(Iterable<T> entities, BulkOptions bulkOptions, IndexCoordinates index);
+
     <T> Iterable<T> save(T... entities);
 
     String index(IndexQuery query, IndexCoordinates index);
@@ -53,6 +55,12 @@ public interface DocumentOperations {
 
     void bulkUpdate(List<UpdateQuery> queries, BulkOptions bulkOptions, IndexCoordinates index);
 
+    default void bulkDelete(List<DeleteQuery> queries, IndexCoordinates index) {
+        bulkDelete(queries, BulkOptions.defaultOptions(), index);
+    }
+
+    void bulkDelete(List<DeleteQuery> queries, BulkOptions bulkOptions, IndexCoordinates index);
+
     default String delete(String id, IndexCoordinates index) {
         return delete(id, null, index);
     }
@@ -69,5 +77,7 @@ public interface DocumentOperations {
 
     void delete(Query query, Class<?> clazz, IndexCoordinates index);
 
+    DeleteByQueryResult delete(Query query, Class<?> clazz, IndexCoordinates index, DeleteByQueryOptions options);
+
     UpdateResponse update(UpdateQuery query, IndexCoordinates index);
 }
@@ -0,0 +1,38 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import org.springframework.lang.Nullable;
+
+// receives the measurements taken around every request of ElasticsearchRestTemplate, all methods are called on the
+// request thread (or the client's callback thread for async requests) and must not block
+public interface ElasticsearchMetricsRecorder {
+
+    ElasticsearchMetricsRecorder NONE = new ElasticsearchMetricsRecorder() {};
+
+    String SEARCH = "search";
+    String MULTI_SEARCH = "msearch";
+    String COUNT = "count";
+    String SCROLL = "scroll";
+    String CLEAR_SCROLL = "clear-scroll";
+    String GET = "get";
+    String MULTI_GET = "mget";
+    String EXISTS = "exists";
+    String INDEX = "index";
+    String UPDATE = "update";
+    String DELETE = "delete";
+    String DELETE_BY_QUERY = "delete-by-query";
+    String BULK = "bulk";
+    String OTHER = "other";
+
+    // client side latency of one request, error is null when the request succeeded
+    default void recordRequest(String operation, @Nullable String index, long durationNanos, @Nullable Throwable error) {}
+
+    // the time elasticsearch itself reported in the took field of the response
+    default void recordTook(String operation, @Nullable String index, long tookMillis) {}
+
+    default void recordHits(String operation, @Nullable String index, int hits) {}
+
+    default void recordBulk(@Nullable String index, int items, long payloadBytes) {}
+
+    // time spent turning the documents of a search response into entities
+    default void recordConversion(@Nullable String index, int documents, long durationNanos) {}
+}
@@ -6,7 +6,13 @@ import com.xxbb.springframework.data.elasticsearch.core.document.SearchDocumentR
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import com.xxbb.springframework.data.elasticsearch.core.query.*;
 import com.xxbb.springframework.data.elasticsearch.support.SearchHitsUtil;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
@@ -15,12 +21,25 @@ import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.*;
+import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.update.UpdateRequest;
+import org.apache.http.client.methods.HttpPost;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.tasks.TaskSubmissionResponse;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
 import org.elasticsearch.index.reindex.DeleteByQueryRequest;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.suggest.SuggestBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +47,15 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static com.xxbb.springframework.data.elasticsearch.core.ElasticsearchMetricsRecorder.*;
+
 public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchRestTemplate.class);
 
@@ -58,7 +83,7 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
     protected String getClusterVersion() {
         try {
             return execute(client -> client.info(RequestOptions.DEFAULT).getVersion().toString());
-        } catch (Exception ignored) {}
+        } catch (RuntimeException ignored) {}
         return null;
     }
     // endregion
@@ -87,7 +112,7 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
     public String index(IndexQuery query, IndexCoordinates index) {
         maybeCallbackBeforeConvertWithQuery(query, index);
         IndexRequest request = requestFactory.indexRequest(query, index);
-        IndexResponse response = execute(client -> client.index(request, RequestOptions.DEFAULT));
+        IndexResponse response = execute(INDEX, index, client -> client.index(request, RequestOptions.DEFAULT));
 
         Object queryObject = query.getObject();
         if (queryObject != null) {
@@ -100,7 +125,7 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
     @Override
     public <T> T get(String id, Class<T> clazz, IndexCoordinates index) {
         GetRequest request = requestFactory.getRequest(id, index);
-        GetResponse response = execute(client -> client.get(request, RequestOptions.DEFAULT));
+        GetResponse response = execute(GET, index, client -> client.get(request, RequestOptions.DEFAULT));
 
         DocumentCallback<T> callback = new ReadDocumentCallback<>(elasticsearchConverter, clazz, index);
         return callback.doWith(DocumentAdapters.from(response));
@@ -112,7 +137,7 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
         Assert.notNull(query.getIds(), "No id defined for query");
 
         MultiGetRequest request = requestFactory.multiGetRequest(query, clazz, index);
-        MultiGetResponse result = execute(client -> client.mget(request, RequestOptions.DEFAULT));
+        MultiGetResponse result = execute(MULTI_GET, index, client -> client.mget(request, RequestOptions.DEFAULT));
 
         DocumentCallback<T> callback = new ReadDocumentCallback<>(elasticsearchConverter, clazz, index);
         return DocumentAdapters.from(result).stream().map(callback::doWith).collect(Collectors.toList());
@@ -134,55 +159,200 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
         doBulkOperation(queries, bulkOptions, index);
     }
 
+    @Override
+    public void bulkDelete(List<DeleteQuery> queries, BulkOptions bulkOptions, IndexCoordinates index) {
+        Assert.notNull(queries, "List of DeleteQuery must not be null");
+        Assert.notNull(bulkOptions, "BulkOptions must not be null");
+
+        if (!queries.isEmpty()) {
+            doBulkOperation(queries, bulkOptions, index);
+        }
+    }
+
     @Override
     public String delete(String id, @Nullable String routing, IndexCoordinates index) {
+        return doDelete(id, routing, null, index);
+    }
+
+    @Override
+    protected String doDelete(String id, @Nullable String routing, @Nullable Class<?> clazz, IndexCoordinates index) {
         Assert.notNull(id, "id must not be null");
         Assert.notNull(index, "index must not be null");
 
-        DeleteRequest request = requestFactory.deleteRequest(elasticsearchConverter.convertId(id), routing, index);
-        return execute(client -> client.delete(request, RequestOptions.DEFAULT).getId());
+        DeleteRequest request = requestFactory.deleteRequest(elasticsearchConverter.convertId(id), routing, clazz, index);
+        return execute(DELETE, index, client -> client.delete(request, RequestOptions.DEFAULT).getId());
     }
 
 
     @Override
     public void delete(Query query, Class<?> clazz, IndexCoordinates index) {
         DeleteByQueryRequest request = requestFactory.deleteByQueryRequest(query, clazz, index);
-        execute(client -> client.deleteByQuery(request, RequestOptions.DEFAULT));
+        BulkByScrollResponse response = execute(DELETE_BY_QUERY, index, client -> client.deleteByQuery(request, RequestOptions.DEFAULT));
+        metricsRecorder.recordTook(DELETE_BY_QUERY, index.getIndexName(), response.getTook().millis());
+    }
+
+    @Override
+    public DeleteByQueryResult delete(Query query, Class<?> clazz, IndexCoordinates index, DeleteByQueryOptions options) {
+        Assert.notNull(query, "query must not be null");
+        Assert.notNull(index, "index must not be null");
+        Assert.notNull(options, "options must not be null");
+
+        DeleteByQueryRequest request = requestFactory.deleteByQueryRequest(query, clazz, index, options);
+        if (options.isWaitForCompletion()) {
+            BulkByScrollResponse response = execute(DELETE_BY_QUERY, index, client -> client.deleteByQuery(request, RequestOptions.DEFAULT));
+            metricsRecorder.recordTook(DELETE_BY_QUERY, index.getIndexName(), response.getTook().millis());
+            return DeleteByQueryResult.of(response.getDeleted());
+        }
+        return DeleteByQueryResult.ofTask(execute(DELETE_BY_QUERY, index, client -> submitDeleteByQueryTask(client, request)).getTask());
+    }
+
+    // the 7.0 high level client has no task submission for delete-by-query, so the request is sent through the low level client
+    private TaskSubmissionResponse submitDeleteByQueryTask(RestHighLevelClient client, DeleteByQueryRequest deleteByQueryRequest) throws IOException {
+        Request request = new Request(HttpPost.METHOD_NAME, '/' + String.join(",", deleteByQueryRequest.indices()) + "/_delete_by_query");
+        request.addParameter("wait_for_completion", "false");
+        request.addParameter("conflicts", deleteByQueryRequest.isAbortOnVersionConflict() ? "abort" : "proceed");
+        request.addParameter("refresh", Boolean.toString(deleteByQueryRequest.isRefresh()));
+        request.addParameter("scroll_size", Integer.toString(deleteByQueryRequest.getBatchSize()));
+        if (deleteByQueryRequest.getScrollTime() != null) {
+            request.addParameter("scroll", deleteByQueryRequest.getScrollTime().getStringRep());
+        }
+        if (deleteByQueryRequest.getRouting() != null) {
+            request.addParameter("routing", deleteByQueryRequest.getRouting());
+        }
+        // the parameters the high level client sends for a request waiting for completion, size is max_docs in 7.0
+        if (deleteByQueryRequest.getSize() != -1) {
+            request.addParameter("size", Integer.toString(deleteByQueryRequest.getSize()));
+        }
+        request.addParameter("timeout", deleteByQueryRequest.getTimeout().getStringRep());
+        float requestsPerSecond = deleteByQueryRequest.getRequestsPerSecond();
+        request.addParameter("requests_per_second", requestsPerSecond == Float.POSITIVE_INFINITY ? "-1" : Float.toString(requestsPerSecond));
+        if (!ActiveShardCount.DEFAULT.equals(deleteByQueryRequest.getWaitForActiveShards())) {
+            request.addParameter("wait_for_active_shards", deleteByQueryRequest.getWaitForActiveShards().toString());
+        }
+        request.setJsonEntity(Strings.toString(deleteByQueryRequest));
+
+        Response response = client.getLowLevelClient().performRequest(request);
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, response.getEntity().getContent())) {
+            return TaskSubmissionResponse.fromXContent(parser);
+        }
     }
 
     @Override
     public UpdateResponse update(UpdateQuery query, IndexCoordinates index) {
         UpdateRequest request = requestFactory.updateRequest(query, index);
-        UpdateResponse.Result result = UpdateResponse.Result.valueOf(execute(client -> client.update(request, RequestOptions.DEFAULT)).getResult().name());
+        UpdateResponse.Result result = UpdateResponse.Result.valueOf(execute(UPDATE, index, client -> client.update(request, RequestOptions.DEFAULT)).getResult().name());
         return new UpdateResponse(result);
     }
 
     private List<IndexObjectInformation> doBulkOperation(List<?> queries, BulkOptions bulkOptions, IndexCoordinates index) {
         maybeCallbackBeforeConvertWithQueries(queries, index);
         BulkRequest bulkRequest = requestFactory.bulkRequest(queries, bulkOptions, index);
-        List<IndexObjectInformation> indexObjectInformationList = checkForBulkOperationFailure(
-                execute(client -> client.bulk(bulkRequest, RequestOptions.DEFAULT)));
+        metricsRecorder.recordBulk(index.getIndexName(), bulkRequest.numberOfActions(), bulkRequest.estimatedSizeInBytes());
+        long start = System.nanoTime();
+        BulkResponse bulkResponse = execute(BULK, index, client -> client.bulk(bulkRequest, RequestOptions.DEFAULT));
+
+        // the backoff between retries is no time elasticsearch spent on the bulk, the slow log leaves it out
+        AtomicLong backoffNanos = new AtomicLong();
+        if (bulkResponse.hasFailures() && bulkOptions.getRejectionBackoffPolicy() != null) {
+            bulkResponse = retryRejectedItems(bulkRequest, bulkResponse, bulkOptions.getRejectionBackoffPolicy(), index, backoffNanos);
+        }
+        metricsRecorder.recordTook(BULK, index.getIndexName(), bulkResponse.getTook().millis());
+        if (slowOperationLog != null) {
+            slowOperationLog.bulk(bulkRequest, index, System.nanoTime() - start - backoffNanos.get(), bulkResponse);
+        }
+
+        List<IndexObjectInformation> indexObjectInformationList = checkForBulkOperationFailure(bulkResponse);
         updateIndexedObjectsWithQueries(queries, indexObjectInformationList);
         maybeCallbackAfterSaveWithQueries(queries, index);
         return indexObjectInformationList;
     }
 
+    private BulkResponse retryRejectedItems(BulkRequest bulkRequest, BulkResponse bulkResponse, BackoffPolicy backoffPolicy, IndexCoordinates index,
+                                            AtomicLong backoffNanos) {
+        BulkItemResponse[] items = bulkResponse.getItems().clone();
+        List<DocWriteRequest<?>> requests = bulkRequest.requests();
+        Iterator<TimeValue> backoff = backoffPolicy.iterator();
+        long tookInMillis = bulkResponse.getTook().millis();
+        List<Integer> rejected = rejectedPositions(items);
+
+        while (!rejected.isEmpty() && backoff.hasNext()) {
+            TimeValue delay = backoff.next();
+            logger.debug("Retrying {} rejected bulk items in {}", rejected.size(), delay);
+            long sleepStart = System.nanoTime();
+            try {
+                Thread.sleep(delay.millis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                backoffNanos.addAndGet(System.nanoTime() - sleepStart);
+            }
+
+            // the items keep their own pipeline and routing, the request level ones are defaults for all of them
+            BulkRequest retryRequest = new BulkRequest();
+            retryRequest.timeout(bulkRequest.timeout());
+            retryRequest.waitForActiveShards(bulkRequest.waitForActiveShards());
+            retryRequest.setRefreshPolicy(bulkRequest.getRefreshPolicy());
+            retryRequest.pipeline(bulkRequest.pipeline());
+            retryRequest.routing(bulkRequest.routing());
+            rejected.forEach(position -> retryRequest.add(requests.get(position)));
+
+            BulkResponse retryResponse = execute(BULK, index, client -> client.bulk(retryRequest, RequestOptions.DEFAULT));
+            tookInMillis += retryResponse.getTook().millis();
+
+            BulkItemResponse[] retryItems = retryResponse.getItems();
+            for (int i = 0; i < retryItems.length; i++) {
+                int position = rejected.get(i);
+                BulkItemResponse retryItem = retryItems[i];
+                items[position] = retryItem.isFailed()
+                        ? new BulkItemResponse(position, retryItem.getOpType(), retryItem.getFailure())
+                        : new BulkItemResponse(position, retryItem.getOpType(), (DocWriteResponse) retryItem.getResponse());
+            }
+            rejected = rejectedPositions(items);
+        }
+
+        if (!rejected.isEmpty()) {
+            logger.warn("{} bulk items are still rejected after retrying", rejected.size());
+        }
+        return new BulkResponse(items, tookInMillis);
+    }
+
+    private static List<Integer> rejectedPositions(BulkItemResponse[] items) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < items.length; i++) {
+            if (isRejected(items[i])) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
     @Override
     protected boolean doExists(String id, IndexCoordinates index) {
         GetRequest request = requestFactory.getRequest(id, index);
         request.fetchSourceContext(FetchSourceContext.DO_NOT_FETCH_SOURCE);
-        return execute(client -> client.get(request, RequestOptions.DEFAULT).isExists());
+        return execute(EXISTS, index, client -> client.get(request, RequestOptions.DEFAULT).isExists());
     }
     // endregion
 
     // region search operation
     @Override
     public <T> SearchScrollHits<T> searchScrollStart(long scrollTimeInMillis, Query query, Class<T> clazz, IndexCoordinates index) {
+        return searchScrollStart(scrollTimeInMillis, query, clazz, index, null);
+    }
+
+    @Override
+    public <T> SearchScrollHits<T> searchScrollStart(long scrollTimeInMillis, Query query, Class<T> clazz, IndexCoordinates index, @Nullable SliceBuilder slice) {
         Assert.notNull(query.getPageable(), "pageable of query must not be null");
         SearchRequest request = requestFactory.searchRequest(query, clazz, index);
         request.scroll(TimeValue.timeValueMillis(scrollTimeInMillis));
+        if (slice != null) {
+            request.source().slice(slice);
+        }
 
-        SearchResponse response = execute(client -> client.search(request, RequestOptions.DEFAULT));
+        SearchResponse response = execute(SCROLL, index, client -> client.search(request, RequestOptions.DEFAULT));
+        recordSearchResponse(SCROLL, index, response);
         SearchDocumentResponseCallback<SearchScrollHits<T>> callback = new ReadSearchScrollDocumentResponseCallback<>(clazz, index);
         return callback.doWith(SearchDocumentResponse.from(response));
     }
@@ -192,7 +362,8 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
         SearchScrollRequest request = new SearchScrollRequest(scrollId);
         request.scroll(TimeValue.timeValueMillis(scrollTimeInMillis));
 
-        SearchResponse response = execute(client -> client.scroll(request, RequestOptions.DEFAULT));
+        SearchResponse response = execute(SCROLL, index, client -> client.scroll(request, RequestOptions.DEFAULT));
+        recordSearchResponse(SCROLL, index, response);
         SearchDocumentResponseCallback<SearchScrollHits<T>> callback = new ReadSearchScrollDocumentResponseCallback<>(clazz, index);
         return callback.doWith(SearchDocumentResponse.from(response));
     }
@@ -202,7 +373,7 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
         try {
             ClearScrollRequest request = new ClearScrollRequest();
             request.scrollIds(scrollIds);
-            execute(client -> client.clearScroll(request, RequestOptions.DEFAULT));
+            execute(CLEAR_SCROLL, null, client -> client.clearScroll(request, RequestOptions.DEFAULT));
         } catch (Exception e) {
             logger.warn("Could not clear scroll: {}", e.getMessage());
         }
@@ -210,7 +381,12 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
 
     @Override
     protected MultiSearchResponse.Item[] getMultiSearchResult(MultiSearchRequest request) {
-        MultiSearchResponse response = execute(client -> client.multiSearch(request, RequestOptions.DEFAULT));
+        long start = System.nanoTime();
+        MultiSearchResponse response = execute(MULTI_SEARCH, null, client -> client.multiSearch(request, RequestOptions.DEFAULT));
+        metricsRecorder.recordTook(MULTI_SEARCH, null, response.getTook().millis());
+        if (slowOperationLog != null) {
+            slowOperationLog.multiSearch(request, System.nanoTime() - start, response);
+        }
         MultiSearchResponse.Item[] items = response.getResponses();
         Assert.isTrue(items.length == request.requests().size(), "Response should has same length with queries");
         return items;
@@ -221,24 +397,57 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
         Assert.notNull(query, "query must not be null");
         Assert.notNull(index, "index must not be null");
 
+        SearchRequest searchRequest = countRequest(query, clazz, index);
+        long start = System.nanoTime();
+        SearchResponse response = execute(COUNT, index, client -> client.search(searchRequest, RequestOptions.DEFAULT));
+        metricsRecorder.recordTook(COUNT, index.getIndexName(), response.getTook().millis());
+        if (slowOperationLog != null) {
+            slowOperationLog.search(COUNT, query, searchRequest, index, System.nanoTime() - start, response);
+        }
+        return SearchHitsUtil.getTotalCount(response.getHits());
+    }
+
+    SearchRequest countRequest(Query query, @Nullable Class<?> clazz, IndexCoordinates index) {
         final Boolean trackTotalHits = query.getTrackTotalHits();
         query.setTrackTotalHits(true);
         SearchRequest searchRequest = requestFactory.searchRequest(query, clazz, index);
         query.setTrackTotalHits(trackTotalHits);
         searchRequest.source().size(0);
-        return SearchHitsUtil.getTotalCount(execute(client -> client.search(searchRequest, RequestOptions.DEFAULT).getHits()));
+        return searchRequest;
     }
 
     @Override
     public SearchResponse suggest(SuggestBuilder suggestion, IndexCoordinates index) {
         SearchRequest searchRequest = requestFactory.searchRequest(suggestion, index);
-        return execute(client -> client.search(searchRequest, RequestOptions.DEFAULT));
+        return execute(SEARCH, index, client -> client.search(searchRequest, RequestOptions.DEFAULT));
     }
 
     @Override
     public <T> SearchHits<T> search(Query query, Class<T> clazz, IndexCoordinates index) {
+        return search(query, requestFactory.searchRequest(query, clazz, index), clazz, index);
+    }
+
+    @Override
+    protected <T> SearchHits<T> searchAfterPage(Query query, int size, @Nullable FieldSortBuilder tiebreakerSort,
+                                                @Nullable List<Object> sortValues, Class<T> clazz, IndexCoordinates index) {
         SearchRequest request = requestFactory.searchRequest(query, clazz, index);
-        SearchResponse response = execute(client -> client.search(request, RequestOptions.DEFAULT));
+        request.source().from(0).size(size);
+        if (tiebreakerSort != null) {
+            request.source().sort(tiebreakerSort);
+        }
+        if (sortValues != null) {
+            request.source().searchAfter(sortValues.toArray());
+        }
+        return search(query, request, clazz, index);
+    }
+
+    private <T> SearchHits<T> search(Query query, SearchRequest request, Class<T> clazz, IndexCoordinates index) {
+        long start = System.nanoTime();
+        SearchResponse response = execute(SEARCH, index, client -> client.search(request, RequestOptions.DEFAULT));
+        recordSearchResponse(SEARCH, index, response);
+        if (slowOperationLog != null) {
+            slowOperationLog.search(SEARCH, query, request, index, System.nanoTime() - start, response);
+        }
         SearchDocumentResponseCallback<SearchHits<T>> callback = new ReadSearchDocumentResponseCallback<>(clazz, index);
         return callback.doWith(SearchDocumentResponse.from(response));
     }
@@ -251,12 +460,54 @@ public class ElasticsearchRestTemplate extends AbstractElasticsearchTemplate {
     }
 
     public <T> T execute(ClientCallback<T> callback) {
+        return execute(OTHER, null, callback);
+    }
+
+    // every request of the template runs through here with the operation and the index it is for, override it to
+    // decorate them all
+    protected <T> T execute(String operation, @Nullable IndexCoordinates index, ClientCallback<T> callback) {
         Assert.notNull(callback, "callback must not be null");
+        logVersionsOnce();
+        long start = System.nanoTime();
+        RuntimeException error = null;
         try {
             return callback.doWithClient(client);
         } catch (IOException | RuntimeException e) {
-            throw translateException(e);
+            error = translateException(e);
+            throw error;
+        } finally {
+            metricsRecorder.recordRequest(operation, index != null ? index.getIndexName() : null, System.nanoTime() - start, error);
+        }
+    }
+
+    @FunctionalInterface
+    public interface AsyncClientCallback<T> {
+        void doWithClient(RestHighLevelClient client, ActionListener<T> listener);
+    }
+
+    public <T> CompletableFuture<T> executeAsync(AsyncClientCallback<T> callback) {
+        return executeAsync(OTHER, null, callback);
+    }
+
+    protected <T> CompletableFuture<T> executeAsync(String operation, @Nullable IndexCoordinates index, AsyncClientCallback<T> callback) {
+        Assert.notNull(callback, "callback must not be null");
+        logVersionsOnce();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+        future.whenComplete((result, error) -> metricsRecorder.recordRequest(operation, index != null ? index.getIndexName() : null,
+                System.nanoTime() - start, error));
+        try {
+            callback.doWithClient(client, ActionListener.wrap(future::complete,
+                    e -> future.completeExceptionally(translateException(e))));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(translateException(e));
         }
+        return future;
+    }
+
+    void recordSearchResponse(String operation, IndexCoordinates index, SearchResponse response) {
+        metricsRecorder.recordTook(operation, index.getIndexName(), response.getTook().millis());
+        metricsRecorder.recordHits(operation, index.getIndexName(), response.getHits().getHits().length);
     }
 
     private RuntimeException translateException(Exception e) {
@@ -1,9 +1,12 @@
 package com.xxbb.springframework.data.elasticsearch.core;
 
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
+import com.xxbb.springframework.data.elasticsearch.core.index.MappingDiff;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.ReindexOptions;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface IndexOperations {
     boolean create();
@@ -30,6 +33,11 @@ public interface IndexOperations {
         return putMapping(createMapping(clazz));
     }
 
+    // reads the mapping of the index once and puts only the fields it is missing, conflicts are returned, not put
+    MappingDiff reconcileMapping();
+
+    MappingDiff reconcileMapping(Class<?> clazz);
+
     Document createSettings();
 
     Document createSettings(Class<?> clazz);
@@ -41,4 +49,29 @@ public interface IndexOperations {
     Map<String, Object> getSettings(boolean indcludeDefaults);
 
     IndexCoordinates getIndexCoordinates();
+
+    boolean addAlias(String alias);
+
+    boolean removeAlias(String alias);
+
+    // points the alias at this index only, taking it from all other indices in the same atomic update
+    boolean swapAlias(String alias);
+
+    // the indices the alias points to, empty when there is no such alias
+    Set<String> getAliasedIndices(String alias);
+
+    // copies the documents into a new index and moves the alias named like this index over to it: the new index gets
+    // the current mapping and bulk friendly settings, the server side reindex is polled until it is done, then the
+    // settings are restored and the alias is swapped. Searches through the alias never see a missing index, writes to
+    // the source are blocked until the swap unless ReindexOptions says otherwise
+    ReindexResult reindexTo(IndexCoordinates newIndex);
+
+    ReindexResult reindexTo(IndexCoordinates newIndex, ReindexOptions options);
+
+    // the index template of a time partitioned entity, each new partition gets the settings and mapping of the entity
+    boolean putTemplate();
+
+    boolean existsTemplate();
+
+    boolean deleteTemplate();
 }
@@ -0,0 +1,94 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.mapping.TimePartitioning;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.springframework.lang.Nullable;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// the time range a query requires of the partition field of a time partitioned entity. Only the ranges every hit must
+// match count, the must and filter clauses of bool queries, and only those the partitioning reads the same way as the
+// cluster: a range with its own date format or an unknown time zone does not restrict anything. Bounds without an
+// offset are in the time zone of the range, UTC unless it names one
+final class QueryTimeRange {
+    @Nullable private final Instant from;
+    @Nullable private final Instant to;
+
+    private QueryTimeRange(@Nullable Instant from, @Nullable Instant to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    // null unless the query bounds the field on both sides
+    @Nullable
+    static QueryTimeRange of(QueryBuilder query, TimePartitioning partitioning) {
+        QueryTimeRange range = extract(query, partitioning.getProperty().getFieldName(), partitioning);
+        if (range == null || range.from == null || range.to == null || range.from.isAfter(range.to)) {
+            return null;
+        }
+        return range;
+    }
+
+    Instant getFrom() {
+        return from;
+    }
+
+    Instant getTo() {
+        return to;
+    }
+
+    @Nullable
+    private static QueryTimeRange extract(QueryBuilder query, String fieldName, TimePartitioning partitioning) {
+        if (query instanceof RangeQueryBuilder) {
+            RangeQueryBuilder rangeQuery = (RangeQueryBuilder) query;
+            ZoneId timeZone = getTimeZone(rangeQuery.timeZone());
+            if (!fieldName.equals(rangeQuery.fieldName()) || rangeQuery.format() != null || timeZone == null) {
+                return null;
+            }
+            return new QueryTimeRange(partitioning.toInstant(rangeQuery.from(), timeZone, !rangeQuery.includeLower()),
+                    partitioning.toInstant(rangeQuery.to(), timeZone, rangeQuery.includeUpper()));
+        }
+
+        if (query instanceof BoolQueryBuilder) {
+            BoolQueryBuilder boolQuery = (BoolQueryBuilder) query;
+            QueryTimeRange range = null;
+            for (QueryBuilder clause : boolQuery.must()) {
+                range = intersect(range, extract(clause, fieldName, partitioning));
+            }
+            for (QueryBuilder clause : boolQuery.filter()) {
+                range = intersect(range, extract(clause, fieldName, partitioning));
+            }
+            return range;
+        }
+
+        if (query instanceof ConstantScoreQueryBuilder) {
+            return extract(((ConstantScoreQueryBuilder) query).innerQuery(), fieldName, partitioning);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ZoneId getTimeZone(@Nullable String timeZone) {
+        try {
+            return timeZone != null ? ZoneId.of(timeZone) : ZoneOffset.UTC;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static QueryTimeRange intersect(@Nullable QueryTimeRange range, @Nullable QueryTimeRange other) {
+        if (range == null || other == null) {
+            return range != null ? range : other;
+        }
+        Instant from = range.from == null || other.from != null && other.from.isAfter(range.from) ? other.from : range.from;
+        Instant to = range.to == null || other.to != null && other.to.isBefore(range.to) ? other.to : range.to;
+        return new QueryTimeRange(from, to);
+    }
+}
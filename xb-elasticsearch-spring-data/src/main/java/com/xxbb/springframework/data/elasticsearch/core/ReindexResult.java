@@ -0,0 +1,71 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+// the status of a reindex task, while it runs and once it completed
+public class ReindexResult {
+    private final String taskId;
+    private final boolean completed;
+    private final long total;
+    private final long created;
+    private final long updated;
+    private final long versionConflicts;
+    private final long batches;
+
+    ReindexResult(String taskId, boolean completed, long total, long created, long updated, long versionConflicts, long batches) {
+        this.taskId = taskId;
+        this.completed = completed;
+        this.total = total;
+        this.created = created;
+        this.updated = updated;
+        this.versionConflicts = versionConflicts;
+        this.batches = batches;
+    }
+
+    // reads the status of a GET _tasks/<id> response
+    static ReindexResult ofTask(String taskId, boolean completed, @Nullable Map<?, ?> status) {
+        return new ReindexResult(taskId, completed, longValue(status, "total"), longValue(status, "created"),
+                longValue(status, "updated"), longValue(status, "version_conflicts"), longValue(status, "batches"));
+    }
+
+    private static long longValue(@Nullable Map<?, ?> status, String key) {
+        Object value = status != null ? status.get(key) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getVersionConflicts() {
+        return versionConflicts;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    @Override
+    public String toString() {
+        return "ReindexResult{taskId=" + taskId + ", completed=" + completed + ", " + (created + updated) + '/' + total
+                + " documents, " + versionConflicts + " version conflicts}";
+    }
+}
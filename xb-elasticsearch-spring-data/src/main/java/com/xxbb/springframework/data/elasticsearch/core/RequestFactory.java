@@ -5,6 +5,7 @@ import com.xxbb.springframework.data.elasticsearch.core.document.Document;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.TimePartitioning;
 import com.xxbb.springframework.data.elasticsearch.core.query.*;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
@@ -20,12 +21,14 @@ import org.elasticsearch.action.get.*;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.ActiveShardCount;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.Requests;
@@ -55,6 +58,8 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 import static org.elasticsearch.index.query.QueryBuilders.wrapperQuery;
 
@@ -62,6 +67,7 @@ public class RequestFactory {
     static final Integer INDEX_MAX_RESULT_WINDOW = 10_000;
 
     private final ElasticsearchConverter elasticsearchConverter;
+    private final Map<String, ElasticsearchPersistentEntity<?>> persistentEntitiesByIndexName = new ConcurrentHashMap<>();
 
     public RequestFactory(ElasticsearchConverter elasticsearchConverter) {
         this.elasticsearchConverter = elasticsearchConverter;
@@ -69,6 +75,7 @@ public class RequestFactory {
     // region bulk
     public BulkRequest bulkRequest(List<?> queries, BulkOptions bulkOptions, IndexCoordinates index) {
         BulkRequest bulkRequest = new BulkRequest();
+        applyWriteDefaults(bulkRequest, getWriteDefaultsEntity(queries, index), BulkRequest::timeout, BulkRequest::waitForActiveShards);
 
         if (bulkOptions.getTimeout() != null) {
             bulkRequest.timeout(bulkOptions.getTimeout());
@@ -92,9 +99,12 @@ public class RequestFactory {
 
         queries.forEach(query -> {
             if (query instanceof IndexQuery) {
-                bulkRequest.add(indexRequest((IndexQuery) query, index));
+                bulkRequest.add(indexItemRequest((IndexQuery) query, index));
             } else if (query instanceof UpdateQuery) {
-                bulkRequest.add(updateRequest((UpdateQuery) query, index));
+                bulkRequest.add(updateItemRequest((UpdateQuery) query, index));
+            } else if (query instanceof DeleteQuery) {
+                DeleteQuery deleteQuery = (DeleteQuery) query;
+                bulkRequest.add(deleteItemRequest(deleteQuery.getId(), deleteQuery.getRouting(), index));
             }
         });
         return bulkRequest;
@@ -128,6 +138,9 @@ public class RequestFactory {
                 bulkRequestBuilder.add(indexRequest((IndexQuery) query, index));
             } else if (query instanceof UpdateQuery) {
                 bulkRequestBuilder.add(updateRequest((UpdateQuery) query, index));
+            } else if (query instanceof DeleteQuery) {
+                DeleteQuery deleteQuery = (DeleteQuery) query;
+                bulkRequestBuilder.add(deleteRequest(deleteQuery.getId(), deleteQuery.getRouting(), index));
             }
         });
         return bulkRequestBuilder;
@@ -136,7 +149,15 @@ public class RequestFactory {
 
     // region index
     public IndexRequest indexRequest(IndexQuery query, IndexCoordinates index) {
-        String indexName = index.getIndexName();
+        IndexRequest indexRequest = indexItemRequest(query, index);
+        Object queryObject = query.getObject();
+        return applyWriteDefaults(indexRequest, getWriteDefaultsEntity(queryObject != null ? queryObject.getClass() : null, index),
+                IndexRequest::timeout, IndexRequest::waitForActiveShards);
+    }
+
+    // bulk items must not carry a refresh policy, the write defaults are applied to the enclosing bulk request instead
+    IndexRequest indexItemRequest(IndexQuery query, IndexCoordinates index) {
+        String indexName = getWriteIndexName(query, index);
 
         IndexRequest indexRequest;
         if (query.getObject() != null) {
@@ -147,7 +168,7 @@ public class RequestFactory {
             } else {
                 indexRequest = new IndexRequest(indexName);
             }
-            indexRequest.source(elasticsearchConverter.mapObject(query.getObject()).toJson(), Requests.INDEX_CONTENT_TYPE);
+            indexRequest.source(elasticsearchConverter.mapObjectToBytes(query.getObject()), Requests.INDEX_CONTENT_TYPE);
         } else if (query.getSource() != null) {
             indexRequest = new IndexRequest(indexName).id(query.getId()).source(query.getSource(), Requests.INDEX_CONTENT_TYPE);
         } else {
@@ -169,7 +190,7 @@ public class RequestFactory {
     }
 
     public IndexRequestBuilder indexRequestBuilder(Client client, IndexQuery query, IndexCoordinates index) {
-        String indexName = index.getIndexName();
+        String indexName = getWriteIndexName(query, index);
         String type = IndexCoordinates.TYPE;
 
         IndexRequestBuilder indexRequestBuilder;
@@ -209,7 +230,20 @@ public class RequestFactory {
 
     // region update
     public UpdateRequest updateRequest(UpdateQuery query, IndexCoordinates index) {
+        return updateRequest(query, null, index);
+    }
+
+    public UpdateRequest updateRequest(UpdateQuery query, @Nullable Class<?> clazz, IndexCoordinates index) {
         UpdateRequest updateRequest = new UpdateRequest(index.getIndexName(), query.getId());
+        applyWriteDefaults(updateRequest, getWriteDefaultsEntity(clazz, index), UpdateRequest::timeout, UpdateRequest::waitForActiveShards);
+        return updateRequest(updateRequest, query);
+    }
+
+    UpdateRequest updateItemRequest(UpdateQuery query, IndexCoordinates index) {
+        return updateRequest(new UpdateRequest(index.getIndexName(), query.getId()), query);
+    }
+
+    private UpdateRequest updateRequest(UpdateRequest updateRequest, UpdateQuery query) {
 
         if (query.getScript() != null) {
             Map<String, Object> params = query.getParams();
@@ -348,6 +382,15 @@ public class RequestFactory {
 
     // region delete
     public DeleteRequest deleteRequest(String id, @Nullable String routing, IndexCoordinates index) {
+        return deleteRequest(id, routing, null, index);
+    }
+
+    public DeleteRequest deleteRequest(String id, @Nullable String routing, @Nullable Class<?> clazz, IndexCoordinates index) {
+        return applyWriteDefaults(deleteItemRequest(id, routing, index), getWriteDefaultsEntity(clazz, index),
+                DeleteRequest::timeout, DeleteRequest::waitForActiveShards);
+    }
+
+    DeleteRequest deleteItemRequest(String id, @Nullable String routing, IndexCoordinates index) {
         String indexName = index.getIndexName();
         DeleteRequest deleteRequest = new DeleteRequest(indexName, id);
         if (routing != null) {
@@ -393,11 +436,15 @@ public class RequestFactory {
     }
 
     public DeleteByQueryRequest deleteByQueryRequest(Query query, Class<?> clazz, IndexCoordinates index) {
+        return deleteByQueryRequest(query, clazz, index, DeleteByQueryOptions.builder().withRefresh(true).build());
+    }
+
+    public DeleteByQueryRequest deleteByQueryRequest(Query query, Class<?> clazz, IndexCoordinates index, DeleteByQueryOptions options) {
         SearchRequest searchRequest = searchRequest(query, clazz, index);
         DeleteByQueryRequest deleteByQueryRequest = new DeleteByQueryRequest(index.getIndexName())
                 .setQuery(searchRequest.source().query())
                 .setAbortOnVersionConflict(false)
-                .setRefresh(true);
+                .setRefresh(options.isRefresh());
 
         if (query.isLimiting()) {
             deleteByQueryRequest.setBatchSize(query.getMaxResults());
@@ -410,6 +457,18 @@ public class RequestFactory {
         if (query.getRoute() != null) {
             deleteByQueryRequest.setRouting(query.getRoute());
         }
+
+        if (options.getMaxDocs() != null) {
+            deleteByQueryRequest.setSize(options.getMaxDocs());
+        }
+
+        if (options.getTimeout() != null) {
+            deleteByQueryRequest.setTimeout(TimeValue.timeValueMillis(options.getTimeout().toMillis()));
+        }
+
+        if (options.getRequestsPerSecond() != null) {
+            deleteByQueryRequest.setRequestsPerSecond(options.getRequestsPerSecond());
+        }
         return deleteByQueryRequest;
     }
     // endregion
@@ -510,6 +569,14 @@ public class RequestFactory {
         if (elasticsearchFilter != null) {
             searchRequest.source().postFilter(elasticsearchFilter);
         }
+
+        String[] partitions = getSearchPartitions(elasticsearchQuery, clazz, index);
+        if (partitions != null) {
+            searchRequest.indices(partitions);
+            if (query.getIndicesOptions() == null) {
+                searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+            }
+        }
         return searchRequest;
     }
 
@@ -524,6 +591,14 @@ public class RequestFactory {
         if (elasticsearchFilter != null) {
             searchRequestBuilder.setPostFilter(elasticsearchFilter);
         }
+
+        String[] partitions = getSearchPartitions(elasticsearchQuery, clazz, index);
+        if (partitions != null) {
+            searchRequestBuilder.setIndices(partitions);
+            if (query.getIndicesOptions() == null) {
+                searchRequestBuilder.setIndicesOptions(IndicesOptions.lenientExpandOpen());
+            }
+        }
         return searchRequestBuilder;
     }
 
@@ -597,6 +672,11 @@ public class RequestFactory {
             request.routing(query.getRoute());
         }
 
+        if (query.getSearchAfter() != null) {
+            sourceBuilder.from(0);
+            sourceBuilder.searchAfter(query.getSearchAfter().toArray());
+        }
+
         request.source(sourceBuilder);
         return request;
     }
@@ -671,6 +751,11 @@ public class RequestFactory {
             searchRequestBuilder.setRouting(query.getRoute());
         }
 
+        if (query.getSearchAfter() != null) {
+            searchRequestBuilder.setFrom(0);
+            searchRequestBuilder.searchAfter(query.getSearchAfter().toArray());
+        }
+
         return searchRequestBuilder;
     }
 
@@ -941,6 +1026,98 @@ public class RequestFactory {
         return settings;
     }
 
+    private <R extends WriteRequest<R>> R applyWriteDefaults(R request, @Nullable ElasticsearchPersistentEntity<?> entity,
+                                                              BiConsumer<R, TimeValue> timeout, BiConsumer<R, ActiveShardCount> waitForActiveShards) {
+        if (entity != null) {
+            if (entity.getRefreshPolicy() != null) {
+                request.setRefreshPolicy(entity.getRefreshPolicy());
+            }
+            if (entity.getWriteTimeout() != null) {
+                timeout.accept(request, entity.getWriteTimeout());
+            }
+            if (entity.getWaitForActiveShards() != null) {
+                waitForActiveShards.accept(request, entity.getWaitForActiveShards());
+            }
+        }
+        return request;
+    }
+
+    // the entity of the class at hand, or else the only entity stored in the index
+    @Nullable
+    private ElasticsearchPersistentEntity<?> getWriteDefaultsEntity(@Nullable Class<?> clazz, IndexCoordinates index) {
+        if (clazz != null) {
+            return getPersistentEntity(clazz);
+        }
+        ElasticsearchPersistentEntity<?> entity = persistentEntitiesByIndexName.get(index.getIndexName());
+        if (entity == null) {
+            entity = findPersistentEntity(index.getIndexName());
+            if (entity != null) {
+                persistentEntitiesByIndexName.put(index.getIndexName(), entity);
+            }
+        }
+        return entity;
+    }
+
+    // the defaults apply to the whole bulk request, so only when every item resolves to the same entity
+    @Nullable
+    private ElasticsearchPersistentEntity<?> getWriteDefaultsEntity(List<?> queries, IndexCoordinates index) {
+        ElasticsearchPersistentEntity<?> entity = null;
+        for (Object query : queries) {
+            Object object = query instanceof IndexQuery ? ((IndexQuery) query).getObject() : null;
+            ElasticsearchPersistentEntity<?> itemEntity = getWriteDefaultsEntity(object != null ? object.getClass() : null, index);
+            if (itemEntity == null || entity != null && itemEntity != entity) {
+                return null;
+            }
+            entity = itemEntity;
+        }
+        return entity;
+    }
+
+    // an index that no or several entities map to has no write defaults. Misses are looked up again, the entity of
+    // the index may be added to the mapping context later
+    @Nullable
+    private ElasticsearchPersistentEntity<?> findPersistentEntity(String indexName) {
+        ElasticsearchPersistentEntity<?> entity = null;
+        for (ElasticsearchPersistentEntity<?> candidate : elasticsearchConverter.getMappingContext().getPersistentEntities()) {
+            if (candidate.getType().isAnnotationPresent(com.xxbb.springframework.data.elasticsearch.annotations.Document.class)
+                    && indexName.equals(candidate.getIndexCoordinates().getIndexName())) {
+                if (entity != null) {
+                    return null;
+                }
+                entity = candidate;
+            }
+        }
+        return entity;
+    }
+
+    // documents of a time partitioned entity written to its index pattern go to the partition of their timestamp
+    private String getWriteIndexName(IndexQuery query, IndexCoordinates index) {
+        Object object = query.getObject();
+        ElasticsearchPersistentEntity<?> entity = getPersistentEntity(object != null ? object.getClass() : null);
+        if (entity != null && entity.getTimePartitioning() != null && isIndexPattern(entity, index)) {
+            return entity.getTimePartitioning().getPartition(index, object).getIndexName();
+        }
+        return index.getIndexName();
+    }
+
+    // searches of a time partitioned entity that bound its partition field go to the overlapping partitions only. Only
+    // the query counts, the post filter does not restrict the aggregations. The partitions without documents do not
+    // exist, so missing indices are ignored unless the query has its own indices options
+    @Nullable
+    private String[] getSearchPartitions(@Nullable QueryBuilder query, @Nullable Class<?> clazz, IndexCoordinates index) {
+        ElasticsearchPersistentEntity<?> entity = getPersistentEntity(clazz);
+        TimePartitioning partitioning = entity != null ? entity.getTimePartitioning() : null;
+        if (partitioning == null || query == null || !isIndexPattern(entity, index)) {
+            return null;
+        }
+        QueryTimeRange range = QueryTimeRange.of(query, partitioning);
+        return range != null ? partitioning.getPartitions(index, range.getFrom(), range.getTo()).getIndexNames() : null;
+    }
+
+    private static boolean isIndexPattern(ElasticsearchPersistentEntity<?> entity, IndexCoordinates index) {
+        return Arrays.equals(entity.getIndexCoordinates().getIndexNames(), index.getIndexNames());
+    }
+
     @Nullable
     private ElasticsearchPersistentEntity<?> getPersistentEntity(@Nullable Class<?> clazz) {
         return clazz != null ? elasticsearchConverter.getMappingContext().getPersistentEntity(clazz) : null;
@@ -0,0 +1,36 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+public final class SearchAfterCursor {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> SORT_VALUES_TYPE = new TypeReference<List<Object>>() {};
+
+    public static String encode(List<Object> sortValues) {
+        Assert.notEmpty(sortValues, "sortValues must not be empty");
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(sortValues));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode sort values " + sortValues, e);
+        }
+    }
+
+    public static List<Object> decode(String cursor) {
+        Assert.hasText(cursor, "cursor must not be empty");
+        try {
+            return OBJECT_MAPPER.readValue(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), SORT_VALUES_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search_after cursor: " + cursor, e);
+        }
+    }
+
+    private SearchAfterCursor() {}
+}
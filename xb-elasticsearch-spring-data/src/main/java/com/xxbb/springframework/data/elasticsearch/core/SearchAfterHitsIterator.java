@@ -0,0 +1,9 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import org.springframework.lang.Nullable;
+
+public interface SearchAfterHitsIterator<T> extends SearchHitsIterator<T> {
+
+    @Nullable
+    String getCursor();
+}
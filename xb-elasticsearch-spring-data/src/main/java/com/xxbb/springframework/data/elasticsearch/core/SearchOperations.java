@@ -53,4 +53,10 @@ public interface SearchOperations {
     <T> SearchHitsIterator<T> searchForStream(Query query, Class<T> clazz);
 
     <T> SearchHitsIterator<T> searchForStream(Query query, Class<T> clazz, IndexCoordinates index);
+
+    <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz);
+
+    <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz, IndexCoordinates index);
+
+    <T> SearchAfterHitsIterator<T> searchAfterStream(Query query, Class<T> clazz, IndexCoordinates index, @Nullable String cursor);
 }
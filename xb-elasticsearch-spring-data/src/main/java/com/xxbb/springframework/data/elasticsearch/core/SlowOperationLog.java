@@ -0,0 +1,302 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// logs searches, counts and bulks that take longer than a threshold. Everything but the threshold check only runs
+// for slow operations, and the same query shape is logged at most once per interval, so it can stay on in production
+public class SlowOperationLog {
+    private static final Logger logger = LoggerFactory.getLogger(SlowOperationLog.class);
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+    private static final int MAX_SHAPE_LENGTH = 1024;
+    private static final int MAX_TRACKED_FINGERPRINTS = 10_000;
+
+    private final long searchThresholdNanos;
+    private final long bulkThresholdNanos;
+    private final long intervalNanos;
+    private final Map<String, LastLogged> lastLogged = new ConcurrentHashMap<>();
+
+    private SlowOperationLog(Duration searchThreshold, Duration bulkThreshold, Duration interval) {
+        this.searchThresholdNanos = searchThreshold.toNanos();
+        this.bulkThresholdNanos = bulkThreshold.toNanos();
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public static SlowOperationLogBuilder builder() {
+        return new SlowOperationLogBuilder();
+    }
+
+    // labels the operations run by the action with the caller, e.g. the repository method. Without a caller the
+    // operations keep the label they have
+    public static <T> T withCaller(@Nullable String caller, Supplier<T> action) {
+        if (caller == null) {
+            return action.get();
+        }
+        String previous = CALLER.get();
+        CALLER.set(caller);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CALLER.set(previous);
+            } else {
+                CALLER.remove();
+            }
+        }
+    }
+
+    void search(String operation, @Nullable Query query, SearchRequest request, IndexCoordinates index, long durationNanos,
+                SearchResponse response) {
+        if (durationNanos < searchThresholdNanos) {
+            return;
+        }
+
+        String shape = shape(request.source());
+        String fingerprint = fingerprint(shape);
+        long suppressed = acquire(operation + ':' + fingerprint);
+        if (suppressed < 0) {
+            return;
+        }
+        logger.warn("Slow {} [{}] on [{}] by [{}]: {}ms, took {}ms, {} hits, {} source bytes{}, query {}", operation, fingerprint,
+                index.getIndexName(), caller(query), TimeUnit.NANOSECONDS.toMillis(durationNanos), response.getTook().millis(),
+                response.getHits().getHits().length, sourceBytes(response), suppressed(suppressed), shape);
+    }
+
+    void multiSearch(MultiSearchRequest request, long durationNanos, MultiSearchResponse response) {
+        if (durationNanos < searchThresholdNanos) {
+            return;
+        }
+
+        StringBuilder shapes = new StringBuilder();
+        StringBuilder indices = new StringBuilder();
+        for (SearchRequest searchRequest : request.requests()) {
+            if (shapes.length() > 0) {
+                shapes.append(" | ");
+                indices.append(',');
+            }
+            shapes.append(shape(searchRequest.source()));
+            indices.append(String.join(",", searchRequest.indices()));
+        }
+        String fingerprint = fingerprint(shapes.toString());
+        long suppressed = acquire(ElasticsearchMetricsRecorder.MULTI_SEARCH + ':' + fingerprint);
+        if (suppressed < 0) {
+            return;
+        }
+
+        int hits = 0;
+        long sourceBytes = 0;
+        for (MultiSearchResponse.Item item : response.getResponses()) {
+            if (!item.isFailure()) {
+                hits += item.getResponse().getHits().getHits().length;
+                sourceBytes += sourceBytes(item.getResponse());
+            }
+        }
+        logger.warn("Slow {} [{}] of {} searches on [{}] by [{}]: {}ms, took {}ms, {} hits, {} source bytes{}, queries {}",
+                ElasticsearchMetricsRecorder.MULTI_SEARCH, fingerprint, request.requests().size(), indices, caller(null),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), response.getTook().millis(), hits, sourceBytes,
+                suppressed(suppressed), abbreviate(shapes.toString()));
+    }
+
+    void bulk(BulkRequest request, IndexCoordinates index, long durationNanos, BulkResponse response) {
+        if (durationNanos < bulkThresholdNanos) {
+            return;
+        }
+
+        long suppressed = acquire(ElasticsearchMetricsRecorder.BULK + ':' + index.getIndexName());
+        if (suppressed < 0) {
+            return;
+        }
+        logger.warn("Slow {} on [{}] by [{}]: {}ms, took {}ms, {} actions, {} request bytes, failures {}{}",
+                ElasticsearchMetricsRecorder.BULK, index.getIndexName(), caller(null), TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                response.getTook().millis(), request.numberOfActions(), request.estimatedSizeInBytes(), response.hasFailures(),
+                suppressed(suppressed));
+    }
+
+    // returns the number of suppressed occurrences since the last log of the key, or -1 when this one is suppressed too
+    private long acquire(String key) {
+        long now = System.nanoTime();
+        if (lastLogged.size() >= MAX_TRACKED_FINGERPRINTS && !lastLogged.containsKey(key)) {
+            lastLogged.clear();
+        }
+
+        LastLogged entry = lastLogged.computeIfAbsent(key, k -> new LastLogged(now - intervalNanos));
+        long last = entry.time.get();
+        if (now - last < intervalNanos || !entry.time.compareAndSet(last, now)) {
+            entry.suppressed.incrementAndGet();
+            return -1;
+        }
+        return entry.suppressed.getAndSet(0);
+    }
+
+    // the label of the current thread, to pass on to requests sent later or from other threads, e.g. the pages of a
+    // stream
+    @Nullable
+    static String currentCaller() {
+        return CALLER.get();
+    }
+
+    private static String caller(@Nullable Query query) {
+        String caller = CALLER.get();
+        if (caller != null) {
+            return caller;
+        }
+        return query != null ? query.getClass().getSimpleName() : "-";
+    }
+
+    private static String suppressed(long suppressed) {
+        return suppressed > 0 ? ", " + suppressed + " similar suppressed" : "";
+    }
+
+    private static long sourceBytes(SearchResponse response) {
+        long bytes = 0;
+        for (SearchHit hit : response.getHits().getHits()) {
+            BytesReference source = hit.getSourceRef();
+            if (source != null) {
+                bytes += source.length();
+            }
+        }
+        return bytes;
+    }
+
+    // the search source with every literal replaced by ?, scalar arrays collapse to a single ? so that terms
+    // queries with different numbers of values share their shape
+    static String shape(@Nullable SearchSourceBuilder source) {
+        if (source == null) {
+            return "{}";
+        }
+
+        try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+            source.toXContent(builder, ToXContent.EMPTY_PARAMS);
+            try (XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                    DeprecationHandler.THROW_UNSUPPORTED_OPERATION, BytesReference.bytes(builder).streamInput())) {
+                StringBuilder shape = new StringBuilder();
+                parser.nextToken();
+                appendShape(parser, shape);
+                return abbreviate(shape.toString());
+            }
+        } catch (IOException | RuntimeException e) {
+            return "<" + e.getClass().getSimpleName() + ">";
+        }
+    }
+
+    private static void appendShape(XContentParser parser, StringBuilder shape) throws IOException {
+        XContentParser.Token token = parser.currentToken();
+        if (token == XContentParser.Token.START_OBJECT) {
+            shape.append('{');
+            boolean first = true;
+            while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                if (!first) {
+                    shape.append(',');
+                }
+                first = false;
+                shape.append(parser.currentName()).append(':');
+                parser.nextToken();
+                appendShape(parser, shape);
+            }
+            shape.append('}');
+        } else if (token == XContentParser.Token.START_ARRAY) {
+            shape.append('[');
+            boolean first = true;
+            boolean scalarSeen = false;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                boolean scalar = token.isValue() || token == XContentParser.Token.VALUE_NULL;
+                if (scalar && scalarSeen) {
+                    continue;
+                }
+                scalarSeen |= scalar;
+                if (!first) {
+                    shape.append(',');
+                }
+                first = false;
+                appendShape(parser, shape);
+            }
+            shape.append(']');
+        } else {
+            shape.append('?');
+        }
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() > MAX_SHAPE_LENGTH ? value.substring(0, MAX_SHAPE_LENGTH) + "..." : value;
+    }
+
+    // 64 bit FNV-1a, short enough to grep for and stable across JVMs
+    static String fingerprint(String shape) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < shape.length(); i++) {
+            hash ^= shape.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static class LastLogged {
+        private final AtomicLong time;
+        private final AtomicLong suppressed = new AtomicLong();
+
+        LastLogged(long time) {
+            this.time = new AtomicLong(time);
+        }
+    }
+
+    public static class SlowOperationLogBuilder {
+        private Duration searchThreshold = Duration.ofSeconds(1);
+        private Duration bulkThreshold = Duration.ofSeconds(5);
+        private Duration interval = Duration.ofMinutes(1);
+
+        SlowOperationLogBuilder() {}
+
+        // applies to search, multi search and count
+        public SlowOperationLogBuilder withSearchThreshold(Duration searchThreshold) {
+            Assert.notNull(searchThreshold, "searchThreshold must not be null");
+            this.searchThreshold = searchThreshold;
+            return this;
+        }
+
+        public SlowOperationLogBuilder withBulkThreshold(Duration bulkThreshold) {
+            Assert.notNull(bulkThreshold, "bulkThreshold must not be null");
+            this.bulkThreshold = bulkThreshold;
+            return this;
+        }
+
+        // minimum time between two log lines for the same query shape, zero logs every slow operation
+        public SlowOperationLogBuilder withInterval(Duration interval) {
+            Assert.notNull(interval, "interval must not be null");
+            Assert.isTrue(!interval.isNegative(), "interval must not be negative");
+            this.interval = interval;
+            return this;
+        }
+
+        public SlowOperationLog build() {
+            return new SlowOperationLog(searchThreshold, bulkThreshold, interval);
+        }
+    }
+}
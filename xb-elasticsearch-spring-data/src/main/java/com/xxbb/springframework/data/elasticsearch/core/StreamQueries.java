@@ -5,12 +5,26 @@ import org.elasticsearch.search.aggregations.Aggregations;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 abstract class StreamQueries {
     static <T> SearchHitsIterator<T> streamResults(int maxCount, SearchScrollHits<T> searchHits,
@@ -90,5 +104,279 @@ abstract class StreamQueries {
         };
     }
 
+    // runs the slices of the templates that are not given an executor. A slice waits for the consumer of its stream, in
+    // a bounded pool one stream read slowly would hold up the others. Idle threads end after a minute
+    static final Executor DEFAULT_SLICE_EXECUTOR = Executors.newCachedThreadPool(new SliceThreadFactory());
+
+    private static final long SLICE_POLL_MILLIS = 100;
+
+    static <T> SearchHitsIterator<T> streamSlicedResults(int maxCount, int slices, Executor executor,
+                                                         IntFunction<SearchScrollHits<T>> startScrollFunction,
+                                                         Function<String, SearchScrollHits<T>> continueScrollFunction,
+                                                         Consumer<List<String>> clearScrollConsumer) {
+        Assert.isTrue(slices > 1, "slices must be greater than 1");
+        Assert.notNull(executor, "executor must not be null");
+        Assert.notNull(startScrollFunction, "startScrollFunction must not be null");
+        Assert.notNull(continueScrollFunction, "continueScrollFunction must not be null");
+        Assert.notNull(clearScrollConsumer, "clearScrollConsumer must not be null");
+
+        List<CompletableFuture<SearchScrollHits<T>>> firstPages = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            int sliceId = i;
+            firstPages.add(CompletableFuture.supplyAsync(() -> startScrollFunction.apply(sliceId), executor));
+        }
+
+        List<SearchScrollHits<T>> firstSearchHits;
+        try {
+            firstSearchHits = firstPages.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            firstPages.forEach(page -> page.thenAccept(hits -> clearScrollConsumer.accept(Collections.singletonList(hits.getScrollId()))));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+
+        // each slice scrolls on its own thread and hands its pages over through a bounded queue, so at most one page per
+        // slice is buffered ahead of the consumer. A slice stops at the next page once the iterator is closed and clears
+        // its scroll itself, with the ids of the requests that were still running
+        BlockingQueue<SlicePage<T>> pages = new ArrayBlockingQueue<>(slices);
+        AtomicBoolean closed = new AtomicBoolean();
+        long totalHits = 0;
+        float maxScore = Float.NaN;
+        for (SearchScrollHits<T> first : firstSearchHits) {
+            totalHits += first.getTotalHits();
+            maxScore = Float.isNaN(maxScore) ? first.getMaxScore() : Math.max(maxScore, first.getMaxScore());
+        }
+        for (SearchScrollHits<T> first : firstSearchHits) {
+            ScrollState scrollState = new ScrollState(first.getScrollId());
+            Runnable slice = () -> {
+                SearchScrollHits<T> page = first;
+                RuntimeException failure = null;
+                try {
+                    while (page.hasSearchHits() && offer(pages, new SlicePage<>(page, null), closed)) {
+                        page = continueScrollFunction.apply(scrollState.getScrollId());
+                        scrollState.updateScrollId(page.getScrollId());
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    clearScrollConsumer.accept(scrollState.getScrollIds());
+                }
+                offer(pages, SlicePage.done(failure), closed);
+            };
+            try {
+                executor.execute(slice);
+            } catch (RejectedExecutionException e) {
+                clearScrollConsumer.accept(scrollState.getScrollIds());
+                offer(pages, SlicePage.done(e), closed);
+            }
+        }
+
+        Aggregations aggregations = firstSearchHits.get(0).getAggregations();
+        float mergedMaxScore = maxScore;
+        long mergedTotalHits = totalHits;
+        TotalHitsRelation totalHitsRelation = firstSearchHits.stream().anyMatch(hits -> hits.getTotalHitsRelation() != TotalHitsRelation.EQUAL_TO)
+                ? TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO : TotalHitsRelation.EQUAL_TO;
+
+        return new SearchHitsIterator<T>() {
+
+            private final AtomicInteger currentCount = new AtomicInteger();
+            private volatile Iterator<SearchHit<T>> currentScrollHits = Collections.emptyIterator();
+            private volatile int runningSlices = slices;
+
+            @Override
+            @Nullable
+            public Aggregations getAggregations() {
+                return aggregations;
+            }
+
+            @Override
+            public float getMaxScore() {
+                return mergedMaxScore;
+            }
+
+            @Override
+            public long getTotalHits() {
+                return mergedTotalHits;
+            }
+
+            @Override
+            public TotalHitsRelation getTotalHitsRelation() {
+                return totalHitsRelation;
+            }
+
+            @Override
+            public void close() {
+                if (closed.compareAndSet(false, true)) {
+                    pages.clear();
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (closed.get() || (maxCount > 0 && currentCount.get() >= maxCount)) {
+                    return false;
+                }
+
+                while (!currentScrollHits.hasNext() && runningSlices > 0) {
+                    SlicePage<T> page;
+                    try {
+                        page = pages.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+
+                    if (page.searchHits != null) {
+                        currentScrollHits = page.searchHits.iterator();
+                    } else {
+                        runningSlices--;
+                        if (page.failure != null) {
+                            close();
+                            throw page.failure;
+                        }
+                    }
+                }
+                return currentScrollHits.hasNext();
+            }
+
+            @Override
+            public SearchHit<T> next() {
+                if (hasNext()) {
+                    currentCount.incrementAndGet();
+                    return currentScrollHits.next();
+                }
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    // searchAfter are the sort values the first page starts after, the cursor until a hit is read
+    static <T> SearchAfterHitsIterator<T> streamSearchAfterResults(int maxCount, int pageSize, @Nullable List<Object> searchAfter,
+                                                                   SearchHits<T> searchHits,
+                                                                   Function<List<Object>, SearchHits<T>> searchAfterFunction) {
+        Assert.notNull(searchHits, "searchHits must not be null");
+        Assert.notNull(searchAfterFunction, "searchAfterFunction must not be null");
+
+        Aggregations aggregations = searchHits.getAggregations();
+        float maxScore = searchHits.getMaxScore();
+        long totalHits = searchHits.getTotalHits();
+        TotalHitsRelation totalHitsRelation = searchHits.getTotalHitsRelation();
+
+        return new SearchAfterHitsIterator<T>() {
+
+            private final AtomicInteger currentCount = new AtomicInteger();
+            private volatile Iterator<SearchHit<T>> currentHits = searchHits.iterator();
+            private volatile boolean hasMorePages = searchHits.getSearchHits().size() >= pageSize;
+            @Nullable private volatile List<Object> lastSortValues = searchAfter;
+
+            @Override
+            @Nullable
+            public Aggregations getAggregations() {
+                return aggregations;
+            }
+
+            @Override
+            public float getMaxScore() {
+                return maxScore;
+            }
+
+            @Override
+            public long getTotalHits() {
+                return totalHits;
+            }
+
+            @Override
+            public TotalHitsRelation getTotalHitsRelation() {
+                return totalHitsRelation;
+            }
+
+            @Override
+            @Nullable
+            public String getCursor() {
+                List<Object> sortValues = lastSortValues;
+                return sortValues != null && !sortValues.isEmpty() ? SearchAfterCursor.encode(sortValues) : null;
+            }
+
+            @Override
+            public void close() {
+                hasMorePages = false;
+                currentHits = Collections.emptyIterator();
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (maxCount > 0 && currentCount.get() >= maxCount) {
+                    return false;
+                }
+
+                if (!currentHits.hasNext() && hasMorePages && lastSortValues != null) {
+                    SearchHits<T> nextPage = searchAfterFunction.apply(lastSortValues);
+                    currentHits = nextPage.iterator();
+                    hasMorePages = nextPage.getSearchHits().size() >= pageSize;
+                }
+                return currentHits.hasNext();
+            }
+
+            @Override
+            public SearchHit<T> next() {
+                if (hasNext()) {
+                    currentCount.incrementAndGet();
+                    SearchHit<T> hit = currentHits.next();
+                    lastSortValues = hit.getSortValues();
+                    return hit;
+                }
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    // false when the iterator is closed before the consumer takes the page
+    private static <T> boolean offer(BlockingQueue<SlicePage<T>> pages, SlicePage<T> page, AtomicBoolean closed) {
+        try {
+            while (!closed.get()) {
+                if (pages.offer(page, SLICE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return !closed.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static class SlicePage<T> {
+        @Nullable private final SearchScrollHits<T> searchHits;
+        @Nullable private final RuntimeException failure;
+
+        SlicePage(@Nullable SearchScrollHits<T> searchHits, @Nullable RuntimeException failure) {
+            this.searchHits = searchHits;
+            this.failure = failure;
+        }
+
+        static <T> SlicePage<T> done(@Nullable RuntimeException failure) {
+            return new SlicePage<>(null, failure);
+        }
+    }
+
+    private static class SliceThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "elasticsearch-scroll-slice-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private StreamQueries() {}
 }
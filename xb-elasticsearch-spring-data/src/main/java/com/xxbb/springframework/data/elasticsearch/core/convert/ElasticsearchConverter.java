@@ -5,6 +5,8 @@ import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPer
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import com.xxbb.springframework.data.elasticsearch.core.query.CriteriaQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.springframework.data.convert.EntityConverter;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
@@ -35,6 +37,10 @@ public interface ElasticsearchConverter extends EntityConverter<ElasticsearchPer
         return target;
     }
 
+    default BytesReference mapObjectToBytes(Object source) {
+        return new BytesArray(mapObject(source).toJson());
+    }
+
     default void updateQuery(Query query, @Nullable Class<?> clazz) {
         if (clazz != null) {
             if (query instanceof CriteriaQuery) {
@@ -10,6 +10,17 @@ import com.xxbb.springframework.data.elasticsearch.core.query.CriteriaQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.Field;
 import com.xxbb.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -22,6 +33,7 @@ import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.data.convert.CustomConversions;
 import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mapping.model.*;
 import org.springframework.data.util.ClassTypeInformation;
@@ -33,6 +45,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
+import java.io.IOException;
 import java.time.temporal.TemporalAccessor;
 import java.util.*;
 import java.util.Map.Entry;
@@ -42,6 +55,7 @@ import java.util.stream.Collectors;
 public class MappingElasticsearchConverter implements ElasticsearchConverter, ApplicationContextAware, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MappingElasticsearchConverter.class);
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
     private final MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
     private final GenericConversionService conversionService;
@@ -50,6 +64,9 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
     private EntityInstantiators instantiators = new EntityInstantiators();
     private ElasticsearchTypeMapper typeMapper;
     private ConcurrentHashMap<String, Integer> propertyWarnings = new ConcurrentHashMap<>();
+    private final Map<ElasticsearchPersistentEntity<?>, Set<String>> sourceFieldNames = new ConcurrentHashMap<>();
+    private final Map<ElasticsearchPersistentEntity<?>, EntityConversionPlan> conversionPlans = new ConcurrentHashMap<>();
+    private boolean conversionPlansEnabled = true;
 
     public MappingElasticsearchConverter(MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext) {
         this(mappingContext,  null);
@@ -66,6 +83,7 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
     public void afterPropertiesSet() {
         DateFormatterRegistrar.addDateConverters(this.conversionService);
         this.conversions.registerConvertersIn(this.conversionService);
+        this.conversionPlans.clear();
     }
 
     @Override
@@ -87,12 +105,31 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
 
     public void setConversions(CustomConversions conversions) {
         this.conversions = conversions;
+        this.conversionPlans.clear();
+    }
+
+    public boolean isConversionPlansEnabled() {
+        return conversionPlansEnabled;
+    }
+
+    // cached per entity plans are used by default, disabling them falls back to inspecting every property on each call
+    public void setConversionPlansEnabled(boolean conversionPlansEnabled) {
+        this.conversionPlansEnabled = conversionPlansEnabled;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <R> R read(Class<R> type, Document source) {
         TypeInformation<R> typeHint = ClassTypeInformation.from((Class<R>) ClassUtils.getUserClass(type));
+
+        BytesReference unparsedSource = source.getUnparsedSource();
+        if (unparsedSource != null) {
+            R result = readFromSource(typeHint, source, unparsedSource);
+            if (result != null) {
+                return result;
+            }
+        }
+
         typeHint = (TypeInformation<R>) typeMapper.readType(source, typeHint);
         if (conversions.hasCustomReadTarget(Map.class, typeHint.getType())) {
             R converted = conversionService.convert(source, typeHint.getType());
@@ -110,10 +147,73 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
         return readEntity(entity, source);
     }
 
+    // reads only the top level fields the entity maps straight from the source bytes, other fields are skipped unparsed.
+    // polymorphic sources and custom map converters fall back to the map based path.
+    @Nullable
+    private <R> R readFromSource(TypeInformation<R> typeHint, Document document, BytesReference source) {
+        if (typeHint.isMap() || ClassTypeInformation.OBJECT.equals(typeHint) || conversions.hasCustomReadTarget(Map.class, typeHint.getType())) {
+            return null;
+        }
+
+        ElasticsearchPersistentEntity<?> entity = mappingContext.getPersistentEntity(typeHint);
+        if (entity == null) {
+            return null;
+        }
+
+        Map<String, Object> values = readSourceFields(source, sourceFieldNames.computeIfAbsent(entity, this::getSourceFieldNames));
+        if (!typeMapper.readType(values, typeHint).getType().equals(typeHint.getType())) {
+            return null;
+        }
+        return readEntity(entity, values, document);
+    }
+
+    private Set<String> getSourceFieldNames(ElasticsearchPersistentEntity<?> entity) {
+        Set<String> fieldNames = new HashSet<>();
+        fieldNames.add(ElasticsearchTypeMapper.DEFAULT_TYPE_KEY);
+        entity.doWithProperties((PropertyHandler<ElasticsearchPersistentProperty>) property -> {
+            String fieldName = property.getFieldName();
+            int separator = fieldName.indexOf('.');
+            fieldNames.add(separator < 0 ? fieldName : fieldName.substring(0, separator));
+        });
+        return fieldNames;
+    }
+
+    private Map<String, Object> readSourceFields(BytesReference source, Set<String> fieldNames) {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source, XContentType.JSON)) {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new ConversionException("source is not a json object");
+            }
+
+            while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                XContentParser.Token token = parser.nextToken();
+
+                if (!fieldNames.contains(fieldName)) {
+                    parser.skipChildren();
+                } else if (token == XContentParser.Token.START_OBJECT) {
+                    values.put(fieldName, parser.mapOrdered());
+                } else if (token == XContentParser.Token.START_ARRAY) {
+                    values.put(fieldName, parser.list());
+                } else {
+                    values.put(fieldName, parser.objectText());
+                }
+            }
+        } catch (IOException e) {
+            throw new ConversionException("Cannot parse source", e);
+        }
+        return values;
+    }
+
     protected <R> R readEntity(ElasticsearchPersistentEntity<?> entity, Map<String, Object> source) {
-        ElasticsearchPersistentEntity<?> targetEntity = computeClosestEntity(entity, source);
+        return readEntity(entity, source, source);
+    }
 
-        ElasticsearchPropertyValueProvider propertyValueProvider = new ElasticsearchPropertyValueProvider(new MapValueAccessor(source));
+    private <R> R readEntity(ElasticsearchPersistentEntity<?> entity, Map<String, Object> values, Map<String, Object> source) {
+        ElasticsearchPersistentEntity<?> targetEntity = computeClosestEntity(entity, values);
+
+        ElasticsearchPropertyValueProvider propertyValueProvider = new ElasticsearchPropertyValueProvider(new MapValueAccessor(source, values));
         EntityInstantiator instantiator = instantiators.getInstantiatorFor(targetEntity);
         R instance = (R) instantiator.createInstance(targetEntity, new PersistentEntityParameterValueProvider<>(targetEntity, propertyValueProvider, null));
 
@@ -123,6 +223,10 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
 
         R result = readProperties(targetEntity, instance, propertyValueProvider);
 
+        if (conversionPlansEnabled) {
+            return readMetadata(getConversionPlan(targetEntity), result, source);
+        }
+
         if (source instanceof Document) {
             Document document = (Document)source;
             if (document.hasId()) {
@@ -160,6 +264,43 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
         return result;
     }
 
+    private <R> R readMetadata(EntityConversionPlan plan, R result, Map<String, Object> source) {
+        if (!plan.hasMetadataProperties()) {
+            if (source instanceof SearchDocument) {
+                populateScriptFields(result, (SearchDocument) source);
+            }
+            return result;
+        }
+
+        PersistentPropertyAccessor<R> accessor = new ConvertingPropertyAccessor<>(plan.entity.getPropertyAccessor(result), conversionService);
+
+        if (source instanceof Document) {
+            Document document = (Document) source;
+            if (plan.stringIdProperty != null && document.hasId()) {
+                accessor.setProperty(plan.stringIdProperty, document.getId());
+            }
+
+            if (plan.longVersionProperty != null && document.hasVersion()) {
+                long version = document.getVersion();
+                Assert.isTrue(version != -1, "version in response is -1");
+                accessor.setProperty(plan.longVersionProperty, version);
+            }
+
+            if (plan.seqNoPrimaryTermProperty != null && document.hasSeqNo() && document.hasPrimaryTerm()
+                    && isAssignedSeqNo(document.getSeqNo()) && isAssignedPrimaryTerm(document.getPrimaryTerm())) {
+                accessor.setProperty(plan.seqNoPrimaryTermProperty, new SeqNoPrimaryTerm(document.getSeqNo(), document.getPrimaryTerm()));
+            }
+        }
+        if (source instanceof SearchDocument) {
+            SearchDocument searchDocument = (SearchDocument) source;
+            if (plan.scoreProperty != null) {
+                accessor.setProperty(plan.scoreProperty, searchDocument.getScore());
+            }
+            populateScriptFields(accessor.getBean(), searchDocument);
+        }
+        return accessor.getBean();
+    }
+
     private boolean isAssignedSeqNo(long seqNo){
         return seqNo >= 0;
     }
@@ -170,6 +311,18 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
     protected <R> R readProperties(ElasticsearchPersistentEntity<?> entity, R instance, ElasticsearchPropertyValueProvider valueProvider) {
         PersistentPropertyAccessor<R> accessor = new ConvertingPropertyAccessor<>(entity.getPropertyAccessor(instance), conversionService);
 
+        if (conversionPlansEnabled) {
+            MapValueAccessor values = valueProvider.mapValueAccessor;
+            for (PropertyConversionPlan plan : getConversionPlan(entity).readProperties) {
+                Object value = values.get(plan);
+                if (value == null) {
+                    continue;
+                }
+                accessor.setProperty(plan.property, plan.isDirectRead(value) ? value : readValue(value, plan.property, plan.property.getTypeInformation()));
+            }
+            return accessor.getBean();
+        }
+
         for (ElasticsearchPersistentProperty prop : entity) {
             if (entity.isConstructorArgument(prop) || prop.isScoreProperty() || !prop.isReadable()) {
                 continue;
@@ -357,6 +510,54 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
         writeEntity(entity, source, sink, null);
     }
 
+    @Override
+    public BytesReference mapObjectToBytes(Object source) {
+        Assert.notNull(source, "source to map must not be null");
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        try (JsonGenerator generator = JSON_WRITER.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            writeFields(source, generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new ConversionException("Cannot write " + source.getClass().getName() + " as json", e);
+        }
+        return out.bytes();
+    }
+
+    // streams the top level fields, nested values are still built by the map based write path and serialized in place
+    private void writeFields(Object source, JsonGenerator generator) throws IOException {
+        if (source instanceof Map) {
+            writeFields((Map<String, Object>) source, generator);
+            return;
+        }
+
+        Class<?> entityType = ClassUtils.getUserClass(source.getClass());
+        TypeInformation<?> type = ClassTypeInformation.from(entityType);
+
+        if (requiresTypeHint(type, source.getClass(), null)) {
+            Map<String, Object> typeHint = new LinkedHashMap<>(2);
+            typeMapper.writeType(source.getClass(), typeHint);
+            writeFields(typeHint, generator);
+        }
+
+        Optional<Class<?>> customTarget = conversions.getCustomWriteTarget(entityType, Map.class);
+
+        if (customTarget.isPresent()) {
+            writeFields(conversionService.convert(source, Map.class), generator);
+            return;
+        }
+        ElasticsearchPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(entityType);
+        writeProperties(entity, entity.getPropertyAccessor(source), new JsonGeneratorValueAccessor(generator));
+    }
+
+    private void writeFields(Map<String, Object> source, JsonGenerator generator) throws IOException {
+        for (Entry<String, Object> entry : source.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            JSON_WRITER.writeValue(generator, entry.getValue());
+        }
+    }
+
     @Nullable
     protected Object getWriteSimpleValue(Object value) {
         Optional<Class<?>> customTarget = conversions.getCustomWriteTarget(value.getClass());
@@ -392,6 +593,11 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
     }
 
     protected void writeProperties(ElasticsearchPersistentEntity<?> entity, PersistentPropertyAccessor<?> accessor, MapValueAccessor sink) {
+        if (conversionPlansEnabled) {
+            writeProperties(getConversionPlan(entity), accessor, sink);
+            return;
+        }
+
         for (ElasticsearchPersistentProperty property : entity) {
 
             if (!property.isWritable()) {
@@ -419,7 +625,6 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
                                     + "It cannot be mapped from a complex object in Elasticsearch!", property.getType().getSimpleName(), propertyName);
                 }
             }
-            System.out.println(isSimpleType(value));
             if (!isSimpleType(value)) {
                 writeProperty(property, value, sink);
             } else {
@@ -431,6 +636,54 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
         }
     }
 
+    private void writeProperties(EntityConversionPlan plan, PersistentPropertyAccessor<?> accessor, MapValueAccessor sink) {
+        for (PropertyConversionPlan propertyPlan : plan.writeProperties) {
+            ElasticsearchPersistentProperty property = propertyPlan.property;
+            Object value = accessor.getProperty(property);
+
+            if (value == null) {
+                if (propertyPlan.storeNullValue) {
+                    sink.set(property, null);
+                }
+                continue;
+            }
+
+            if (propertyPlan.isDirectWrite(value)) {
+                sink.set(property, value);
+                continue;
+            }
+
+            if (propertyPlan.hasPropertyConverter) {
+                value = propertyConverterWrite(property, value);
+            } else if (propertyPlan.temporal && !conversions.hasCustomWriteTarget(value.getClass())) {
+                String propertyName = plan.entity.getType().getSimpleName() + '.' + property.getName();
+                String key = propertyName + "-write";
+                int count = propertyWarnings.computeIfAbsent(key, k -> 0);
+                if (count < 5) {
+                    LOGGER.warn(
+                            "Type {} of property {} is a TemporalAccessor class but neither a @Field annotation defining the date type nor a registered converter for writing!"
+                                    + "It cannot be mapped from a complex object in Elasticsearch!", property.getType().getSimpleName(), propertyName);
+                }
+            }
+            if (!isSimpleType(value)) {
+                writeProperty(property, value, sink);
+            } else {
+                Object writeSimpleValue = getWriteSimpleValue(value);
+                if (writeSimpleValue != null) {
+                    sink.set(property, writeSimpleValue);
+                }
+            }
+        }
+    }
+
+    private EntityConversionPlan getConversionPlan(ElasticsearchPersistentEntity<?> entity) {
+        EntityConversionPlan plan = conversionPlans.get(entity);
+        if (plan == null) {
+            plan = conversionPlans.computeIfAbsent(entity, it -> new EntityConversionPlan(it, conversions));
+        }
+        return plan;
+    }
+
     protected void writeProperty(ElasticsearchPersistentProperty property, Object value, MapValueAccessor sink) {
         Optional<Class<?>> customWriteTarget = conversions.getCustomWriteTarget(value.getClass());
 
@@ -643,9 +896,15 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
 
     static class MapValueAccessor {
         final Map<String, Object> target;
+        final Map<String, Object> values;
 
         public MapValueAccessor(Map<String, Object> target) {
+            this(target, target);
+        }
+
+        MapValueAccessor(Map<String, Object> target, Map<String, Object> values) {
             this.target = target;
+            this.values = values;
         }
 
         @Nullable
@@ -669,15 +928,27 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
             String fieldName = property.getFieldName();
 
             if (!fieldName.contains(".")) {
-                return target.get(fieldName);
+                return values.get(fieldName);
             }
-            Iterator<String> parts = Arrays.asList(fieldName.split("\\.")).iterator();
-            Map<String, Object> source = target;
+            return get(fieldName.split("\\."));
+        }
+
+        @Nullable
+        Object get(PropertyConversionPlan plan) {
+            if (plan.metadata) {
+                return get(plan.property);
+            }
+            return plan.fieldPath == null ? values.get(plan.fieldName) : get(plan.fieldPath);
+        }
+
+        @Nullable
+        private Object get(String[] fieldPath) {
+            Map<String, Object> source = values;
             Object result = null;
 
-            while (parts.hasNext()) {
-                result = source.get(parts.next());
-                if (parts.hasNext()) {
+            for (int i = 0; i < fieldPath.length; i++) {
+                result = source.get(fieldPath[i]);
+                if (i < fieldPath.length - 1) {
                     source = getAsMap(result);
                 }
             }
@@ -705,6 +976,103 @@ public class MappingElasticsearchConverter implements ElasticsearchConverter, Ap
         }
     }
 
+    static class JsonGeneratorValueAccessor extends MapValueAccessor {
+        private final JsonGenerator generator;
+
+        JsonGeneratorValueAccessor(JsonGenerator generator) {
+            super(Collections.emptyMap());
+            this.generator = generator;
+        }
+
+        @Override
+        public void set(ElasticsearchPersistentProperty property, @Nullable Object value) {
+            try {
+                generator.writeFieldName(property.getFieldName());
+                JSON_WRITER.writeValue(generator, value);
+            } catch (IOException e) {
+                throw new ConversionException("Cannot write property " + property.getName() + " as json", e);
+            }
+        }
+    }
+
+    // everything about reading and writing an entity that does not depend on the document at hand, built once per entity
+    static class EntityConversionPlan {
+        final ElasticsearchPersistentEntity<?> entity;
+        final PropertyConversionPlan[] readProperties;
+        final PropertyConversionPlan[] writeProperties;
+        @Nullable final ElasticsearchPersistentProperty stringIdProperty;
+        @Nullable final ElasticsearchPersistentProperty longVersionProperty;
+        @Nullable final ElasticsearchPersistentProperty seqNoPrimaryTermProperty;
+        @Nullable final ElasticsearchPersistentProperty scoreProperty;
+
+        EntityConversionPlan(ElasticsearchPersistentEntity<?> entity, CustomConversions conversions) {
+            this.entity = entity;
+
+            List<PropertyConversionPlan> readProperties = new ArrayList<>();
+            List<PropertyConversionPlan> writeProperties = new ArrayList<>();
+            for (ElasticsearchPersistentProperty property : entity) {
+                PropertyConversionPlan plan = new PropertyConversionPlan(property, conversions);
+                if (!entity.isConstructorArgument(property) && !property.isScoreProperty() && property.isReadable()) {
+                    readProperties.add(plan);
+                }
+                if (property.isWritable()) {
+                    writeProperties.add(plan);
+                }
+            }
+            this.readProperties = readProperties.toArray(new PropertyConversionPlan[0]);
+            this.writeProperties = writeProperties.toArray(new PropertyConversionPlan[0]);
+
+            ElasticsearchPersistentProperty idProperty = entity.getIdProperty();
+            this.stringIdProperty = idProperty != null && idProperty.getType().isAssignableFrom(String.class) ? idProperty : null;
+            ElasticsearchPersistentProperty versionProperty = entity.getVersionProperty();
+            this.longVersionProperty = versionProperty != null && versionProperty.getType().isAssignableFrom(Long.class) ? versionProperty : null;
+            this.seqNoPrimaryTermProperty = entity.hasSeqNoPrimaryTermProperty() ? entity.getRequiredSeqNoPrimaryTermProperty() : null;
+            this.scoreProperty = entity.hasScoreProperty() ? entity.getScoreProperty() : null;
+        }
+
+        boolean hasMetadataProperties() {
+            return stringIdProperty != null || longVersionProperty != null || seqNoPrimaryTermProperty != null || scoreProperty != null;
+        }
+    }
+
+    static class PropertyConversionPlan {
+        final ElasticsearchPersistentProperty property;
+        final String fieldName;
+        @Nullable final String[] fieldPath;
+        final boolean metadata;
+        final boolean hasPropertyConverter;
+        final boolean temporal;
+        final boolean storeNullValue;
+        // values of exactly this class need no conversion at all, neither on read nor on write
+        @Nullable private final Class<?> directReadType;
+        @Nullable private final Class<?> directWriteType;
+
+        PropertyConversionPlan(ElasticsearchPersistentProperty property, CustomConversions conversions) {
+            this.property = property;
+            this.fieldName = property.getFieldName();
+            this.fieldPath = fieldName.contains(".") ? fieldName.split("\\.") : null;
+            this.metadata = property.isIdProperty() || property.isVersionProperty() || property.isScoreProperty();
+            this.hasPropertyConverter = property.hasPropertyConverter();
+            this.temporal = TemporalAccessor.class.isAssignableFrom(property.getActualType());
+            this.storeNullValue = property.storeNullValue();
+
+            Class<?> rawType = property.getType();
+            Class<?> valueType = ClassUtils.resolvePrimitiveIfNecessary(rawType);
+            boolean plainSimpleType = !hasPropertyConverter && !temporal && !rawType.isEnum() && !Object.class.equals(rawType)
+                    && conversions.isSimpleType(rawType);
+            this.directReadType = plainSimpleType && !conversions.hasCustomReadTarget(valueType, rawType) ? valueType : null;
+            this.directWriteType = plainSimpleType && !conversions.hasCustomWriteTarget(valueType) ? valueType : null;
+        }
+
+        boolean isDirectRead(Object value) {
+            return value.getClass() == directReadType;
+        }
+
+        boolean isDirectWrite(Object value) {
+            return value.getClass() == directWriteType;
+        }
+    }
+
     class ElasticsearchPropertyValueProvider implements PropertyValueProvider<ElasticsearchPersistentProperty> {
         final MapValueAccessor mapValueAccessor;
 
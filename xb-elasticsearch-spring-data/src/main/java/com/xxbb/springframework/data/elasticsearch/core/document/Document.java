@@ -1,6 +1,7 @@
 package com.xxbb.springframework.data.elasticsearch.core.document;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -23,16 +24,27 @@ public interface Document extends Map<String, Object> {
         return new MapDocument(new LinkedHashMap<>(map));
     }
 
+    static Document from(BytesReference source) {
+        Assert.notNull(source, "source must not be null");
+        return new MapDocument(source);
+    }
+
     static Document parse(String json) {
         Assert.notNull(json, "JSON must not be null");
 
         try {
-            return new MapDocument(MapDocument.OBJECT_MAPPER.readerFor(Map.class).readValue(json));
+            return new MapDocument(MapDocument.OBJECT_MAPPER.readerFor(Map.class).<Map<String, Object>> readValue(json));
         } catch (IOException e) {
             throw new ElasticsearchException("Cannot parse JSON", e);
         }
     }
 
+    // the raw source as long as it has not been parsed into the map, lets readers skip the map entirely
+    @Nullable
+    default BytesReference getUnparsedSource() {
+        return null;
+    }
+
     default Document append(String key, Object value) {
         Assert.notNull(key, "key must not be null");
         put(key, value);
@@ -97,7 +97,7 @@ public class DocumentAdapters {
             return new SearchDocumentAdapter(source.getScore(), source.getSortValues(), fromDocumentFields(source, source.getIndex(), source.getId(), source.getVersion(), source.getSeqNo(), source.getPrimaryTerm()), source.getFields(), hightlightFields, innerHits, nestedMetaData);
         }
 
-        Document document = Document.from(source.getSourceAsMap());
+        Document document = Document.from(sourceRef);
         document.setIndex(source.getIndex());
         document.setId(source.getId());
         if (source.getVersion() >= 0) {
@@ -360,6 +360,12 @@ public class DocumentAdapters {
             return delegate.getIndex();
         }
 
+        @Nullable
+        @Override
+        public BytesReference getUnparsedSource() {
+            return delegate.getUnparsedSource();
+        }
+
         @Override
         public boolean hasId() {
             return delegate.hasId();
@@ -3,6 +3,9 @@ package com.xxbb.springframework.data.elasticsearch.core.document;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.springframework.lang.Nullable;
 
 import java.util.*;
@@ -11,7 +14,10 @@ import java.util.function.BiConsumer;
 class MapDocument implements Document {
     static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private final LinkedHashMap<String, Object> documentAsMap;
+    @Nullable
+    private Map<String, Object> documentAsMap;
+    @Nullable
+    private BytesReference source;
 
     private @Nullable String index;
     private @Nullable String id;
@@ -27,6 +33,24 @@ class MapDocument implements Document {
         this.documentAsMap = new LinkedHashMap<>(documentAsMap);
     }
 
+    MapDocument(BytesReference source) {
+        this.source = source;
+    }
+
+    private Map<String, Object> map() {
+        if (documentAsMap == null) {
+            documentAsMap = XContentHelper.convertToMap(source, true, XContentType.JSON).v2();
+            source = null;
+        }
+        return documentAsMap;
+    }
+
+    @Nullable
+    @Override
+    public BytesReference getUnparsedSource() {
+        return source;
+    }
+
     @Nullable
     @Override
     public String getIndex() {
@@ -110,77 +134,77 @@ class MapDocument implements Document {
 
     @Override
     public int size() {
-        return documentAsMap.size();
+        return map().size();
     }
 
     @Override
     public boolean isEmpty() {
-        return documentAsMap.isEmpty();
+        return map().isEmpty();
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return documentAsMap.containsKey(key);
+        return map().containsKey(key);
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return documentAsMap.containsValue(value);
+        return map().containsValue(value);
     }
 
     @Override
     public Object get(Object key) {
-        return documentAsMap.get(key);
+        return map().get(key);
     }
 
     @Override
     public Object put(String key, Object value) {
-        return documentAsMap.put(key, value);
+        return map().put(key, value);
     }
 
     @Override
     public Object remove(Object key) {
-        return documentAsMap.remove(key);
+        return map().remove(key);
     }
 
     @Override
     public void putAll(Map<? extends String, ?> m) {
-        documentAsMap.putAll(m);
+        map().putAll(m);
     }
 
     @Override
     public void clear() {
-        documentAsMap.clear();
+        map().clear();
     }
 
     @Override
     public Set<String> keySet() {
-        return documentAsMap.keySet();
+        return map().keySet();
     }
 
     @Override
     public Collection<Object> values() {
-        return documentAsMap.values();
+        return map().values();
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return documentAsMap.entrySet();
+        return map().entrySet();
     }
 
     @Override
     public boolean equals(Object o) {
-        return documentAsMap.equals(o);
+        return map().equals(o);
     }
 
     @Override
     public int hashCode() {
-        return documentAsMap.hashCode();
+        return map().hashCode();
     }
 
     @Override
     public void forEach(BiConsumer<? super String, ? super Object> action) {
-        documentAsMap.forEach(action);
+        map().forEach(action);
     }
 
     @Override
@@ -0,0 +1,180 @@
+package com.xxbb.springframework.data.elasticsearch.core.index;
+
+import com.xxbb.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// the difference between the mapping of an index and the mapping of its entity. Fields and multi-fields missing in
+// the index are additions a put mapping can make, a changed type or a changed parameter the index cannot update is a
+// conflict that needs a reindex. Fields only the index knows are left alone, a mapping cannot drop them anyway
+public final class MappingDiff {
+    private static final String PROPERTIES = "properties";
+    private static final String FIELDS = "fields";
+    private static final String TYPE = "type";
+    private static final String OBJECT = "object";
+
+    // parameters elasticsearch refuses to change on an existing field
+    private static final List<String> FIXED_PARAMETERS = Collections.unmodifiableList(Arrays.asList("analyzer", "normalizer",
+            "index", "store", "doc_values", "format", "similarity", "index_options", "term_vector", "enabled"));
+
+    private final Document additions;
+    private final List<Conflict> conflicts;
+
+    private MappingDiff(Document additions, List<Conflict> conflicts) {
+        this.additions = additions;
+        this.conflicts = Collections.unmodifiableList(conflicts);
+    }
+
+    public static MappingDiff compute(Map<String, Object> live, Map<String, Object> desired) {
+        Assert.notNull(live, "live must not be null");
+        Assert.notNull(desired, "desired must not be null");
+
+        List<Conflict> conflicts = new ArrayList<>();
+        Map<String, Object> properties = diffProperties("", properties(live), properties(desired), conflicts);
+        Document additions = Document.create();
+        if (!properties.isEmpty()) {
+            additions.put(PROPERTIES, properties);
+        }
+        return new MappingDiff(additions, conflicts);
+    }
+
+    // a mapping holding only what is missing in the index, empty when nothing is
+    public Document getAdditions() {
+        return additions;
+    }
+
+    public boolean hasAdditions() {
+        return !additions.isEmpty();
+    }
+
+    public List<Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    private static Map<String, Object> diffProperties(String path, Map<String, Object> live, Map<String, Object> desired,
+                                                      List<Conflict> conflicts) {
+        Map<String, Object> additions = new LinkedHashMap<>();
+        desired.forEach((name, desiredValue) -> {
+            String fieldPath = path + name;
+            Object liveValue = live.get(name);
+            if (!(liveValue instanceof Map)) {
+                additions.put(name, desiredValue);
+            } else if (desiredValue instanceof Map) {
+                Map<String, Object> addition = diffField(fieldPath, asMap(liveValue), asMap(desiredValue), conflicts);
+                if (addition != null) {
+                    additions.put(name, addition);
+                }
+            }
+        });
+        return additions;
+    }
+
+    @Nullable
+    private static Map<String, Object> diffField(String path, Map<String, Object> live, Map<String, Object> desired,
+                                                 List<Conflict> conflicts) {
+        Object liveType = typeOf(live);
+        Object desiredType = typeOf(desired);
+        if (!liveType.equals(desiredType)) {
+            conflicts.add(new Conflict(path, TYPE, liveType, desiredType));
+            return null;
+        }
+
+        boolean fixedParameterChanged = false;
+        for (String parameter : FIXED_PARAMETERS) {
+            if (desired.containsKey(parameter) && !ObjectUtils.nullSafeEquals(live.get(parameter), desired.get(parameter))) {
+                conflicts.add(new Conflict(path, parameter, live.get(parameter), desired.get(parameter)));
+                fixedParameterChanged = true;
+            }
+        }
+
+        Map<String, Object> addition = new LinkedHashMap<>();
+        Map<String, Object> properties = diffProperties(path + '.', properties(live), properties(desired), conflicts);
+        if (!properties.isEmpty()) {
+            if (desired.containsKey(TYPE)) {
+                addition.put(TYPE, desiredType);
+            }
+            addition.put(PROPERTIES, properties);
+        }
+
+        Map<String, Object> fields = diffProperties(path + '.', asMap(live.get(FIELDS)), asMap(desired.get(FIELDS)), conflicts);
+        if (!fields.isEmpty() && !fixedParameterChanged) {
+            // multi-fields are put with the definition of their field, which must match the one in the index
+            desired.forEach((key, value) -> {
+                if (!PROPERTIES.equals(key) && !FIELDS.equals(key)) {
+                    addition.put(key, value);
+                }
+            });
+            addition.put(FIELDS, fields);
+        }
+        return addition.isEmpty() ? null : addition;
+    }
+
+    private static Object typeOf(Map<String, Object> field) {
+        Object type = field.get(TYPE);
+        return type != null ? type : OBJECT;
+    }
+
+    private static Map<String, Object> properties(Map<String, Object> mapping) {
+        return asMap(mapping.get(PROPERTIES));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(@Nullable Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    @Override
+    public String toString() {
+        return "MappingDiff{additions=" + additions + ", conflicts=" + conflicts + '}';
+    }
+
+    public static final class Conflict {
+        private final String path;
+        private final String parameter;
+        @Nullable private final Object liveValue;
+        @Nullable private final Object desiredValue;
+
+        Conflict(String path, String parameter, @Nullable Object liveValue, @Nullable Object desiredValue) {
+            this.path = path;
+            this.parameter = parameter;
+            this.liveValue = liveValue;
+            this.desiredValue = desiredValue;
+        }
+
+        // the dotted path of the field, multi-fields included
+        public String getPath() {
+            return path;
+        }
+
+        public String getParameter() {
+            return parameter;
+        }
+
+        @Nullable
+        public Object getLiveValue() {
+            return liveValue;
+        }
+
+        @Nullable
+        public Object getDesiredValue() {
+            return desiredValue;
+        }
+
+        @Override
+        public String toString() {
+            return path + '.' + parameter + ": " + liveValue + " -> " + desiredValue;
+        }
+    }
+}
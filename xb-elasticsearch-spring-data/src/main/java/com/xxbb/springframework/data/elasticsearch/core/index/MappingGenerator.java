@@ -0,0 +1,96 @@
+package com.xxbb.springframework.data.elasticsearch.core.index;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// writes the mappings the MappingBuilder would build into the classes directory, so the application reads them as a
+// resource instead of building them with reflection on its first start. Meant to run after compile, e.g. from the
+// exec-maven-plugin in process-classes: MappingGenerator <classes directory> <entity class or package>...
+// The mappings are built with the default conversions, entities relying on custom conversions should not be generated
+public final class MappingGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(MappingGenerator.class);
+
+    public static final String LOCATION = "META-INF/xb-elasticsearch/mappings/";
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    public MappingGenerator(ElasticsearchConverter elasticsearchConverter) {
+        this.elasticsearchConverter = elasticsearchConverter;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: MappingGenerator <output directory> <entity class or package>...");
+        }
+
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        List<Class<?>> entities = findEntities(Arrays.asList(args).subList(1, args.length));
+        List<Path> files = new MappingGenerator(converter).generate(Paths.get(args[0]), entities);
+        logger.info("Generated {} mappings in {}", files.size(), args[0]);
+    }
+
+    public List<Path> generate(Path outputDirectory, List<Class<?>> entities) throws IOException {
+        Path directory = outputDirectory.resolve(LOCATION);
+        Files.createDirectories(directory);
+
+        MappingBuilder mappingBuilder = new MappingBuilder(elasticsearchConverter);
+        List<Path> files = new ArrayList<>(entities.size());
+        for (Class<?> entity : entities) {
+            Path file = directory.resolve(entity.getName() + ".json");
+            Files.write(file, mappingBuilder.buildPropertyMapping(entity).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+
+    // a name that is not a class is scanned as a package for @Document entities
+    static List<Class<?>> findEntities(List<String> names) {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Document.class));
+
+        List<Class<?>> entities = new ArrayList<>();
+        for (String name : names) {
+            if (ClassUtils.isPresent(name, classLoader)) {
+                entities.add(ClassUtils.resolveClassName(name, classLoader));
+                continue;
+            }
+            for (BeanDefinition candidate : scanner.findCandidateComponents(name)) {
+                entities.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+        return entities;
+    }
+
+    @Nullable
+    public static String readGeneratedMapping(Class<?> clazz) {
+        ClassLoader classLoader = clazz.getClassLoader() != null ? clazz.getClassLoader() : ClassUtils.getDefaultClassLoader();
+        try (InputStream content = classLoader.getResourceAsStream(LOCATION + clazz.getName() + ".json")) {
+            return content != null ? StreamUtils.copyToString(content, StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            logger.warn("Cannot read generated mapping of {}: {}", clazz.getName(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.xxbb.springframework.data.elasticsearch.core.mapping;
 
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
+import org.elasticsearch.action.support.ActiveShardCount;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.VersionType;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.lang.Nullable;
 
+import java.util.function.Supplier;
+
 public interface ElasticsearchPersistentEntity<T> extends PersistentEntity<T, ElasticsearchPersistentProperty> {
+    // the pattern over all partitions for a time partitioned entity
     IndexCoordinates getIndexCoordinates();
 
+    @Nullable
+    TimePartitioning getTimePartitioning();
+
     short getShards();
 
     short getReplicas();
@@ -34,6 +43,15 @@ public interface ElasticsearchPersistentEntity<T> extends PersistentEntity<T, El
 
     boolean isCreateIndexAndMapping();
 
+    @Nullable
+    WriteRequest.RefreshPolicy getRefreshPolicy();
+
+    @Nullable
+    TimeValue getWriteTimeout();
+
+    @Nullable
+    ActiveShardCount getWaitForActiveShards();
+
     boolean hasScoreProperty();
 
     @Nullable
@@ -61,4 +79,9 @@ public interface ElasticsearchPersistentEntity<T> extends PersistentEntity<T, El
         }
     }
     Document getDefaultSettings();
+
+    // the mapping and the settings are built by the first caller only, every caller gets a copy it may change
+    Document computeMappingIfAbsent(Supplier<Document> mappingBuilder);
+
+    Document computeSettingsIfAbsent(Supplier<Document> settingsBuilder);
 }
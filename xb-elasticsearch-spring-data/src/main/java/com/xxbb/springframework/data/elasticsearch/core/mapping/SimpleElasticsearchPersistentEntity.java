@@ -1,9 +1,14 @@
 package com.xxbb.springframework.data.elasticsearch.core.mapping;
 
+import com.xxbb.springframework.data.elasticsearch.annotations.RefreshPolicy;
 import com.xxbb.springframework.data.elasticsearch.annotations.Setting;
+import com.xxbb.springframework.data.elasticsearch.annotations.TimePartitioned;
 import com.xxbb.springframework.data.elasticsearch.core.document.Document;
 import com.xxbb.springframework.data.elasticsearch.core.join.JoinField;
+import org.elasticsearch.action.support.ActiveShardCount;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.VersionType;
 import org.slf4j.Logger;
@@ -23,10 +28,18 @@ import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-
+import org.springframework.util.StringUtils;
+
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntity<T, ElasticsearchPersistentProperty> implements ElasticsearchPersistentEntity<T> {
 
@@ -46,8 +59,15 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
     private @Nullable String settingPath;
     private @Nullable VersionType versionType;
     private boolean createIndexAndMapping;
+    private @Nullable WriteRequest.RefreshPolicy refreshPolicy;
+    private @Nullable TimeValue writeTimeout;
+    private @Nullable ActiveShardCount waitForActiveShards;
+    private @Nullable TimePartitioned timePartitioned;
+    private @Nullable TimePartitioning timePartitioning;
     private final Map<String, ElasticsearchPersistentProperty> fieldNamePropertyCache = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Expression> indexNameExpression = new ConcurrentHashMap<>();
+    private final AtomicReference<Document> mapping = new AtomicReference<>();
+    private final AtomicReference<Document> settings = new AtomicReference<>();
 
     public SimpleElasticsearchPersistentEntity(TypeInformation<T> information) {
         super(information);
@@ -64,11 +84,42 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
             this.indexStoreType = document.indexStoreType();
             this.versionType = document.versionType();
             this.createIndexAndMapping = document.createIndex();
+            if (document.refreshPolicy() != RefreshPolicy.NOT_SET) {
+                this.refreshPolicy = WriteRequest.RefreshPolicy.valueOf(document.refreshPolicy().name());
+            }
+            if (StringUtils.hasText(document.writeTimeout())) {
+                this.writeTimeout = TimeValue.parseTimeValue(document.writeTimeout(), "writeTimeout");
+            }
+            if (StringUtils.hasText(document.waitForActiveShards())) {
+                this.waitForActiveShards = ActiveShardCount.parseString(document.waitForActiveShards());
+            }
         }
 
         if (clazz.isAnnotationPresent(Setting.class)) {
             this.settingPath = information.getType().getAnnotation(Setting.class).settingPath();
         }
+
+        this.timePartitioned = clazz.getAnnotation(TimePartitioned.class);
+    }
+
+    // the partition property is known once all properties are added
+    @Override
+    public void verify() {
+        super.verify();
+
+        if (timePartitioned != null) {
+            ElasticsearchPersistentProperty property = getPersistentProperty(timePartitioned.property());
+            if (property == null) {
+                throw new MappingException(String.format("Partition property %s not found on %s", timePartitioned.property(), getType()));
+            }
+            Class<?> type = property.getActualType();
+            if (!Date.class.isAssignableFrom(type) && !TemporalAccessor.class.isAssignableFrom(type)
+                    && type != Long.class && type != long.class) {
+                throw new MappingException(String.format("Partition property %s of %s must be a date, a temporal or epoch millis",
+                        property.getName(), getType()));
+            }
+            this.timePartitioning = new TimePartitioning(property, timePartitioned.interval(), ZoneId.of(timePartitioned.zone()));
+        }
     }
 
     private String getIndexName() {
@@ -77,7 +128,13 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 
     @Override
     public IndexCoordinates getIndexCoordinates() {
-        return resolve(IndexCoordinates.of(getIndexName()));
+        IndexCoordinates indexCoordinates = resolve(IndexCoordinates.of(getIndexName()));
+        return timePartitioned != null ? TimePartitioning.getIndexPattern(indexCoordinates.getIndexName()) : indexCoordinates;
+    }
+
+    @Override
+    public TimePartitioning getTimePartitioning() {
+        return timePartitioning;
     }
 
     @Override
@@ -125,6 +182,21 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
         return createIndexAndMapping;
     }
 
+    @Override
+    public WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    @Override
+    public TimeValue getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public ActiveShardCount getWaitForActiveShards() {
+        return waitForActiveShards;
+    }
+
     @Override
     public boolean hasScoreProperty() {
         return scoreProperty != null;
@@ -232,6 +304,45 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
         return Document.from(map);
     }
 
+    @Override
+    public Document computeMappingIfAbsent(Supplier<Document> mappingBuilder) {
+        return computeIfAbsent(mapping, mappingBuilder);
+    }
+
+    @Override
+    public Document computeSettingsIfAbsent(Supplier<Document> settingsBuilder) {
+        return computeIfAbsent(settings, settingsBuilder);
+    }
+
+    private static Document computeIfAbsent(AtomicReference<Document> cache, Supplier<Document> builder) {
+        Document document = cache.get();
+        if (document == null) {
+            // concurrent first callers may both build, the documents are equal and the first one is kept
+            cache.compareAndSet(null, builder.get());
+            document = cache.get();
+        }
+        return Document.from(deepCopy(document));
+    }
+
+    private static Map<String, Object> deepCopy(Map<String, ?> map) {
+        Map<String, Object> copy = new LinkedHashMap<>(map.size());
+        map.forEach((key, value) -> copy.put(key, deepCopyValue(value)));
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object deepCopyValue(Object value) {
+        if (value instanceof Map) {
+            return deepCopy((Map<String, ?>) value);
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            ((List<?>) value).forEach(element -> copy.add(deepCopyValue(element)));
+            return copy;
+        }
+        return value;
+    }
+
     private IndexCoordinates resolve(IndexCoordinates indexCoordinates) {
         EvaluationContext context = getEvaluationContext(null);
 
@@ -0,0 +1,206 @@
+package com.xxbb.springframework.data.elasticsearch.core.mapping;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.PartitionInterval;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// the partitions of a @TimePartitioned entity: indexName-yyyy.MM.dd for DAY, the index coordinates of the entity
+// are the pattern indexName-* over all of them
+public class TimePartitioning {
+    private static final String SEPARATOR = "-";
+    private static final String WILDCARD = "*";
+    private static final Map<PartitionInterval, DateTimeFormatter> FORMATTERS = new EnumMap<>(PartitionInterval.class);
+
+    static {
+        FORMATTERS.put(PartitionInterval.HOUR, DateTimeFormatter.ofPattern("uuuu.MM.dd.HH"));
+        FORMATTERS.put(PartitionInterval.DAY, DateTimeFormatter.ofPattern("uuuu.MM.dd"));
+        FORMATTERS.put(PartitionInterval.MONTH, DateTimeFormatter.ofPattern("uuuu.MM"));
+        FORMATTERS.put(PartitionInterval.YEAR, DateTimeFormatter.ofPattern("uuuu"));
+    }
+
+    private final ElasticsearchPersistentProperty property;
+    private final PartitionInterval interval;
+    private final ZoneId zone;
+
+    public TimePartitioning(ElasticsearchPersistentProperty property, PartitionInterval interval, ZoneId zone) {
+        Assert.notNull(property, "property must not be null");
+        Assert.notNull(interval, "interval must not be null");
+        Assert.notNull(zone, "zone must not be null");
+        this.property = property;
+        this.interval = interval;
+        this.zone = zone;
+    }
+
+    public static IndexCoordinates getIndexPattern(String indexName) {
+        return IndexCoordinates.of(indexName + SEPARATOR + WILDCARD);
+    }
+
+    public ElasticsearchPersistentProperty getProperty() {
+        return property;
+    }
+
+    public PartitionInterval getInterval() {
+        return interval;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // the name of the index template of the partitions, the index name without the wildcard
+    public String getTemplateName(IndexCoordinates indexPattern) {
+        String prefix = getPrefix(indexPattern);
+        return prefix.substring(0, prefix.length() - SEPARATOR.length());
+    }
+
+    public IndexCoordinates getPartition(IndexCoordinates indexPattern, Instant timestamp) {
+        Assert.notNull(timestamp, "timestamp must not be null");
+        return IndexCoordinates.of(getPrefix(indexPattern) + format(timestamp.atZone(zone), interval));
+    }
+
+    // the partition the bean is written to, after the value of its partition property
+    public IndexCoordinates getPartition(IndexCoordinates indexPattern, Object bean) {
+        Object value = property.getOwner().getPropertyAccessor(bean).getProperty(property);
+        Instant timestamp = toInstant(value);
+        Assert.notNull(timestamp, () -> String.format("The partition property %s of %s must be set", property.getName(), bean));
+        return getPartition(indexPattern, timestamp);
+    }
+
+    // the partitions overlapping from and to. Whole years and months of finer partitions are one wildcard each, a
+    // year of daily partitions is a short request line and not 365 names
+    public IndexCoordinates getPartitions(IndexCoordinates indexPattern, Instant from, Instant to) {
+        Assert.isTrue(!from.isAfter(to), "from must not be after to");
+        String prefix = getPrefix(indexPattern);
+        ZonedDateTime current = truncate(from.atZone(zone), interval);
+        ZonedDateTime end = next(truncate(to.atZone(zone), interval), interval);
+        PartitionInterval[] intervals = PartitionInterval.values();
+
+        List<String> names = new ArrayList<>();
+        while (current.isBefore(end)) {
+            PartitionInterval covering = interval;
+            for (int i = intervals.length - 1; i > interval.ordinal(); i--) {
+                if (truncate(current, intervals[i]).equals(current) && !next(current, intervals[i]).isAfter(end)) {
+                    covering = intervals[i];
+                    break;
+                }
+            }
+            names.add(covering == interval ? prefix + format(current, interval) : prefix + format(current, covering) + '.' + WILDCARD);
+            current = next(current, covering);
+        }
+        return IndexCoordinates.of(names.toArray(new String[0]));
+    }
+
+    // a value of the partition property, null when it is no point in time. Values without an offset are UTC, that is
+    // how Elasticsearch indexes them
+    @Nullable
+    public Instant toInstant(@Nullable Object value) {
+        return toInstant(value, ZoneOffset.UTC, false);
+    }
+
+    // a bound of a query on the partition property. Values without an offset are read in the time zone of the query,
+    // and rounded up to the end of the day when they have no time, as Elasticsearch does for lte and gt
+    @Nullable
+    public Instant toInstant(@Nullable Object value, ZoneId timeZone, boolean roundUp) {
+        if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        }
+        if (value instanceof Number) {
+            return Instant.ofEpochMilli(((Number) value).longValue());
+        }
+        if (value instanceof TemporalAccessor) {
+            return toInstant((TemporalAccessor) value, timeZone, roundUp);
+        }
+        if (value instanceof String) {
+            return parse((String) value, timeZone, roundUp);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Instant toInstant(TemporalAccessor value, ZoneId timeZone, boolean roundUp) {
+        if (value.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return Instant.from(value);
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(timeZone).toInstant();
+        }
+        if (value instanceof LocalDate) {
+            LocalDate date = (LocalDate) value;
+            return roundUp ? date.plusDays(1).atStartOfDay(timeZone).toInstant().minusMillis(1) : date.atStartOfDay(timeZone).toInstant();
+        }
+        return null;
+    }
+
+    // strings are bounds of criteria, written with the date format of the property, or ISO dates
+    @Nullable
+    private Instant parse(String value, ZoneId timeZone, boolean roundUp) {
+        if (property.hasPropertyConverter()) {
+            try {
+                Instant instant = toInstant(property.getPropertyConverter().read(value), timeZone, roundUp);
+                if (instant != null) {
+                    return instant;
+                }
+            } catch (RuntimeException ignored) {}
+        }
+        try {
+            return toInstant(DateTimeFormatter.ISO_DATE_TIME.parseBest(value, ZonedDateTime::from, LocalDateTime::from), timeZone, roundUp);
+        } catch (DateTimeException ignored) {}
+        try {
+            return toInstant(LocalDate.parse(value), timeZone, roundUp);
+        } catch (DateTimeException ignored) {}
+        return null;
+    }
+
+    private static String getPrefix(IndexCoordinates indexPattern) {
+        String indexName = indexPattern.getIndexName();
+        Assert.isTrue(indexName.endsWith(SEPARATOR + WILDCARD), () -> indexName + " is no partition pattern");
+        return indexName.substring(0, indexName.length() - WILDCARD.length());
+    }
+
+    private static String format(ZonedDateTime time, PartitionInterval interval) {
+        return FORMATTERS.get(interval).format(time);
+    }
+
+    private static ZonedDateTime truncate(ZonedDateTime time, PartitionInterval interval) {
+        switch (interval) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            default:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+        }
+    }
+
+    private static ZonedDateTime next(ZonedDateTime time, PartitionInterval interval) {
+        switch (interval) {
+            case HOUR:
+                return time.plusHours(1);
+            case DAY:
+                return time.plusDays(1);
+            case MONTH:
+                return time.plusMonths(1);
+            default:
+                return time.plusYears(1);
+        }
+    }
+}
@@ -26,6 +26,8 @@ abstract class AbstractQuery implements Query{
     @Nullable private Boolean trackTotalHits;
     @Nullable private Integer trackTotalHitsUpTo;
     @Nullable private Duration scrollTime;
+    @Nullable private Integer scrollSlices;
+    @Nullable private List<Object> searchAfter;
 
     @Override
     public Pageable getPageable() {
@@ -166,6 +168,28 @@ abstract class AbstractQuery implements Query{
         this.scrollTime = scrollTime;
     }
 
+    @Override
+    @Nullable
+    public Integer getScrollSlices() {
+        return scrollSlices;
+    }
+
+    @Override
+    public void setScrollSlices(@Nullable Integer scrollSlices) {
+        this.scrollSlices = scrollSlices;
+    }
+
+    @Override
+    @Nullable
+    public List<Object> getSearchAfter() {
+        return searchAfter;
+    }
+
+    @Override
+    public void setSearchAfter(@Nullable List<Object> searchAfter) {
+        this.searchAfter = searchAfter;
+    }
+
     @Override
     public void setHighlightQuery(HighlightQuery highlightQuery) {
         this.highlightQuery = highlightQuery;
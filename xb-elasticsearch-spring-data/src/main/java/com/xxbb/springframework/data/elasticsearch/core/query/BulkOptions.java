@@ -1,10 +1,13 @@
 package com.xxbb.springframework.data.elasticsearch.core.query;
 
+import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.common.unit.TimeValue;
 import org.springframework.lang.Nullable;
 
+import java.time.Duration;
+
 public class BulkOptions {
     private static final BulkOptions defaultOptions = builder().build();
     @Nullable
@@ -17,14 +20,23 @@ public class BulkOptions {
     private final String pipeline;
     @Nullable
     private final String routingId;
+    @Nullable
+    private final BackoffPolicy rejectionBackoffPolicy;
 
     public BulkOptions(@Nullable TimeValue timeout, @Nullable WriteRequest.RefreshPolicy refreshPolicy,
                        @Nullable ActiveShardCount waitForActiveShards, @Nullable String pipeline, @Nullable String routingId) {
+        this(timeout, refreshPolicy, waitForActiveShards, pipeline, routingId, null);
+    }
+
+    public BulkOptions(@Nullable TimeValue timeout, @Nullable WriteRequest.RefreshPolicy refreshPolicy,
+                       @Nullable ActiveShardCount waitForActiveShards, @Nullable String pipeline, @Nullable String routingId,
+                       @Nullable BackoffPolicy rejectionBackoffPolicy) {
         this.timeout = timeout;
         this.refreshPolicy = refreshPolicy;
         this.waitForActiveShards = waitForActiveShards;
         this.pipeline = pipeline;
         this.routingId = routingId;
+        this.rejectionBackoffPolicy = rejectionBackoffPolicy;
     }
 
     @Nullable
@@ -52,6 +64,11 @@ public class BulkOptions {
         return timeout;
     }
 
+    @Nullable
+    public BackoffPolicy getRejectionBackoffPolicy() {
+        return rejectionBackoffPolicy;
+    }
+
     public static BulkOptionsBuilder builder() {
         return new BulkOptionsBuilder();
     }
@@ -71,6 +88,8 @@ public class BulkOptions {
         private String pipeline;
         @Nullable
         private String routingId;
+        @Nullable
+        private BackoffPolicy rejectionBackoffPolicy;
 
         public BulkOptionsBuilder() {
         }
@@ -100,8 +119,18 @@ public class BulkOptions {
             return this;
         }
 
+        public BulkOptionsBuilder withRejectionBackoffPolicy(BackoffPolicy rejectionBackoffPolicy) {
+            this.rejectionBackoffPolicy = rejectionBackoffPolicy;
+            return this;
+        }
+
+        public BulkOptionsBuilder withRejectionRetries(Duration initialDelay, int maxRetries) {
+            this.rejectionBackoffPolicy = BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(initialDelay.toMillis()), maxRetries);
+            return this;
+        }
+
         public BulkOptions build() {
-            return new BulkOptions(timeout, refreshPolicy, waitForActiveShards, pipeline, routingId);
+            return new BulkOptions(timeout, refreshPolicy, waitForActiveShards, pipeline, routingId, rejectionBackoffPolicy);
         }
     }
 }
@@ -0,0 +1,102 @@
+package com.xxbb.springframework.data.elasticsearch.core.query;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+public class DeleteByQueryOptions {
+    private static final DeleteByQueryOptions defaultOptions = builder().build();
+    private final boolean refresh;
+    private final boolean waitForCompletion;
+    @Nullable private final Integer maxDocs;
+    @Nullable private final Duration timeout;
+    @Nullable private final Float requestsPerSecond;
+
+    public DeleteByQueryOptions(boolean refresh, boolean waitForCompletion) {
+        this(refresh, waitForCompletion, null, null, null);
+    }
+
+    public DeleteByQueryOptions(boolean refresh, boolean waitForCompletion, @Nullable Integer maxDocs, @Nullable Duration timeout,
+                                @Nullable Float requestsPerSecond) {
+        this.refresh = refresh;
+        this.waitForCompletion = waitForCompletion;
+        this.maxDocs = maxDocs;
+        this.timeout = timeout;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public boolean isRefresh() {
+        return refresh;
+    }
+
+    public boolean isWaitForCompletion() {
+        return waitForCompletion;
+    }
+
+    @Nullable
+    public Integer getMaxDocs() {
+        return maxDocs;
+    }
+
+    @Nullable
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Nullable
+    public Float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public static DeleteByQueryOptionsBuilder builder() {
+        return new DeleteByQueryOptionsBuilder();
+    }
+
+    public static DeleteByQueryOptions defaultOptions() {
+        return defaultOptions;
+    }
+
+    public static class DeleteByQueryOptionsBuilder {
+        private boolean refresh;
+        private boolean waitForCompletion = true;
+        @Nullable private Integer maxDocs;
+        @Nullable private Duration timeout;
+        @Nullable private Float requestsPerSecond;
+
+        public DeleteByQueryOptionsBuilder withRefresh(boolean refresh) {
+            this.refresh = refresh;
+            return this;
+        }
+
+        public DeleteByQueryOptionsBuilder withWaitForCompletion(boolean waitForCompletion) {
+            this.waitForCompletion = waitForCompletion;
+            return this;
+        }
+
+        // deletes at most this many documents, sent as size, the 7.0 name of max_docs
+        public DeleteByQueryOptionsBuilder withMaxDocs(int maxDocs) {
+            Assert.isTrue(maxDocs > 0, "maxDocs must be positive");
+            this.maxDocs = maxDocs;
+            return this;
+        }
+
+        // how long each bulk request waits for unavailable shards
+        public DeleteByQueryOptionsBuilder withTimeout(Duration timeout) {
+            Assert.notNull(timeout, "timeout must not be null");
+            this.timeout = timeout;
+            return this;
+        }
+
+        // throttles the delete, Float.POSITIVE_INFINITY turns throttling off
+        public DeleteByQueryOptionsBuilder withRequestsPerSecond(float requestsPerSecond) {
+            Assert.isTrue(requestsPerSecond > 0, "requestsPerSecond must be positive");
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        public DeleteByQueryOptions build() {
+            return new DeleteByQueryOptions(refresh, waitForCompletion, maxDocs, timeout, requestsPerSecond);
+        }
+    }
+}
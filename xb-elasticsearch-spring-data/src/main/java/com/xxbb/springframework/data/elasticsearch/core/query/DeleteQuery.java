@@ -0,0 +1,29 @@
+package com.xxbb.springframework.data.elasticsearch.core.query;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+public class DeleteQuery {
+    private final String id;
+    @Nullable
+    private final String routing;
+
+    public DeleteQuery(String id, @Nullable String routing) {
+        Assert.notNull(id, "id must not be null");
+        this.id = id;
+        this.routing = routing;
+    }
+
+    public static DeleteQuery of(String id) {
+        return new DeleteQuery(id, null);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Nullable
+    public String getRouting() {
+        return routing;
+    }
+}
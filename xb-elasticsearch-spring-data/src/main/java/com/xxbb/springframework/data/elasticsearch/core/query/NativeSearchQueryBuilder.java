@@ -11,6 +11,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -48,6 +49,10 @@ public class NativeSearchQueryBuilder {
     private IndicesOptions indicesOptions;
     @Nullable
     private String preference;
+    @Nullable
+    private Duration scrollTime;
+    @Nullable
+    private Integer scrollSlices;
     
     public NativeSearchQueryBuilder withQuery(QueryBuilder queryBuilder) {
         this.queryBuilder = queryBuilder;
@@ -144,6 +149,16 @@ public class NativeSearchQueryBuilder {
         return this;
     }
 
+    public NativeSearchQueryBuilder withScrollTime(Duration scrollTime) {
+        this.scrollTime = scrollTime;
+        return this;
+    }
+
+    public NativeSearchQueryBuilder withScrollSlices(int scrollSlices) {
+        this.scrollSlices = scrollSlices;
+        return this;
+    }
+
     public NativeSearchQuery build() {
         NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryBuilder, filterBuilder, sortBuilders, highlightBuilder, highlightFields);
 
@@ -198,6 +213,9 @@ public class NativeSearchQueryBuilder {
             nativeSearchQuery.setPreference(preference);
         }
 
+        nativeSearchQuery.setScrollTime(scrollTime);
+        nativeSearchQuery.setScrollSlices(scrollSlices);
+
         return nativeSearchQuery;
     }
 }
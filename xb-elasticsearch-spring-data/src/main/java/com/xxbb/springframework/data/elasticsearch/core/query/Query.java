@@ -90,4 +90,14 @@ public interface Query {
     default boolean hasScrollTime() {
         return getScrollTime() != null;
     }
+
+    @Nullable
+    Integer getScrollSlices();
+
+    void setScrollSlices(@Nullable Integer scrollSlices);
+
+    @Nullable
+    List<Object> getSearchAfter();
+
+    void setSearchAfter(@Nullable List<Object> searchAfter);
 }
@@ -0,0 +1,129 @@
+package com.xxbb.springframework.data.elasticsearch.core.query;
+
+import com.xxbb.springframework.data.elasticsearch.core.ReindexResult;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+public class ReindexOptions {
+    private static final ReindexOptions defaultOptions = builder().build();
+    private final float requestsPerSecond;
+    private final int slices;
+    private final Duration pollInterval;
+    private final boolean deleteSourceIndex;
+    private final boolean blockSourceWrites;
+    @Nullable private final Duration timeout;
+    private final Consumer<ReindexResult> progressListener;
+
+    public ReindexOptions(float requestsPerSecond, int slices, Duration pollInterval, boolean deleteSourceIndex,
+                          boolean blockSourceWrites, @Nullable Duration timeout, Consumer<ReindexResult> progressListener) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.slices = slices;
+        this.pollInterval = pollInterval;
+        this.deleteSourceIndex = deleteSourceIndex;
+        this.blockSourceWrites = blockSourceWrites;
+        this.timeout = timeout;
+        this.progressListener = progressListener;
+    }
+
+    public float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public boolean isDeleteSourceIndex() {
+        return deleteSourceIndex;
+    }
+
+    public boolean isBlockSourceWrites() {
+        return blockSourceWrites;
+    }
+
+    @Nullable
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Consumer<ReindexResult> getProgressListener() {
+        return progressListener;
+    }
+
+    public static ReindexOptionsBuilder builder() {
+        return new ReindexOptionsBuilder();
+    }
+
+    public static ReindexOptions defaultOptions() {
+        return defaultOptions;
+    }
+
+    public static class ReindexOptionsBuilder {
+        private float requestsPerSecond = Float.POSITIVE_INFINITY;
+        private int slices = 1;
+        private Duration pollInterval = Duration.ofSeconds(1);
+        private boolean deleteSourceIndex = false;
+        private boolean blockSourceWrites = true;
+        @Nullable private Duration timeout;
+        private Consumer<ReindexResult> progressListener = progress -> {};
+
+        // throttles the reindex on the cluster, unlimited by default
+        public ReindexOptionsBuilder withRequestsPerSecond(float requestsPerSecond) {
+            Assert.isTrue(requestsPerSecond > 0, "requestsPerSecond must be positive");
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        public ReindexOptionsBuilder withSlices(int slices) {
+            Assert.isTrue(slices > 0, "slices must be positive");
+            this.slices = slices;
+            return this;
+        }
+
+        public ReindexOptionsBuilder withPollInterval(Duration pollInterval) {
+            Assert.isTrue(pollInterval != null && !pollInterval.isNegative() && !pollInterval.isZero(), "pollInterval must be positive");
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        // deletes the indices the alias pointed to after the swap. Required when the source is an index and not an alias
+        // yet, the index is then replaced by the alias in the same atomic update
+        public ReindexOptionsBuilder withDeleteSourceIndex(boolean deleteSourceIndex) {
+            this.deleteSourceIndex = deleteSourceIndex;
+            return this;
+        }
+
+        // sets index.blocks.write on the source indices while they are copied, writes to them would not be copied. The
+        // block is removed when the reindex fails and from source indices that are kept
+        public ReindexOptionsBuilder withBlockSourceWrites(boolean blockSourceWrites) {
+            this.blockSourceWrites = blockSourceWrites;
+            return this;
+        }
+
+        // cancels the reindex task when it runs longer, there is no deadline by default
+        public ReindexOptionsBuilder withTimeout(@Nullable Duration timeout) {
+            Assert.isTrue(timeout == null || !timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+            this.timeout = timeout;
+            return this;
+        }
+
+        // called with the status of the reindex task after each poll
+        public ReindexOptionsBuilder withProgressListener(Consumer<ReindexResult> progressListener) {
+            Assert.notNull(progressListener, "progressListener must not be null");
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public ReindexOptions build() {
+            return new ReindexOptions(requestsPerSecond, slices, pollInterval, deleteSourceIndex, blockSourceWrites, timeout,
+                    progressListener);
+        }
+    }
+}
@@ -19,4 +19,6 @@ public interface ElasticsearchRepository<T, ID> extends PagingAndSortingReposito
     Page<T> search(Query searchQuery);
 
     Page<T> searchSimilar(T entity, @Nullable String[] fields, Pageable pageable);
+
+    void deleteAllById(Iterable<? extends ID> ids);
 }
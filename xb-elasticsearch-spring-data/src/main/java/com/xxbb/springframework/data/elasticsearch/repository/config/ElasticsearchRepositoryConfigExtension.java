@@ -31,12 +31,20 @@ public class ElasticsearchRepositoryConfigExtension extends RepositoryConfigurat
     public void postProcess(BeanDefinitionBuilder builder, AnnotationRepositoryConfigurationSource config) {
         AnnotationAttributes attributes = config.getAttributes();
         builder.addPropertyReference("elasticsearchOperations", attributes.getString("elasticsearchTemplateRef"));
+        builder.addPropertyValue("maxCollectionQueryResults", attributes.<Integer> getNumber("maxCollectionQueryResults"));
+        builder.addPropertyValue("refreshPolicy", attributes.getEnum("refreshPolicy"));
     }
 
     @Override
     public void postProcess(BeanDefinitionBuilder builder, XmlRepositoryConfigurationSource config) {
         Element element = config.getElement();
         builder.addPropertyReference("elasticsearchOperations", element.getAttribute("elasticsearch-template-ref"));
+        if (element.hasAttribute("max-collection-query-results")) {
+            builder.addPropertyValue("maxCollectionQueryResults", element.getAttribute("max-collection-query-results"));
+        }
+        if (element.hasAttribute("refresh-policy")) {
+            builder.addPropertyValue("refreshPolicy", element.getAttribute("refresh-policy"));
+        }
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.xxbb.springframework.data.elasticsearch.repository.config;
 
+import com.xxbb.springframework.data.elasticsearch.repository.query.AbstractElasticsearchRepositoryQuery;
 import com.xxbb.springframework.data.elasticsearch.repository.support.ElasticsearchRepositoryFactoryBean;
+import org.elasticsearch.action.support.WriteRequest;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.data.repository.config.DefaultRepositoryBaseClass;
@@ -37,4 +39,8 @@ public @interface EnableElasticsearchRepositories {
     String elasticsearchTemplateRef() default "elasticsearchTemplate";
 
     boolean considerNestedRepositories() default false;
+
+    int maxCollectionQueryResults() default AbstractElasticsearchRepositoryQuery.DEFAULT_MAX_COLLECTION_QUERY_RESULTS;
+
+    WriteRequest.RefreshPolicy refreshPolicy() default WriteRequest.RefreshPolicy.IMMEDIATE;
 }
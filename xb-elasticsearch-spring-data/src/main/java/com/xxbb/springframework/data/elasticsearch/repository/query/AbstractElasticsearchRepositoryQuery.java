@@ -1,11 +1,13 @@
 package com.xxbb.springframework.data.elasticsearch.repository.query;
 
 import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.core.SlowOperationLog;
 import org.springframework.data.repository.query.QueryMethod;
 import org.springframework.data.repository.query.RepositoryQuery;
 
 public abstract class AbstractElasticsearchRepositoryQuery implements RepositoryQuery {
     protected static final int DEFAULT_STREAM_BATCH_SIZE = 500;
+    public static final int DEFAULT_MAX_COLLECTION_QUERY_RESULTS = 10_000;
     protected ElasticsearchQueryMethod queryMethod;
     protected ElasticsearchOperations elasticsearchOperations;
 
@@ -14,6 +16,13 @@ public abstract class AbstractElasticsearchRepositoryQuery implements Repository
         this.elasticsearchOperations = elasticsearchOperations;
     }
 
+    @Override
+    public Object execute(Object[] parameters) {
+        return SlowOperationLog.withCaller(queryMethod.getRepositoryMethodName(), () -> doExecute(parameters));
+    }
+
+    protected abstract Object doExecute(Object[] parameters);
+
     @Override
     public QueryMethod getQueryMethod() {
         return queryMethod;
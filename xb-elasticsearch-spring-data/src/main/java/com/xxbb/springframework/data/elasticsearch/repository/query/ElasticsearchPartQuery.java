@@ -5,8 +5,13 @@ import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchCon
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import com.xxbb.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteByQueryOptions;
 import com.xxbb.springframework.data.elasticsearch.repository.query.parser.ElasticsearchQueryCreator;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.search.sort.ScoreSortBuilder;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.parser.PartTree;
@@ -15,23 +20,57 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery{
 
     private final PartTree tree;
     private final ElasticsearchConverter elasticsearchConverter;
     private final MappingContext<?, ElasticsearchPersistentProperty> mappingContext;
+    private final int maxCollectionQueryResults;
+    private final WriteRequest.RefreshPolicy refreshPolicy;
 
     public ElasticsearchPartQuery(ElasticsearchQueryMethod queryMethod, ElasticsearchOperations elasticsearchOperations) {
+        this(queryMethod, elasticsearchOperations, DEFAULT_MAX_COLLECTION_QUERY_RESULTS);
+    }
+
+    public ElasticsearchPartQuery(ElasticsearchQueryMethod queryMethod, ElasticsearchOperations elasticsearchOperations, int maxCollectionQueryResults) {
+        this(queryMethod, elasticsearchOperations, maxCollectionQueryResults, WriteRequest.RefreshPolicy.IMMEDIATE);
+    }
+
+    // derived deletes without @DeleteByQuery refresh after the delete unless the refresh policy of the entity, or else
+    // the one of the repository, is NONE
+    public ElasticsearchPartQuery(ElasticsearchQueryMethod queryMethod, ElasticsearchOperations elasticsearchOperations, int maxCollectionQueryResults,
+                                  WriteRequest.RefreshPolicy refreshPolicy) {
         super(queryMethod, elasticsearchOperations);
+        Assert.notNull(refreshPolicy, "refreshPolicy must not be null");
         this.tree = new PartTree(queryMethod.getName(), queryMethod.getEntityInformation().getJavaType());
         this.elasticsearchConverter = elasticsearchOperations.getElasticsearchConverter();
         this.mappingContext = elasticsearchConverter.getMappingContext();
+        this.maxCollectionQueryResults = maxCollectionQueryResults;
+        this.refreshPolicy = refreshPolicy;
+
+        if (tree.isDelete() && queryMethod.hasAnnotatedDeleteByQuery()) {
+            validateDeleteByQuery();
+        }
+    }
+
+    private void validateDeleteByQuery() {
+        if (queryMethod.isCollectionQuery()) {
+            throw new InvalidDataAccessApiUsageException("Query method " + queryMethod.getName()
+                    + " is annotated with @DeleteByQuery and cannot return the deleted documents");
+        }
+        Class<?> returnType = queryMethod.getReturnedObjectType();
+        if (!queryMethod.getAnnotatedDeleteByQueryOptions().isWaitForCompletion() && !String.class.equals(returnType)
+                && !void.class.equals(returnType) && !Void.class.equals(returnType)) {
+            throw new InvalidDataAccessApiUsageException("Query method " + queryMethod.getName()
+                    + " runs @DeleteByQuery as a task and can only return the task id as String or nothing");
+        }
     }
 
     @Override
-    public Object execute(Object[] parameters) {
+    protected Object doExecute(Object[] parameters) {
         Class<?> clazz = queryMethod.getEntityInformation().getJavaType();
         ParametersParameterAccessor accessor = new ParametersParameterAccessor(queryMethod.getParameters(), parameters);
         CriteriaQuery query = createQuery(accessor);
@@ -52,9 +91,16 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
         }
 
         if (tree.isDelete()) {
-            result = countOrGetDocumentsForDelete(query, accessor);
-            elasticsearchOperations.delete(query, clazz, index);
-            elasticsearchOperations.indexOps(clazz).refresh();
+            if (queryMethod.hasAnnotatedDeleteByQuery()) {
+                result = deleteByQuery(query, clazz, index);
+            } else {
+                result = getDocumentsForDelete(query, accessor);
+                DeleteByQueryResult deleteResult = elasticsearchOperations.delete(query, clazz, index,
+                        DeleteByQueryOptions.builder().withRefresh(getEffectiveRefreshPolicy(clazz) != WriteRequest.RefreshPolicy.NONE).build());
+                if (ClassUtils.isAssignable(Number.class, queryMethod.getReturnedObjectType())) {
+                    result = deleteResult.getDeleted();
+                }
+            }
         } else if (queryMethod.isPageQuery()) {
             query.setPageable(accessor.getPageable());
             SearchHits<?> searchHits = elasticsearchOperations.search(query, clazz, index);
@@ -72,18 +118,9 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
             result = StreamUtils.createStreamFromIterator(elasticsearchOperations.searchForStream(query, clazz, index));
         } else if (queryMethod.isCollectionQuery()) {
             if (accessor.getPageable().isUnpaged()) {
-                int itemCount = (int) elasticsearchOperations.count(query, clazz, index);
-
-                if (itemCount == 0) {
-                    result = new SearchHitsImpl<>(0, TotalHitsRelation.EQUAL_TO, Float.NaN, null, Collections.emptyList(), null );
-                } else {
-                    query.setPageable(PageRequest.of(0, Math.max(1, itemCount)));
-                }
+                result = searchAllInBatches(query, clazz, index);
             } else {
                 query.setPageable(accessor.getPageable());
-            }
-
-            if (result == null) {
                 result = elasticsearchOperations.search(query, clazz, index);
             }
         } else if (tree.isCountProjection()) {
@@ -95,27 +132,56 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
     }
 
     @Nullable
-    private Object countOrGetDocumentsForDelete(CriteriaQuery query, ParametersParameterAccessor accessor) {
+    private Object getDocumentsForDelete(CriteriaQuery query, ParametersParameterAccessor accessor) {
         Object result = null;
         Class<?> clazz = queryMethod.getEntityInformation().getJavaType();
         IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(clazz);
 
         if (queryMethod.isCollectionQuery()) {
             if (accessor.getPageable().isUnpaged()) {
-                int itemCount = (int) elasticsearchOperations.count(query, clazz, index);
-                query.setPageable(PageRequest.of(0, Math.max(1, itemCount)));
+                result = searchAllInBatches(query, clazz, index);
             } else {
                 query.setPageable(accessor.getPageable());
+                result = elasticsearchOperations.search(query, clazz, index);
             }
-            result = elasticsearchOperations.search(query, clazz, index);
         }
+        return result;
+    }
 
-        if (ClassUtils.isAssignable(Number.class, queryMethod.getReturnedObjectType())) {
-            result = elasticsearchOperations.count(query, clazz, index);
+    private WriteRequest.RefreshPolicy getEffectiveRefreshPolicy(Class<?> clazz) {
+        WriteRequest.RefreshPolicy entityRefreshPolicy = elasticsearchConverter.getMappingContext().getRequiredPersistentEntity(clazz).getRefreshPolicy();
+        return entityRefreshPolicy != null ? entityRefreshPolicy : refreshPolicy;
+    }
+
+    @Nullable
+    private Object deleteByQuery(CriteriaQuery query, Class<?> clazz, IndexCoordinates index) {
+        Class<?> returnType = queryMethod.getReturnedObjectType();
+        DeleteByQueryResult deleteResult = elasticsearchOperations.delete(query, clazz, index, queryMethod.getAnnotatedDeleteByQueryOptions());
+        if (deleteResult.isSubmittedAsTask()) {
+            return String.class.equals(returnType) ? deleteResult.getTaskId() : null;
         }
-        return result;
+        return ClassUtils.isAssignable(Number.class, returnType) ? deleteResult.getDeleted() : null;
     }
 
+    private <T> SearchHits<T> searchAllInBatches(CriteriaQuery query, Class<T> clazz, IndexCoordinates index) {
+        if (query.getSort() == null || query.getSort().isUnsorted()) {
+            query.addSort(Sort.by(Sort.Direction.DESC, ScoreSortBuilder.NAME));
+        }
+        query.setPageable(PageRequest.of(0, DEFAULT_STREAM_BATCH_SIZE));
+
+        List<SearchHit<T>> searchHits = new ArrayList<>();
+        try (SearchAfterHitsIterator<T> iterator = elasticsearchOperations.searchAfterStream(query, clazz, index)) {
+            while (iterator.hasNext()) {
+                if (searchHits.size() >= maxCollectionQueryResults) {
+                    throw new InvalidDataAccessApiUsageException("Query method " + queryMethod.getName() + " matched more than "
+                            + maxCollectionQueryResults + " documents, use a Pageable or Stream return type instead");
+                }
+                searchHits.add(iterator.next());
+            }
+            return new SearchHitsImpl<>(iterator.getTotalHits(), iterator.getTotalHitsRelation(), iterator.getMaxScore(), null,
+                    searchHits, iterator.getAggregations());
+        }
+    }
 
     public CriteriaQuery createQuery(ParametersParameterAccessor accessor) {
         return new ElasticsearchQueryCreator(tree, accessor, mappingContext).createQuery();
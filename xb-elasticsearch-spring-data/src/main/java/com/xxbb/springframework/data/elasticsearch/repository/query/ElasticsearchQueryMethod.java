@@ -1,11 +1,13 @@
 package com.xxbb.springframework.data.elasticsearch.repository.query;
 
+import com.xxbb.springframework.data.elasticsearch.annotations.DeleteByQuery;
 import com.xxbb.springframework.data.elasticsearch.annotations.Highlight;
 import com.xxbb.springframework.data.elasticsearch.core.SearchHit;
 import com.xxbb.springframework.data.elasticsearch.core.SearchPage;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import com.xxbb.springframework.data.elasticsearch.annotations.Query;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteByQueryOptions;
 import com.xxbb.springframework.data.elasticsearch.core.query.HighlightQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.HighlightQueryBuilder;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -29,6 +31,7 @@ public class ElasticsearchQueryMethod extends QueryMethod {
     private final Method method;
     private final Query queryAnnotation;
     private final Highlight highlightAnnotation;
+    @Nullable private final DeleteByQuery deleteByQueryAnnotation;
     private final Lazy<HighlightQuery> highlightQueryLazy = Lazy.of(this::createAnnotatedHighlightQuery);
 
 
@@ -42,6 +45,12 @@ public class ElasticsearchQueryMethod extends QueryMethod {
         this.method = method;
         this.queryAnnotation = method.getAnnotation(Query.class);
         this.highlightAnnotation = method.getAnnotation(Highlight.class);
+        this.deleteByQueryAnnotation = method.getAnnotation(DeleteByQuery.class);
+    }
+
+    // e.g. BookRepository.findByName, used to tell which repository method issued a request
+    public String getRepositoryMethodName() {
+        return method.getDeclaringClass().getSimpleName() + '.' + method.getName();
     }
 
     public boolean hasAnnotatedQuery() {
@@ -65,6 +74,18 @@ public class ElasticsearchQueryMethod extends QueryMethod {
         return new HighlightQueryBuilder(mappingContext).getHighlightQuery(highlightAnnotation, getDomainClass());
     }
 
+    public boolean hasAnnotatedDeleteByQuery() {
+        return this.deleteByQueryAnnotation != null;
+    }
+
+    public DeleteByQueryOptions getAnnotatedDeleteByQueryOptions() {
+        Assert.isTrue(hasAnnotatedDeleteByQuery(), "no delete by query annotation present on " + getName());
+        return DeleteByQueryOptions.builder()
+                .withRefresh(deleteByQueryAnnotation.refresh())
+                .withWaitForCompletion(deleteByQueryAnnotation.waitForCompletion())
+                .build();
+    }
+
     @Override
     public ElasticsearchEntityMetadata<?> getEntityInformation() {
         if (metadata == null) {
@@ -49,7 +49,7 @@ public class ElasticsearchStringQuery extends AbstractElasticsearchRepositoryQue
     }
 
     @Override
-    public Object execute(Object[] parameters) {
+    protected Object doExecute(Object[] parameters) {
         Class<?> clazz = queryMethod.getEntityInformation().getJavaType();
         ParametersParameterAccessor accessor = new ParametersParameterAccessor(queryMethod.getParameters(), parameters);
 
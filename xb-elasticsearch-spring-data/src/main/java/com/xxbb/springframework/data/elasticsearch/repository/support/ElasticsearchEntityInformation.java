@@ -1,6 +1,7 @@
 package com.xxbb.springframework.data.elasticsearch.repository.support;
 
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.index.VersionType;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.lang.Nullable;
@@ -16,5 +17,8 @@ public interface ElasticsearchEntityInformation<T, ID> extends EntityInformation
     @Nullable
     VersionType getVersionType();
 
+    @Nullable
+    WriteRequest.RefreshPolicy getRefreshPolicy();
+
 
 }
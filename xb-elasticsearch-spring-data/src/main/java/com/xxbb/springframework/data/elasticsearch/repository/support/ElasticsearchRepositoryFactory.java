@@ -1,9 +1,11 @@
 package com.xxbb.springframework.data.elasticsearch.repository.support;
 
 import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.repository.query.AbstractElasticsearchRepositoryQuery;
 import com.xxbb.springframework.data.elasticsearch.repository.query.ElasticsearchPartQuery;
 import com.xxbb.springframework.data.elasticsearch.repository.query.ElasticsearchQueryMethod;
 import com.xxbb.springframework.data.elasticsearch.repository.query.ElasticsearchStringQuery;
+import org.elasticsearch.action.support.WriteRequest;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.querydsl.QuerydslUtils;
@@ -16,6 +18,7 @@ import org.springframework.data.repository.query.QueryLookupStrategy;
 import org.springframework.data.repository.query.QueryLookupStrategy.Key;
 import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.util.ReflectionUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -26,6 +29,9 @@ public class ElasticsearchRepositoryFactory extends RepositoryFactorySupport {
 
     final private ElasticsearchOperations elasticsearchOperations;
     final private ElasticsearchEntityInformationCreator entityInformationCreator;
+    private int maxCollectionQueryResults = AbstractElasticsearchRepositoryQuery.DEFAULT_MAX_COLLECTION_QUERY_RESULTS;
+    private WriteRequest.RefreshPolicy refreshPolicy = SimpleElasticsearchRepository.DEFAULT_REFRESH_POLICY;
+    @Nullable private IndexBootstrap indexBootstrap;
 
     public ElasticsearchRepositoryFactory(ElasticsearchOperations elasticsearchOperations) {
         Assert.notNull(elasticsearchOperations, "ElasticsearchOperations must not be null!");
@@ -33,14 +39,39 @@ public class ElasticsearchRepositoryFactory extends RepositoryFactorySupport {
         this.entityInformationCreator = new ElasticsearchEntityInformationCreatorImpl(elasticsearchOperations.getElasticsearchConverter().getMappingContext());
     }
 
+    public void setMaxCollectionQueryResults(int maxCollectionQueryResults) {
+        Assert.isTrue(maxCollectionQueryResults > 0, "maxCollectionQueryResults must be greater than 0");
+        this.maxCollectionQueryResults = maxCollectionQueryResults;
+    }
+
+    public void setRefreshPolicy(WriteRequest.RefreshPolicy refreshPolicy) {
+        Assert.notNull(refreshPolicy, "refreshPolicy must not be null");
+        this.refreshPolicy = refreshPolicy;
+    }
+
+    // without a bootstrap the index of each repository is created in the repository constructor
+    public void setIndexBootstrap(@Nullable IndexBootstrap indexBootstrap) {
+        this.indexBootstrap = indexBootstrap;
+    }
+
     @Override
     public <T, ID> ElasticsearchEntityInformation<T, ID> getEntityInformation(Class<T> domainClass) {
         return entityInformationCreator.getEntityInformation(domainClass);
     }
 
+    // base classes of the application without the bootstrap constructor create their index right away, as
+    // SimpleElasticsearchRepository does without a bootstrap
     @Override
     protected Object getTargetRepository(RepositoryInformation metadata) {
-        return getTargetRepositoryViaReflection(metadata, getEntityInformation(metadata.getDomainType()), elasticsearchOperations);
+        ElasticsearchEntityInformation<?, ?> entityInformation = getEntityInformation(metadata.getDomainType());
+        Object repository = ReflectionUtils.findConstructor(metadata.getRepositoryBaseClass(), entityInformation,
+                elasticsearchOperations, indexBootstrap).isPresent()
+                ? getTargetRepositoryViaReflection(metadata, entityInformation, elasticsearchOperations, indexBootstrap)
+                : getTargetRepositoryViaReflection(metadata, entityInformation, elasticsearchOperations);
+        if (repository instanceof SimpleElasticsearchRepository) {
+            ((SimpleElasticsearchRepository<?, ?>) repository).setRefreshPolicy(refreshPolicy);
+        }
+        return repository;
     }
 
     @Override
@@ -72,7 +103,7 @@ public class ElasticsearchRepositoryFactory extends RepositoryFactorySupport {
             } else if (queryMethod.hasAnnotatedQuery()) {
                 return new ElasticsearchStringQuery(queryMethod, elasticsearchOperations, queryMethod.getAnnotatedQuery());
             }
-            return new ElasticsearchPartQuery(queryMethod, elasticsearchOperations);
+            return new ElasticsearchPartQuery(queryMethod, elasticsearchOperations, maxCollectionQueryResults, refreshPolicy);
         }
     }
 
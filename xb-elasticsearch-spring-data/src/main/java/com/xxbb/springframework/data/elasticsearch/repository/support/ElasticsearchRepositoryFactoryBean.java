@@ -1,6 +1,10 @@
 package com.xxbb.springframework.data.elasticsearch.repository.support;
 
 import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.repository.query.AbstractElasticsearchRepositoryQuery;
+import org.elasticsearch.action.support.WriteRequest;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
@@ -14,6 +18,10 @@ public class ElasticsearchRepositoryFactoryBean<T extends Repository<S, ID>, S,
 
     @Nullable
     private ElasticsearchOperations operations;
+    private int maxCollectionQueryResults = AbstractElasticsearchRepositoryQuery.DEFAULT_MAX_COLLECTION_QUERY_RESULTS;
+    private WriteRequest.RefreshPolicy refreshPolicy = SimpleElasticsearchRepository.DEFAULT_REFRESH_POLICY;
+    @Nullable
+    private BeanFactory beanFactory;
 
     public ElasticsearchRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
         super(repositoryInterface);
@@ -25,6 +33,20 @@ public class ElasticsearchRepositoryFactoryBean<T extends Repository<S, ID>, S,
         this.operations = operations;
     }
 
+    public void setMaxCollectionQueryResults(int maxCollectionQueryResults) {
+        this.maxCollectionQueryResults = maxCollectionQueryResults;
+    }
+
+    public void setRefreshPolicy(WriteRequest.RefreshPolicy refreshPolicy) {
+        this.refreshPolicy = refreshPolicy;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
     @Override
     public void afterPropertiesSet() {
         super.afterPropertiesSet();
@@ -34,6 +56,13 @@ public class ElasticsearchRepositoryFactoryBean<T extends Repository<S, ID>, S,
     @Override
     protected RepositoryFactorySupport createRepositoryFactory() {
         Assert.notNull(operations, "operations must not be null");
-        return new ElasticsearchRepositoryFactory(operations);
+        ElasticsearchRepositoryFactory factory = new ElasticsearchRepositoryFactory(operations);
+        factory.setMaxCollectionQueryResults(maxCollectionQueryResults);
+        factory.setRefreshPolicy(refreshPolicy);
+        if (beanFactory != null) {
+            // an IndexBootstrap bean takes over index creation of all repositories of the context
+            factory.setIndexBootstrap(beanFactory.getBeanProvider(IndexBootstrap.class).getIfUnique());
+        }
+        return factory;
     }
 }
@@ -0,0 +1,427 @@
+package com.xxbb.springframework.data.elasticsearch.repository.support;
+
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.core.IndexOperations;
+import com.xxbb.springframework.data.elasticsearch.core.index.MappingDiff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// creates the indices and mappings of the repository entities once all singletons exist instead of one blocking
+// round trip after the other in each repository constructor. The checks of all indices run concurrently, either
+// before the context finishes starting (EAGER), on a background thread after that (BACKGROUND) or not at all (SKIP).
+// Repositories created after the bootstrap ran, e.g. lazy ones, get their index right away. With reconcileMappings the
+// mapping of an existing index is compared to the entity, missing fields are put and conflicting ones reported.
+// Time partitioned entities get their index template instead of an index
+public class IndexBootstrap implements SmartInitializingSingleton, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(IndexBootstrap.class);
+
+    public enum Mode {
+        EAGER, BACKGROUND, SKIP
+    }
+
+    public enum Outcome {
+        CREATED, EXISTED, UPDATED, CONFLICTED, FAILED, TIMED_OUT
+    }
+
+    private final Mode mode;
+    private final int concurrency;
+    private final Duration timeout;
+    private final boolean reconcileMappings;
+
+    private final Map<Key, Registration> registrations = new LinkedHashMap<>();
+    private boolean started = false;
+    @Nullable private volatile Report lastReport;
+    @Nullable private ExecutorService executor;
+    @Nullable private ExecutorService coordinator;
+
+    private IndexBootstrap(Mode mode, int concurrency, Duration timeout, boolean reconcileMappings) {
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.reconcileMappings = reconcileMappings;
+    }
+
+    public static IndexBootstrapBuilder builder() {
+        return new IndexBootstrapBuilder();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // the report of the last run, null until one finished
+    @Nullable
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    public void register(ElasticsearchOperations operations, Class<?> entityClass) {
+        Assert.notNull(operations, "operations must not be null");
+        Assert.notNull(entityClass, "entityClass must not be null");
+
+        Registration registration = new Registration(operations, entityClass, reconcileMappings);
+        synchronized (this) {
+            if (!started) {
+                // several repositories of one entity or of entities sharing an index need one check
+                registrations.putIfAbsent(registration.key(), registration);
+                return;
+            }
+        }
+
+        if (mode != Mode.SKIP) {
+            List<Registration> late = Collections.singletonList(registration);
+            if (mode == Mode.EAGER) {
+                run(late);
+            } else {
+                coordinator().execute(() -> run(late));
+            }
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Registration> pending;
+        synchronized (this) {
+            started = true;
+            pending = new ArrayList<>(registrations.values());
+            registrations.clear();
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+        switch (mode) {
+            case EAGER:
+                run(pending);
+                break;
+            case BACKGROUND:
+                coordinator().execute(() -> run(pending));
+                break;
+            case SKIP:
+                logger.info("Skipping index bootstrap of {} entities", pending.size());
+                break;
+        }
+    }
+
+    Report run(List<Registration> pending) {
+        long start = System.nanoTime();
+        List<Callable<Result>> tasks = new ArrayList<>(pending.size());
+        pending.forEach(registration -> tasks.add(registration::bootstrap));
+
+        List<Result> results = new ArrayList<>(pending.size());
+        try {
+            List<Future<Result>> futures = executor().invokeAll(tasks, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(result(pending.get(i), futures.get(i)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Index bootstrap was interrupted");
+        }
+
+        Report report = new Report(results, Duration.ofNanos(System.nanoTime() - start));
+        lastReport = report;
+        report.log();
+        return report;
+    }
+
+    private static Result result(Registration registration, Future<Result> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            return new Result(registration.indexName, registration.entityClass, Outcome.TIMED_OUT, Duration.ZERO, null,
+                    Collections.emptyList());
+        } catch (ExecutionException e) {
+            return new Result(registration.indexName, registration.entityClass, Outcome.FAILED, Duration.ZERO, e.getCause().getMessage(),
+                    Collections.emptyList());
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(concurrency, threadFactory("elasticsearch-index-bootstrap-"));
+        }
+        return executor;
+    }
+
+    // background runs wait for their checks on a thread of their own, on a worker they would hold one of the
+    // concurrency threads the checks need. One thread runs them one after the other
+    private synchronized ExecutorService coordinator() {
+        if (coordinator == null) {
+            coordinator = Executors.newSingleThreadExecutor(threadFactory("elasticsearch-index-bootstrap-coordinator-"));
+        }
+        return coordinator;
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (coordinator != null) {
+            coordinator.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // the creation the repository constructor used to do, for repositories created without a bootstrap
+    static Result bootstrapNow(ElasticsearchOperations operations, Class<?> entityClass) {
+        Result result = new Registration(operations, entityClass, false).bootstrap();
+        if (result.getOutcome() == Outcome.FAILED) {
+            logger.warn("Cannot create index: {}", result.getMessage());
+        }
+        return result;
+    }
+
+    static class Registration {
+        private final ElasticsearchOperations operations;
+        private final Class<?> entityClass;
+        private final String indexName;
+        private final boolean reconcileMapping;
+
+        Registration(ElasticsearchOperations operations, Class<?> entityClass, boolean reconcileMapping) {
+            this.operations = operations;
+            this.entityClass = entityClass;
+            this.reconcileMapping = reconcileMapping;
+            this.indexName = operations.getIndexCoordinatesFor(entityClass).getIndexName();
+        }
+
+        Key key() {
+            return new Key(operations, indexName);
+        }
+
+        Result bootstrap() {
+            long start = System.nanoTime();
+            try {
+                IndexOperations indexOperations = operations.indexOps(entityClass);
+                Outcome outcome = Outcome.EXISTED;
+                List<MappingDiff.Conflict> conflicts = Collections.emptyList();
+                if (isTimePartitioned()) {
+                    // the partitions are created by the cluster on the first write, through the template. A template
+                    // only applies to new partitions, so reconciling it is putting it again
+                    if (!indexOperations.existsTemplate()) {
+                        indexOperations.putTemplate();
+                        outcome = Outcome.CREATED;
+                    } else if (reconcileMapping) {
+                        indexOperations.putTemplate();
+                        outcome = Outcome.UPDATED;
+                    }
+                } else if (!indexOperations.exists()) {
+                    indexOperations.create();
+                    indexOperations.putMapping(entityClass);
+                    outcome = Outcome.CREATED;
+                } else if (reconcileMapping) {
+                    MappingDiff diff = indexOperations.reconcileMapping(entityClass);
+                    conflicts = diff.getConflicts();
+                    outcome = diff.hasConflicts() ? Outcome.CONFLICTED : diff.hasAdditions() ? Outcome.UPDATED : Outcome.EXISTED;
+                }
+                return new Result(indexName, entityClass, outcome, Duration.ofNanos(System.nanoTime() - start), null, conflicts);
+            } catch (Exception e) {
+                return new Result(indexName, entityClass, Outcome.FAILED, Duration.ofNanos(System.nanoTime() - start), e.getMessage(),
+                        Collections.emptyList());
+            }
+        }
+
+        private boolean isTimePartitioned() {
+            return operations.getElasticsearchConverter().getMappingContext().getRequiredPersistentEntity(entityClass)
+                    .getTimePartitioning() != null;
+        }
+    }
+
+    // the same index of two operations instances may be on different clusters, equal operations are not the same
+    private static final class Key {
+        private final ElasticsearchOperations operations;
+        private final String indexName;
+
+        Key(ElasticsearchOperations operations, String indexName) {
+            this.operations = operations;
+            this.indexName = indexName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return operations == key.operations && indexName.equals(key.indexName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(operations) + indexName.hashCode();
+        }
+    }
+
+    public static class Result {
+        private final String indexName;
+        private final Class<?> entityClass;
+        private final Outcome outcome;
+        private final Duration duration;
+        @Nullable private final String message;
+        private final List<MappingDiff.Conflict> conflicts;
+
+        Result(String indexName, Class<?> entityClass, Outcome outcome, Duration duration, @Nullable String message,
+               List<MappingDiff.Conflict> conflicts) {
+            this.indexName = indexName;
+            this.entityClass = entityClass;
+            this.outcome = outcome;
+            this.duration = duration;
+            this.message = message;
+            this.conflicts = conflicts;
+        }
+
+        public String getIndexName() {
+            return indexName;
+        }
+
+        public Class<?> getEntityClass() {
+            return entityClass;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        @Nullable
+        public String getMessage() {
+            return message;
+        }
+
+        // the fields whose mapping differs in a way only a reindex can fix, the additions were put nonetheless
+        public List<MappingDiff.Conflict> getConflicts() {
+            return conflicts;
+        }
+
+        @Override
+        public String toString() {
+            return indexName + " " + outcome + " in " + duration.toMillis() + "ms" + (message != null ? " (" + message + ")" : "")
+                    + (conflicts.isEmpty() ? "" : " " + conflicts);
+        }
+    }
+
+    public static class Report {
+        private static final int SLOWEST = 3;
+
+        private final List<Result> results;
+        private final Duration duration;
+
+        Report(List<Result> results, Duration duration) {
+            this.results = Collections.unmodifiableList(results);
+            this.duration = duration;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public long count(Outcome outcome) {
+            return results.stream().filter(result -> result.outcome == outcome).count();
+        }
+
+        // false when an index could not be created or checked in time or drifted from its entity
+        public boolean isHealthy() {
+            return results.stream().noneMatch(Report::isProblem);
+        }
+
+        private static boolean isProblem(Result result) {
+            return result.outcome == Outcome.FAILED || result.outcome == Outcome.TIMED_OUT || result.outcome == Outcome.CONFLICTED;
+        }
+
+        private void log() {
+            List<Result> slowest = new ArrayList<>(results);
+            slowest.sort(Comparator.comparing(Result::getDuration).reversed());
+            logger.info("Index bootstrap of {} indices took {}ms: {} created, {} existed, {} updated, {} conflicted, {} failed, "
+                            + "{} timed out; slowest {}", results.size(), duration.toMillis(), count(Outcome.CREATED),
+                    count(Outcome.EXISTED), count(Outcome.UPDATED), count(Outcome.CONFLICTED), count(Outcome.FAILED),
+                    count(Outcome.TIMED_OUT), slowest.subList(0, Math.min(SLOWEST, slowest.size())));
+            results.stream().filter(Report::isProblem).forEach(result -> {
+                if (result.outcome == Outcome.CONFLICTED) {
+                    logger.warn("Mapping of index {} conflicts with {}, reindex to apply: {}", result.indexName,
+                            result.entityClass.getName(), result.conflicts);
+                } else {
+                    logger.warn("Cannot create index of {}: {}", result.entityClass.getName(), result);
+                }
+            });
+        }
+    }
+
+    public static class IndexBootstrapBuilder {
+        private Mode mode = Mode.EAGER;
+        private int concurrency = 8;
+        private Duration timeout = Duration.ofMinutes(1);
+        private boolean reconcileMappings = false;
+
+        IndexBootstrapBuilder() {}
+
+        public IndexBootstrapBuilder withMode(Mode mode) {
+            Assert.notNull(mode, "mode must not be null");
+            this.mode = mode;
+            return this;
+        }
+
+        // number of indices checked at the same time, bounded by the connections of the client as well
+        public IndexBootstrapBuilder withConcurrency(int concurrency) {
+            Assert.isTrue(concurrency > 0, "concurrency must be positive");
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        // indices not done within the timeout are reported and left to the application
+        public IndexBootstrapBuilder withTimeout(Duration timeout) {
+            Assert.isTrue(timeout != null && !timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+            this.timeout = timeout;
+            return this;
+        }
+
+        // compares the mapping of existing indices with their entities, costs one get mapping per index
+        public IndexBootstrapBuilder withMappingsReconciled(boolean reconcileMappings) {
+            this.reconcileMappings = reconcileMappings;
+            return this;
+        }
+
+        public IndexBootstrap build() {
+            return new IndexBootstrap(mode, concurrency, timeout, reconcileMappings);
+        }
+    }
+}
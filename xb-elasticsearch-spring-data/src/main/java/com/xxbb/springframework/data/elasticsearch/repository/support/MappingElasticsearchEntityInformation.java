@@ -4,6 +4,7 @@ import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPer
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import lombok.NonNull;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.index.VersionType;
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.PersistentProperty;
@@ -42,4 +43,9 @@ public class MappingElasticsearchEntityInformation<T, ID> extends PersistentEnti
     public VersionType getVersionType() {
         return persistentEntity.getVersionType();
     }
+
+    @Override
+    public WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return persistentEntity.getRefreshPolicy();
+    }
 }
@@ -4,16 +4,20 @@ import com.xxbb.springframework.data.elasticsearch.core.*;
 import com.xxbb.springframework.data.elasticsearch.core.aggregation.AggregatedPage;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteByQueryOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.MoreLikeThisQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import com.xxbb.springframework.data.elasticsearch.core.query.Query;
 import com.xxbb.springframework.data.elasticsearch.repository.ElasticsearchRepository;
-import org.elasticsearch.index.query.IdsQueryBuilder;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.*;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.data.util.StreamUtils;
 import org.springframework.data.util.Streamable;
 import org.springframework.lang.Nullable;
@@ -22,23 +26,33 @@ import org.springframework.util.Assert;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static org.elasticsearch.index.query.QueryBuilders.idsQuery;
 import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
 
 public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchRepository<T, ID> {
 
     private static final Logger logger = LoggerFactory.getLogger(SimpleElasticsearchRepository.class);
+    private static final int DEFAULT_FIND_ALL_BATCH_SIZE = 500;
+
+    public static final WriteRequest.RefreshPolicy DEFAULT_REFRESH_POLICY = WriteRequest.RefreshPolicy.IMMEDIATE;
 
     protected ElasticsearchOperations operations;
     protected IndexOperations indexOperations;
 
     protected Class<T> entityClass;
     protected ElasticsearchEntityInformation<T, ID> entityInformation;
+    protected WriteRequest.RefreshPolicy refreshPolicy = DEFAULT_REFRESH_POLICY;
 
     public SimpleElasticsearchRepository(ElasticsearchEntityInformation<T, ID> metadata, ElasticsearchOperations operations) {
+        this(metadata, operations, null);
+    }
+
+    // the index is created by the bootstrap when there is one, and right away otherwise
+    public SimpleElasticsearchRepository(ElasticsearchEntityInformation<T, ID> metadata, ElasticsearchOperations operations,
+                                         @Nullable IndexBootstrap indexBootstrap) {
         this.operations = operations;
         Assert.notNull(metadata, "ElasticsearchEntityInformation must not be null!");
         this.entityInformation = metadata;
@@ -46,9 +60,12 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
         this.indexOperations = operations.indexOps(this.entityClass);
 
         try {
-            if (shouldCreateIndexAndMapping() && !indexOperations.exists()) {
-                indexOperations.create();
-                indexOperations.putMapping(entityClass);
+            if (shouldCreateIndexAndMapping()) {
+                if (indexBootstrap != null) {
+                    indexBootstrap.register(operations, entityClass);
+                } else {
+                    IndexBootstrap.bootstrapNow(operations, entityClass);
+                }
             }
         } catch (Exception e) {
             logger.warn("Cannot create index: {}", e.getMessage());
@@ -109,7 +126,9 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
     @Override
     public <S extends T> S save(S entity) {
         Assert.notNull(entity, "Cannot save 'null' entity");
-        return executeAndRefresh(operations -> operations.save(entity, getIndexcoordinates()));
+        IndexCoordinates index = getIndexcoordinates();
+        BulkOptions bulkOptions = getBulkOptions();
+        return execute(operations -> operations.save(Collections.singletonList(entity), bulkOptions, index).iterator().next());
     }
 
     public <S extends T> List<S> save(List<S> entities) {
@@ -121,7 +140,8 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
     public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
         Assert.notNull(entities, "Cannot save 'null' as a list");
         IndexCoordinates indexCoordinates = getIndexcoordinates();
-        executeAndRefresh(operations -> operations.save(entities, indexCoordinates));
+        BulkOptions bulkOptions = getBulkOptions();
+        execute(operations -> operations.save(entities, bulkOptions, indexCoordinates));
         return entities;
     }
 
@@ -138,12 +158,7 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
 
     @Override
     public Iterable<T> findAll() {
-        int itemCount = (int) this.count();
-
-        if (itemCount == 0) {
-            return new PageImpl<>(Collections.emptyList());
-        }
-        return this.findAll(PageRequest.of(0, Math.max(1, itemCount)));
+        return findAll(Sort.unsorted());
     }
 
     @Override
@@ -156,13 +171,15 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
 
     @Override
     public Iterable<T> findAll(Sort sort) {
-        int itemCount = (int) this.count();
-        if (itemCount == 0) {
-            return new PageImpl<>(Collections.emptyList());
-        }
-        NativeSearchQuery query = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(PageRequest.of(0, itemCount, sort)).build();
-        List<SearchHit<T>> searchHitList = execute(operations -> operations.search(query, entityClass, getIndexcoordinates()).getSearchHits());
-        return (List<T>) SearchHitSupport.unwrapSearchHits(searchHitList);
+        Assert.notNull(sort, "sort must not be null");
+        IndexCoordinates index = getIndexcoordinates();
+        // every iterator opens its own scroll and reads the next page only when the current one is used up,
+        // an iterator that is neither exhausted nor closed leaves its scroll to the keep-alive
+        return () -> {
+            NativeSearchQuery query = new NativeSearchQueryBuilder().withQuery(matchAllQuery())
+                    .withPageable(PageRequest.of(0, DEFAULT_FIND_ALL_BATCH_SIZE, sort)).build();
+            return new SearchHitsContentIterator<>(execute(operations -> operations.searchForStream(query, entityClass, index)));
+        };
     }
 
     @Override
@@ -197,54 +214,84 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
     @Override
     public void deleteById(ID id) {
         Assert.notNull(id, "Cannot delete 'null' id");
-        doDelete(id, null, getIndexcoordinates());
+        doDelete(Collections.singletonList(new DeleteQuery(stringIdRepresentation(id), null)));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends ID> ids) {
+        Assert.notNull(ids, "Cannot delete 'null' list");
+
+        List<DeleteQuery> queries = new ArrayList<>();
+        for (ID id : ids) {
+            if (id != null) {
+                queries.add(new DeleteQuery(stringIdRepresentation(id), null));
+            }
+        }
+        doDelete(queries);
     }
 
     @Override
     public void delete(T entity) {
         Assert.notNull(entity, "Cannot delete 'null' entity");
-        doDelete(extractIdFromBean(entity), operations.getEntityRouting(entity), getIndexcoordinates());
+        deleteAll(Collections.singletonList(entity));
     }
 
     @Override
     public void deleteAll(Iterable<? extends T> entities) {
         Assert.notNull(entities, "Cannot delete 'null' list");
 
-        IndexCoordinates index = getIndexcoordinates();
-        IdsQueryBuilder idsQueryBuilder = idsQuery();
+        List<DeleteQuery> queries = new ArrayList<>();
         for (T entity : entities) {
             ID id = extractIdFromBean(entity);
             if (id != null) {
-                idsQueryBuilder.addIds(stringIdRepresentation(id));
+                queries.add(new DeleteQuery(stringIdRepresentation(id), operations.getEntityRouting(entity)));
             }
         }
+        doDelete(queries);
+    }
 
-        if (idsQueryBuilder.ids().isEmpty()) {
+    private void doDelete(List<DeleteQuery> queries) {
+        if (queries.isEmpty()) {
             return;
         }
 
-        Query query = new NativeSearchQueryBuilder().withQuery(idsQueryBuilder).build();
-        executeAndRefresh((OperationsCallback<Void>) operations -> {
-            operations.delete(query, entityClass, index);
+        IndexCoordinates index = getIndexcoordinates();
+        BulkOptions bulkOptions = getBulkOptions();
+        execute((OperationsCallback<Void>) operations -> {
+            operations.bulkDelete(queries, bulkOptions, index);
             return null;
         });
     }
 
-    private void doDelete(@Nullable ID id, @Nullable String routing, IndexCoordinates index) {
-        if (id != null) {
-            executeAndRefresh(operations -> operations.delete(stringIdRepresentation(id), routing, index));
-        }
-    }
-
     @Override
     public void deleteAll() {
         IndexCoordinates index = getIndexcoordinates();
         Query query = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+        // delete-by-query only knows refresh or no refresh, WAIT_UNTIL is served by an immediate refresh
+        DeleteByQueryOptions options = DeleteByQueryOptions.builder()
+                .withRefresh(getEffectiveRefreshPolicy() != WriteRequest.RefreshPolicy.NONE).build();
 
-        executeAndRefresh((OperationsCallback<Void>) operations -> {
-            operations.delete(query, entityClass, index);
-            return null;
-        });
+        execute(operations -> operations.delete(query, entityClass, index, options));
+    }
+
+    public WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    // writes carry the refresh policy, an entity level one is applied by the request factory itself
+    private BulkOptions getBulkOptions() {
+        return entityInformation.getRefreshPolicy() != null ? BulkOptions.defaultOptions()
+                : BulkOptions.builder().withRefreshPolicy(refreshPolicy).build();
+    }
+
+    private WriteRequest.RefreshPolicy getEffectiveRefreshPolicy() {
+        WriteRequest.RefreshPolicy entityRefreshPolicy = entityInformation.getRefreshPolicy();
+        return entityRefreshPolicy != null ? entityRefreshPolicy : refreshPolicy;
+    }
+
+    public void setRefreshPolicy(WriteRequest.RefreshPolicy refreshPolicy) {
+        Assert.notNull(refreshPolicy, "refreshPolicy must not be null");
+        this.refreshPolicy = refreshPolicy;
     }
 
     public void refresh() {
@@ -270,6 +317,54 @@ public class SimpleElasticsearchRepository<T, ID> implements ElasticsearchReposi
         return operations.getIndexCoordinatesFor(entityClass);
     }
 
+    private static class SearchHitsContentIterator<T> implements CloseableIterator<T> {
+        private final SearchHitsIterator<T> delegate;
+        private boolean closed;
+
+        SearchHitsContentIterator(SearchHitsIterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            boolean hasNext;
+            try {
+                hasNext = delegate.hasNext();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (closed) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return delegate.next().getContent();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                delegate.close();
+            }
+        }
+    }
+
     @FunctionalInterface
     public interface OperationsCallback<R> {
         @Nullable
@@ -95,6 +95,35 @@ public class ClientConfigurationUnitTest {
         assertThat(clientConfiguration.getHostnameVerifier()).contains(NoopHostnameVerifier.INSTANCE);
     }
 
+    @Test
+    public void shouldCreateConnectionPoolConfiguration() {
+        ClientConfiguration configuration = ClientConfiguration.builder()
+                .connectedTo("foo", "bar")
+                .withMaxConnections(256)
+                .withMaxConnectionsPerRoute(64)
+                .withIoThreadCount(16)
+                .withKeepAlive(Duration.ofMinutes(1))
+                .withConnectionTimeToLive(Duration.ofMinutes(10))
+                .withTcpKeepAlive(true)
+                .build();
+        assertThat(configuration.getMaxConnections()).isEqualTo(256);
+        assertThat(configuration.getMaxConnectionsPerRoute()).isEqualTo(64);
+        assertThat(configuration.getIoThreadCount()).isEqualTo(16);
+        assertThat(configuration.getKeepAlive()).contains(Duration.ofMinutes(1));
+        assertThat(configuration.getConnectionTimeToLive()).contains(Duration.ofMinutes(10));
+        assertThat(configuration.isTcpKeepAlive()).isTrue();
+        assertThat(configuration.isTcpNoDelay()).isTrue();
+    }
+
+    @Test
+    public void shouldUseRestClientPoolDefaults() {
+        ClientConfiguration configuration = ClientConfiguration.create(hostAndPort);
+        assertThat(configuration.getMaxConnections()).isEqualTo(30);
+        assertThat(configuration.getMaxConnectionsPerRoute()).isEqualTo(10);
+        assertThat(configuration.getKeepAlive()).isEmpty();
+        assertThat(configuration.getConnectionTimeToLive()).isEmpty();
+    }
+
     private static String buildBasicAuth(String username, String password) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBasicAuth(username, password);
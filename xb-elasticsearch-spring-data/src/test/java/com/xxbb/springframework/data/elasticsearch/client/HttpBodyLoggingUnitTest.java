@@ -0,0 +1,106 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.elasticsearch.client.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpBodyLoggingUnitTest {
+
+    private MockElasticsearchServer server;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        appender = new ListAppender<>();
+        appender.start();
+        Logger logger = (Logger) LoggerFactory.getLogger(ClientLogger.class);
+        logger.setLevel(Level.TRACE);
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger logger = (Logger) LoggerFactory.getLogger(ClientLogger.class);
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        server.close();
+    }
+
+    @Test
+    void shouldLogTruncatedPrefixOfLargeBodies() throws IOException {
+        HttpBodyLogging bodyLogging = HttpBodyLogging.builder().withMaxLoggedBytes(16).build();
+        byte[] content = new byte[1024 * 1024];
+        Arrays.fill(content, (byte) 'a');
+
+        assertThat(bodyLogging.body(new NByteArrayEntity(content, ContentType.APPLICATION_JSON)))
+                .isEqualTo("aaaaaaaaaaaaaaaa... <1048576 bytes>");
+        assertThat(bodyLogging.body(new StringEntity("{\"a\":1}", ContentType.APPLICATION_JSON))).isEqualTo("{\"a\":1}");
+    }
+
+    @Test
+    void shouldNotConsumeNonRepeatableOrCompressedBodies() throws IOException {
+        HttpBodyLogging bodyLogging = HttpBodyLogging.builder().build();
+        ByteArrayInputStream stream = new ByteArrayInputStream("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        NByteArrayEntity compressed = new NByteArrayEntity(new byte[20]);
+        compressed.setContentEncoding("gzip");
+
+        assertThat(bodyLogging.body(new InputStreamEntity(stream, 7))).isEqualTo("<not repeatable, 7 bytes>");
+        assertThat(stream.available()).isEqualTo(7);
+        assertThat(bodyLogging.body(compressed)).isEqualTo("<gzip encoded, 20 bytes>");
+    }
+
+    @Test
+    void shouldFilterAndSampleOperations() {
+        HttpBodyLogging bulkOnly = HttpBodyLogging.builder().withOperations(HttpCompression.Operation.BULK).build();
+
+        assertThat(bulkOnly.shouldLogBody("/_bulk?refresh=true")).isTrue();
+        assertThat(bulkOnly.shouldLogBody("/twitter/_search")).isFalse();
+        assertThat(bulkOnly.shouldLogBody("/twitter/_doc/1")).isFalse();
+        assertThat(HttpBodyLogging.builder().build().shouldLogBody("/twitter/_doc/1")).isTrue();
+        assertThat(HttpBodyLogging.builder().withSampleRate(0).build().shouldLogBody("/_bulk")).isFalse();
+        assertThat(HttpBodyLogging.builder().withMaxLoggedBytes(0).build().shouldLogBody("/_bulk")).isFalse();
+    }
+
+    @Test
+    void shouldLogRequestBodiesOfTheRestClient() throws IOException {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(okJson("{}")));
+        stubFor(put(urlPathEqualTo("/twitter/_doc/1")).willReturn(okJson("{}")));
+        ClientConfiguration configuration = ClientConfiguration.builder().connectedTo(server.hostAndPort())
+                .withBodyLogging(HttpBodyLogging.builder().withMaxLoggedBytes(8).withOperations(HttpCompression.Operation.SEARCH).build())
+                .build();
+
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(configuration)) {
+            Request search = new Request("POST", "/twitter/_search");
+            search.setJsonEntity("{\"query\":{\"match_all\":{}}}");
+            client.lowLevelClient().performRequest(search);
+
+            Request index = new Request("PUT", "/twitter/_doc/1");
+            index.setJsonEntity("{\"message\":\"secret\"}");
+            client.lowLevelClient().performRequest(index);
+        }
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+                .anySatisfy(message -> assertThat(message).contains("POST /twitter/_search", "RequestBody: {\"query\"... <26 bytes>"))
+                .anySatisfy(message -> assertThat(message).contains("PUT /twitter/_doc/1").doesNotContain("RequestBody", "secret"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.core.SearchHits;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.annotation.Id;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+public class HttpCompressionUnitTest {
+
+    private MockElasticsearchServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldCompressBulkBodiesAboveThreshold() throws IOException {
+        HttpCompression compression = HttpCompression.builder().withRequestThreshold(1024).build();
+
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(server.hostAndPort()).withCompression(compression).build())) {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client.rest());
+
+            stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson(bulkResponse(1))));
+            template.bulkIndex(queries(1), BulkOptions.defaultOptions(), IndexCoordinates.of("twitter"));
+            stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson(bulkResponse(100))));
+            template.bulkIndex(queries(100), BulkOptions.defaultOptions(), IndexCoordinates.of("twitter"));
+        }
+
+        List<LoggedRequest> requests = findAll(postRequestedFor(urlPathEqualTo("/_bulk")));
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0).containsHeader("Content-Encoding")).isFalse();
+        assertThat(requests.get(1).getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(compression.getRequestBytes()).isGreaterThan(compression.getCompressedRequestBytes()).isGreaterThan(0);
+    }
+
+    @Test
+    void shouldNegotiateCompressedSearchResponses() throws IOException {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(okJson(fixture("search-ok-multiple-hits.json"))));
+        HttpCompression compression = HttpCompression.builder().build();
+
+        SearchHits<Tweet> hits;
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(server.hostAndPort()).withCompression(compression).build())) {
+            hits = new ElasticsearchRestTemplate(client.rest())
+                    .search(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class);
+        }
+
+        verify(postRequestedFor(urlPathEqualTo("/twitter/_search")).withHeader("Accept-Encoding", equalTo("gzip")));
+        assertThat(hits.getSearchHits()).hasSize(2);
+        assertThat(compression.getCompressedResponseBytes()).isGreaterThan(0);
+        assertThat(compression.getResponseBytes()).isGreaterThan(compression.getCompressedResponseBytes());
+    }
+
+    @Test
+    void shouldClassifyOperations() {
+        assertThat(HttpCompression.Operation.of("/_bulk?refresh=true")).isEqualTo(HttpCompression.Operation.BULK);
+        assertThat(HttpCompression.Operation.of("/prefix/twitter/_bulk")).isEqualTo(HttpCompression.Operation.BULK);
+        assertThat(HttpCompression.Operation.of("/twitter/_msearch")).isEqualTo(HttpCompression.Operation.MULTI_SEARCH);
+        assertThat(HttpCompression.Operation.of("/twitter/_search?typed_keys=true")).isEqualTo(HttpCompression.Operation.SEARCH);
+        assertThat(HttpCompression.Operation.of("/_search/scroll")).isEqualTo(HttpCompression.Operation.SCROLL);
+        assertThat(HttpCompression.Operation.of("/twitter/_doc/1")).isNull();
+    }
+
+    private static List<IndexQuery> queries(int count) {
+        List<IndexQuery> queries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Tweet tweet = new Tweet();
+            tweet.id = String.valueOf(i);
+            tweet.message = "message number " + i + " of the bulk request";
+            queries.add(new IndexQueryBuilder().withId(tweet.id).withObject(tweet).build());
+        }
+        return queries;
+    }
+
+    private static String bulkResponse(int count) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            items.append(i > 0 ? "," : "").append("{\"index\":{\"_index\":\"twitter\",\"_type\":\"_doc\",\"_id\":\"").append(i)
+                    .append("\",\"_version\":1,\"result\":\"created\",\"_seq_no\":").append(i).append(",\"_primary_term\":1,\"status\":201}}");
+        }
+        return "{\"took\":7,\"errors\":false,\"items\":[" + items + "]}";
+    }
+
+    private static String fixture(String name) throws IOException {
+        return StreamUtils.copyToString(new ClassPathResource("org.springframework.data.elasticsearch/client/" + name).getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Document(indexName = "twitter", createIndex = false)
+    static class Tweet {
+        @Id
+        private String id;
+        private String message;
+    }
+}
@@ -0,0 +1,83 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpConnectionPoolUnitTest {
+
+    private MockElasticsearchServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+        stubFor(head(urlEqualTo("/")).willReturn(aResponse().withHeader("Content-Type", "application/json; charset=UTF-8")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldApplyConfiguredPoolSizes() throws IOException {
+        ClientConfiguration configuration = ClientConfiguration.builder()
+                .connectedTo(server.hostAndPort())
+                .withMaxConnections(128)
+                .withMaxConnectionsPerRoute(64)
+                .withIoThreadCount(2)
+                .withKeepAlive(Duration.ofSeconds(30))
+                .build();
+
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(configuration)) {
+            HttpConnectionPool pool = client.connectionPool().orElseThrow(IllegalStateException::new);
+            assertThat(pool.getMax()).isEqualTo(128);
+            assertThat(pool.getMaxPerRoute()).isEqualTo(64);
+
+            assertThat(client.rest().ping(RequestOptions.DEFAULT)).isTrue();
+
+            assertThat(pool.getLeased()).isZero();
+            assertThat(pool.getPending()).isZero();
+            assertThat(pool.getAvailable()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldUseRestClientDefaults() {
+        HttpConnectionPool pool = HttpConnectionPool.builder().build();
+
+        assertThat(pool.getMax()).isEqualTo(30);
+        assertThat(pool.getMaxPerRoute()).isEqualTo(10);
+        assertThat(pool.getLeased()).isZero();
+    }
+
+    @Test
+    void shouldGiveEachClientItsOwnConnectionManager() throws IOException {
+        HttpConnectionPool pool = HttpConnectionPool.builder().build();
+        RestClient first = RestClient.builder(HttpHost.create(server.hostAndPort())).setHttpClientConfigCallback(pool::configure).build();
+        RestClient second = RestClient.builder(HttpHost.create(server.hostAndPort())).setHttpClientConfigCallback(pool::configure).build();
+        try {
+            first.performRequest(new Request("HEAD", "/"));
+            second.performRequest(new Request("HEAD", "/"));
+            assertThat(pool.getAvailable()).isEqualTo(2);
+
+            first.close();
+
+            assertThat(second.performRequest(new Request("HEAD", "/")).getStatusLine().getStatusCode()).isEqualTo(200);
+            assertThat(pool.getAvailable()).isEqualTo(1);
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.standalone.MappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+// a WireMock server standing in for a cluster, and the clients connected to it. Closing it closes the clients first,
+// an open client keeps its I/O reactor threads and with them the test JVM alive
+public class MockElasticsearchServer implements AutoCloseable {
+    private static final MappingsSource NO_MAPPINGS = new MappingsSource() {
+        @Override
+        public void loadMappingsInto(StubMappings stubMappings) {}
+
+        @Override
+        public void save(List<StubMapping> stubMappings) {}
+
+        @Override
+        public void save(StubMapping stubMapping) {}
+
+        @Override
+        public void remove(StubMapping stubMapping) {}
+
+        @Override
+        public void removeAll() {}
+    };
+
+    private static final String INFO = "{\"name\":\"node-1\",\"cluster_name\":\"elasticsearch\",\"cluster_uuid\":\"r1tpSEemQZiSVJbfAqOLjg\","
+            + "\"version\":{\"number\":\"7.0.0\",\"build_flavor\":\"default\",\"build_type\":\"tar\",\"build_hash\":\"b7e28a7\","
+            + "\"build_date\":\"2019-04-05T22:55:32.697037Z\",\"build_snapshot\":false,\"lucene_version\":\"8.0.0\","
+            + "\"minimum_wire_compatibility_version\":\"6.7.0\",\"minimum_index_compatibility_version\":\"6.0.0-beta1\"},"
+            + "\"tagline\":\"You Know, for Search\"}";
+
+    private final WireMockServer server;
+    private final List<RestClients.ElasticsearchRestClient> clients = new ArrayList<>();
+
+    private MockElasticsearchServer(WireMockServer server) {
+        this.server = server;
+    }
+
+    // starts a server on a free port and points the static WireMock stubs at it. The stubs are those of the test only,
+    // the default file root src/test/resources holds index mappings WireMock would read as its own. The one exception
+    // answers the version request templates send with their first request, tests may stub it themselves
+    public static MockElasticsearchServer start() {
+        WireMockServer server = new WireMockServer(options().dynamicPort().mappingSource(NO_MAPPINGS));
+        server.start();
+        WireMock.configureFor(server.port());
+        server.stubFor(get(urlEqualTo("/")).atPriority(Integer.MAX_VALUE).willReturn(okJson(INFO)));
+        return new MockElasticsearchServer(server);
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public String hostAndPort() {
+        return "localhost:" + server.port();
+    }
+
+    public RestClients.ElasticsearchRestClient client() {
+        return client(ClientConfiguration.create(hostAndPort()));
+    }
+
+    public RestClients.ElasticsearchRestClient client(ClientConfiguration configuration) {
+        RestClients.ElasticsearchRestClient client = RestClients.create(configuration);
+        clients.add(client);
+        return client;
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (RestClients.ElasticsearchRestClient client : clients) {
+                try {
+                    client.close();
+                } catch (IOException ignored) {}
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+}
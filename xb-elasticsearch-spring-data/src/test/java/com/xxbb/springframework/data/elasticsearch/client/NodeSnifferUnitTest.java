@@ -0,0 +1,156 @@
+package com.xxbb.springframework.data.elasticsearch.client;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NodeSnifferUnitTest {
+
+    private MockElasticsearchServer server;
+    private MockElasticsearchServer other;
+
+    @BeforeEach
+    void setUp() {
+        other = MockElasticsearchServer.start();
+        server = MockElasticsearchServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        other.close();
+    }
+
+    @Test
+    void shouldReadHttpNodes() throws IOException {
+        String nodes = "{\"nodes\":{"
+                + "\"a\":" + node("es-1/10.0.0.1:9200", "[\"master\",\"data\",\"ingest\"]", "eu-1a") + ","
+                + "\"b\":" + node("10.0.0.2:9200", "[\"data\"]", "eu-1b") + ","
+                + "\"c\":" + node("10.0.0.3:9200", "[\"master\"]", "eu-1a") + ","
+                + "\"d\":{\"name\":\"no-http\",\"roles\":[\"data\"]}}}";
+
+        List<Node> sniffed = NodeSniffer.readNodes(new ByteArrayInputStream(nodes.getBytes(StandardCharsets.UTF_8)), "https", true);
+
+        assertThat(sniffed).extracting(Node::getHost).containsExactlyInAnyOrder(new HttpHost("es-1", 9200, "https"),
+                new HttpHost("10.0.0.2", 9200, "https"));
+        assertThat(sniffed).filteredOn(node -> node.getHost().getHostName().equals("es-1")).first()
+                .satisfies(node -> {
+                    assertThat(node.getRoles().isMasterEligible()).isTrue();
+                    assertThat(node.getAttributes()).containsEntry("zone", Collections.singletonList("eu-1a"));
+                    assertThat(node.getBoundHosts()).contains(new HttpHost("10.0.0.1", 9200, "https"));
+                });
+        assertThat(NodeSniffer.readNodes(new ByteArrayInputStream(nodes.getBytes(StandardCharsets.UTF_8)), "http", false)).hasSize(3);
+    }
+
+    @Test
+    void shouldReplaceEndpointsWithSniffedNodes() throws IOException {
+        stubNodes(server.port(), other.port());
+
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(server.hostAndPort()).withNodeSniffer(() -> NodeSniffer.builder().withInterval(Duration.ofHours(1)).build()).build())) {
+            await(() -> client.lowLevelClient().getNodes().size() == 2);
+
+            assertThat(ports(client.lowLevelClient().getNodes())).containsExactlyInAnyOrder(server.port(), other.port());
+        }
+    }
+
+    @Test
+    void shouldSniffAfterFailedRequest() throws IOException {
+        int deadPort = freePort();
+        stubNodes(server.port(), deadPort);
+        stubFor(get(urlPathEqualTo("/twitter/_doc/1")).willReturn(okJson("{}")));
+
+        try (RestClients.ElasticsearchRestClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(server.hostAndPort()).withNodeSniffer(() -> NodeSniffer.builder().withInterval(Duration.ofHours(1)).build()).build())) {
+            await(() -> client.lowLevelClient().getNodes().size() == 2);
+            stubNodes(server.port());
+
+            // the client retries on the live node, the failed one is dropped by the sniff that follows
+            for (int i = 0; i < 2; i++) {
+                client.lowLevelClient().performRequest(new Request("GET", "/twitter/_doc/1"));
+            }
+            await(() -> client.lowLevelClient().getNodes().size() == 1);
+
+            assertThat(ports(client.lowLevelClient().getNodes())).containsExactly(server.port());
+        }
+    }
+
+    @Test
+    void shouldPreferNodesInZone() {
+        PreferredNodeSelector selector = PreferredNodeSelector.builder().withZone("zone", "eu-1a").withLeastLoaded(true).build()
+                .withConnectionPool(HttpConnectionPool.builder().build());
+        Node a = zoned("a", "eu-1a");
+        Node b = zoned("b", "eu-1b");
+        Node c = new Node(new HttpHost("c", 9200));
+
+        List<Node> nodes = new ArrayList<>(Arrays.asList(a, b, c));
+        selector.select(nodes);
+        assertThat(nodes).containsExactly(a);
+
+        nodes = new ArrayList<>(Arrays.asList(b, c));
+        selector.select(nodes);
+        assertThat(nodes).containsExactly(b, c);
+    }
+
+    private void stubNodes(int... ports) {
+        StringBuilder nodes = new StringBuilder("{\"nodes\":{");
+        for (int i = 0; i < ports.length; i++) {
+            nodes.append(i > 0 ? "," : "").append("\"node-").append(i).append("\":")
+                    .append(node("127.0.0.1:" + ports[i], "[\"master\",\"data\",\"ingest\"]", "eu-1a"));
+        }
+        nodes.append(",\"master\":").append(node("127.0.0.1:1", "[\"master\"]", "eu-1a")).append("}}");
+        stubFor(get(urlPathEqualTo("/_nodes/http")).willReturn(okJson(nodes.toString())));
+    }
+
+    private static String node(String publishAddress, String roles, String zone) {
+        String boundAddress = publishAddress.substring(publishAddress.indexOf('/') + 1);
+        return "{\"name\":\"" + publishAddress + "\",\"version\":\"7.0.0\",\"roles\":" + roles + ",\"attributes\":{\"zone\":\""
+                + zone + "\"},\"http\":{\"bound_address\":[\"" + boundAddress + "\"],\"publish_address\":\"" + publishAddress + "\"}}";
+    }
+
+    private static Node zoned(String host, String zone) {
+        return new Node(new HttpHost(host, 9200), Collections.emptySet(), host, "7.0.0", new Node.Roles(true, true, true),
+                Collections.singletonMap("zone", Collections.singletonList(zone)));
+    }
+
+    private static List<Integer> ports(List<Node> nodes) {
+        return nodes.stream().map(node -> node.getHost().getPort()).collect(Collectors.toList());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
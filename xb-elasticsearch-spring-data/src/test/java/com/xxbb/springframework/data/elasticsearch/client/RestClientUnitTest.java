@@ -1,7 +1,6 @@
 package com.xxbb.springframework.data.elasticsearch.client;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -11,8 +10,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.matching.AnythingPattern;
 import com.github.tomakehurst.wiremock.matching.EqualToPattern;
 import org.junit.jupiter.api.Disabled;
@@ -23,8 +20,6 @@ import org.springframework.http.HttpHeaders;
 
 import javax.security.auth.login.Configuration;
 
-import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
-
 //@Disabled("SocketException: Socket closed happens on the CLI build while running the test individually succeeds")
 public class RestClientUnitTest {
 
@@ -33,12 +28,11 @@ public class RestClientUnitTest {
     @DisplayName("should use configured proxy")
     void shouldUseConfiguredProxy(ClientUnderTestFactory factory) {
         wireMockServer(server -> {
-            WireMock.configureFor(server.port());
             stubFor(head(urlEqualTo("/")).willReturn(aResponse().withHeader("Content-Type", "application/json; charset=UTF-8")));
 
             ClientConfiguration configuration =new ClientConfigurationBuilder().connectedTo("127.16.68.128:9200")
-                    .withProxy("localhost:" + server.port()).build();
-            ClientUnderTest clientUnderTest = factory.create(configuration);
+                    .withProxy(server.hostAndPort()).build();
+            ClientUnderTest clientUnderTest = factory.create(server, configuration);
             clientUnderTest.ping();
 
             verify(headRequestedFor(urlEqualTo("/")));
@@ -50,7 +44,6 @@ public class RestClientUnitTest {
     @DisplayName("should set all required headers")
     void shouldSetAllRequiredHeaders(ClientUnderTestFactory factory) {
         wireMockServer(server -> {
-            WireMock.configureFor(server.port());
             stubFor(head(urlEqualTo("/")).willReturn(aResponse().withHeader("Content-Type", "application/json; charset=UTF-8")));
 
             HttpHeaders headers = new HttpHeaders();
@@ -58,7 +51,7 @@ public class RestClientUnitTest {
             headers.add("def2", "def2-1");
 
             AtomicInteger supplierCount = new AtomicInteger(1);
-            ClientConfiguration configuration = new ClientConfigurationBuilder().connectedTo("localhost:" + server.port())
+            ClientConfiguration configuration = new ClientConfigurationBuilder().connectedTo(server.hostAndPort())
                     .withBasicAuth("username", "password")
                     .withDefaultHeaders(headers)
                     .withHeaders(() -> {
@@ -69,7 +62,7 @@ public class RestClientUnitTest {
                     })
                     .build();
 
-            ClientUnderTest clientUnderTest = factory.create(configuration);
+            ClientUnderTest clientUnderTest = factory.create(server, configuration);
 
             for (int i = 1; i <= 3; i++) {
                 clientUnderTest.ping();
@@ -85,28 +78,22 @@ public class RestClientUnitTest {
     }
 
     @FunctionalInterface
-    interface WiremockConsumer extends Consumer<WireMockServer> {
+    interface WiremockConsumer extends Consumer<MockElasticsearchServer> {
         @Override
-        default void accept(WireMockServer wireMockServer) {
+        default void accept(MockElasticsearchServer server) {
             try {
-                acceptThrows(wireMockServer);
+                acceptThrows(server);
             } catch (final Exception e) {
                 throw new RuntimeException(e);
             }
         }
 
-        void acceptThrows(WireMockServer consumer) throws Exception;
+        void acceptThrows(MockElasticsearchServer server) throws Exception;
     }
 
     private void wireMockServer(WiremockConsumer consumer) {
-        WireMockServer wireMockServer = new WireMockServer(options()
-        .dynamicPort().usingFilesUnderDirectory("src/test/resources/wiremock-mappings"));
-
-        try {
-            wireMockServer.start();
-            consumer.accept(wireMockServer);
-        } finally {
-            wireMockServer.shutdown();
+        try (MockElasticsearchServer server = MockElasticsearchServer.start()) {
+            consumer.accept(server);
         }
     }
 
@@ -114,7 +101,7 @@ public class RestClientUnitTest {
         boolean ping() throws Exception;
     }
     static abstract class ClientUnderTestFactory {
-        abstract ClientUnderTest create(ClientConfiguration configuration);
+        abstract ClientUnderTest create(MockElasticsearchServer server, ClientConfiguration configuration);
 
         @Override
         public String toString() {
@@ -126,8 +113,8 @@ public class RestClientUnitTest {
     static class RestClientUnderClientTestFactory extends ClientUnderTestFactory {
 
         @Override
-        ClientUnderTest create(ClientConfiguration configuration) {
-            RestHighLevelClient client = RestClients.create(configuration).rest();
+        ClientUnderTest create(MockElasticsearchServer server, ClientConfiguration configuration) {
+            RestHighLevelClient client = server.client(configuration).rest();
             return new ClientUnderTest() {
                 @Override
                 public boolean ping() throws Exception {
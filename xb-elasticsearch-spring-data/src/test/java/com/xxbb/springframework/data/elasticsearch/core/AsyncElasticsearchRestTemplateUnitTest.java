@@ -0,0 +1,121 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.annotation.Id;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+public class AsyncElasticsearchRestTemplateUnitTest {
+
+    private MockElasticsearchServer server;
+    private AsyncElasticsearchRestTemplate operations;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        RestHighLevelClient client = server.client().rest();
+        operations = new AsyncElasticsearchRestTemplate(new ElasticsearchRestTemplate(client));
+    }
+
+    @AfterEach
+    void tearDown() {
+        operations.close();
+        server.close();
+    }
+
+    @Test
+    void shouldMapSearchHitsAsynchronously() throws Exception {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(okJson(fixture("search-ok-multiple-hits.json"))));
+
+        CompletableFuture<SearchHits<Tweet>> future = operations.search(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class);
+        SearchHits<Tweet> searchHits = future.get(5, TimeUnit.SECONDS);
+
+        assertThat(searchHits.getTotalHits()).isEqualTo(2);
+        assertThat(searchHits.getSearchHits()).extracting(hit -> hit.getContent().getId()).containsExactly("2", "1");
+        assertThat(searchHits.getSearchHit(0).getContent().getUser()).isEqualTo("kimchy");
+    }
+
+    @Test
+    void shouldGetEntityAsynchronously() throws Exception {
+        stubFor(get(urlPathEqualTo("/twitter/_doc/1")).willReturn(okJson(fixture("get-by-id-ok.json"))));
+
+        Tweet tweet = operations.get("1", Tweet.class).get(5, TimeUnit.SECONDS);
+
+        assertThat(tweet.getId()).isEqualTo("1");
+        assertThat(tweet.getMessage()).isEqualTo("Trying out Elasticsearch, so far so good?");
+    }
+
+    @Test
+    void shouldCompleteExceptionallyOnServerError() {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(serverError()));
+
+        CompletableFuture<Long> future = operations.count(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void shouldRejectResponsesOnceClosed() throws IOException {
+        stubFor(get(urlPathEqualTo("/twitter/_doc/1")).willReturn(okJson(fixture("get-by-id-ok.json"))));
+        operations.close();
+
+        CompletableFuture<Tweet> future = operations.get("1", Tweet.class);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    private static String fixture(String name) throws IOException {
+        return StreamUtils.copyToString(new ClassPathResource("org.springframework.data.elasticsearch/client/" + name).getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Document(indexName = "twitter", createIndex = false)
+    static class Tweet {
+        @Id
+        private String id;
+        private String user;
+        private String message;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public void setUser(String user) {
+            this.user = user;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkIngesterUnitTest {
+
+    private static final String BULK_RESPONSE = "{\"took\":3,\"errors\":true,\"items\":[" +
+            "{\"index\":{\"_index\":\"bulk-ingester\",\"_type\":\"_doc\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\",\"_seq_no\":7,\"_primary_term\":2,\"status\":201}}," +
+            "{\"index\":{\"_index\":\"bulk-ingester\",\"_type\":\"_doc\",\"_id\":\"2\",\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\",\"reason\":\"rejected\"}}}" +
+            "]}";
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldBatchByActionCountAndReportItemResults() throws Exception {
+        stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson(BULK_RESPONSE)));
+
+        List<BulkIngester.ItemResult> results = new CopyOnWriteArrayList<>();
+        List<String> callbackThreads = new CopyOnWriteArrayList<>();
+        BulkIngester ingester = BulkIngester.builder(template)
+                .withBulkActions(2)
+                .withListener(new BulkIngester.Listener() {
+                    @Override
+                    public void onItem(BulkIngester.ItemResult result) {
+                        callbackThreads.add(Thread.currentThread().getName());
+                        results.add(result);
+                    }
+                }).build();
+
+        SampleEntity first = new SampleEntity("1");
+        ingester.index(first);
+        ingester.index(new SampleEntity("2"));
+        assertThat(ingester.awaitClose(5, TimeUnit.SECONDS)).isTrue();
+
+        verify(1, postRequestedFor(urlPathEqualTo("/_bulk")));
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isFailed()).isFalse();
+        assertThat(results.get(0).getIndexObjectInformation().getSeqNo()).isEqualTo(7);
+        assertThat(results.get(0).getIndexObjectInformation().getPrimaryTerm()).isEqualTo(2);
+        assertThat(results.get(1).isFailed()).isTrue();
+        assertThat(results.get(1).getIndexObjectInformation().getId()).isEqualTo("2");
+        assertThat(first.getSeqNoPrimaryTerm().getSequenceNumber()).isEqualTo(7);
+        assertThat(callbackThreads).allMatch(name -> name.startsWith("elasticsearch-bulk-ingester-"));
+    }
+
+    @Document(indexName = "bulk-ingester", createIndex = false)
+    static class SampleEntity {
+        @Id
+        private String id;
+        private SeqNoPrimaryTerm seqNoPrimaryTerm;
+
+        SampleEntity(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public SeqNoPrimaryTerm getSeqNoPrimaryTerm() {
+            return seqNoPrimaryTerm;
+        }
+
+        public void setSeqNoPrimaryTerm(SeqNoPrimaryTerm seqNoPrimaryTerm) {
+            this.seqNoPrimaryTerm = seqNoPrimaryTerm;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.xxbb.springframework.data.elasticsearch.BulkFailureException;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkRejectionRetryUnitTest {
+
+    private static final String REJECTED_RESPONSE = "{\"took\":3,\"errors\":true,\"items\":[" +
+            "{\"index\":{\"_index\":\"bulk-retry\",\"_type\":\"_doc\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\",\"_seq_no\":1,\"_primary_term\":1,\"status\":201}}," +
+            "{\"index\":{\"_index\":\"bulk-retry\",\"_type\":\"_doc\",\"_id\":\"2\",\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\",\"reason\":\"rejected\"}}}" +
+            "]}";
+    private static final String RETRIED_RESPONSE = "{\"took\":2,\"errors\":false,\"items\":[" +
+            "{\"index\":{\"_index\":\"bulk-retry\",\"_type\":\"_doc\",\"_id\":\"2\",\"_version\":1,\"result\":\"created\",\"_seq_no\":2,\"_primary_term\":1,\"status\":201}}" +
+            "]}";
+    private static final String RETRY_REJECTED_RESPONSE = "{\"took\":1,\"errors\":true,\"items\":[" +
+            "{\"index\":{\"_index\":\"bulk-retry\",\"_type\":\"_doc\",\"_id\":\"2\",\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\",\"reason\":\"rejected\"}}}" +
+            "]}";
+
+    private final IndexCoordinates index = IndexCoordinates.of("bulk-retry");
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldResendOnlyRejectedItems() {
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(okJson(REJECTED_RESPONSE)).willSetStateTo("retried"));
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs("retried")
+                .withRequestBody(notMatching("(?s).*\"_id\":\"1\".*"))
+                .willReturn(okJson(RETRIED_RESPONSE)));
+
+        BulkOptions bulkOptions = BulkOptions.builder().withRejectionRetries(Duration.ofMillis(1), 3).build();
+        List<IndexObjectInformation> result = template.bulkIndex(queries(), bulkOptions, index);
+
+        verify(2, postRequestedFor(urlPathEqualTo("/_bulk")));
+        assertThat(result).extracting(IndexObjectInformation::getId).containsExactly("1", "2");
+        assertThat(result.get(1).getSeqNo()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSendRetriesWithTheOptionsOfTheBulk() {
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(okJson(REJECTED_RESPONSE)).willSetStateTo("retried"));
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs("retried")
+                .willReturn(okJson(RETRIED_RESPONSE)));
+
+        BulkOptions bulkOptions = BulkOptions.builder().withPipeline("enrich").withRoutingId("tenant-1")
+                .withRejectionRetries(Duration.ofMillis(1), 3).build();
+        template.bulkIndex(queries(), bulkOptions, index);
+
+        verify(2, postRequestedFor(urlPathEqualTo("/_bulk"))
+                .withQueryParam("pipeline", equalTo("enrich"))
+                .withQueryParam("routing", equalTo("tenant-1")));
+    }
+
+    @Test
+    void shouldReportRejectedItemsWhenRetriesAreExhausted() {
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(okJson(REJECTED_RESPONSE)).willSetStateTo("retried"));
+        stubFor(post(urlPathEqualTo("/_bulk")).inScenario("rejection").whenScenarioStateIs("retried")
+                .willReturn(okJson(RETRY_REJECTED_RESPONSE)));
+
+        BulkOptions bulkOptions = BulkOptions.builder().withRejectionRetries(Duration.ofMillis(1), 2).build();
+        assertThatThrownBy(() -> template.bulkIndex(queries(), bulkOptions, index))
+                .isInstanceOfSatisfying(BulkFailureException.class,
+                        e -> assertThat(e.getRejectedDocuments()).containsExactly("2"));
+        verify(3, postRequestedFor(urlPathEqualTo("/_bulk")));
+    }
+
+    @Test
+    void shouldReportRejectedItemsWithoutRetries() {
+        stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson(REJECTED_RESPONSE)));
+
+        assertThatThrownBy(() -> template.bulkIndex(queries(), BulkOptions.defaultOptions(), index))
+                .isInstanceOfSatisfying(BulkFailureException.class,
+                        e -> assertThat(e.getRejectedDocuments()).containsExactly("2"));
+        verify(1, postRequestedFor(urlPathEqualTo("/_bulk")));
+    }
+
+    private static List<IndexQuery> queries() {
+        return Arrays.asList(new IndexQueryBuilder().withId("1").withSource("{}").build(),
+                new IndexQueryBuilder().withId("2").withSource("{}").build());
+    }
+}
@@ -0,0 +1,83 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteByQueryOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+
+public class DeleteByQueryUnitTest {
+
+    private static final String DELETE_BY_QUERY_RESPONSE = "{\"took\":5,\"timed_out\":false,\"total\":3,\"deleted\":3,\"batches\":1," +
+            "\"version_conflicts\":0,\"noops\":0,\"retries\":{\"bulk\":0,\"search\":0},\"throttled_millis\":0," +
+            "\"requests_per_second\":-1.0,\"throttled_until_millis\":0,\"failures\":[]}";
+
+    private final IndexCoordinates index = IndexCoordinates.of("delete-by-query");
+    private final Query query = new NativeSearchQueryBuilder().withQuery(termQuery("state", "expired")).build();
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldReturnDeletedCountWithoutRefreshByDefault() {
+        stubFor(post(urlPathEqualTo("/delete-by-query/_delete_by_query")).willReturn(okJson(DELETE_BY_QUERY_RESPONSE)));
+
+        DeleteByQueryResult result = template.delete(query, Object.class, index, DeleteByQueryOptions.defaultOptions());
+
+        assertThat(result.isSubmittedAsTask()).isFalse();
+        assertThat(result.getDeleted()).isEqualTo(3);
+        verify(postRequestedFor(urlPathEqualTo("/delete-by-query/_delete_by_query"))
+                .withQueryParam("refresh", absent()));
+    }
+
+    @Test
+    void shouldSubmitTaskWhenNotWaitingForCompletion() {
+        stubFor(post(urlPathEqualTo("/delete-by-query/_delete_by_query"))
+                .withQueryParam("wait_for_completion", equalTo("false"))
+                .willReturn(okJson("{\"task\":\"oTUltX4IQMOUUVeiohTt8A:12345\"}")));
+
+        DeleteByQueryResult result = template.delete(query, Object.class, index,
+                DeleteByQueryOptions.builder().withWaitForCompletion(false).build());
+
+        assertThat(result.isSubmittedAsTask()).isTrue();
+        assertThat(result.getTaskId()).isEqualTo("oTUltX4IQMOUUVeiohTt8A:12345");
+        verify(postRequestedFor(urlPathEqualTo("/delete-by-query/_delete_by_query"))
+                .withQueryParam("conflicts", equalTo("proceed"))
+                .withRequestBody(matchingJsonPath("$.query.term.state.value", equalTo("expired"))));
+    }
+
+    @Test
+    void shouldSendLimitsAndThrottlingWithTask() {
+        stubFor(post(urlPathEqualTo("/delete-by-query/_delete_by_query"))
+                .willReturn(okJson("{\"task\":\"oTUltX4IQMOUUVeiohTt8A:12345\"}")));
+
+        template.delete(query, Object.class, index, DeleteByQueryOptions.builder().withWaitForCompletion(false)
+                .withMaxDocs(1000).withTimeout(Duration.ofSeconds(30)).withRequestsPerSecond(500).build());
+
+        verify(postRequestedFor(urlPathEqualTo("/delete-by-query/_delete_by_query"))
+                .withQueryParam("wait_for_completion", equalTo("false"))
+                .withQueryParam("size", equalTo("1000"))
+                .withQueryParam("timeout", equalTo("30000ms"))
+                .withQueryParam("requests_per_second", equalTo("500.0")));
+    }
+}
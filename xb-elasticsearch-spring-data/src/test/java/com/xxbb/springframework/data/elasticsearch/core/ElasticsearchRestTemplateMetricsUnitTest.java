@@ -0,0 +1,117 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.annotation.Id;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+public class ElasticsearchRestTemplateMetricsUnitTest {
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+    private final List<String> recorded = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+        // the version request the first operation sends is not part of the measurements
+        template.logVersionsOnce();
+        template.setMetricsRecorder(new ElasticsearchMetricsRecorder() {
+            @Override
+            public void recordRequest(String operation, @Nullable String index, long durationNanos, @Nullable Throwable error) {
+                recorded.add("request " + operation + ' ' + index + ' ' + (error != null ? error.getClass().getSimpleName() : "success"));
+            }
+
+            @Override
+            public void recordTook(String operation, @Nullable String index, long tookMillis) {
+                recorded.add("took " + operation + ' ' + index + ' ' + tookMillis);
+            }
+
+            @Override
+            public void recordHits(String operation, @Nullable String index, int hits) {
+                recorded.add("hits " + operation + ' ' + index + ' ' + hits);
+            }
+
+            @Override
+            public void recordBulk(@Nullable String index, int items, long payloadBytes) {
+                recorded.add("bulk " + index + ' ' + items + ' ' + (payloadBytes > 0));
+            }
+
+            @Override
+            public void recordConversion(@Nullable String index, int documents, long durationNanos) {
+                recorded.add("conversion " + index + ' ' + documents);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldRecordSearchLatencyHitsAndConversion() throws IOException {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(okJson(fixture("search-ok-multiple-hits.json"))));
+
+        template.search(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class);
+
+        assertThat(recorded).containsExactly("request search twitter success", "took search twitter 52", "hits search twitter 2",
+                "conversion twitter 2");
+    }
+
+    @Test
+    void shouldRecordBulkItemsAndTook() {
+        stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson("{\"took\":7,\"errors\":false,\"items\":[" +
+                "{\"index\":{\"_index\":\"twitter\",\"_type\":\"_doc\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\",\"_seq_no\":0,\"_primary_term\":1,\"status\":201}}," +
+                "{\"index\":{\"_index\":\"twitter\",\"_type\":\"_doc\",\"_id\":\"2\",\"_version\":1,\"result\":\"created\",\"_seq_no\":1,\"_primary_term\":1,\"status\":201}}]}")));
+
+        template.bulkIndex(Arrays.asList(new IndexQueryBuilder().withId("1").withObject(new Tweet()).build(),
+                new IndexQueryBuilder().withId("2").withObject(new Tweet()).build()), BulkOptions.defaultOptions(), IndexCoordinates.of("twitter"));
+
+        assertThat(recorded).containsExactly("bulk twitter 2 true", "request bulk twitter success", "took bulk twitter 7");
+    }
+
+    @Test
+    void shouldRecordFailedRequests() {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(serverError()));
+
+        assertThatThrownBy(() -> template.count(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(recorded).hasSize(1);
+        assertThat(recorded.get(0)).startsWith("request count twitter ").doesNotEndWith("success");
+    }
+
+    private static String fixture(String name) throws IOException {
+        return StreamUtils.copyToString(new ClassPathResource("org.springframework.data.elasticsearch/client/" + name).getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Document(indexName = "twitter", createIndex = false)
+    static class Tweet {
+        @Id
+        private String id;
+        private String message;
+    }
+}
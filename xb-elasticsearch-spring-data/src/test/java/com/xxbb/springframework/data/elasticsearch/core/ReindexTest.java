@@ -0,0 +1,71 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.query.ReindexOptions;
+import com.xxbb.springframework.data.elasticsearch.junit.jupiter.ElasticsearchRestTemplateConfiguration;
+import com.xxbb.springframework.data.elasticsearch.junit.jupiter.SpringIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.annotation.Id;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+@SpringIntegrationTest
+@ContextConfiguration(classes = {ElasticsearchRestTemplateConfiguration.class})
+public class ReindexTest {
+
+    private static final String ALIAS = "reindex-tweets";
+
+    @Autowired
+    private ElasticsearchOperations operations;
+
+    @BeforeEach
+    @AfterEach
+    public void deleteIndices() {
+        operations.indexOps(IndexCoordinates.of(ALIAS + "-v1")).delete();
+        operations.indexOps(IndexCoordinates.of(ALIAS + "-v2")).delete();
+    }
+
+    @Test
+    public void shouldMoveAliasToReindexedIndex() {
+        IndexOperations v1 = operations.indexOps(IndexCoordinates.of(ALIAS + "-v1"));
+        v1.create();
+        v1.putMapping(Tweet.class);
+        v1.addAlias(ALIAS);
+        for (int i = 0; i < 3; i++) {
+            Tweet tweet = new Tweet();
+            tweet.id = String.valueOf(i);
+            tweet.message = "message " + i;
+            operations.save(tweet, IndexCoordinates.of(ALIAS));
+        }
+        operations.indexOps(Tweet.class).refresh();
+
+        ReindexResult result = operations.indexOps(Tweet.class).reindexTo(IndexCoordinates.of(ALIAS + "-v2"),
+                ReindexOptions.builder().withPollInterval(Duration.ofMillis(100)).withDeleteSourceIndex(true).build());
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(operations.indexOps(Tweet.class).getAliasedIndices(ALIAS)).containsExactly(ALIAS + "-v2");
+        assertThat(operations.count(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), Tweet.class)).isEqualTo(3);
+        assertThat(v1.exists()).isFalse();
+        assertThat(operations.indexOps(IndexCoordinates.of(ALIAS + "-v2")).getSettings()).containsEntry("index.refresh_interval", "1s");
+    }
+
+    @Document(indexName = ALIAS, createIndex = false)
+    static class Tweet {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+}
@@ -0,0 +1,149 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.ReindexOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.annotation.Id;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReindexUnitTest {
+
+    private static final String ACKNOWLEDGED = "{\"acknowledged\":true}";
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+        template = new ElasticsearchRestTemplate(server.client().rest());
+
+        stubFor(get(urlPathEqualTo("/tweets-v1/_settings")).willReturn(okJson(
+                "{\"tweets-v1\":{\"settings\":{\"index\":{\"number_of_replicas\":\"1\",\"refresh_interval\":\"5s\"}}}}")));
+        stubFor(put(urlPathEqualTo("/tweets-v2")).willReturn(okJson(
+                "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"tweets-v2\"}")));
+        stubFor(put(urlPathEqualTo("/tweets-v2/_mapping")).willReturn(okJson(ACKNOWLEDGED)));
+        stubFor(post(urlPathEqualTo("/_reindex")).willReturn(okJson("{\"task\":\"node-1:42\"}")));
+        stubFor(put(urlPathEqualTo("/tweets-v1/_settings")).willReturn(okJson(ACKNOWLEDGED)));
+        stubFor(put(urlPathEqualTo("/tweets-v2/_settings")).willReturn(okJson(ACKNOWLEDGED)));
+        stubFor(post(urlPathEqualTo("/tweets-v2/_refresh")).willReturn(okJson("{\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}}")));
+        stubFor(post(urlPathEqualTo("/_aliases")).willReturn(okJson(ACKNOWLEDGED)));
+        stubFor(head(urlPathEqualTo("/tweets-v2")).willReturn(aResponse().withStatus(200)));
+        stubFor(delete(urlPathEqualTo("/tweets-v2")).willReturn(okJson(ACKNOWLEDGED)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldReindexIntoNewIndexAndSwapAlias() {
+        stubFor(get(urlPathEqualTo("/_alias/tweets")).willReturn(okJson("{\"tweets-v1\":{\"aliases\":{\"tweets\":{}}}}")));
+        stubFor(get(urlPathEqualTo("/_tasks/node-1:42")).inScenario("reindex").whenScenarioStateIs(STARTED).willSetStateTo("done")
+                .willReturn(okJson(task(false, "\"status\":{\"total\":10,\"created\":4,\"updated\":0,\"batches\":1,\"version_conflicts\":0}", null))));
+        stubFor(get(urlPathEqualTo("/_tasks/node-1:42")).inScenario("reindex").whenScenarioStateIs("done")
+                .willReturn(okJson(task(true, "\"status\":{}", "{\"total\":10,\"created\":10,\"updated\":0,\"batches\":2,"
+                        + "\"version_conflicts\":0,\"failures\":[]}"))));
+        List<ReindexResult> progress = new ArrayList<>();
+
+        ReindexResult result = template.indexOps(Tweet.class).reindexTo(IndexCoordinates.of("tweets-v2"), ReindexOptions.builder()
+                .withRequestsPerSecond(500).withPollInterval(Duration.ofMillis(10)).withProgressListener(progress::add).build());
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getCreated()).isEqualTo(10);
+        assertThat(progress).extracting(ReindexResult::getCreated).containsExactly(4L, 10L);
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v2"))
+                .withRequestBody(matchingJsonPath("$.settings.index.refresh_interval", equalTo("-1")))
+                .withRequestBody(matchingJsonPath("$.settings.index.number_of_replicas", equalTo("0"))));
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v2/_mapping")).withRequestBody(matchingJsonPath("$.properties.message.type", equalTo("text"))));
+        verify(postRequestedFor(urlPathEqualTo("/_reindex")).withQueryParam("requests_per_second", equalTo("500.0"))
+                .withQueryParam("wait_for_completion", equalTo("false"))
+                .withRequestBody(matchingJsonPath("$.source.index", containing("tweets")))
+                .withRequestBody(matchingJsonPath("$.dest.index", equalTo("tweets-v2"))));
+        // the entity asks for two replicas, its refresh interval is the default
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v2/_settings"))
+                .withRequestBody(matchingJsonPath("$.index.number_of_replicas", equalTo("2")))
+                .withRequestBody(matchingJsonPath("$.index.refresh_interval", equalTo("1s"))));
+        verify(postRequestedFor(urlPathEqualTo("/_aliases"))
+                .withRequestBody(matchingJsonPath("$.actions[0].remove.indices[0]", equalTo("tweets-v1")))
+                .withRequestBody(matchingJsonPath("$.actions[1].add.indices[0]", equalTo("tweets-v2"))));
+        verify(0, deleteRequestedFor(anyUrl()));
+        // the source is read only while it is copied, and writable again once the alias no longer points to it
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v1/_settings")).withRequestBody(matchingJsonPath("$.index.blocks.write", equalTo("true"))));
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v1/_settings")).withRequestBody(equalToJson("{\"index\":{\"blocks\":{\"write\":null}}}")));
+    }
+
+    @Test
+    void shouldNotReplaceIndexWithAliasUnlessAllowed() {
+        stubFor(get(urlPathEqualTo("/_alias/tweets")).willReturn(aResponse().withStatus(404)
+                .withHeader("Content-Type", "application/json").withBody("{\"error\":\"alias [tweets] missing\",\"status\":404}")));
+        stubFor(head(urlPathEqualTo("/tweets")).willReturn(aResponse().withStatus(200)));
+
+        assertThatThrownBy(() -> template.indexOps(Tweet.class).reindexTo(IndexCoordinates.of("tweets-v2")))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class).hasMessageContaining("deleteSourceIndex");
+        verify(0, putRequestedFor(anyUrl()));
+        verify(0, postRequestedFor(urlPathEqualTo("/_reindex")));
+    }
+
+    @Test
+    void shouldDeleteNewIndexWhenReindexFails() {
+        stubFor(get(urlPathEqualTo("/_alias/tweets")).willReturn(okJson("{\"tweets-v1\":{\"aliases\":{\"tweets\":{}}}}")));
+        stubFor(get(urlPathEqualTo("/_tasks/node-1:42")).willReturn(okJson(task(true, "\"status\":{}",
+                "{\"total\":10,\"created\":3,\"failures\":[{\"index\":\"tweets-v2\",\"cause\":{\"type\":\"mapper_parsing_exception\"}}]}"))));
+
+        assertThatThrownBy(() -> template.indexOps(Tweet.class).reindexTo(IndexCoordinates.of("tweets-v2")))
+                .isInstanceOf(UncategorizedElasticsearchException.class).hasMessageContaining("mapper_parsing_exception");
+        verify(deleteRequestedFor(urlPathEqualTo("/tweets-v2")));
+        verify(0, postRequestedFor(urlPathEqualTo("/_aliases")));
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v1/_settings")).withRequestBody(equalToJson("{\"index\":{\"blocks\":{\"write\":null}}}")));
+    }
+
+    @Test
+    void shouldCancelReindexAfterTimeout() {
+        stubFor(get(urlPathEqualTo("/_alias/tweets")).willReturn(okJson("{\"tweets-v1\":{\"aliases\":{\"tweets\":{}}}}")));
+        stubFor(get(urlPathEqualTo("/_tasks/node-1:42")).inScenario("reindex").whenScenarioStateIs(STARTED)
+                .willReturn(okJson(task(false, "\"status\":{\"total\":10,\"created\":4}", null))));
+        stubFor(post(urlPathEqualTo("/_tasks/node-1:42/_cancel")).inScenario("reindex").willSetStateTo("cancelled")
+                .willReturn(okJson("{\"nodes\":{}}")));
+        stubFor(get(urlPathEqualTo("/_tasks/node-1:42")).inScenario("reindex").whenScenarioStateIs("cancelled")
+                .willReturn(okJson(task(true, "\"status\":{}", "{\"total\":10,\"created\":5,\"canceled\":\"by user request\",\"failures\":[]}"))));
+
+        assertThatThrownBy(() -> template.indexOps(Tweet.class).reindexTo(IndexCoordinates.of("tweets-v2"), ReindexOptions.builder()
+                .withPollInterval(Duration.ofMillis(10)).withTimeout(Duration.ofMillis(1)).build()))
+                .isInstanceOf(UncategorizedElasticsearchException.class).hasMessageContaining("cancelled");
+        verify(postRequestedFor(urlPathEqualTo("/_tasks/node-1:42/_cancel")));
+        verify(deleteRequestedFor(urlPathEqualTo("/tweets-v2")));
+        verify(0, postRequestedFor(urlPathEqualTo("/_aliases")));
+        verify(putRequestedFor(urlPathEqualTo("/tweets-v1/_settings")).withRequestBody(equalToJson("{\"index\":{\"blocks\":{\"write\":null}}}")));
+    }
+
+    private static String task(boolean completed, String status, String response) {
+        return "{\"completed\":" + completed + ",\"task\":{\"node\":\"node-1\",\"id\":42,\"action\":\"indices:data/write/reindex\"," + status + "}"
+                + (response != null ? ",\"response\":" + response : "") + "}";
+    }
+
+    @Document(indexName = "tweets", replicas = 2)
+    static class Tweet {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+}
@@ -0,0 +1,149 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.RefreshPolicy;
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import com.xxbb.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkShardRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.support.ActiveShardCount;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.common.unit.TimeValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestFactoryUnitTest {
+
+    private SimpleElasticsearchMappingContext mappingContext;
+    private RequestFactory requestFactory;
+
+    @BeforeEach
+    void setUp() {
+        mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.setInitialEntitySet(new HashSet<>(Arrays.asList(LogEntry.class, Metric.class, OtherMetric.class)));
+        mappingContext.afterPropertiesSet();
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+        converter.afterPropertiesSet();
+        requestFactory = new RequestFactory(converter);
+    }
+
+    @Test
+    void shouldApplyEntityWriteDefaultsToSingleDocumentRequests() {
+        IndexCoordinates index = IndexCoordinates.of("log-entries");
+
+        IndexRequest indexRequest = requestFactory.indexRequest(new IndexQueryBuilder().withObject(new LogEntry("1")).build(), index);
+        assertThat(indexRequest.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+        assertThat(indexRequest.timeout()).isEqualTo(TimeValue.timeValueSeconds(5));
+        assertThat(indexRequest.waitForActiveShards()).isEqualTo(ActiveShardCount.ALL);
+
+        DeleteRequest deleteRequest = requestFactory.deleteRequest("1", null, index);
+        assertThat(deleteRequest.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+        assertThat(deleteRequest.timeout()).isEqualTo(TimeValue.timeValueSeconds(5));
+    }
+
+    @Test
+    void shouldLetExplicitRequestOptionsWinOverEntityDefaults() {
+        IndexCoordinates index = IndexCoordinates.of("log-entries");
+
+        UpdateRequest updateRequest = requestFactory.updateRequest(UpdateQuery.builder("1").withScript("ctx._source.seen = true").withRefresh(UpdateQuery.Refresh.False).build(), index);
+        assertThat(updateRequest.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+        assertThat(updateRequest.timeout()).isEqualTo(TimeValue.timeValueSeconds(5));
+
+        BulkRequest bulkRequest = requestFactory.bulkRequest(Arrays.asList(new IndexQueryBuilder().withObject(new LogEntry("1")).build(), DeleteQuery.of("2")),
+                BulkOptions.builder().withRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE).build(), index);
+        assertThat(bulkRequest.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.IMMEDIATE);
+        assertThat(bulkRequest.timeout()).isEqualTo(TimeValue.timeValueSeconds(5));
+        assertThat(bulkRequest.requests()).allSatisfy(item -> assertThat(((WriteRequest<?>) item).getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE));
+        assertThat(bulkRequest.validate()).isNull();
+    }
+
+    @Test
+    void shouldLeaveRequestsUntouchedWithoutEntityDefaults() {
+        IndexQuery query = new IndexQueryBuilder().withId("1").withSource("{}").build();
+
+        IndexRequest indexRequest = requestFactory.indexRequest(query, IndexCoordinates.of("unmapped"));
+
+        assertThat(indexRequest.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+        assertThat(indexRequest.timeout()).isEqualTo(IndexRequest.DEFAULT_TIMEOUT);
+    }
+
+    @Test
+    void shouldApplyEntityWriteDefaultsToBulkRequestsOfThatEntityOnly() {
+        IndexCoordinates index = IndexCoordinates.of("log-entries");
+
+        BulkRequest mixed = requestFactory.bulkRequest(Arrays.asList(new IndexQueryBuilder().withObject(new LogEntry("1")).build(),
+                new IndexQueryBuilder().withId("2").withSource("{}").withObject(new Metric()).build()), BulkOptions.defaultOptions(), index);
+        assertThat(mixed.timeout()).isEqualTo(BulkShardRequest.DEFAULT_TIMEOUT);
+        assertThat(mixed.getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+    }
+
+    @Test
+    void shouldNotGuessTheEntityOfAnIndexSharedByEntities() {
+        IndexCoordinates index = IndexCoordinates.of("metrics");
+
+        assertThat(requestFactory.deleteRequest("1", null, index).getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+        assertThat(requestFactory.deleteRequest("1", null, Metric.class, index).getRefreshPolicy())
+                .isEqualTo(WriteRequest.RefreshPolicy.IMMEDIATE);
+    }
+
+    @Test
+    void shouldApplyWriteDefaultsOfEntityAddedAfterAWriteToItsIndex() {
+        IndexCoordinates index = IndexCoordinates.of("audits");
+        assertThat(requestFactory.deleteRequest("1", null, index).getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+
+        mappingContext.getRequiredPersistentEntity(Audit.class);
+
+        assertThat(requestFactory.deleteRequest("1", null, index).getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.IMMEDIATE);
+    }
+
+    @Document(indexName = "audits", createIndex = false, refreshPolicy = RefreshPolicy.IMMEDIATE)
+    static class Audit {
+        @Id
+        private String id;
+    }
+
+    @Document(indexName = "metrics", createIndex = false, refreshPolicy = RefreshPolicy.IMMEDIATE)
+    static class Metric {
+        @Id
+        private String id;
+    }
+
+    @Document(indexName = "metrics", createIndex = false)
+    static class OtherMetric {
+        @Id
+        private String id;
+    }
+
+    @Document(indexName = "log-entries", createIndex = false, refreshPolicy = RefreshPolicy.WAIT_UNTIL, writeTimeout = "5s", waitForActiveShards = "all")
+    static class LogEntry {
+        @Id
+        private String id;
+
+        LogEntry(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+}
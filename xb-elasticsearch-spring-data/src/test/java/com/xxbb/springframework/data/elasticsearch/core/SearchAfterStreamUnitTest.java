@@ -0,0 +1,129 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+public class SearchAfterStreamUnitTest {
+
+    private static final String FIRST_PAGE = "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[" +
+            "{\"_index\":\"search-after\",\"_type\":\"_doc\",\"_id\":\"1\",\"_score\":null,\"_source\":{\"id\":\"1\"},\"sort\":[\"1\"]}," +
+            "{\"_index\":\"search-after\",\"_type\":\"_doc\",\"_id\":\"2\",\"_score\":null,\"_source\":{\"id\":\"2\"},\"sort\":[\"2\"]}" +
+            "]}}";
+    private static final String SECOND_PAGE = "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[" +
+            "{\"_index\":\"search-after\",\"_type\":\"_doc\",\"_id\":\"3\",\"_score\":null,\"_source\":{\"id\":\"3\"},\"sort\":[\"3\"]}" +
+            "]}}";
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldPageWithSearchAfterAndTiebreakerSort() {
+        stubFor(post(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(notMatching("(?s).*search_after.*"))
+                .willReturn(okJson(FIRST_PAGE)));
+        stubFor(post(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(matchingJsonPath("$.search_after[0]", equalTo("2")))
+                .willReturn(okJson(SECOND_PAGE)));
+
+        SearchAfterHitsIterator<Entity> iterator = template.searchAfterStream(
+                new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(PageRequest.of(0, 2)).build(), Entity.class);
+
+        List<String> ids = new ArrayList<>();
+        iterator.forEachRemaining(hit -> ids.add(hit.getContent().getId()));
+
+        assertThat(ids).containsExactly("1", "2", "3");
+        assertThat(SearchAfterCursor.decode(iterator.getCursor())).containsExactly("3");
+        verify(2, postRequestedFor(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(matchingJsonPath("$.sort[0]._id.order", equalTo("asc"))));
+    }
+
+    @Test
+    void shouldResumeFromCursor() {
+        stubFor(post(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(matchingJsonPath("$.search_after[0]", equalTo("2")))
+                .willReturn(okJson(SECOND_PAGE)));
+
+        String cursor = SearchAfterCursor.encode(Arrays.asList("2"));
+        SearchAfterHitsIterator<Entity> iterator = template.searchAfterStream(
+                new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(PageRequest.of(0, 2)).build(), Entity.class,
+                template.getIndexCoordinatesFor(Entity.class), cursor);
+
+        assertThat(iterator.getCursor()).isEqualTo(cursor);
+        assertThat(iterator.next().getContent().getId()).isEqualTo("3");
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldSortOnMappedIdPropertyWithoutChangingTheQuery() {
+        stubFor(post(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(notMatching("(?s).*search_after.*"))
+                .willReturn(okJson(FIRST_PAGE)));
+        stubFor(post(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(matchingJsonPath("$.search_after[0]", equalTo("2")))
+                .willReturn(okJson(SECOND_PAGE)));
+        NativeSearchQuery query = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(PageRequest.of(0, 2)).build();
+
+        try (SearchAfterHitsIterator<KeywordIdEntity> iterator = template.searchAfterStream(query, KeywordIdEntity.class)) {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        }
+
+        verify(2, postRequestedFor(urlPathEqualTo("/search-after/_search"))
+                .withRequestBody(matchingJsonPath("$.sort[0].id.order", equalTo("asc"))));
+        assertThat(query.getSort()).isEqualTo(Sort.unsorted());
+        assertThat(query.getSearchAfter()).isNull();
+        assertThat(query.getPageable()).isEqualTo(PageRequest.of(0, 2));
+    }
+
+    @Document(indexName = "search-after", createIndex = false)
+    static class KeywordIdEntity {
+        @Id
+        @Field(type = FieldType.Keyword)
+        private String id;
+    }
+
+    @Document(indexName = "search-after", createIndex = false)
+    static class Entity {
+        @Id
+        private String id;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+}
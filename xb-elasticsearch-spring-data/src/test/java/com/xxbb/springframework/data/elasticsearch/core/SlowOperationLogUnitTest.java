@@ -0,0 +1,140 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowOperationLogUnitTest {
+
+    private static final String PAGE = "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+            + "\"hits\":{\"total\":{\"value\":2,\"relation\":\"eq\"},\"max_score\":null,\"hits\":["
+            + "{\"_index\":\"twitter\",\"_type\":\"_doc\",\"_id\":\"%1$s\",\"_score\":null,\"_source\":{},\"sort\":[\"%1$s\"]}]}}";
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockElasticsearchServer.start();
+        stubFor(post(urlPathEqualTo("/twitter/_search")).willReturn(okJson(fixture("search-ok-multiple-hits.json"))));
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+
+        appender = new ListAppender<>();
+        appender.start();
+        Logger logger = (Logger) LoggerFactory.getLogger(SlowOperationLog.class);
+        logger.setLevel(Level.WARN);
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger logger = (Logger) LoggerFactory.getLogger(SlowOperationLog.class);
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        server.close();
+    }
+
+    @Test
+    void shouldStripLiteralsFromShape() {
+        String shape = SlowOperationLog.shape(new SearchSourceBuilder().from(10).size(20)
+                .query(QueryBuilders.boolQuery()
+                        .must(QueryBuilders.termQuery("user", "kimchy"))
+                        .filter(QueryBuilders.termsQuery("tags", "a", "b", "c"))));
+
+        assertThat(shape).doesNotContain("kimchy", "10", "20", "\"a\"").contains("user", "tags:[?]");
+        assertThat(SlowOperationLog.fingerprint(shape)).isEqualTo(SlowOperationLog.fingerprint(SlowOperationLog.shape(
+                new SearchSourceBuilder().from(0).size(5)
+                        .query(QueryBuilders.boolQuery()
+                                .must(QueryBuilders.termQuery("user", "someone else"))
+                                .filter(QueryBuilders.termsQuery("tags", "x"))))));
+    }
+
+    @Test
+    void shouldLogSlowSearchOncePerInterval() {
+        template.setSlowOperationLog(SlowOperationLog.builder().withSearchThreshold(Duration.ZERO).withInterval(Duration.ofHours(1)).build());
+
+        template.search(new NativeSearchQueryBuilder().withQuery(QueryBuilders.termQuery("user", "kimchy")).build(), Tweet.class);
+        template.search(new NativeSearchQueryBuilder().withQuery(QueryBuilders.termQuery("user", "someone else")).build(), Tweet.class);
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .startsWith("Slow search [")
+                .contains("on [twitter] by [NativeSearchQuery]", "took 52ms", "2 hits")
+                .doesNotContain("kimchy");
+    }
+
+    @Test
+    void shouldLabelWithCaller() {
+        template.setSlowOperationLog(SlowOperationLog.builder().withSearchThreshold(Duration.ZERO).withInterval(Duration.ZERO).build());
+
+        SlowOperationLog.withCaller("TweetRepository.findByUser",
+                () -> template.search(new NativeSearchQueryBuilder().withQuery(QueryBuilders.termQuery("user", "kimchy")).build(), Tweet.class));
+        template.search(new NativeSearchQueryBuilder().withQuery(QueryBuilders.termQuery("user", "kimchy")).build(), Tweet.class);
+
+        assertThat(appender.list).hasSize(2);
+        assertThat(appender.list.get(0).getFormattedMessage()).contains("by [TweetRepository.findByUser]");
+        assertThat(appender.list.get(1).getFormattedMessage()).contains("by [NativeSearchQuery]");
+    }
+
+    @Test
+    void shouldLabelPagesReadAfterTheCallerReturned() {
+        stubFor(post(urlPathEqualTo("/twitter/_search")).inScenario("pages").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(okJson(String.format(PAGE, "1"))).willSetStateTo("second"));
+        stubFor(post(urlPathEqualTo("/twitter/_search")).inScenario("pages").whenScenarioStateIs("second")
+                .willReturn(okJson(String.format(PAGE, "2"))).willSetStateTo("done"));
+        template.setSlowOperationLog(SlowOperationLog.builder().withSearchThreshold(Duration.ZERO).withInterval(Duration.ZERO).build());
+
+        SearchAfterHitsIterator<Tweet> stream = SlowOperationLog.withCaller("TweetRepository.streamAll",
+                () -> template.searchAfterStream(new NativeSearchQueryBuilder().withQuery(QueryBuilders.matchAllQuery())
+                        .withPageable(PageRequest.of(0, 1)).build(), Tweet.class));
+        stream.next();
+        stream.next();
+
+        assertThat(appender.list).hasSize(2).allSatisfy(event -> assertThat(event.getFormattedMessage())
+                .contains("by [TweetRepository.streamAll]"));
+    }
+
+    @Test
+    void shouldNotLogFastOperations() {
+        template.setSlowOperationLog(SlowOperationLog.builder().withSearchThreshold(Duration.ofMinutes(1)).build());
+
+        template.search(new NativeSearchQueryBuilder().withQuery(QueryBuilders.matchAllQuery()).build(), Tweet.class);
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    private static String fixture(String name) throws IOException {
+        return StreamUtils.copyToString(new ClassPathResource("org.springframework.data.elasticsearch/client/" + name).getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Document(indexName = "twitter", createIndex = false)
+    static class Tweet {
+        @Id
+        private String id;
+        private String message;
+    }
+}
@@ -0,0 +1,101 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamQueriesUnitTest {
+
+    @Test
+    void shouldClearScrollIdOnClose() {
+        List<String> clearedScrollIds = new ArrayList<>();
+        SearchHitsIterator<String> iterator = StreamQueries.streamResults(0,
+                page("s-1", 1, "one"),
+                scrollId -> page("s-2", 1),
+                clearedScrollIds::addAll);
+
+        List<String> contents = new ArrayList<>();
+        iterator.forEachRemaining(hit -> contents.add(hit.getContent()));
+        iterator.close();
+
+        assertThat(contents).containsExactly("one");
+        assertThat(clearedScrollIds).containsExactly("s-1", "s-2");
+    }
+
+    @Test
+    void shouldMergeAllSlices() {
+        List<String> clearedScrollIds = new CopyOnWriteArrayList<>();
+        SearchHitsIterator<String> iterator = StreamQueries.streamSlicedResults(0, 3, StreamQueries.DEFAULT_SLICE_EXECUTOR,
+                sliceId -> page("slice-" + sliceId, 2, "first-" + sliceId),
+                scrollId -> scrollId.endsWith("-next") ? page(scrollId + "-end", 2)
+                        : page(scrollId + "-next", 2, "second-" + scrollId.substring(6)),
+                clearedScrollIds::addAll);
+
+        List<String> contents = new ArrayList<>();
+        iterator.forEachRemaining(hit -> contents.add(hit.getContent()));
+        iterator.close();
+
+        assertThat(iterator.getTotalHits()).isEqualTo(6);
+        assertThat(contents).containsExactlyInAnyOrder("first-0", "first-1", "first-2", "second-0", "second-1", "second-2");
+        assertThat(clearedScrollIds).containsExactlyInAnyOrder("slice-0", "slice-0-next", "slice-0-next-end",
+                "slice-1", "slice-1-next", "slice-1-next-end", "slice-2", "slice-2-next", "slice-2-next-end");
+    }
+
+    @Test
+    void shouldStopSlicedStreamAtMaxCount() {
+        SearchHitsIterator<String> iterator = StreamQueries.streamSlicedResults(2, 2, StreamQueries.DEFAULT_SLICE_EXECUTOR,
+                sliceId -> page("slice-" + sliceId, 4, "a-" + sliceId, "b-" + sliceId),
+                scrollId -> page(scrollId, 4),
+                scrollIds -> {});
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        iterator.close();
+
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void shouldClearScrollsOfRunningSlicesWhenClosed() throws Exception {
+        List<String> scrollIds = new CopyOnWriteArrayList<>();
+        List<String> clearedScrollIds = new CopyOnWriteArrayList<>();
+        CountDownLatch clearedSlices = new CountDownLatch(2);
+        SearchHitsIterator<String> iterator = StreamQueries.streamSlicedResults(0, 2, StreamQueries.DEFAULT_SLICE_EXECUTOR,
+                sliceId -> {
+                    scrollIds.add("slice-" + sliceId);
+                    return page("slice-" + sliceId, 100, "first-" + sliceId);
+                },
+                scrollId -> {
+                    scrollIds.add(scrollId + "-next");
+                    return page(scrollId + "-next", 100, "next");
+                },
+                ids -> {
+                    clearedScrollIds.addAll(ids);
+                    clearedSlices.countDown();
+                });
+
+        iterator.next();
+        iterator.close();
+
+        assertThat(clearedSlices.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(clearedScrollIds).containsExactlyInAnyOrderElementsOf(scrollIds);
+    }
+
+    private static SearchScrollHits<String> page(String scrollId, long totalHits, String... contents) {
+        List<SearchHit<String>> hits = new ArrayList<>();
+        for (String content : contents) {
+            hits.add(new SearchHit<>(content, 1.0f, null, content, Collections.emptyMap()));
+        }
+        return new SearchHitsImpl<>(totalHits, TotalHitsRelation.EQUAL_TO, 1.0f, scrollId, hits, null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.xxbb.springframework.data.elasticsearch.core;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.DateFormat;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.annotations.TimePartitioned;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.core.query.Criteria;
+import com.xxbb.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+public class TimePartitionedIndexUnitTest {
+
+    private static final String EMPTY_HITS = "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+            + "\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[]}}";
+
+    private MockElasticsearchServer server;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+
+        template = new ElasticsearchRestTemplate(server.client().rest());
+        stubFor(post(urlPathMatching(".*/_search")).willReturn(okJson(EMPTY_HITS)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldWriteDocumentsToPartitionOfTheirTimestamp() {
+        stubFor(put(urlPathEqualTo("/logs-2020.01.15/_doc/1")).willReturn(okJson("{\"_index\":\"logs-2020.01.15\",\"_type\":\"_doc\","
+                + "\"_id\":\"1\",\"_version\":1,\"result\":\"created\",\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},"
+                + "\"_seq_no\":0,\"_primary_term\":1}")));
+        stubFor(post(urlPathEqualTo("/_bulk")).willReturn(okJson("{\"took\":1,\"errors\":false,\"items\":["
+                + "{\"index\":{\"_index\":\"logs-2020.01.15\",\"_type\":\"_doc\",\"_id\":\"2\",\"_version\":1,\"result\":\"created\",\"_seq_no\":1,\"_primary_term\":1,\"status\":201}},"
+                + "{\"index\":{\"_index\":\"logs-2020.01.16\",\"_type\":\"_doc\",\"_id\":\"3\",\"_version\":1,\"result\":\"created\",\"_seq_no\":0,\"_primary_term\":1,\"status\":201}}]}")));
+
+        template.save(entry("1", "2020-01-15T10:00:00Z"));
+        template.save(Arrays.asList(entry("2", "2020-01-15T23:59:59Z"), entry("3", "2020-01-16T00:00:00Z")));
+
+        verify(putRequestedFor(urlPathEqualTo("/logs-2020.01.15/_doc/1")));
+        verify(postRequestedFor(urlPathEqualTo("/_bulk"))
+                .withRequestBody(matching("(?s).*\"_index\":\"logs-2020.01.15\",\"_id\":\"2\".*\"_index\":\"logs-2020.01.16\",\"_id\":\"3\".*")));
+    }
+
+    @Test
+    void shouldSearchOnlyPartitionsInRangeOfTheQuery() {
+        CriteriaQuery query = new CriteriaQuery(new Criteria("timestamp")
+                .between(Instant.parse("2020-01-14T12:00:00Z"), Instant.parse("2020-01-15T12:00:00Z")));
+
+        template.search(query, LogEntry.class);
+        template.search(new NativeSearchQueryBuilder().withQuery(boolQuery().must(matchQuery("message", "error"))
+                .filter(rangeQuery("timestamp").gte("2020-01-01T00:00:00Z"))
+                .filter(rangeQuery("timestamp").lt("2020-03-01T00:00:00Z"))).build(), LogEntry.class);
+
+        verify(postRequestedFor(urlPathEqualTo("/logs-2020.01.14,logs-2020.01.15/_search"))
+                .withQueryParam("ignore_unavailable", equalTo("true")));
+        verify(postRequestedFor(urlPathEqualTo("/logs-2020.01.*,logs-2020.02.*,logs-2020.03.01/_search")));
+    }
+
+    @Test
+    void shouldSearchAllPartitionsUnlessTheQueryBoundsTheTimestamp() {
+        template.search(new NativeSearchQueryBuilder().withQuery(rangeQuery("timestamp").gte("2020-01-01T00:00:00Z")).build(), LogEntry.class);
+        template.search(new NativeSearchQueryBuilder().withQuery(boolQuery()
+                .should(rangeQuery("timestamp").gte("2020-01-01T00:00:00Z").lt("2020-01-02T00:00:00Z"))
+                .should(termQuery("message", "error"))).build(), LogEntry.class);
+
+        verify(2, postRequestedFor(urlPathEqualTo("/logs-*/_search")).withQueryParam("ignore_unavailable", equalTo("false")));
+    }
+
+    @Test
+    void shouldReadBoundsWithoutOffsetInTheTimeZoneOfTheQuery() {
+        template.search(new NativeSearchQueryBuilder().withQuery(rangeQuery("timestamp").gte("2020-01-15").lte("2020-01-15")).build(),
+                BerlinLogEntry.class);
+        template.search(new NativeSearchQueryBuilder().withQuery(rangeQuery("timestamp").gte("2020-01-15T00:00:00")
+                .lte("2020-01-15T23:59:59").timeZone("Europe/Berlin")).build(), BerlinLogEntry.class);
+
+        // without a time zone the day is a UTC day, it ends at one in the morning in Berlin
+        verify(postRequestedFor(urlPathEqualTo("/berlin-logs-2020.01.15,berlin-logs-2020.01.16/_search")));
+        verify(postRequestedFor(urlPathEqualTo("/berlin-logs-2020.01.15/_search")));
+    }
+
+    @Test
+    void shouldPutIndexTemplateForPartitions() {
+        stubFor(put(urlPathEqualTo("/_template/logs")).willReturn(okJson("{\"acknowledged\":true}")));
+
+        template.indexOps(LogEntry.class).putTemplate();
+
+        verify(putRequestedFor(urlPathEqualTo("/_template/logs"))
+                .withRequestBody(matchingJsonPath("$.index_patterns[0]", equalTo("logs-*")))
+                .withRequestBody(matchingJsonPath("$.mappings.properties.timestamp.type", equalTo("date")))
+                .withRequestBody(matchingJsonPath("$.settings.index.number_of_shards", equalTo("1"))));
+    }
+
+    private static LogEntry entry(String id, String timestamp) {
+        LogEntry entry = new LogEntry();
+        entry.id = id;
+        entry.timestamp = Instant.parse(timestamp);
+        entry.message = "message " + id;
+        return entry;
+    }
+
+    @Document(indexName = "logs", createIndex = false)
+    @TimePartitioned(property = "timestamp")
+    static class LogEntry {
+        @Id
+        private String id;
+        @Field(type = FieldType.Date, format = DateFormat.date_time)
+        private Instant timestamp;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+
+    @Document(indexName = "berlin-logs", createIndex = false)
+    @TimePartitioned(property = "timestamp", zone = "Europe/Berlin")
+    static class BerlinLogEntry {
+        @Id
+        private String id;
+        @Field(type = FieldType.Date, format = DateFormat.date_time)
+        private Instant timestamp;
+    }
+}
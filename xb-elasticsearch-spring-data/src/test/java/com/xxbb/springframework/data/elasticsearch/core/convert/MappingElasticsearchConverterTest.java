@@ -7,6 +7,7 @@ import com.xxbb.springframework.data.elasticsearch.core.document.Document;
 import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
 import com.xxbb.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 import lombok.*;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -613,6 +614,69 @@ public class MappingElasticsearchConverterTest {
         return sink;
     }
 
+    @Test
+    public void shouldStreamSameJsonAsMapBasedWrite() {
+        sarahConnor.firstName = "Sarah";
+        sarahConnor.birthDate = LocalDate.of(1965, 5, 13);
+        sarahConnor.address = observatoryRoad;
+        sarahConnor.coWorker = Arrays.asList(kyleReese, t800);
+        sarahConnor.inventoryList = Arrays.asList(gun, grenade, rifle, shotGun);
+        sarahConnor.inventoryMap = Collections.singletonMap("backup", shotGun);
+        sarahConnor.shippingAddress = Collections.singletonMap("work", bigBunsCafe);
+
+        EntityWithNullField entityWithNullField = new EntityWithNullField();
+        entityWithNullField.setId("42");
+
+        for (Object source : Arrays.asList(sarahConnor, shotGun, entityWithNullField, new SchemaLessObjectWrapper(notificationAsMap), notificationAsMap)) {
+            String expected = mappingElasticsearchConverter.mapObject(source).toJson();
+
+            assertThat(mappingElasticsearchConverter.mapObjectToBytes(source).utf8ToString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void shouldReadEntityFromUnparsedSource() {
+        sarahAsMap.put("birth-date", "13.05.1965");
+        sarahAsMap.put("address", Collections.singletonMap("city", "Los Angeles"));
+        sarahAsMap.put("inventoryList", Arrays.asList(gunAsMap, grenadeAsMap));
+        sarahAsMap.put("unmapped", Collections.singletonMap("nested", Arrays.asList(1, 2, 3)));
+        Document document = Document.from(new BytesArray(sarahAsMap.toJson()));
+
+        Person person = mappingElasticsearchConverter.read(Person.class, document);
+
+        assertThat(person).isEqualTo(mappingElasticsearchConverter.read(Person.class, sarahAsMap));
+        assertThat(person.getBirthDate()).isEqualTo(LocalDate.of(1965, 5, 13));
+        assertThat(person.getInventoryList()).containsExactly(gun, grenade);
+        assertThat(document).containsKey("unmapped");
+    }
+
+    @Test
+    public void shouldReadPolymorphicEntityFromUnparsedSource() {
+        assertThat(mappingElasticsearchConverter.read(Inventory.class, Document.from(new BytesArray(rifleAsMap.toJson())))).isEqualTo(rifle);
+        assertThat(mappingElasticsearchConverter.read(Inventory.class, Document.from(new BytesArray(shotGunAsMap.toJson())))).isEqualTo(shotGun);
+    }
+    @Test
+    public void shouldConvertSameWithAndWithoutConversionPlans() {
+        sarahConnor.firstName = "Sarah";
+        sarahConnor.birthDate = LocalDate.of(1965, 5, 13);
+        sarahConnor.address = observatoryRoad;
+        sarahConnor.coWorker = Arrays.asList(kyleReese, t800);
+        sarahConnor.inventoryList = Arrays.asList(gun, grenade, rifle, shotGun);
+        sarahConnor.inventoryMap = Collections.singletonMap("backup", shotGun);
+        sarahConnor.shippingAddress = Collections.singletonMap("work", bigBunsCafe);
+
+        assertThat(mappingElasticsearchConverter.isConversionPlansEnabled()).isTrue();
+        Document planned = mappingElasticsearchConverter.mapObject(sarahConnor);
+        Person plannedRead = mappingElasticsearchConverter.read(Person.class, planned);
+
+        mappingElasticsearchConverter.setConversionPlansEnabled(false);
+        Document reflective = mappingElasticsearchConverter.mapObject(sarahConnor);
+        Person reflectiveRead = mappingElasticsearchConverter.read(Person.class, reflective);
+
+        assertThat(planned.toJson()).isEqualTo(reflective.toJson());
+        assertThat(plannedRead).isEqualTo(reflectiveRead);
+        assertThat(plannedRead.getBirthDate()).isEqualTo(sarahConnor.getBirthDate());
+    }
 
 
     public static class Sample {
@@ -0,0 +1,69 @@
+package com.xxbb.springframework.data.elasticsearch.core.index;
+
+import com.xxbb.springframework.data.elasticsearch.core.document.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class MappingDiffUnitTest {
+
+    private static final String LIVE = "{\"properties\":{"
+            + "\"message\":{\"type\":\"text\",\"analyzer\":\"standard\"},"
+            + "\"user\":{\"properties\":{\"name\":{\"type\":\"keyword\"}}},"
+            + "\"title\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"}}},"
+            + "\"legacy\":{\"type\":\"long\"}}}";
+
+    @Test
+    void shouldBeEmptyForSameMapping() {
+        MappingDiff diff = MappingDiff.compute(Document.parse(LIVE), Document.parse(LIVE));
+
+        assertThat(diff.hasAdditions()).isFalse();
+        assertThat(diff.hasConflicts()).isFalse();
+        assertThat(diff.getAdditions()).isEmpty();
+    }
+
+    @Test
+    void shouldPutOnlyMissingFields() {
+        String desired = "{\"properties\":{"
+                + "\"message\":{\"type\":\"text\",\"analyzer\":\"standard\"},"
+                + "\"user\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"keyword\"},\"age\":{\"type\":\"integer\"}}},"
+                + "\"title\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"},\"english\":{\"type\":\"text\",\"analyzer\":\"english\"}}},"
+                + "\"created\":{\"type\":\"date\",\"format\":\"basic_date\"}}}";
+
+        MappingDiff diff = MappingDiff.compute(Document.parse(LIVE), Document.parse(desired));
+
+        assertThat(diff.hasConflicts()).isFalse();
+        assertThat(diff.getAdditions()).isEqualTo(Document.parse("{\"properties\":{"
+                + "\"user\":{\"type\":\"object\",\"properties\":{\"age\":{\"type\":\"integer\"}}},"
+                + "\"title\":{\"type\":\"text\",\"fields\":{\"english\":{\"type\":\"text\",\"analyzer\":\"english\"}}},"
+                + "\"created\":{\"type\":\"date\",\"format\":\"basic_date\"}}}"));
+    }
+
+    @Test
+    void shouldReportIncompatibleChanges() {
+        String desired = "{\"properties\":{"
+                + "\"message\":{\"type\":\"text\",\"analyzer\":\"english\"},"
+                + "\"user\":{\"type\":\"nested\",\"properties\":{\"name\":{\"type\":\"keyword\"}}},"
+                + "\"title\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"text\"}}},"
+                + "\"legacy\":{\"type\":\"long\"},"
+                + "\"created\":{\"type\":\"date\"}}}";
+
+        MappingDiff diff = MappingDiff.compute(Document.parse(LIVE), Document.parse(desired));
+
+        assertThat(diff.getConflicts()).extracting(MappingDiff.Conflict::getPath, MappingDiff.Conflict::getParameter,
+                MappingDiff.Conflict::getLiveValue, MappingDiff.Conflict::getDesiredValue)
+                .containsExactly(tuple("message", "analyzer", "standard", "english"), tuple("user", "type", "object", "nested"),
+                        tuple("title.raw", "type", "keyword", "text"));
+        assertThat(diff.getAdditions()).isEqualTo(Document.parse("{\"properties\":{\"created\":{\"type\":\"date\"}}}"));
+    }
+
+    @Test
+    void shouldAddEverythingToEmptyMapping() {
+        MappingDiff diff = MappingDiff.compute(Collections.emptyMap(), Document.parse(LIVE));
+
+        assertThat(diff.getAdditions()).isEqualTo(Document.parse(LIVE));
+    }
+}
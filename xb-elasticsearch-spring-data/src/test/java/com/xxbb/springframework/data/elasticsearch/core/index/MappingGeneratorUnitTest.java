@@ -0,0 +1,99 @@
+package com.xxbb.springframework.data.elasticsearch.core.index;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.client.ClientConfiguration;
+import com.xxbb.springframework.data.elasticsearch.client.RestClients;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.core.IndexOperations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.annotation.Id;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappingGeneratorUnitTest {
+
+    private RestClients.ElasticsearchRestClient client;
+    private ElasticsearchRestTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        client = RestClients.create(ClientConfiguration.create("localhost:9200"));
+        template = new ElasticsearchRestTemplate(client.rest());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBuildMappingAndSettingsOncePerEntity() {
+        IndexOperations indexOperations = template.indexOps(Tweet.class);
+
+        com.xxbb.springframework.data.elasticsearch.core.document.Document mapping = indexOperations.createMapping();
+        ((Map<String, Object>) mapping.get("properties")).clear();
+        indexOperations.createSettings().put("index.number_of_shards", "7");
+
+        assertThat((Map<String, Object>) template.indexOps(Tweet.class).createMapping().get("properties")).containsKey("message");
+        assertThat(template.indexOps(Tweet.class).createSettings()).containsEntry("index.number_of_shards", "2");
+        assertThat(template.indexOps(Tweet.class).createMapping()).isNotSameAs(template.indexOps(Tweet.class).createMapping());
+    }
+
+    @Test
+    void shouldGenerateTheMappingTheBuilderBuilds(@TempDir Path directory) throws IOException {
+        List<Path> files = new MappingGenerator(template.getElasticsearchConverter())
+                .generate(directory, MappingGenerator.findEntities(Collections.singletonList(Tweet.class.getName())));
+
+        assertThat(files).containsExactly(directory.resolve(MappingGenerator.LOCATION + Tweet.class.getName() + ".json"));
+        assertThat(new String(Files.readAllBytes(files.get(0)), StandardCharsets.UTF_8))
+                .isEqualTo(new MappingBuilder(template.getElasticsearchConverter()).buildPropertyMapping(Tweet.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPreferGeneratedMappingWhenEnabled() {
+        template.setGeneratedMappingsEnabled(true);
+        Map<String, Object> properties = (Map<String, Object>) template.indexOps(GeneratedTweet.class).createMapping().get("properties");
+
+        assertThat((Map<String, Object>) properties.get("message")).containsEntry("analyzer", "generated");
+        assertThat(MappingGenerator.readGeneratedMapping(Tweet.class)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBuildMappingUnlessGeneratedMappingsAreEnabled() {
+        Map<String, Object> properties = (Map<String, Object>) template.indexOps(GeneratedTweet.class).createMapping().get("properties");
+
+        assertThat((Map<String, Object>) properties.get("message")).doesNotContainKey("analyzer");
+    }
+
+    @Document(indexName = "tweets", shards = 2)
+    static class Tweet {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+
+    @Document(indexName = "generated-tweets")
+    static class GeneratedTweet {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+}
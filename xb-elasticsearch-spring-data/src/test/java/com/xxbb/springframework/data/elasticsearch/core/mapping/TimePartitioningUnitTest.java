@@ -0,0 +1,86 @@
+package com.xxbb.springframework.data.elasticsearch.core.mapping;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.DateFormat;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.annotations.PartitionInterval;
+import com.xxbb.springframework.data.elasticsearch.annotations.TimePartitioned;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mapping.MappingException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TimePartitioningUnitTest {
+
+    private final SimpleElasticsearchMappingContext context = new SimpleElasticsearchMappingContext();
+
+    @Test
+    void shouldWriteToPartitionOfTimestamp() {
+        ElasticsearchPersistentEntity<?> entity = context.getRequiredPersistentEntity(LogEntry.class);
+        ElasticsearchPersistentEntity<?> berlinEntity = context.getRequiredPersistentEntity(BerlinLogEntry.class);
+        LogEntry entry = new LogEntry();
+        entry.timestamp = Instant.parse("2020-01-15T23:30:00Z");
+        BerlinLogEntry berlinEntry = new BerlinLogEntry();
+        berlinEntry.day = LocalDate.of(2020, 1, 15);
+
+        assertThat(entity.getIndexCoordinates().getIndexNames()).containsExactly("logs-*");
+        assertThat(entity.getTimePartitioning().getTemplateName(entity.getIndexCoordinates())).isEqualTo("logs");
+        assertThat(entity.getTimePartitioning().getPartition(entity.getIndexCoordinates(), entry).getIndexName())
+                .isEqualTo("logs-2020.01.15");
+        assertThat(berlinEntity.getTimePartitioning().getPartition(berlinEntity.getIndexCoordinates(), berlinEntry).getIndexName())
+                .isEqualTo("berlin-2020.01");
+        assertThat(berlinEntity.getTimePartitioning().toInstant("2020-01-15")).isEqualTo(Instant.parse("2020-01-15T00:00:00Z"));
+        assertThat(berlinEntity.getTimePartitioning().toInstant("2020-01-15", ZoneId.of("Europe/Berlin"), true))
+                .isEqualTo(Instant.parse("2020-01-15T22:59:59.999Z"));
+    }
+
+    @Test
+    void shouldCollapseWholeMonthsAndYearsIntoWildcards() {
+        ElasticsearchPersistentEntity<?> entity = context.getRequiredPersistentEntity(LogEntry.class);
+
+        IndexCoordinates partitions = entity.getTimePartitioning().getPartitions(entity.getIndexCoordinates(),
+                Instant.parse("2019-12-30T12:00:00Z"), Instant.parse("2021-02-02T00:00:00Z"));
+
+        assertThat(partitions.getIndexNames()).containsExactly("logs-2019.12.30", "logs-2019.12.31", "logs-2020.*", "logs-2021.01.*",
+                "logs-2021.02.01", "logs-2021.02.02");
+    }
+
+    @Test
+    void shouldRejectPartitionPropertyThatIsNoPointInTime() {
+        assertThatThrownBy(() -> context.getRequiredPersistentEntity(WrongPartitionProperty.class))
+                .isInstanceOf(MappingException.class).hasMessageContaining("message");
+    }
+
+    @Document(indexName = "logs")
+    @TimePartitioned(property = "timestamp")
+    static class LogEntry {
+        @Id
+        private String id;
+        @Field(type = FieldType.Date, format = DateFormat.date_time)
+        private Instant timestamp;
+    }
+
+    @Document(indexName = "berlin")
+    @TimePartitioned(property = "day", interval = PartitionInterval.MONTH, zone = "Europe/Berlin")
+    static class BerlinLogEntry {
+        @Id
+        private String id;
+        @Field(type = FieldType.Date, format = DateFormat.date)
+        private LocalDate day;
+    }
+
+    @Document(indexName = "wrong")
+    @TimePartitioned(property = "message")
+    static class WrongPartitionProperty {
+        @Id
+        private String id;
+        private String message;
+    }
+}
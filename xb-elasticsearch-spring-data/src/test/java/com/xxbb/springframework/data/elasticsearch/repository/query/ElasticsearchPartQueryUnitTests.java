@@ -0,0 +1,180 @@
+package com.xxbb.springframework.data.elasticsearch.repository.query;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.DeleteByQuery;
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.core.DeleteByQueryResult;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.core.SearchAfterHitsIterator;
+import com.xxbb.springframework.data.elasticsearch.core.SearchHit;
+import com.xxbb.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteByQueryOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.elasticsearch.action.support.WriteRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ElasticsearchPartQueryUnitTests {
+    @Mock
+    ElasticsearchOperations operations;
+    @Mock
+    SearchAfterHitsIterator<Person> iterator;
+
+    ElasticsearchConverter converter;
+
+    @BeforeEach
+    public void setUp() {
+        converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        when(operations.getElasticsearchConverter()).thenReturn(converter);
+        lenient().when(operations.getIndexCoordinatesFor(Person.class)).thenReturn(IndexCoordinates.of("test-index-person-part"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldFetchUnpagedCollectionInOneSearchWithoutCounting() throws NoSuchMethodException {
+        when(operations.searchAfterStream(any(Query.class), eq(Person.class), any(IndexCoordinates.class))).thenReturn(iterator);
+        when(iterator.hasNext()).thenReturn(true, true, false);
+        when(iterator.next()).thenReturn(hit("1"), hit("2"));
+
+        List<Person> result = (List<Person>) partQuery("findByName", 10).execute(new Object[] { "luke" });
+
+        assertThat(result).extracting(Person::getId).containsExactly("1", "2");
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(operations).searchAfterStream(captor.capture(), eq(Person.class), any(IndexCoordinates.class));
+        assertThat(captor.getValue().getPageable().getPageSize()).isEqualTo(500);
+        verify(operations, never()).count(any(Query.class), any(), any(IndexCoordinates.class));
+        verify(iterator).close();
+    }
+
+    @Test
+    public void shouldRejectCollectionLargerThanMaxResults() throws NoSuchMethodException {
+        when(operations.searchAfterStream(any(Query.class), eq(Person.class), any(IndexCoordinates.class))).thenReturn(iterator);
+        when(iterator.hasNext()).thenReturn(true);
+        when(iterator.next()).thenReturn(hit("1"));
+
+        ElasticsearchPartQuery partQuery = partQuery("findByName", 1);
+
+        assertThatThrownBy(() -> partQuery.execute(new Object[] { "luke" })).isInstanceOf(InvalidDataAccessApiUsageException.class);
+        verify(iterator).close();
+    }
+
+    @Test
+    public void shouldRunAnnotatedDeleteAsPureDeleteByQuery() throws NoSuchMethodException {
+        when(operations.delete(any(Query.class), eq(Person.class), any(IndexCoordinates.class), any(DeleteByQueryOptions.class)))
+                .thenReturn(DeleteByQueryResult.of(42));
+
+        Object result = partQuery("deleteByName", 10).execute(new Object[] { "luke" });
+
+        assertThat(result).isEqualTo(42L);
+        ArgumentCaptor<DeleteByQueryOptions> captor = ArgumentCaptor.forClass(DeleteByQueryOptions.class);
+        verify(operations).delete(any(Query.class), eq(Person.class), any(IndexCoordinates.class), captor.capture());
+        assertThat(captor.getValue().isRefresh()).isFalse();
+        assertThat(captor.getValue().isWaitForCompletion()).isTrue();
+        verify(operations, never()).search(any(Query.class), any(), any(IndexCoordinates.class));
+        verify(operations, never()).count(any(Query.class), any(), any(IndexCoordinates.class));
+        verify(operations, never()).indexOps(any(Class.class));
+    }
+
+    @Test
+    public void shouldReturnTaskIdForAsyncDeleteByQuery() throws NoSuchMethodException {
+        when(operations.delete(any(Query.class), eq(Person.class), any(IndexCoordinates.class), any(DeleteByQueryOptions.class)))
+                .thenReturn(DeleteByQueryResult.ofTask("node:1"));
+
+        Object result = partQuery("removeByName", 10).execute(new Object[] { "luke" });
+
+        assertThat(result).isEqualTo("node:1");
+    }
+
+    @Test
+    public void shouldRefreshDerivedDeleteByRefreshPolicyOfRepository() throws NoSuchMethodException {
+        when(operations.delete(any(Query.class), eq(Person.class), any(IndexCoordinates.class), any(DeleteByQueryOptions.class)))
+                .thenReturn(DeleteByQueryResult.of(3));
+        Method method = SampleRepository.class.getMethod("deleteByNameLike", String.class);
+
+        Object result = new ElasticsearchPartQuery(queryMethod(method), operations, 10, WriteRequest.RefreshPolicy.NONE)
+                .execute(new Object[] { "luke" });
+
+        assertThat(result).isEqualTo(3L);
+        ArgumentCaptor<DeleteByQueryOptions> captor = ArgumentCaptor.forClass(DeleteByQueryOptions.class);
+        verify(operations).delete(any(Query.class), eq(Person.class), any(IndexCoordinates.class), captor.capture());
+        assertThat(captor.getValue().isRefresh()).isFalse();
+    }
+
+    @Test
+    public void shouldRejectNumericReturnTypeOfDeleteByQueryTask() throws NoSuchMethodException {
+        assertThatThrownBy(() -> partQuery("removeByNameLike", 10)).isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessageContaining("task id");
+    }
+
+    private ElasticsearchPartQuery partQuery(String name, int maxCollectionQueryResults) throws NoSuchMethodException {
+        Method method = SampleRepository.class.getMethod(name, String.class);
+        return new ElasticsearchPartQuery(queryMethod(method), operations, maxCollectionQueryResults);
+    }
+
+    private ElasticsearchQueryMethod queryMethod(Method method) {
+        return new ElasticsearchQueryMethod(method, new DefaultRepositoryMetadata(SampleRepository.class),
+                new SpelAwareProxyProjectionFactory(), converter.getMappingContext());
+    }
+
+    private static SearchHit<Person> hit(String id) {
+        return new SearchHit<>(id, 1.0f, null, new Person(id), Collections.emptyMap());
+    }
+
+    private interface SampleRepository extends Repository<Person, String> {
+        List<Person> findByName(String name);
+
+        @DeleteByQuery
+        long deleteByName(String name);
+
+        @DeleteByQuery(waitForCompletion = false)
+        String removeByName(String name);
+
+        long deleteByNameLike(String name);
+
+        @DeleteByQuery(waitForCompletion = false)
+        long removeByNameLike(String name);
+    }
+
+    @Document(indexName = "test-index-person-part", createIndex = false)
+    static class Person {
+        @Id
+        private String id;
+        private String name;
+
+        Person() {}
+
+        Person(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
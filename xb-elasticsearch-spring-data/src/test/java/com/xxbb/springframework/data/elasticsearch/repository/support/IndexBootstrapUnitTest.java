@@ -0,0 +1,246 @@
+package com.xxbb.springframework.data.elasticsearch.repository.support;
+
+import com.xxbb.springframework.data.elasticsearch.annotations.Document;
+import com.xxbb.springframework.data.elasticsearch.annotations.Field;
+import com.xxbb.springframework.data.elasticsearch.annotations.FieldType;
+import com.xxbb.springframework.data.elasticsearch.annotations.TimePartitioned;
+import com.xxbb.springframework.data.elasticsearch.client.MockElasticsearchServer;
+import com.xxbb.springframework.data.elasticsearch.client.RestClients;
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import com.xxbb.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class IndexBootstrapUnitTest {
+
+    private MockElasticsearchServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockElasticsearchServer.start();
+        stubFor(put(urlPathMatching("/[a-z]+")).willReturn(okJson("{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"x\"}")));
+        stubFor(put(urlPathMatching("/[a-z]+/_mapping")).willReturn(okJson("{\"acknowledged\":true}")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldCreateIndicesAfterAllRepositoriesExist() throws IOException {
+        stubFor(head(urlPathEqualTo("/tweets")).willReturn(aResponse().withStatus(200)));
+        stubFor(head(urlPathEqualTo("/users")).willReturn(aResponse().withStatus(404)));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            ElasticsearchRepositoryFactory factory = new ElasticsearchRepositoryFactory(new ElasticsearchRestTemplate(client.rest()));
+            factory.setIndexBootstrap(bootstrap);
+            factory.getRepository(TweetRepository.class);
+            factory.getRepository(OtherTweetRepository.class);
+            factory.getRepository(UserRepository.class);
+            factory.getRepository(LogRepository.class);
+
+            verify(0, headRequestedFor(anyUrl()));
+            bootstrap.afterSingletonsInstantiated();
+        } finally {
+            bootstrap.destroy();
+        }
+
+        // both tweet repositories share one check, the log entity does not want its index created
+        verify(1, headRequestedFor(urlPathEqualTo("/tweets")));
+        verify(0, putRequestedFor(urlPathEqualTo("/tweets")));
+        verify(putRequestedFor(urlPathEqualTo("/users")));
+        verify(putRequestedFor(urlPathEqualTo("/users/_mapping")));
+        verify(0, headRequestedFor(urlPathEqualTo("/logs")));
+
+        IndexBootstrap.Report report = bootstrap.getLastReport();
+        assertThat(report).isNotNull();
+        assertThat(report.count(IndexBootstrap.Outcome.EXISTED)).isEqualTo(1);
+        assertThat(report.count(IndexBootstrap.Outcome.CREATED)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportIndicesNotDoneInTime() throws IOException {
+        stubFor(head(urlPathEqualTo("/tweets")).willReturn(aResponse().withStatus(200).withFixedDelay(2000)));
+        stubFor(head(urlPathEqualTo("/users")).willReturn(aResponse().withStatus(200)));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().withTimeout(Duration.ofMillis(500)).build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client.rest());
+            bootstrap.register(template, Tweet.class);
+            bootstrap.register(template, User.class);
+            bootstrap.afterSingletonsInstantiated();
+        } finally {
+            bootstrap.destroy();
+        }
+
+        IndexBootstrap.Report report = bootstrap.getLastReport();
+        assertThat(report.getDuration()).isLessThan(Duration.ofMillis(2000));
+        assertThat(report.getResults()).extracting(IndexBootstrap.Result::getIndexName, IndexBootstrap.Result::getOutcome)
+                .containsExactly(tuple("tweets", IndexBootstrap.Outcome.TIMED_OUT), tuple("users", IndexBootstrap.Outcome.EXISTED));
+    }
+
+    @Test
+    void shouldCreateIndexOfLateRepositoryRightAway() throws IOException {
+        stubFor(head(urlPathEqualTo("/users")).willReturn(aResponse().withStatus(404)));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().build();
+        bootstrap.afterSingletonsInstantiated();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            bootstrap.register(new ElasticsearchRestTemplate(client.rest()), User.class);
+        } finally {
+            bootstrap.destroy();
+        }
+
+        verify(putRequestedFor(urlPathEqualTo("/users/_mapping")));
+        assertThat(bootstrap.getLastReport().count(IndexBootstrap.Outcome.CREATED)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCreateIndicesInBackgroundWithOneThread() throws Exception {
+        stubFor(head(urlPathMatching("/[a-z]+")).willReturn(aResponse().withStatus(404)));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().withMode(IndexBootstrap.Mode.BACKGROUND).withConcurrency(1)
+                .withTimeout(Duration.ofSeconds(5)).build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client.rest());
+            bootstrap.register(template, Tweet.class);
+            bootstrap.register(template, User.class);
+            bootstrap.afterSingletonsInstantiated();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (bootstrap.getLastReport() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            bootstrap.destroy();
+        }
+
+        IndexBootstrap.Report report = bootstrap.getLastReport();
+        assertThat(report).isNotNull();
+        assertThat(report.getResults()).extracting(IndexBootstrap.Result::getOutcome)
+                .containsExactly(IndexBootstrap.Outcome.CREATED, IndexBootstrap.Outcome.CREATED);
+        verify(putRequestedFor(urlPathEqualTo("/tweets/_mapping")));
+        verify(putRequestedFor(urlPathEqualTo("/users/_mapping")));
+    }
+
+    @Test
+    void shouldPutMissingFieldsAndReportConflicts() throws IOException {
+        stubFor(head(urlPathMatching("/[a-z]+")).willReturn(aResponse().withStatus(200)));
+        stubFor(get(urlPathEqualTo("/tweets/_mapping")).willReturn(okJson(
+                "{\"tweets\":{\"mappings\":{\"properties\":{\"message\":{\"type\":\"keyword\"}}}}}")));
+        stubFor(get(urlPathEqualTo("/users/_mapping")).willReturn(okJson("{\"users\":{\"mappings\":{}}}")));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().withMappingsReconciled(true).build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client.rest());
+            bootstrap.register(template, Tweet.class);
+            bootstrap.register(template, User.class);
+            bootstrap.afterSingletonsInstantiated();
+        } finally {
+            bootstrap.destroy();
+        }
+
+        verify(0, putRequestedFor(urlPathEqualTo("/tweets/_mapping")));
+        verify(putRequestedFor(urlPathEqualTo("/users/_mapping")).withRequestBody(matchingJsonPath("$.properties.name.type", equalTo("text"))));
+
+        IndexBootstrap.Report report = bootstrap.getLastReport();
+        assertThat(report.isHealthy()).isFalse();
+        assertThat(report.getResults()).extracting(IndexBootstrap.Result::getOutcome)
+                .containsExactly(IndexBootstrap.Outcome.CONFLICTED, IndexBootstrap.Outcome.UPDATED);
+        assertThat(report.getResults().get(0).getConflicts()).extracting(Object::toString).containsExactly("message.type: keyword -> text");
+    }
+
+    @Test
+    void shouldPutTemplateOfTimePartitionedEntity() throws IOException {
+        stubFor(head(urlPathEqualTo("/_template/events")).willReturn(aResponse().withStatus(404)));
+        stubFor(put(urlPathEqualTo("/_template/events")).willReturn(okJson("{\"acknowledged\":true}")));
+        IndexBootstrap bootstrap = IndexBootstrap.builder().build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            bootstrap.register(new ElasticsearchRestTemplate(client.rest()), Event.class);
+            bootstrap.afterSingletonsInstantiated();
+        } finally {
+            bootstrap.destroy();
+        }
+
+        verify(putRequestedFor(urlPathEqualTo("/_template/events"))
+                .withRequestBody(matchingJsonPath("$.index_patterns[0]", equalTo("events-*"))));
+        verify(0, headRequestedFor(urlPathMatching("/events.*")));
+        verify(0, putRequestedFor(urlPathMatching("/events.*")));
+        assertThat(bootstrap.getLastReport().getResults()).extracting(IndexBootstrap.Result::getIndexName, IndexBootstrap.Result::getOutcome)
+                .containsExactly(tuple("events-*", IndexBootstrap.Outcome.CREATED));
+    }
+
+    @Test
+    void shouldSkipIndexCreation() throws IOException {
+        IndexBootstrap bootstrap = IndexBootstrap.builder().withMode(IndexBootstrap.Mode.SKIP).build();
+
+        RestClients.ElasticsearchRestClient client = server.client();
+        try {
+            bootstrap.register(new ElasticsearchRestTemplate(client.rest()), User.class);
+            bootstrap.afterSingletonsInstantiated();
+        } finally {
+            bootstrap.destroy();
+        }
+
+        verify(0, headRequestedFor(anyUrl()));
+        assertThat(bootstrap.getLastReport()).isNull();
+    }
+
+    interface TweetRepository extends ElasticsearchRepository<Tweet, String> {}
+
+    interface OtherTweetRepository extends ElasticsearchRepository<Tweet, String> {}
+
+    interface UserRepository extends ElasticsearchRepository<User, String> {}
+
+    interface LogRepository extends ElasticsearchRepository<Log, String> {}
+
+    @Document(indexName = "tweets")
+    static class Tweet {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String message;
+    }
+
+    @Document(indexName = "users")
+    static class User {
+        @Id
+        private String id;
+        @Field(type = FieldType.Text)
+        private String name;
+    }
+
+    @Document(indexName = "logs", createIndex = false)
+    static class Log {
+        @Id
+        private String id;
+    }
+
+    @Document(indexName = "events")
+    @TimePartitioned(property = "created")
+    static class Event {
+        @Id
+        private String id;
+        private Date created;
+    }
+}
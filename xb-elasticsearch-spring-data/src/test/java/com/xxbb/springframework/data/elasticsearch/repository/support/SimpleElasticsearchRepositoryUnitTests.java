@@ -0,0 +1,131 @@
+package com.xxbb.springframework.data.elasticsearch.repository.support;
+
+import com.xxbb.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import com.xxbb.springframework.data.elasticsearch.core.SearchHit;
+import com.xxbb.springframework.data.elasticsearch.core.SearchHitsIterator;
+import com.xxbb.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import com.xxbb.springframework.data.elasticsearch.core.query.BulkOptions;
+import com.xxbb.springframework.data.elasticsearch.core.query.DeleteQuery;
+import com.xxbb.springframework.data.elasticsearch.core.query.Query;
+import org.elasticsearch.action.support.WriteRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SimpleElasticsearchRepositoryUnitTests {
+    @Mock
+    ElasticsearchOperations operations;
+    @Mock
+    ElasticsearchEntityInformation<String, String> entityInformation;
+    @Mock
+    SearchHitsIterator<String> searchHitsIterator;
+
+    SimpleElasticsearchRepository<String, String> repository;
+
+    @BeforeEach
+    public void setUp() {
+        when(entityInformation.getJavaType()).thenReturn(String.class);
+        when(operations.getIndexCoordinatesFor(String.class)).thenReturn(IndexCoordinates.of("test-index"));
+        repository = new SimpleElasticsearchRepository<>(entityInformation, operations);
+    }
+
+    @Test
+    public void shouldStreamFindAllInBatchesAndCloseTheScroll() {
+        when(operations.searchForStream(any(Query.class), eq(String.class), any(IndexCoordinates.class))).thenReturn(searchHitsIterator);
+        when(searchHitsIterator.hasNext()).thenReturn(true, true, false);
+        when(searchHitsIterator.next()).thenReturn(hit("one"), hit("two"));
+
+        Iterable<String> result = repository.findAll(Sort.by("name"));
+        verify(operations, never()).searchForStream(any(Query.class), any(), any(IndexCoordinates.class));
+
+        List<String> contents = new ArrayList<>();
+        result.forEach(contents::add);
+
+        assertThat(contents).containsExactly("one", "two");
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(operations).searchForStream(captor.capture(), eq(String.class), any(IndexCoordinates.class));
+        assertThat(captor.getValue().getPageable().getPageSize()).isEqualTo(500);
+        assertThat(captor.getValue().getSort()).isEqualTo(Sort.by("name"));
+        verify(searchHitsIterator).close();
+        verify(operations, never()).count(any(Query.class), any(), any(IndexCoordinates.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldDeleteAllIdsInOneBulkWithConfiguredRefreshPolicy() {
+        when(operations.stringIdRepresentation(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        repository.setRefreshPolicy(WriteRequest.RefreshPolicy.NONE);
+
+        repository.deleteAllById(Arrays.asList("1", "2", "3"));
+
+        ArgumentCaptor<List<DeleteQuery>> queries = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkOptions> bulkOptions = ArgumentCaptor.forClass(BulkOptions.class);
+        verify(operations).bulkDelete(queries.capture(), bulkOptions.capture(), any(IndexCoordinates.class));
+        assertThat(queries.getValue()).extracting(DeleteQuery::getId).containsExactly("1", "2", "3");
+        assertThat(bulkOptions.getValue().getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.NONE);
+        verify(operations, never()).indexOps(any(IndexCoordinates.class));
+    }
+
+    @Test
+    public void shouldDeleteSingleIdWithoutSeparateRefresh() {
+        when(operations.stringIdRepresentation(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        repository.deleteById("1");
+
+        ArgumentCaptor<BulkOptions> bulkOptions = ArgumentCaptor.forClass(BulkOptions.class);
+        verify(operations, times(1)).bulkDelete(anyList(), bulkOptions.capture(), any(IndexCoordinates.class));
+        assertThat(bulkOptions.getValue().getRefreshPolicy()).isEqualTo(WriteRequest.RefreshPolicy.IMMEDIATE);
+        verify(operations, never()).delete(anyString(), any(), any(IndexCoordinates.class));
+    }
+
+    @Test
+    public void shouldReturnTheFirstEntityOfFindAllBeforeReadingFurther() {
+        when(operations.searchForStream(any(Query.class), eq(String.class), any(IndexCoordinates.class))).thenReturn(searchHitsIterator);
+        when(searchHitsIterator.hasNext()).thenReturn(true);
+        when(searchHitsIterator.next()).thenReturn(hit("one"), hit("two"), hit("three"));
+
+        Iterator<String> iterator = repository.findAll().iterator();
+
+        assertThat(iterator.hasNext()).isTrue();
+        assertThat(iterator.next()).isEqualTo("one");
+        verify(searchHitsIterator, times(1)).next();
+        verify(searchHitsIterator, never()).close();
+
+        ((CloseableIterator<String>) iterator).close();
+        verify(searchHitsIterator).close();
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void shouldCloseTheScrollWhenReadingFindAllFails() {
+        when(operations.searchForStream(any(Query.class), eq(String.class), any(IndexCoordinates.class))).thenReturn(searchHitsIterator);
+        when(searchHitsIterator.next()).thenThrow(new IllegalStateException("scroll expired"));
+
+        Iterator<String> iterator = repository.findAll(Sort.unsorted()).iterator();
+
+        assertThatThrownBy(iterator::next).isInstanceOf(IllegalStateException.class);
+        verify(searchHitsIterator).close();
+    }
+
+    private static SearchHit<String> hit(String content) {
+        return new SearchHit<>(content, 1.0f, null, content, Collections.emptyMap());
+    }
+}